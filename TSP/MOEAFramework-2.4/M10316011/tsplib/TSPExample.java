@@ -97,7 +97,10 @@ public class TSPExample {
 	/**
 	 * The optimization problem definition.  This is a 1 variable, 1 objective
 	 * optimization problem.  The single variable is a permutation that defines
-	 * the nodes visited by the salesman.
+	 * the nodes visited by the salesman.  The problem is not serializable; to
+	 * evaluate it in worker processes, construct it from the instance file
+	 * using a {@link org.moeaframework.util.distributed.ProblemReference} so
+	 * each worker reads the instance and creates its own heuristic.
 	 */
 	public static class TSPProblem extends AbstractProblem {
 
@@ -123,6 +126,17 @@ public class TSPExample {
 			
 			heuristic = new TSP2OptHeuristic(instance);
 		}
+		
+		/**
+		 * Constructs a new optimization problem for the TSP problem instance
+		 * stored in the given file.
+		 * 
+		 * @param file the file containing the TSPLIB instance
+		 * @throws IOException if an I/O error occurred
+		 */
+		public TSPProblem(File file) throws IOException {
+			this(new TSPInstance(file));
+		}
 
 		@Override
 		public void evaluate(Solution solution) {
@@ -59,6 +59,8 @@ public class AcoTsp {
      * Germany
      ***************************************************************************/
 
+    static Islands islands; /* migrant exchange in island mode, null otherwise */
+
     static boolean termination_condition()
     /*
      * FUNCTION: checks whether termination condition is met
@@ -139,6 +141,10 @@ public class AcoTsp {
 	Ants.best_so_far_ant.tour_length = Integer.MAX_VALUE;
 	InOut.found_best = 0;
 
+	Timer.reset_phase_timers();
+	LocalSearch.n_improvements = 0;
+	InOut.trace_improvements = 0;
+
 	/*
 	 * Initialize the Pheromone trails, only if ACS is used, Ants.pheromones
 	 * have to be initialized differently
@@ -536,8 +542,96 @@ public class AcoTsp {
 	}
     }
 
+    static void receive_migrants()
+    /*
+     * FUNCTION: take the migrants other colonies sent to this colony
+     * INPUT: none
+     * OUTPUT: none
+     * (SIDE)EFFECTS: the best received tour replaces the iteration-worst ant if
+     * it is shorter; received Ants.pheromones are blended into the own trails
+     * COMMENTS: called before update_statistics, so that a better received
+     * tour becomes best-so-far exactly like a tour constructed in this colony
+     */
+    {
+	int from, i, j, worst;
+	double w;
+	Islands.Migrant m, best = null;
+	boolean blended = false;
+
+	for (from = 0; from < islands.n_colonies(); from++) {
+	    if (from == InOut.colony)
+		continue;
+	    m = islands.receive(from, InOut.colony);
+	    if (m == null || m.n_try != InOut.n_try)
+		continue; /* nothing new, or left over from a previous try */
+	    if (best == null || m.tour_length < best.tour_length)
+		best = m;
+	    if (m.pheromone != null) {
+		w = InOut.migration_weight;
+		for (i = 0; i < Tsp.n; i++) {
+		    for (j = 0; j < Tsp.n; j++) {
+			Ants.pheromone[i][j] = (1. - w) * Ants.pheromone[i][j] + w * m.pheromone[i][j];
+		    }
+		}
+		blended = true;
+	    }
+	}
+
+	if (best != null) {
+	    worst = Ants.find_worst();
+	    if (best.tour_length < Ants.ant[worst].tour_length) {
+		System.arraycopy(best.tour, 0, Ants.ant[worst].tour, 0, Tsp.n + 1);
+		Ants.ant[worst].tour_length = best.tour_length;
+	    }
+	}
+	if (blended)
+	    Ants.compute_total_information();
+    }
+
+    static void send_migrants()
+    /*
+     * FUNCTION: every InOut.migration_interval iterations send the best-so-far
+     * tour, and for pheromone exchange a copy of the Ants.pheromone trails,
+     * to the neighbouring colonies
+     * INPUT: none
+     * OUTPUT: none
+     * (SIDE)EFFECTS: none
+     */
+    {
+	int i;
+	double[][] trails = null;
+	Islands.Migrant m;
+
+	if (InOut.iteration % InOut.migration_interval != 0)
+	    return;
+
+	if (islands.exchange() == Islands.Exchange.PHEROMONE) {
+	    trails = new double[Tsp.n][];
+	    for (i = 0; i < Tsp.n; i++)
+		trails[i] = Ants.pheromone[i].clone();
+	}
+	m = new Islands.Migrant(InOut.n_try, Ants.best_so_far_ant.tour.clone(), Ants.best_so_far_ant.tour_length,
+		trails);
+	for (int to : islands.neighbours(InOut.colony, Utilities.ran01(Utilities.seed)))
+	    islands.send(InOut.colony, to, m);
+    }
+
     /* --- main program ------------------------------------------------------ */
 
+    public static void colony_main(String[] args, int colony, Islands islands)
+    /*
+     * FUNCTION: entry point of one colony of an island run
+     * INPUT: program arguments, index of the colony, migrant exchange
+     * OUTPUT: none
+     * COMMENTS: called by Islands.run on this class as loaded by the colony's
+     * own class loader
+     */
+    {
+	InOut.colony = colony;
+	AcoTsp.islands = islands;
+	main(args);
+    }
+
     public static void main(String[] args) {
 	/*
 	 * FUNCTION: main control for running the ACO algorithms
@@ -551,9 +645,13 @@ public class AcoTsp {
 	}
 	Timer.start_timers();
 
-	InOut.init_program(args);
+	InOut.parse_program(args);
+	if (InOut.n_colonies > 1 && InOut.colony < 0) {
+	    Islands.run(args);
+	    return;
+	}
+	InOut.init_program();
 
-	Tsp.instance.nn_list = Tsp.compute_nn_lists();
 	Ants.pheromone = Utilities.generate_double_matrix(Tsp.n, Tsp.n);
 	Ants.total = Utilities.generate_double_matrix(Tsp.n, Tsp.n);
 
@@ -566,17 +664,32 @@ public class AcoTsp {
 
 	    while (!termination_condition()) {
 
+		Timer.start_phase();
 		construct_solutions();
+		Timer.stop_phase(Timer.CONSTRUCTION);
 
-		if (LocalSearch.ls_flag > 0)
+		if (LocalSearch.ls_flag > 0) {
+		    Timer.start_phase();
 		    local_search();
+		    Timer.stop_phase(Timer.LOCAL_SEARCH);
+		}
+
+		if (islands != null)
+		    receive_migrants();
 
 		update_statistics();
 
+		Timer.start_phase();
 		pheromone_trail_update();
+		Timer.stop_phase(Timer.PHEROMONE_UPDATE);
 
 		search_control_and_statistics();
 
+		InOut.write_trace();
+
+		if (islands != null)
+		    send_migrants();
+
 		InOut.iteration++;
 	    }
 	    InOut.exit_try(InOut.n_try);
@@ -586,6 +699,10 @@ public class AcoTsp {
 	// Added by AW
 	int aw_best_tour_length = Utilities.best_of_vector(InOut.best_in_try, InOut.max_tries);
 	String aw_best_tour = InOut.aw_best_tour_in_try[Utilities.aw_best_tour_index()];
+	if (islands != null) {
+	    islands.finish(InOut.colony, Tsp.instance.name, aw_best_tour_length, aw_best_tour);
+	    return;
+	}
 	try {
 	    Writer w = new OutputStreamWriter(new FileOutputStream("tour." + Tsp.instance.name), "UTF8");
 	    BufferedWriter out = new BufferedWriter(w);
@@ -56,6 +56,9 @@ public class Ants {
     static class ant_struct {
 	int[] tour;
 	boolean[] visited;
+	int[] unvisited; /* cities not yet visited, in no particular order */
+	int[] unvisited_pos; /* position of each unvisited city in unvisited */
+	int n_unvisited;
 	int tour_length;
     }
 
@@ -71,6 +74,13 @@ public class Ants {
 
     static double prob_of_selection[];
 
+    static boolean table_selection; /*
+				     * select by bisection in a cumulative
+				     * table and scan only unvisited cities
+				     * when the candidate list is exhausted;
+				     * false: linear roulette and full scans
+				     */
+
     static int n_ants; /* number of ants */
     static int nn_ants; /*
 			 * length of nearest neighbor lists for the ants'
@@ -129,6 +139,8 @@ public class Ants {
 	    ant[i] = new ant_struct();
 	    ant[i].tour = new int[Tsp.n + 1];
 	    ant[i].visited = new boolean[Tsp.n];
+	    ant[i].unvisited = new int[Tsp.n];
+	    ant[i].unvisited_pos = new int[Tsp.n];
 	}
 	best_so_far_ant = new ant_struct();
 
@@ -366,7 +378,27 @@ public class Ants {
 
 	for (i = 0; i < Tsp.n; i++) {
 	    a.visited[i] = false;
+	    a.unvisited[i] = i;
+	    a.unvisited_pos[i] = i;
 	}
+	a.n_unvisited = Tsp.n;
+    }
+
+    static void mark_visited(ant_struct a, int city)
+    /*
+     * FUNCTION: mark a city as visited by an ant
+     * INPUT: pointer to ant and the city
+     * OUTPUT: none
+     * (SIDE)EFFECTS: city is removed from the unvisited cities of the ant
+     */
+    {
+	int last, pos;
+
+	a.visited[city] = true;
+	pos = a.unvisited_pos[city];
+	last = a.unvisited[--a.n_unvisited];
+	a.unvisited[pos] = last;
+	a.unvisited_pos[last] = pos;
     }
 
     static void place_ant(ant_struct a, int step)
@@ -382,7 +414,7 @@ public class Ants {
 	rnd = (int) (Utilities.ran01(Utilities.seed) * (double) Tsp.n); /* random number between 0 .. n-1 */
 
 	a.tour[step] = rnd;
-	a.visited[rnd] = true;
+	mark_visited(a, rnd);
     }
 
     static void choose_best_next(ant_struct a, int phase)
@@ -394,20 +426,32 @@ public class Ants {
      * (SIDE)EFFECT: ant moves to the chosen city
      */
     {
-	int city, current_city, next_city;
-	double value_best;
+	int i, city, current_city, next_city;
+	double value_best, help;
 
 	next_city = Tsp.n;
 	assert (phase > 0 && phase < Tsp.n);
 	current_city = a.tour[phase - 1];
 	value_best = -1.; /* values in total matrix are always >= 0.0 */
-	for (city = 0; city < Tsp.n; city++) {
-	    if (a.visited[city])
-		; /* city already visited, do nothing */
-	    else {
-		if (total[current_city][city] > value_best) {
+	if (table_selection) {
+	    /* same choice as the full scan: ties go to the smallest city index */
+	    for (i = 0; i < a.n_unvisited; i++) {
+		city = a.unvisited[i];
+		help = total[current_city][city];
+		if (help > value_best || (help == value_best && city < next_city)) {
 		    next_city = city;
-		    value_best = total[current_city][city];
+		    value_best = help;
+		}
+	    }
+	} else {
+	    for (city = 0; city < Tsp.n; city++) {
+		if (a.visited[city])
+		    ; /* city already visited, do nothing */
+		else {
+		    if (total[current_city][city] > value_best) {
+			next_city = city;
+			value_best = total[current_city][city];
+		    }
 		}
 	    }
 	}
@@ -415,7 +459,7 @@ public class Ants {
 	assert (value_best > 0.0);
 	assert (a.visited[next_city] == false);
 	a.tour[phase] = next_city;
-	a.visited[next_city] = true;
+	mark_visited(a, next_city);
     }
 
     static void neighbour_choose_best_next(ant_struct a, int phase)
@@ -455,7 +499,7 @@ public class Ants {
 	    assert (value_best > 0.0);
 	    assert (a.visited[next_city] == false);
 	    a.tour[phase] = next_city;
-	    a.visited[next_city] = true;
+	    mark_visited(a, next_city);
 	}
     }
 
@@ -467,25 +511,98 @@ public class Ants {
      * (SIDE)EFFECT: ant moves to the chosen city
      */
     {
-	int city, current_city, next_city, min_distance;
+	int i, city, current_city, next_city, min_distance;
 
 	next_city = Tsp.n;
 	assert (phase > 0 && phase < Tsp.n);
 	current_city = a.tour[phase - 1];
 	min_distance = Integer.MAX_VALUE; /* Search shortest edge */
-	for (city = 0; city < Tsp.n; city++) {
-	    if (a.visited[city])
-		; /* city already visited */
-	    else {
-		if (Tsp.instance.distance[current_city][city] < min_distance) {
-		    next_city = city;
-		    min_distance = Tsp.instance.distance[current_city][city];
+	if (table_selection) {
+	    next_city = closest_unvisited_neighbour(a, current_city);
+	    if (next_city == Tsp.n) {
+		for (i = 0; i < a.n_unvisited; i++) {
+		    city = a.unvisited[i];
+		    if (Tsp.instance.distance[current_city][city] < min_distance
+			    || (Tsp.instance.distance[current_city][city] == min_distance && city < next_city)) {
+			next_city = city;
+			min_distance = Tsp.instance.distance[current_city][city];
+		    }
+		}
+	    }
+	} else {
+	    for (city = 0; city < Tsp.n; city++) {
+		if (a.visited[city])
+		    ; /* city already visited */
+		else {
+		    if (Tsp.instance.distance[current_city][city] < min_distance) {
+			next_city = city;
+			min_distance = Tsp.instance.distance[current_city][city];
+		    }
 		}
 	    }
 	}
 	assert (0 <= next_city && next_city < Tsp.n);
 	a.tour[phase] = next_city;
-	a.visited[next_city] = true;
+	mark_visited(a, next_city);
+    }
+
+    static int closest_unvisited_neighbour(ant_struct a, int current_city)
+    /*
+     * FUNCTION: find the closest unvisited city using the nearest neighbor
+     * list of the current city
+     * INPUT: pointer to ant and the current city
+     * OUTPUT: closest unvisited city, the smallest index among equally close
+     * ones, or Tsp.n if the list cannot prove that no other city is as close
+     * COMMENTS: the list is sorted by distance, so a city closer than the
+     * last list entry has all cities of the same distance in the list
+     */
+    {
+	int i, city, next_city, d, d_last;
+	int[] nn = Tsp.instance.nn_list[current_city];
+	int[] dist = Tsp.instance.distance[current_city];
+
+	d_last = dist[nn[Tsp.instance.n_near - 1]];
+	for (i = 0; i < Tsp.instance.n_near; i++) {
+	    if (!a.visited[nn[i]])
+		break;
+	}
+	if (i == Tsp.instance.n_near || (d = dist[nn[i]]) >= d_last)
+	    return Tsp.n;
+
+	next_city = nn[i];
+	for (i++; i < Tsp.instance.n_near && dist[city = nn[i]] == d; i++) {
+	    if (!a.visited[city] && city < next_city)
+		next_city = city;
+	}
+	return next_city;
+    }
+
+    static int select_from_table(double[] prob, int n, double rnd)
+    /*
+     * FUNCTION: roulette wheel selection by bisection
+     * INPUT: selection weights prob[0..n-1], prob[n] == HUGE_VAL, and a
+     * random number in [0, sum of weights)
+     * OUTPUT: smallest i with prob[0] + .. + prob[i] > rnd
+     * (SIDE)EFFECTS: prob[0..n-1] is overwritten with the prefix sums
+     * COMMENTS: the prefix sums are accumulated in the same order as the
+     * linear roulette, so both select the same index for the same rnd
+     */
+    {
+	int i, lo, hi, mid;
+
+	for (i = 1; i < n; i++)
+	    prob[i] += prob[i - 1];
+
+	lo = 0;
+	hi = n; /* prob[n] is infinite, so the answer is at most n */
+	while (lo < hi) {
+	    mid = (lo + hi) >>> 1;
+	    if (prob[mid] <= rnd)
+		lo = mid + 1;
+	    else
+		hi = mid;
+	}
+	return lo;
     }
 
     static void neighbour_choose_and_move_to_next(ant_struct a, int phase)
@@ -545,12 +662,16 @@ public class Ants {
 	     */
 	    rnd = Utilities.ran01(Utilities.seed);
 	    rnd *= sum_prob;
-	    i = 0;
-	    partial_sum = prob_ptr[i];
-	    /* This loop always stops because prob_ptr[nn_ants] == HUGE_VAL */
-	    while (partial_sum <= rnd) {
-		i++;
-		partial_sum += prob_ptr[i];
+	    if (table_selection) {
+		i = select_from_table(prob_ptr, nn_ants, rnd);
+	    } else {
+		i = 0;
+		partial_sum = prob_ptr[i];
+		/* This loop always stops because prob_ptr[nn_ants] == HUGE_VAL */
+		while (partial_sum <= rnd) {
+		    i++;
+		    partial_sum += prob_ptr[i];
+		}
 	    }
 	    /*
 	     * This may very rarely happen because of rounding if rnd is
@@ -566,7 +687,7 @@ public class Ants {
 	    assert (help >= 0 && help < Tsp.n);
 	    assert (a.visited[help] == false);
 	    a.tour[phase] = help; /* Tsp.instance.nn_list[current_city][i]; */
-	    a.visited[help] = true;
+	    mark_visited(a, help);
 	}
     }
 
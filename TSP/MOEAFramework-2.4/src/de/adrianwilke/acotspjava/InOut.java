@@ -1,14 +1,10 @@
 package de.adrianwilke.acotspjava;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.Reader;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -69,12 +65,6 @@ public class InOut {
      * Germany
      ***************************************************************************/
 
-    enum Distance_type {
-	EUC_2D, CEIL_2D, GEO, ATT
-    };
-
-    static Distance_type distance_type;
-
     public static final String PROG_ID_STR = "ACO algorithms for the TSP";
 
     static int[] best_in_try;
@@ -107,107 +97,26 @@ public class InOut {
     static int found_best; /* iteration in which best solution is found */
     static int restart_found_best;/* iteration in which restart-best solution is found */
 
+    static int n_colonies; /* number of colonies run concurrently in island mode */
+    static int colony = -1; /* index of this colony in island mode, -1 otherwise */
+    static int migration_interval; /* iterations between two migrations */
+    static Islands.Topology topology; /* colonies exchanging migrants */
+    static Islands.Exchange exchange; /* what is exchanged between colonies */
+    static double migration_weight; /* weight of received pheromones when blending */
+
     /* ------------------------------------------------------------------------ */
 
     static File report, comp_report, stat_report;
+    static File trace_report; /* per-iteration phase times and counters, null if not requested */
+    static String trace_name; /* file name given with --trace */
+    static boolean trace_json; /* write the trace as JSON lines instead of CSV */
+    static long trace_improvements; /* LocalSearch.n_improvements at the previous trace line */
     private static Map<String, BufferedWriter> writer = new HashMap<String, BufferedWriter>();
 
     static String name_buf;
     static int opt;
     static boolean quiet_flag; /* --quiet was given in the command-line. */
 
-    static Tsp.point[] read_etsp(String tsp_file_name) throws IOException
-    /*
-     * FUNCTION: parse and read Tsp.instance file
-     * INPUT: Tsp.instance name
-     * OUTPUT: list of coordinates for all nodes
-     * COMMENTS: Instance files have to be in TSPLIB format, otherwise procedure fails
-     */
-    {
-	String buf;
-	int i;
-	Tsp.point[] nodeptr = null;
-
-	if (tsp_file_name == null) {
-	    System.err.println("No instance file specified, abort");
-	    System.exit(1);
-	}
-
-	if (!new File(tsp_file_name).canRead()) {
-	    System.err.println("Can not read file " + tsp_file_name);
-	    System.exit(1);
-	}
-
-	System.out.println("\nreading tsp-file " + tsp_file_name + " ... ");
-
-	i = 0;
-	boolean found_coord_section = false;
-	Reader reader = new InputStreamReader(new FileInputStream(tsp_file_name), "UTF8");
-	BufferedReader bufferedReader = new BufferedReader(reader);
-	String line = bufferedReader.readLine();
-	while (line != null) {
-
-	    if (line.startsWith("EOF")) {
-		break;
-	    }
-
-	    if (!found_coord_section) {
-		if (line.startsWith("NAME")) {
-		    Tsp.instance.name = line.split(":")[1].trim();
-		} else if (line.startsWith("COMMENT")) {
-		} else if (line.startsWith("TYPE") && !line.contains("TSP")) {
-		    System.err.println("Not a TSP Tsp.instance in TSPLIB format !!");
-		    System.exit(1);
-		} else if (line.startsWith("DIMENSION")) {
-		    Tsp.n = Integer.parseInt(line.split(":")[1].trim());
-		    Tsp.instance.n = Tsp.n;
-		    nodeptr = new Tsp.point[Tsp.n];
-		    assert (Tsp.n > 2 && Tsp.n < 6000);
-		} else if (line.startsWith("DISPLAY_DATA_TYPE")) {
-		} else if (line.startsWith("EDGE_WEIGHT_TYPE")) {
-		    buf = line.split(":")[1].trim();
-		    if (buf.equals("EUC_2D")) {
-			distance_type = Distance_type.EUC_2D;
-		    } else if (buf.equals("CEIL_2D")) {
-			distance_type = Distance_type.CEIL_2D;
-		    } else if (buf.equals("GEO")) {
-			distance_type = Distance_type.GEO;
-		    } else if (buf.equals("ATT")) {
-			distance_type = Distance_type.ATT;
-		    } else {
-			System.err.println("EDGE_WEIGHT_TYPE " + buf + " not implemented");
-			System.exit(1);
-		    }
-		}
-	    } else {
-		String[] city_info = line.split(" ");
-		nodeptr[i] = new Tsp.point();
-		nodeptr[i].x = Double.parseDouble(city_info[1]);
-		nodeptr[i].y = Double.parseDouble(city_info[2]);
-		i++;
-	    }
-
-	    if (line.startsWith("NODE_COORD_SECTION")) {
-		found_coord_section = true;
-	    }
-
-	    line = bufferedReader.readLine();
-	}
-
-	if (!found_coord_section) {
-	    System.err.println("Some error ocurred finding start of coordinates from tsp file !!");
-	    System.exit(1);
-	}
-
-	bufferedReader.close();
-
-	// TRACE ( System.out.println("number of cities is %ld\n",Tsp.n); )
-	// TRACE ( System.out.println("\n... done\n"); )
-	System.out.println();
-
-	return (nodeptr);
-    }
-
     static void write_report()
     /*
      * FUNCTION: output some info about trial (best-so-far solution quality, time)
@@ -246,6 +155,12 @@ public class InOut {
 	printToFile(file, "mmAnts.as_flag\t\t " + Ants.mmas_flag);
 	printToFile(file, "Ants.bwAnts.as_flag\t " + Ants.bwas_flag);
 	printToFile(file, "Ants.acs_flag\t\t " + Ants.acs_flag);
+	printToFile(file, "Ants.table_selection\t " + Ants.table_selection);
+	printToFile(file, "n_colonies\t\t " + n_colonies);
+	printToFile(file, "migration_interval\t " + migration_interval);
+	printToFile(file, "topology\t\t " + topology);
+	printToFile(file, "exchange\t\t " + exchange);
+	printToFile(file, "migration_weight\t " + migration_weight);
     }
 
     static void print_default_parameters()
@@ -389,6 +304,12 @@ public class InOut {
 	Ants.acs_flag = false;
 	Ants.ras_ranks = 0;
 	Ants.elitist_ants = 0;
+	Ants.table_selection = true;
+	n_colonies = 1;
+	migration_interval = 50;
+	topology = Islands.Topology.RING;
+	exchange = Islands.Exchange.TOUR;
+	migration_weight = 0.1;
     }
 
     static void population_statistics()
@@ -489,6 +410,74 @@ public class InOut {
 	}
     }
 
+    static void write_trace()
+    /*
+     * FUNCTION: write the phase times and counters of the current iteration
+     * to the trace file, if one was requested
+     * INPUT: none
+     * OUTPUT: none
+     * COMMENTS: the branching factor is not recomputed, the value last computed
+     * by the search control (every 100 iterations and whenever a new best
+     * tour is found) is written instead, so tracing adds no pass over the
+     * pheromone matrix
+     */
+    {
+	int iteration_best;
+	long improvements;
+	double time, tours_per_second;
+
+	if (trace_report == null)
+	    return;
+
+	iteration_best = Ants.ant[Ants.find_best()].tour_length;
+	improvements = LocalSearch.n_improvements - trace_improvements;
+	trace_improvements = LocalSearch.n_improvements;
+	time = Timer.elapsed_time();
+	tours_per_second = time > 0. ? n_tours / time : 0.;
+
+	if (trace_json) {
+	    printToFile(trace_report, "{\"try\":" + n_try + ",\"iteration\":" + iteration + ",\"tours\":" + n_tours
+		    + ",\"time\":" + time + ",\"construction_ns\":" + Timer.phase_iteration[Timer.CONSTRUCTION]
+		    + ",\"local_search_ns\":" + Timer.phase_iteration[Timer.LOCAL_SEARCH]
+		    + ",\"pheromone_update_ns\":" + Timer.phase_iteration[Timer.PHEROMONE_UPDATE]
+		    + ",\"iteration_best\":" + iteration_best + ",\"best_so_far\":"
+		    + Ants.best_so_far_ant.tour_length + ",\"ls_improvements\":" + improvements
+		    + ",\"branching_factor\":" + branching_factor + ",\"tours_per_second\":" + tours_per_second + "}");
+	} else {
+	    printToFile(trace_report, n_try + "," + iteration + "," + n_tours + "," + time + ","
+		    + Timer.phase_iteration[Timer.CONSTRUCTION] + "," + Timer.phase_iteration[Timer.LOCAL_SEARCH] + ","
+		    + Timer.phase_iteration[Timer.PHEROMONE_UPDATE] + "," + iteration_best + ","
+		    + Ants.best_so_far_ant.tour_length + "," + improvements + "," + branching_factor + ","
+		    + tours_per_second);
+	}
+    }
+
+    static String phase_summary()
+    /*
+     * FUNCTION: summarize where the time of the current try was spent
+     * INPUT: none
+     * OUTPUT: one line with the time and share of each phase, the tour
+     * throughput and the number of local search improvements
+     */
+    {
+	int i;
+	long sum = 0;
+	double time = Timer.elapsed_time();
+	StringBuilder sb = new StringBuilder();
+
+	for (i = 0; i < Timer.phase_total.length; i++)
+	    sum += Timer.phase_total[i];
+
+	sb.append("Phases:");
+	for (i = 0; i < Timer.phase_total.length; i++) {
+	    sb.append(" ").append(Timer.PHASE_NAMES[i]).append(" ").append(Timer.phase_total[i] / 1e9).append(" s (")
+		    .append(sum > 0 ? Math.round(1000. * Timer.phase_total[i] / sum) / 10. : 0.).append("%)");
+	}
+	sb.append("\t tours/s ").append(time > 0. ? n_tours / time : 0.);
+	sb.append("\t LS improvements ").append(LocalSearch.n_improvements);
+	return sb.toString();
+    }
+
     static void exit_try(int ntry)
     /*
      * FUNCTION: save some statistical information on a trial once it finishes
@@ -506,6 +495,9 @@ public class InOut {
 	    printToFile(report, "Best: " + Ants.best_so_far_ant.tour_length + "\t Iterations: " + found_best
 		    + "\t B-Fac " + found_branching + "\t Time " + time_used + "\t Tot.time " + Timer.elapsed_time());
 	System.out.println(" Best Solution was found after " + found_best + " iterations\n");
+	System.out.println(" " + phase_summary() + "\n");
+	if (report != null)
+	    printToFile(report, phase_summary());
 
 	best_in_try[ntry] = Ants.best_so_far_ant.tour_length;
 	best_found_at[ntry] = found_best;
@@ -579,22 +571,36 @@ public class InOut {
 	}
     }
 
-    static void init_program(String[] args)
+    static void parse_program(String[] args)
     /*
-     * FUNCTION: initialize the program,
+     * FUNCTION: set the parameters of the program
      * INPUT: program arguments, needed for parsing commandline
      * OUTPUT: none
      * COMMENTS:
      */
     {
-	Tsp.instance = new problem();
-
-	String temp_buffer;
-
 	System.out.println(InOut.PROG_ID_STR);
 	set_default_parameters();
 	Parse.parse_commandline(args);
 
+	if (colony >= 0) {
+	    /* colonies of an island run must not follow the same random walk */
+	    Utilities.seed += colony;
+	}
+    }
+
+    static void init_program()
+    /*
+     * FUNCTION: initialize the program, after the parameters are set
+     * INPUT: none
+     * OUTPUT: none
+     * COMMENTS:
+     */
+    {
+	Tsp.instance = new problem();
+
+	String temp_buffer;
+
 	assert (max_tries <= Utilities.MAXIMUM_NO_TRIES);
 
 	best_in_try = new int[max_tries];
@@ -607,7 +613,7 @@ public class InOut {
 	// TRACE ( System.out.println("read problem data  ..\n\n"); )
 
 	try {
-	    Tsp.instance.nodeptr = read_etsp(name_buf);
+	    TsplibAdapter.read_instance(name_buf);
 	} catch (IOException e) {
 	    System.err.println("Could not read input file. " + e.getMessage());
 	    System.exit(1);
@@ -626,6 +632,7 @@ public class InOut {
 	    Ants.elitist_ants = Tsp.n;
 
 	LocalSearch.nn_ls = Math.min(Tsp.n - 1, LocalSearch.nn_ls);
+	Ants.nn_ants = Math.min(Tsp.n - 1, Ants.nn_ants);
 
 	assert (Ants.n_ants < Ants.MAX_ANTS - 1);
 	assert (Ants.nn_ants < Ants.MAX_NEIGHBOURS);
@@ -635,19 +642,19 @@ public class InOut {
 	if (!quiet_flag) {
 	    Writer w;
 	    try {
-		temp_buffer = "best." + Tsp.instance.name;
+		temp_buffer = "best." + Tsp.instance.name + report_suffix();
 		// // TRACE ( System.out.println("%s\n",temp_buffer); )
 		report = new File(temp_buffer);
 		w = new OutputStreamWriter(new FileOutputStream(temp_buffer), "UTF8");
 		writer.put(report.getName(), new BufferedWriter(w));
 
-		temp_buffer = "cmp." + Tsp.instance.name;
+		temp_buffer = "cmp." + Tsp.instance.name + report_suffix();
 		// // TRACE ( System.out.println("%s\n",temp_buffer); )
 		comp_report = new File(temp_buffer);
 		w = new OutputStreamWriter(new FileOutputStream(temp_buffer), "UTF8");
 		writer.put(comp_report.getName(), new BufferedWriter(w));
 
-		temp_buffer = "stat." + Tsp.instance.name;
+		temp_buffer = "stat." + Tsp.instance.name + report_suffix();
 		// // TRACE ( System.out.println("%s\n",temp_buffer); )
 		stat_report = new File(temp_buffer);
 		w = new OutputStreamWriter(new FileOutputStream(temp_buffer), "UTF8");
@@ -662,8 +669,27 @@ public class InOut {
 	    stat_report = null;
 	}
 
-	System.out.println("calculating distance matrix ..");
-	Tsp.instance.distance = Tsp.compute_distances();
+	trace_report = null;
+	if (trace_name != null) {
+	    try {
+		temp_buffer = trace_name + report_suffix();
+		trace_report = new File(temp_buffer);
+		trace_json = trace_name.endsWith(".json");
+		writer.put(trace_report.getName(), new BufferedWriter(new OutputStreamWriter(new FileOutputStream(
+			temp_buffer), "UTF8")));
+		if (!trace_json) {
+		    printToFile(trace_report, "try,iteration,tours,time,construction_ns,local_search_ns,"
+			    + "pheromone_update_ns,iteration_best,best_so_far,ls_improvements,branching_factor,"
+			    + "tours_per_second");
+		}
+	    } catch (IOException e) {
+		System.err.println("Could not write file. " + e.getMessage());
+		System.exit(1);
+	    }
+	}
+
+	System.out.println("calculating distance matrix and nearest neighbor lists ..");
+	TsplibAdapter.compute_distances_and_nn_lists();
 	System.out.println(" .. done\n");
 	write_params();
 
@@ -859,6 +885,17 @@ public class InOut {
 	}
     }
 
+    static String report_suffix()
+    /*
+     * FUNCTION: suffix of the report files, distinguishes the colonies of an
+     * island run
+     * INPUT: none
+     * OUTPUT: suffix to append to the report file names
+     */
+    {
+	return colony >= 0 ? ".c" + colony : "";
+    }
+
     static void write_params()
     /*
      * FUNCTION: writes chosen parameter settings in standard output and in
@@ -0,0 +1,283 @@
+package de.adrianwilke.acotspjava;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ACO algorithms for the TSP
+ *
+ * This code is based on the ACOTSP project of Thomas Stuetzle.
+ * It was initially ported from C to Java by Adrian Wilke.
+ *
+ * Project website: http://adibaba.github.io/ACOTSPJava/
+ * Source code: https://github.com/adibaba/ACOTSPJava/
+ */
+public class Islands {
+    /*
+     * Purpose: island model; several colonies run concurrently, one per
+     * thread, and periodically exchange their best-so-far tour or their
+     * pheromone matrix with the neighbouring colonies of a topology.
+     *
+     * The ACO engine keeps all of its state in static fields. Each colony
+     * therefore loads its own copy of the engine classes through a
+     * ColonyLoader, so the colonies do not share any state except for this
+     * class. Because the engine classes and this class live in different
+     * class loaders, everything accessed by the engine is public.
+     *
+     * Migrants are exchanged through one slot per (sender, receiver) pair.
+     * Sending overwrites the slot and receiving empties it, so neither side
+     * ever waits for the other and no global synchronization is needed.
+     */
+
+    public enum Topology {
+	RING, FULL, RANDOM
+    };
+
+    public enum Exchange {
+	TOUR, PHEROMONE
+    };
+
+    public static class Migrant {
+	public final int n_try; /* try in which the migrant was produced */
+	public final int[] tour; /* best-so-far tour of the sender */
+	public final int tour_length;
+	public final double[][] pheromone; /* copy of the sender's trails, null for tour exchange */
+
+	public Migrant(int n_try, int[] tour, int tour_length, double[][] pheromone) {
+	    this.n_try = n_try;
+	    this.tour = tour;
+	    this.tour_length = tour_length;
+	    this.pheromone = pheromone;
+	}
+    }
+
+    private final int n_colonies;
+    private final Topology topology;
+    private final Exchange exchange;
+
+    private final AtomicReferenceArray<Migrant> slots; /* slot of (from, to) at index from * n_colonies + to */
+
+    private final int[] best_length; /* best tour length found by each colony */
+    private final String[] best_tour; /* best tour found by each colony */
+    private String name; /* instance name as read by the colonies */
+
+    public Islands(int n_colonies, Topology topology, Exchange exchange) {
+	this.n_colonies = n_colonies;
+	this.topology = topology;
+	this.exchange = exchange;
+	slots = new AtomicReferenceArray<Migrant>(n_colonies * n_colonies);
+	best_length = new int[n_colonies];
+	best_tour = new String[n_colonies];
+    }
+
+    public int n_colonies() {
+	return n_colonies;
+    }
+
+    public Exchange exchange() {
+	return exchange;
+    }
+
+    public int[] neighbours(int colony, double rnd)
+    /*
+     * FUNCTION: determine the colonies a colony sends its migrants to
+     * INPUT: sending colony, random number in [0,1) used by the random topology
+     * OUTPUT: indices of the receiving colonies
+     */
+    {
+	int i, k;
+	int[] to;
+
+	switch (topology) {
+	case RING:
+	    to = new int[] { (colony + 1) % n_colonies };
+	    break;
+	case RANDOM:
+	    k = (int) (rnd * (n_colonies - 1));
+	    to = new int[] { k < colony ? k : k + 1 };
+	    break;
+	default:
+	    to = new int[n_colonies - 1];
+	    k = 0;
+	    for (i = 0; i < n_colonies; i++) {
+		if (i != colony)
+		    to[k++] = i;
+	    }
+	}
+	return to;
+    }
+
+    public void send(int from, int to, Migrant migrant)
+    /*
+     * FUNCTION: deliver a migrant to a colony, replacing a not yet received
+     * migrant of the same sender
+     * INPUT: sending and receiving colony, the migrant
+     * OUTPUT: none
+     */
+    {
+	slots.set(from * n_colonies + to, migrant);
+    }
+
+    public Migrant receive(int from, int to)
+    /*
+     * FUNCTION: take the pending migrant a colony got from a sender
+     * INPUT: sending and receiving colony
+     * OUTPUT: the migrant or null if there is none
+     */
+    {
+	return slots.getAndSet(from * n_colonies + to, null);
+    }
+
+    public void finish(int colony, String instance_name, int tour_length, String tour)
+    /*
+     * FUNCTION: record the best tour of a colony once all its tries finished
+     * INPUT: colony, instance name, its best tour length and tour
+     * OUTPUT: none
+     */
+    {
+	synchronized (best_tour) {
+	    name = instance_name;
+	    best_length[colony] = tour_length;
+	    best_tour[colony] = tour;
+	}
+    }
+
+    static void run(String[] args)
+    /*
+     * FUNCTION: run InOut.n_colonies colonies concurrently on the same
+     * command line and write the overall best tour
+     * INPUT: program arguments
+     * OUTPUT: none
+     * (SIDE)EFFECTS: file tour.<instance name> is written
+     */
+    {
+	int k, best;
+	final Islands islands = new Islands(InOut.n_colonies, InOut.topology, InOut.exchange);
+	final String[] colony_args = args;
+	Thread[] threads = new Thread[islands.n_colonies];
+	final AtomicReference<Throwable> failure = new AtomicReference<Throwable>(); /* first failure of a colony */
+
+	System.out.println("run " + islands.n_colonies + " colonies, topology " + islands.topology + ", exchange "
+		+ islands.exchange + " every " + InOut.migration_interval + " iterations");
+
+	for (k = 0; k < islands.n_colonies; k++) {
+	    final int colony = k;
+	    threads[k] = new Thread("colony-" + k) {
+		@Override
+		public void run() {
+		    try {
+			Class<?> aco = new ColonyLoader(Islands.class.getClassLoader()).loadClass(AcoTsp.class
+				.getName());
+			Method colony_main = aco.getMethod("colony_main", String[].class, int.class, Islands.class);
+			colony_main.invoke(null, colony_args, colony, islands);
+		    } catch (InvocationTargetException e) {
+			failure.compareAndSet(null, e.getCause());
+		    } catch (Exception e) {
+			failure.compareAndSet(null, e);
+		    }
+		}
+	    };
+	    threads[k].start();
+	}
+
+	for (k = 0; k < islands.n_colonies; k++) {
+	    try {
+		threads[k].join();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		System.err.println("Interrupted while waiting for colony " + k);
+		System.exit(1);
+	    }
+	}
+
+	if (failure.get() != null) {
+	    System.err.println("Colony failed: " + failure.get());
+	    System.exit(1);
+	}
+
+	best = 0;
+	for (k = 1; k < islands.n_colonies; k++) {
+	    if (islands.best_length[k] < islands.best_length[best])
+		best = k;
+	}
+
+	try {
+	    Writer w = new OutputStreamWriter(new FileOutputStream("tour." + islands.name), "UTF8");
+	    BufferedWriter out = new BufferedWriter(w);
+	    out.write(islands.best_length[best] + "\n");
+	    out.write(islands.best_tour[best]);
+	    out.close();
+	} catch (IOException e) {
+	    System.err.print("Could not write file tour." + islands.name + " " + e.getMessage());
+	    System.exit(1);
+	}
+	System.out.println();
+	System.out.println("Best tour (colony " + best + "):");
+	System.out.println(islands.best_length[best]);
+	System.out.println(islands.best_tour[best]);
+    }
+
+    static class ColonyLoader extends ClassLoader {
+	/*
+	 * Defines a private copy of every engine class; all other classes,
+	 * including Islands itself, are shared with the parent loader.
+	 */
+
+	private static final String PACKAGE = AcoTsp.class.getPackage().getName() + ".";
+
+	ColonyLoader(ClassLoader parent) {
+	    super(parent);
+	}
+
+	private static boolean isolated(String name) {
+	    return name.startsWith(PACKAGE) && name.indexOf('.', PACKAGE.length()) < 0
+		    && !name.startsWith(Islands.class.getName());
+	}
+
+	@Override
+	protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+	    if (!isolated(name))
+		return super.loadClass(name, resolve);
+
+	    Class<?> c = findLoadedClass(name);
+	    if (c == null) {
+		byte[] b = read(name);
+		c = defineClass(name, b, 0, b.length);
+	    }
+	    if (resolve)
+		resolveClass(c);
+	    return c;
+	}
+
+	private byte[] read(String name) throws ClassNotFoundException {
+	    InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+	    if (in == null)
+		throw new ClassNotFoundException(name);
+	    try {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int len;
+		while ((len = in.read(buffer)) > 0)
+		    out.write(buffer, 0, len);
+		return out.toByteArray();
+	    } catch (IOException e) {
+		throw new ClassNotFoundException(name, e);
+	    } finally {
+		try {
+		    in.close();
+		} catch (IOException e) {
+		    /* ignore */
+		}
+	    }
+	}
+    }
+}
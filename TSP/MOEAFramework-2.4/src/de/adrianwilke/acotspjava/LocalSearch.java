@@ -1,5 +1,6 @@
 package de.adrianwilke.acotspjava;
 
+import java.util.Arrays;
 
 /**
  * ACO algorithms for the TSP
@@ -64,6 +65,55 @@ public class LocalSearch {
 				     * flag indicating whether don't look bits are used. I recommend
 				     * to always use it if local search is applied
 				     */
+    static long n_improvements; /* number of improving moves applied, for statistics */
+
+    /*
+     * Workspace of the local search procedures. It is allocated once for the
+     * instance size instead of on every call, as the local search is applied
+     * to every ant in every iteration. Don't look bits are not cleared one by
+     * one: a bit is set iff its entry equals the current stamp, so drawing a
+     * new stamp clears all of them at once.
+     */
+    static int[] ws_pos; /* positions of cities in tour */
+    static int[] ws_dlb; /* don't look bits */
+    static int ws_dlb_stamp; /* value of a set don't look bit */
+    static int[] ws_random_vector; /* order in which the cities are scanned */
+    static int[] ws_h_tour; /* help vectors for performing 3-opt exchange moves */
+    static int[] ws_hh_tour;
+    static int[] ws_val = new int[3];
+
+    static void allocate_workspace()
+    /*
+     * FUNCTION: make sure the workspace fits the instance size
+     * INPUT: none
+     * OUTPUT: none
+     * (SIDE)EFFECTS: the workspace is (re)allocated if Tsp.n changed
+     */
+    {
+	if (ws_pos != null && ws_pos.length == Tsp.n)
+	    return;
+	ws_pos = new int[Tsp.n];
+	ws_dlb = new int[Tsp.n];
+	ws_dlb_stamp = 0;
+	ws_random_vector = new int[Tsp.n];
+	ws_h_tour = new int[Tsp.n];
+	ws_hh_tour = new int[Tsp.n];
+    }
+
+    static int reset_dont_look_bits()
+    /*
+     * FUNCTION: clear all don't look bits of the workspace
+     * INPUT: none
+     * OUTPUT: value marking a set don't look bit from now on
+     * (SIDE)EFFECTS: the bits are only zeroed when the stamp wraps around
+     */
+    {
+	if (ws_dlb_stamp == Integer.MAX_VALUE) {
+	    Arrays.fill(ws_dlb, 0);
+	    ws_dlb_stamp = 0;
+	}
+	return ++ws_dlb_stamp;
+    }
 
     static int[] generate_random_permutation(int n)
     /*
@@ -74,12 +124,20 @@ public class LocalSearch {
      * function. Don't forget to free again the memory!
      * COMMENTS: only needed by the local search procedures
      */
+    {
+	return fill_random_permutation(new int[n], n);
+    }
+
+    static int[] fill_random_permutation(int[] r, int n)
+    /*
+     * FUNCTION: generate a random permutation of the integers 0 .. n-1
+     * INPUT: array of at least length n, length of the permutation
+     * OUTPUT: the array r, holding the random permutation
+     * COMMENTS: only needed by the local search procedures
+     */
     {
 	int i, help, node, tot_assigned = 0;
 	double rnd;
-	int[] r;
-
-	r = new int[n];
 
 	for (i = 0; i < n; i++)
 	    r[i] = i;
@@ -126,17 +184,19 @@ public class LocalSearch {
 	int gain = 0;
 	int[] random_vector;
 	int[] pos; /* positions of cities in tour */
-	boolean[] dlb; /* vector containing don't look bits */
+	int[] dlb; /* vector containing don't look bits, set iff equal to dlb_stamp */
+	int dlb_stamp;
 
-	pos = new int[Tsp.n];
-	dlb = new boolean[Tsp.n];
+	allocate_workspace();
+	pos = ws_pos;
+	dlb = ws_dlb;
+	dlb_stamp = reset_dont_look_bits();
 	for (i = 0; i < Tsp.n; i++) {
 	    pos[tour[i]] = i;
-	    dlb[i] = false;
 	}
 
 	improvement_flag = true;
-	random_vector = generate_random_permutation(Tsp.n);
+	random_vector = fill_random_permutation(ws_random_vector, Tsp.n);
 
 	while (improvement_flag) {
 
@@ -146,7 +206,7 @@ public class LocalSearch {
 
 		c1 = random_vector[l];
 		// DEBUG ( assert ( c1 < Tsp.n && c1 >= 0); )
-		if (dlb_flag && dlb[c1])
+		if (dlb_flag && dlb[c1] == dlb_stamp)
 		    continue;
 		pos_c1 = pos[c1];
 		s_c1 = tour[pos_c1 + 1];
@@ -207,17 +267,18 @@ public class LocalSearch {
 
 		if (!gotoExchange) {
 		    /* No exchange */
-		    dlb[c1] = true;
+		    dlb[c1] = dlb_stamp;
 		    continue;
 		}
 
 		if (gotoExchange) {
 		    gotoExchange = false;
 		    improvement_flag = true;
-		    dlb[h1] = false;
-		    dlb[h2] = false;
-		    dlb[h3] = false;
-		    dlb[h4] = false;
+		    n_improvements++;
+		    dlb[h1] = 0;
+		    dlb[h2] = 0;
+		    dlb[h3] = 0;
+		    dlb[h4] = 0;
 		    /* Now perform move */
 		    if (pos[h3] < pos[h1]) {
 			help = h1;
@@ -267,7 +328,7 @@ public class LocalSearch {
 			tour[Tsp.n] = tour[0];
 		    }
 		} else {
-		    dlb[c1] = true;
+		    dlb[c1] = dlb_stamp;
 		}
 
 	    }
@@ -308,17 +369,19 @@ public class LocalSearch {
 	boolean two_move, node_move;
 
 	int[] pos; /* positions of cities in tour */
-	boolean[] dlb; /* vector containing don't look bits */
+	int[] dlb; /* vector containing don't look bits, set iff equal to dlb_stamp */
+	int dlb_stamp;
 
-	pos = new int[Tsp.n];
-	dlb = new boolean[Tsp.n];
+	allocate_workspace();
+	pos = ws_pos;
+	dlb = ws_dlb;
+	dlb_stamp = reset_dont_look_bits();
 	for (i = 0; i < Tsp.n; i++) {
 	    pos[tour[i]] = i;
-	    dlb[i] = false;
 	}
 
 	improvement_flag = true;
-	random_vector = generate_random_permutation(Tsp.n);
+	random_vector = fill_random_permutation(ws_random_vector, Tsp.n);
 
 	while (improvement_flag) {
 
@@ -330,7 +393,7 @@ public class LocalSearch {
 
 		c1 = random_vector[l];
 		// DEBUG ( assert ( c1 < Tsp.n && c1 >= 0); )
-		if (dlb_flag && dlb[c1])
+		if (dlb_flag && dlb[c1] == dlb_stamp)
 		    continue;
 		improve_node = false;
 		pos_c1 = pos[c1];
@@ -448,10 +511,11 @@ public class LocalSearch {
 		    gotoExchange = false;
 		    if (two_move) {
 			improvement_flag = true;
-			dlb[h1] = false;
-			dlb[h2] = false;
-			dlb[h3] = false;
-			dlb[h4] = false;
+			n_improvements++;
+			dlb[h1] = 0;
+			dlb[h2] = 0;
+			dlb[h3] = 0;
+			dlb[h4] = 0;
 			/* Now perform move */
 			if (pos[h3] < pos[h1]) {
 			    help = h1;
@@ -502,11 +566,12 @@ public class LocalSearch {
 			}
 		    } else if (node_move) {
 			improvement_flag = true;
-			dlb[h1] = false;
-			dlb[h2] = false;
-			dlb[h3] = false;
-			dlb[h4] = false;
-			dlb[h5] = false;
+			n_improvements++;
+			dlb[h1] = 0;
+			dlb[h2] = 0;
+			dlb[h3] = 0;
+			dlb[h4] = 0;
+			dlb[h5] = 0;
 			/* Now perform move */
 			if (pos[h3] < pos[h1]) {
 			    help = pos[h1] - pos[h3];
@@ -543,7 +608,7 @@ public class LocalSearch {
 		    two_move = false;
 		    node_move = false;
 		} else {
-		    dlb[c1] = true;
+		    dlb[c1] = dlb_stamp;
 		}
 
 	    }
@@ -600,25 +665,28 @@ public class LocalSearch {
 		        */
 	int gain, move_value, radius, add1, add2;
 	int decrease_breaks; /* Stores decrease by breaking two edges (a,b) (c,d) */
-	int[] val = new int[3];
+	int[] val;
 	int n1, n2, n3;
 	int[] pos; /* positions of cities in tour */
-	boolean[] dlb; /* vector containing don't look bits */
+	int[] dlb; /* vector containing don't look bits, set iff equal to dlb_stamp */
+	int dlb_stamp;
 	int[] h_tour; /* help vector for performing exchange move */
 	int[] hh_tour; /* help vector for performing exchange move */
 	int[] random_vector;
 
-	pos = new int[Tsp.n];
-	dlb = new boolean[Tsp.n];
-	h_tour = new int[Tsp.n];
-	hh_tour = new int[Tsp.n];
+	allocate_workspace();
+	pos = ws_pos;
+	dlb = ws_dlb;
+	h_tour = ws_h_tour;
+	hh_tour = ws_hh_tour;
+	val = ws_val;
 
+	dlb_stamp = reset_dont_look_bits();
 	for (i = 0; i < Tsp.n; i++) {
 	    pos[tour[i]] = i;
-	    dlb[i] = false;
 	}
 	improvement_flag = true;
-	random_vector = generate_random_permutation(Tsp.n);
+	random_vector = fill_random_permutation(ws_random_vector, Tsp.n);
 
 	while (improvement_flag) {
 	    move_value = 0;
@@ -627,7 +695,7 @@ public class LocalSearch {
 	    for (l = 0; l < Tsp.n; l++) {
 
 		c1 = random_vector[l];
-		if (dlb_flag && dlb[c1])
+		if (dlb_flag && dlb[c1] == dlb_stamp)
 		    continue;
 		opt2_flag = false;
 
@@ -834,12 +902,13 @@ public class LocalSearch {
 
 		    /* Now make the exchange */
 		    if (move_flag != 0) {
-			dlb[h1] = false;
-			dlb[h2] = false;
-			dlb[h3] = false;
-			dlb[h4] = false;
-			dlb[h5] = false;
-			dlb[h6] = false;
+			n_improvements++;
+			dlb[h1] = 0;
+			dlb[h2] = 0;
+			dlb[h3] = 0;
+			dlb[h4] = 0;
+			dlb[h5] = 0;
+			dlb[h6] = 0;
 			pos_c1 = pos[h1];
 			pos_c2 = pos[h3];
 			pos_c3 = pos[h5];
@@ -1590,10 +1659,11 @@ public class LocalSearch {
 		    if (opt2_flag) {
 
 			/* Now perform move */
-			dlb[h1] = false;
-			dlb[h2] = false;
-			dlb[h3] = false;
-			dlb[h4] = false;
+			n_improvements++;
+			dlb[h1] = 0;
+			dlb[h2] = 0;
+			dlb[h3] = 0;
+			dlb[h4] = 0;
 			if (pos[h3] < pos[h1]) {
 			    help = h1;
 			    h1 = h3;
@@ -1643,7 +1713,7 @@ public class LocalSearch {
 			}
 		    }
 		} else {
-		    dlb[c1] = true;
+		    dlb[c1] = dlb_stamp;
 		}
 	    }
 	}
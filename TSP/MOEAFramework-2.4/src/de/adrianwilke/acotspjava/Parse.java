@@ -70,6 +70,13 @@ public class Parse {
 	    opt.put("v", i++);
 	    opt.put("w", i++);
 	    opt.put("x", i++);
+	    opt.put("selection", i++);
+	    opt.put("colonies", i++);
+	    opt.put("topology", i++);
+	    opt.put("exchange", i++);
+	    opt.put("migration", i++);
+	    opt.put("migrationweight", i++);
+	    opt.put("trace", i++);
 	    opt.put("quiet", i++);
 	    opt.put("h", i++);
 	}
@@ -117,6 +124,13 @@ public class Parse {
 	options.addOption("x", "mmas", false, "apply MAX-MIN ant_colony system");
 	options.addOption("y", "bwas", false, "apply best-worst ant_colony system");
 	options.addOption("z", "acs", false, "apply ant_colony colony system");
+	options.addOption("selection", true, "table or roulette: how ants select the next city");
+	options.addOption("colonies", true, "# number of colonies run concurrently (island model)");
+	options.addOption("topology", true, "ring, full or random: colonies receiving migrants");
+	options.addOption("exchange", true, "tour or pheromone: what colonies exchange");
+	options.addOption("migration", true, "# iterations between two migrations");
+	options.addOption("migrationweight", true, "# weight of received pheromones when blending");
+	options.addOption("trace", true, "f write per-iteration phase times to f (CSV, or JSON lines if f ends in .json)");
 	options.addOption("quiet", false, "reduce output to a minimum, no extra files");
 	options.addOption("h", "help", false, "display this help text and exit");
 
@@ -340,6 +354,69 @@ public class Parse {
 	    System.out.println("Note: Don't-look-bits flag is set to default " + LocalSearch.dlb_flag);
 	}
 
+	if (cmd.hasOption("selection")) {
+	    if ("table".equalsIgnoreCase(cmd.getOptionValue("selection"))) {
+		Ants.table_selection = true;
+	    } else if ("roulette".equalsIgnoreCase(cmd.getOptionValue("selection"))) {
+		Ants.table_selection = false;
+	    } else {
+		System.err.println("Error: Unknown selection " + cmd.getOptionValue("selection"));
+		System.exit(1);
+	    }
+	    System.out.println("-selection Next city selection with argument " + cmd.getOptionValue("selection"));
+	} else {
+	    System.out.println("Note: Next city selection is set to default "
+		    + (Ants.table_selection ? "table" : "roulette"));
+	}
+
+	if (cmd.hasOption("trace")) {
+	    InOut.trace_name = cmd.getOptionValue("trace");
+	    System.out.println("-trace Phase trace file with argument " + InOut.trace_name);
+	}
+
+	if (cmd.hasOption("colonies")) {
+	    InOut.n_colonies = Integer.parseInt(cmd.getOptionValue("colonies"));
+	    if (InOut.n_colonies < 1) {
+		System.err.println("Error: Number of colonies must be at least 1, got " + InOut.n_colonies);
+		System.exit(1);
+	    }
+	    System.out.println("-colonies Number of colonies with argument " + InOut.n_colonies);
+	}
+
+	if (cmd.hasOption("topology")) {
+	    try {
+		InOut.topology = Islands.Topology.valueOf(cmd.getOptionValue("topology").toUpperCase());
+	    } catch (IllegalArgumentException e) {
+		System.err.println("Error: Unknown topology " + cmd.getOptionValue("topology"));
+		System.exit(1);
+	    }
+	    System.out.println("-topology Migration topology with argument " + InOut.topology);
+	}
+
+	if (cmd.hasOption("exchange")) {
+	    try {
+		InOut.exchange = Islands.Exchange.valueOf(cmd.getOptionValue("exchange").toUpperCase());
+	    } catch (IllegalArgumentException e) {
+		System.err.println("Error: Unknown exchange " + cmd.getOptionValue("exchange"));
+		System.exit(1);
+	    }
+	    System.out.println("-exchange Migration exchange with argument " + InOut.exchange);
+	}
+
+	if (cmd.hasOption("migration")) {
+	    InOut.migration_interval = Integer.parseInt(cmd.getOptionValue("migration"));
+	    if (InOut.migration_interval < 1) {
+		System.err.println("Error: Migration interval must be at least 1, got " + InOut.migration_interval);
+		System.exit(1);
+	    }
+	    System.out.println("-migration Migration interval with argument " + InOut.migration_interval);
+	}
+
+	if (cmd.hasOption("migrationweight")) {
+	    InOut.migration_weight = Float.parseFloat(cmd.getOptionValue("migrationweight"));
+	    System.out.println("-migrationweight Migration weight with argument " + InOut.migration_weight);
+	}
+
 	return 0;
     }
 }
@@ -55,6 +55,19 @@ public class Timer {
 
     private static long startTime;
 
+    /*
+     * Phase timers of the main loop. They use System.nanoTime, which is cheap
+     * enough to be read around every phase of every iteration.
+     */
+    static final int CONSTRUCTION = 0;
+    static final int LOCAL_SEARCH = 1;
+    static final int PHEROMONE_UPDATE = 2;
+    static final String[] PHASE_NAMES = { "construction", "local_search", "pheromone_update" };
+
+    static long[] phase_iteration = new long[PHASE_NAMES.length]; /* nanoseconds of each phase in this iteration */
+    static long[] phase_total = new long[PHASE_NAMES.length]; /* nanoseconds of each phase in this try */
+    private static long phaseStart;
+
     static void start_timers()
     /*
      * FUNCTION: virtual and real time of day are computed and stored to
@@ -68,6 +81,43 @@ public class Timer {
 	startTime = System.currentTimeMillis();
     }
 
+    static void reset_phase_timers()
+    /*
+     * FUNCTION: clear the accumulated phase times at the start of a try
+     * INPUT: none
+     * OUTPUT: none
+     */
+    {
+	for (int i = 0; i < phase_total.length; i++) {
+	    phase_iteration[i] = 0;
+	    phase_total[i] = 0;
+	}
+    }
+
+    static void start_phase()
+    /*
+     * FUNCTION: start measuring a phase of the main loop
+     * INPUT: none
+     * OUTPUT: none
+     */
+    {
+	phaseStart = System.nanoTime();
+    }
+
+    static void stop_phase(int phase)
+    /*
+     * FUNCTION: stop measuring a phase of the main loop
+     * INPUT: the phase, one of CONSTRUCTION, LOCAL_SEARCH, PHEROMONE_UPDATE
+     * OUTPUT: none
+     * (SIDE)EFFECTS: the time of the phase is stored for this iteration and
+     * added to the total of this try
+     */
+    {
+	long time = System.nanoTime() - phaseStart;
+	phase_iteration[phase] = time;
+	phase_total[phase] += time;
+    }
+
     static double elapsed_time()
     /*
      * FUNCTION: return the time used in seconds (virtual or real, depending on type)
@@ -9,8 +9,6 @@ package de.adrianwilke.acotspjava;
  * Project website: http://adibaba.github.io/ACOTSPJava/
  * Source code: https://github.com/adibaba/ACOTSPJava/
  */
-import de.adrianwilke.acotspjava.InOut.Distance_type;
-
 public class Tsp {
     /*
      * ################################################
@@ -75,178 +73,28 @@ public class Tsp {
 
     static problem instance;
 
-    static double dtrunc(double x) {
-	int k;
-
-	k = (int) x;
-	x = (double) k;
-	return x;
-    }
-
-    // static int (*distance)(int , int ); /* function pointer */
-
-    /*
-     * FUNCTION: the following four functions implement different ways of
-     * computing distances for TSPLIB instances
-     * INPUT: two node indices
-     * OUTPUT: distance between the two nodes
-     */
-
-    static int round_distance(int i, int j)
-    /*
-     * FUNCTION: compute Euclidean distances between two nodes rounded to next
-     * integer for TSPLIB instances
-     * INPUT: two node indices
-     * OUTPUT: distance between the two nodes
-     * COMMENTS: for the definition of how to compute this distance see TSPLIB
-     */
-    {
-	double xd = instance.nodeptr[i].x - instance.nodeptr[j].x;
-	double yd = instance.nodeptr[i].y - instance.nodeptr[j].y;
-	double r = Math.sqrt(xd * xd + yd * yd) + 0.5;
-
-	return (int) r;
-    }
-
-    static int ceil_distance(int i, int j)
+    static void compute_nn_list(int node, int[] distances, int[] nnear, int[] distance_vector, int[] help_vector)
     /*
-     * FUNCTION: compute ceiling distance between two nodes rounded to next
-     * integer for TSPLIB instances
-     * INPUT: two node indices
-     * OUTPUT: distance between the two nodes
-     * COMMENTS: for the definition of how to compute this distance see TSPLIB
+     * FUNCTION: computes the nearest neighbor list of one city
+     * INPUT: city, its row of the distance matrix, the list to fill (its
+     * length is the depth), two help vectors of length n
+     * OUTPUT: none
+     * (SIDE)EFFECTS: nnear holds the nearest neighbours of the city, sorted
+     * COMMENTS: touches no shared state, so lists of different cities can be
+     * computed concurrently given separate help vectors
      */
     {
-	double xd = instance.nodeptr[i].x - instance.nodeptr[j].x;
-	double yd = instance.nodeptr[i].y - instance.nodeptr[j].y;
-	double r = Math.sqrt(xd * xd + yd * yd);
-
-	return (int) Math.ceil(r);
-    }
-
-    static int geo_distance(int i, int j)
-    /*
-     * FUNCTION: compute geometric distance between two nodes rounded to next
-     * integer for TSPLIB instances
-     * INPUT: two node indices
-     * OUTPUT: distance between the two nodes
-     * COMMENTS: adapted from concorde code
-     * for the definition of how to compute this distance see TSPLIB
-     */
-    {
-	double deg, min;
-	double lati, latj, longi, longj;
-	double q1, q2, q3;
-	int dd;
-	double x1 = instance.nodeptr[i].x, x2 = instance.nodeptr[j].x, y1 = instance.nodeptr[i].y, y2 = instance.nodeptr[j].y;
-
-	deg = dtrunc(x1);
-	min = x1 - deg;
-	lati = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
-	deg = dtrunc(x2);
-	min = x2 - deg;
-	latj = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
-
-	deg = dtrunc(y1);
-	min = y1 - deg;
-	longi = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
-	deg = dtrunc(y2);
-	min = y2 - deg;
-	longj = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
-
-	q1 = Math.cos(longi - longj);
-	q2 = Math.cos(lati - latj);
-	q3 = Math.cos(lati + latj);
-	dd = (int) (6378.388 * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
-	return dd;
-
-    }
-
-    static int att_distance(int i, int j)
-    /*
-     * FUNCTION: compute ATT distance between two nodes rounded to next
-     * integer for TSPLIB instances
-     * INPUT: two node indices
-     * OUTPUT: distance between the two nodes
-     * COMMENTS: for the definition of how to compute this distance see TSPLIB
-     */
-    {
-	double xd = instance.nodeptr[i].x - instance.nodeptr[j].x;
-	double yd = instance.nodeptr[i].y - instance.nodeptr[j].y;
-	double rij = Math.sqrt((xd * xd + yd * yd) / 10.0);
-	double tij = dtrunc(rij);
-	int dij;
-
-	if (tij < rij)
-	    dij = (int) tij + 1;
-	else
-	    dij = (int) tij;
-	return dij;
-    }
+	int i;
 
-    static int[][] compute_distances()
-    /*
-     * FUNCTION: computes the matrix of all intercity distances
-     * INPUT: none
-     * OUTPUT: pointer to distance matrix, has to be freed when program stops
-     */
-    {
-	int i, j;
-	int matrix[][] = new int[n][n];
-	for (i = 0; i < n; i++) {
-	    for (j = 0; j < n; j++) {
-		if (InOut.distance_type == Distance_type.ATT) {
-		    matrix[i][j] = att_distance(i, j);
-		} else if (InOut.distance_type == Distance_type.CEIL_2D) {
-		    matrix[i][j] = ceil_distance(i, j);
-		} else if (InOut.distance_type == Distance_type.EUC_2D) {
-		    matrix[i][j] = round_distance(i, j);
-		} else if (InOut.distance_type == Distance_type.GEO) {
-		    matrix[i][j] = geo_distance(i, j);
-		}
-	    }
+	for (i = 0; i < n; i++) { /* Copy distances from nodes to the others */
+	    distance_vector[i] = distances[i];
+	    help_vector[i] = i;
 	}
-	return matrix;
-    }
-
-    static int[][] compute_nn_lists()
-    /*
-     * FUNCTION: computes nearest neighbor lists of depth nn for each city
-     * INPUT: none
-     * OUTPUT: pointer to the nearest neighbor lists
-     */
-    {
-	int i, node, nn;
-	int[] distance_vector = new int[n];
-	int[] help_vector = new int[n];
-
-	// TRACE ( System.out.println("\n computing nearest neighbor lists, "); )
-
-	nn = Math.max(LocalSearch.nn_ls, Ants.nn_ants);
-	if (nn >= n)
-	    nn = n - 1;
-
-	int[][] m_nnear = new int[n][nn];
-
-	// DEBUG ( assert( n > nn ); )
-
-	// TRACE ( System.out.println("nn = %ld ... \n",nn); )
-
-	for (node = 0; node < n; node++) { /* compute cnd-sets for all node */
-
-	    for (i = 0; i < n; i++) { /* Copy distances from nodes to the others */
-		distance_vector[i] = instance.distance[node][i];
-		help_vector[i] = i;
-	    }
-	    distance_vector[node] = Integer.MAX_VALUE; /* city is not nearest neighbour */
-	    Utilities.sort2(distance_vector, help_vector, 0, n - 1);
-	    for (i = 0; i < nn; i++) {
-		m_nnear[node][i] = help_vector[i];
-	    }
+	distance_vector[node] = Integer.MAX_VALUE; /* city is not nearest neighbour */
+	Utilities.sort2(distance_vector, help_vector, 0, n - 1);
+	for (i = 0; i < nnear.length; i++) {
+	    nnear[i] = help_vector[i];
 	}
-
-	// TRACE ( System.out.println("\n    .. done\n"); )
-	return m_nnear;
     }
 
     static int compute_tour_length(int[] t)
@@ -0,0 +1,252 @@
+package de.adrianwilke.acotspjava;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tsplib.DataType;
+import tsplib.DistanceFunction;
+import tsplib.DistanceTable;
+import tsplib.EdgeWeightType;
+import tsplib.Node;
+import tsplib.NodeCoordinates;
+import tsplib.TSPInstance;
+
+/**
+ * ACO algorithms for the TSP
+ *
+ * This code is based on the ACOTSP project of Thomas Stuetzle.
+ * It was initially ported from C to Java by Adrian Wilke.
+ *
+ * Project website: http://adibaba.github.io/ACOTSPJava/
+ * Source code: https://github.com/adibaba/ACOTSPJava/
+ */
+public class TsplibAdapter {
+    /*
+     * Purpose: load Tsp.instance from a tsplib.TSPInstance, so that the ACO
+     * engine shares the TSPLIB parser and distance functions of the tsplib
+     * package and accepts every instance it can read, including ATSP and
+     * explicit edge weight matrices.
+     *
+     * GEO distances are computed by geo_distance with Math.PI, as the engine
+     * did before, and not by tsplib.GeographicalDistance, which uses the
+     * truncated TSPLIB constant 3.141592; tour lengths of GEO instances are
+     * thus unchanged. ATSP instances are only accepted without local search,
+     * since 2-opt and 3-opt assume symmetric distances. The pheromone
+     * updates still reinforce both directions of an arc, so the colony
+     * learns an undirected preference even on ATSP instances.
+     */
+
+    static TSPInstance tsplib; /* the instance Tsp.instance was read from */
+
+    static void read_instance(String tsp_file_name) throws IOException
+    /*
+     * FUNCTION: parse and read Tsp.instance file
+     * INPUT: Tsp.instance file name
+     * OUTPUT: none
+     * (SIDE)EFFECTS: name, size and coordinates (if any) of Tsp.instance are set
+     * COMMENTS: distances are computed later by compute_distances_and_nn_lists,
+     * once the depth of the nearest neighbour lists is known
+     */
+    {
+	int i;
+	int[] ids;
+	double[] position;
+	DistanceTable table;
+
+	if (tsp_file_name == null) {
+	    System.err.println("No instance file specified, abort");
+	    System.exit(1);
+	}
+
+	if (!new File(tsp_file_name).canRead()) {
+	    System.err.println("Can not read file " + tsp_file_name);
+	    System.exit(1);
+	}
+
+	System.out.println("\nreading tsp-file " + tsp_file_name + " ... ");
+
+	tsplib = new TSPInstance(new File(tsp_file_name));
+
+	if (!DataType.TSP.equals(tsplib.getDataType()) && !DataType.ATSP.equals(tsplib.getDataType())) {
+	    System.err.println("Not a TSP Tsp.instance in TSPLIB format !!");
+	    System.exit(1);
+	}
+
+	table = tsplib.getDistanceTable();
+	if (table == null) {
+	    System.err.println("Some error ocurred finding the distances in tsp file !!");
+	    System.exit(1);
+	}
+
+	Tsp.instance.name = tsplib.getName();
+	Tsp.instance.edge_weight_type = String.valueOf(tsplib.getEdgeWeightType());
+	Tsp.n = tsplib.getDimension();
+	Tsp.instance.n = Tsp.n;
+	assert (Tsp.n > 2);
+
+	if (DataType.ATSP.equals(tsplib.getDataType()) && LocalSearch.ls_flag != 0) {
+	    System.err.println("Local search assumes symmetric distances, run ATSP instances with --localsearch 0");
+	    System.exit(1);
+	}
+
+	Tsp.instance.nodeptr = null;
+	if (table instanceof NodeCoordinates) {
+	    ids = node_ids(table);
+	    Tsp.instance.nodeptr = new Tsp.point[Tsp.n];
+	    for (i = 0; i < Tsp.n; i++) {
+		position = ((NodeCoordinates) table).get(ids[i]).getPosition();
+		Tsp.instance.nodeptr[i] = new Tsp.point();
+		Tsp.instance.nodeptr[i].x = position[0];
+		Tsp.instance.nodeptr[i].y = position.length > 1 ? position[1] : 0.0;
+	    }
+	}
+
+	System.out.println();
+    }
+
+    static int[] node_ids(DistanceTable table)
+    /*
+     * FUNCTION: TSPLIB identifiers of the nodes in the order of the city
+     * indices used by the ACO engine
+     * INPUT: distance table of the instance
+     * OUTPUT: ids[i] is the identifier of city i
+     */
+    {
+	int[] ids = table.listNodes();
+	Arrays.sort(ids);
+	return ids;
+    }
+
+    static void compute_distances_and_nn_lists()
+    /*
+     * FUNCTION: computes the matrix of all intercity distances and the nearest
+     * neighbor lists of depth nn for each city
+     * INPUT: none
+     * OUTPUT: none
+     * (SIDE)EFFECTS: Tsp.instance.distance and Tsp.instance.nn_list are set
+     * COMMENTS: each row of the distance matrix is computed together with the
+     * nearest neighbours of its city, rows are distributed over all
+     * available processors
+     */
+    {
+	int nn, k, n_threads, chunk;
+	final int[] ids;
+	final Node[] nodes;
+	final DistanceFunction function;
+	final boolean geo;
+	final DistanceTable table = tsplib.getDistanceTable();
+	final int[][] matrix = new int[Tsp.n][];
+	final int[][] m_nnear;
+	ExecutorService executor;
+	List<Future<?>> rows = new ArrayList<Future<?>>();
+
+	nn = Math.max(LocalSearch.nn_ls, Ants.nn_ants);
+	if (nn >= Tsp.n)
+	    nn = Tsp.n - 1;
+	m_nnear = new int[Tsp.n][nn];
+
+	ids = node_ids(table);
+	if (table instanceof NodeCoordinates) {
+	    /* avoid the identifier lookups of getDistanceBetween */
+	    nodes = new Node[Tsp.n];
+	    for (k = 0; k < Tsp.n; k++)
+		nodes[k] = ((NodeCoordinates) table).get(ids[k]);
+	    function = tsplib.getEdgeWeightType().getDistanceFunction();
+	} else {
+	    nodes = null;
+	    function = null;
+	}
+	geo = nodes != null && EdgeWeightType.GEO.equals(tsplib.getEdgeWeightType());
+
+	n_threads = Math.min(Runtime.getRuntime().availableProcessors(), Tsp.n);
+	chunk = (Tsp.n + n_threads - 1) / n_threads;
+	executor = Executors.newFixedThreadPool(n_threads);
+
+	try {
+	    for (k = 0; k < Tsp.n; k += chunk) {
+		final int first = k;
+		final int last = Math.min(k + chunk, Tsp.n);
+
+		rows.add(executor.submit(new Runnable() {
+		    @Override
+		    public void run() {
+			int i, j;
+			int[] distance_vector = new int[Tsp.n];
+			int[] help_vector = new int[Tsp.n];
+
+			for (i = first; i < last; i++) {
+			    matrix[i] = new int[Tsp.n];
+			    for (j = 0; j < Tsp.n; j++) {
+				if (geo)
+				    matrix[i][j] = geo_distance(nodes[i], nodes[j]);
+				else if (nodes != null)
+				    matrix[i][j] = (int) function.distance(nodes[i], nodes[j]);
+				else
+				    matrix[i][j] = (int) table.getDistanceBetween(ids[i], ids[j]);
+			    }
+			    Tsp.compute_nn_list(i, matrix[i], m_nnear[i], distance_vector, help_vector);
+			}
+		    }
+		}));
+	    }
+
+	    for (Future<?> row : rows)
+		row.get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    System.err.println("Interrupted while computing distances");
+	    System.exit(1);
+	} catch (ExecutionException e) {
+	    System.err.println("Could not compute distances. " + e.getCause());
+	    System.exit(1);
+	} finally {
+	    executor.shutdown();
+	}
+
+	Tsp.instance.distance = matrix;
+	Tsp.instance.nn_list = m_nnear;
+	Tsp.instance.n_near = nn;
+    }
+
+    static int geo_distance(Node node_i, Node node_j)
+    /*
+     * FUNCTION: compute geometric distance between two nodes rounded to next
+     * integer for TSPLIB instances
+     * INPUT: two nodes
+     * OUTPUT: distance between the two nodes
+     * COMMENTS: adapted from concorde code, uses Math.PI like the original
+     * engine instead of the constant 3.141592 of tsplib.GeographicalDistance
+     */
+    {
+	double deg, min;
+	double lati, latj, longi, longj;
+	double q1, q2, q3;
+	double[] position_i = node_i.getPosition(), position_j = node_j.getPosition();
+
+	deg = (int) position_i[0];
+	min = position_i[0] - deg;
+	lati = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
+	deg = (int) position_j[0];
+	min = position_j[0] - deg;
+	latj = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
+
+	deg = (int) position_i[1];
+	min = position_i[1] - deg;
+	longi = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
+	deg = (int) position_j[1];
+	min = position_j[1] - deg;
+	longj = Math.PI * (deg + 5.0 * min / 3.0) / 180.0;
+
+	q1 = Math.cos(longi - longj);
+	q2 = Math.cos(lati - latj);
+	q3 = Math.cos(lati + latj);
+	return (int) (6378.388 * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+    }
+}
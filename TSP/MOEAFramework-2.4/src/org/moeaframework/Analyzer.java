@@ -28,6 +28,11 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.math3.stat.descriptive.UnivariateStatistic;
 import org.apache.commons.math3.stat.descriptive.rank.Max;
@@ -36,6 +41,7 @@ import org.apache.commons.math3.stat.descriptive.rank.Min;
 import org.moeaframework.analysis.sensitivity.ResultEntry;
 import org.moeaframework.analysis.sensitivity.ResultFileReader;
 import org.moeaframework.analysis.sensitivity.ResultFileWriter;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.Indicator;
 import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.PopulationIO;
@@ -160,6 +166,12 @@ public class Analyzer extends ProblemBuilder {
 	 */
 	private Map<String, List<NondominatedPopulation>> data;
 	
+	/**
+	 * The number of threads used to evaluate the indicators and statistical
+	 * tests.
+	 */
+	private int numberOfThreads;
+	
 	/**
 	 * Constructs a new analyzer initialized with default settings.
 	 */
@@ -167,6 +179,7 @@ public class Analyzer extends ProblemBuilder {
 		super();
 		
 		significanceLevel = 0.05;
+		numberOfThreads = 1;
 		statistics = new ArrayList<UnivariateStatistic>();
 		data = new HashMap<String, List<NondominatedPopulation>>();
 	}
@@ -303,6 +316,36 @@ public class Analyzer extends ProblemBuilder {
 		return this;
 	}
 	
+	/**
+	 * Evaluates the indicators and statistical tests on the specified number
+	 * of threads.  The indicators are shared by all threads and must not
+	 * modify their state when evaluated.  The analysis is identical to the
+	 * one computed on a single thread.
+	 * 
+	 * @param numberOfThreads the number of threads
+	 * @return a reference to this analyzer
+	 * @throws IllegalArgumentException if {@code numberOfThreads <= 0}
+	 */
+	public Analyzer distributeOn(int numberOfThreads) {
+		if (numberOfThreads <= 0) {
+			throw new IllegalArgumentException("invalid number of threads");
+		}
+		
+		this.numberOfThreads = numberOfThreads;
+		
+		return this;
+	}
+	
+	/**
+	 * Evaluates the indicators and statistical tests on all processors on the
+	 * local host.
+	 * 
+	 * @return a reference to this analyzer
+	 */
+	public Analyzer distributeOnAllCores() {
+		return distributeOn(Runtime.getRuntime().availableProcessors());
+	}
+	
 	/**
 	 * Enables the output of all analysis results.
 	 * 
@@ -712,29 +755,108 @@ public class Analyzer extends ProblemBuilder {
 				}
 			}
 			
+			//archives such as NDTreeArchive remove dominated solutions the
+			//first time they are read, so read each set once on this thread
+			//before the indicators read them concurrently
+			referenceSet.size();
+			
+			for (List<NondominatedPopulation> sets : data.values()) {
+				for (NondominatedPopulation set : sets) {
+					set.size();
+				}
+			}
+			
+			for (NondominatedPopulation aggregateSet : aggregateSets.values()) {
+				aggregateSet.size();
+			}
+			
 			//precompute the individual seed metrics, as they are used both
 			//for descriptive statistics and statistical significance tests
 			Map<String, Map<Indicator, double[]>> metrics = 
 					new HashMap<String, Map<Indicator, double[]>>();
+			Map<String, double[]> aggregateMetrics =
+					new HashMap<String, double[]>();
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			
+			//the contribution indicator is not thread-safe, as its
+			//comparator records the outcome of the last comparison, so its
+			//evaluations run in sequence within a single task
+			final List<Callable<Void>> contributionTasks =
+					new ArrayList<Callable<Void>>();
 			
 			for (String algorithm : data.keySet()) {
 				Map<Indicator, double[]> entry = 
 						new HashMap<Indicator, double[]>();
+				final List<NondominatedPopulation> sets = data.get(algorithm);
 				
-				for (Indicator indicator : indicators) {
-					List<NondominatedPopulation> sets = data.get(algorithm);
-					double[] values = new double[sets.size()];
+				for (final Indicator indicator : indicators) {
+					final double[] values = new double[sets.size()];
 					
 					for (int i=0; i<sets.size(); i++) {
-						values[i] = indicator.evaluate(sets.get(i));
+						final int index = i;
+						
+						tasksFor(indicator, tasks, contributionTasks).add(
+								new Callable<Void>() {
+
+							@Override
+							public Void call() {
+								values[index] = indicator.evaluate(
+										sets.get(index));
+								return null;
+							}
+							
+						});
 					}
 					
 					entry.put(indicator, values);
 				}
 				
 				metrics.put(algorithm, entry);
+				
+				//the aggregate is only shown when there are multiple seeds
+				if (showAggregate && (sets.size() > 1)) {
+					final NondominatedPopulation aggregateSet =
+							aggregateSets.get(algorithm);
+					final double[] values = new double[indicators.size()];
+					
+					for (int i=0; i<indicators.size(); i++) {
+						final Indicator indicator = indicators.get(i);
+						final int index = i;
+						
+						tasksFor(indicator, tasks, contributionTasks).add(
+								new Callable<Void>() {
+
+							@Override
+							public Void call() {
+								values[index] = indicator.evaluate(
+										aggregateSet);
+								return null;
+							}
+							
+						});
+					}
+					
+					aggregateMetrics.put(algorithm, values);
+				}
+			}
+			
+			if (!contributionTasks.isEmpty()) {
+				tasks.add(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						for (Callable<Void> task : contributionTasks) {
+							task.call();
+						}
+						
+						return null;
+					}
+					
+				});
 			}
 			
+			invokeAll(tasks);
+			
 			//precompute the statistical significance of the medians
 			Map<Indicator, Map<String, List<String>>> indifferences =
 					new HashMap<Indicator, Map<String, List<String>>>();
@@ -755,57 +877,10 @@ public class Analyzer extends ProblemBuilder {
 					indifferences.put(indicator, entry);
 				}
 				
-				for (Indicator indicator : indicators) {
-					//insufficient number of samples, skip test
-					if (algorithms.size() < 2) {
-						continue;
-					}
-					
-					KruskalWallisTest kwTest = new KruskalWallisTest(
-							algorithms.size());
-					
-					for (int i=0; i<algorithms.size(); i++) {
-						kwTest.addAll(metrics.get(algorithms.get(i))
-								.get(indicator), i);
-					}
-					
-					try {
-						if (!kwTest.test(significanceLevel)) {
-							for (int i=0; i<algorithms.size()-1; i++) {
-								for (int j=i+1; j<algorithms.size(); j++) {
-									indifferences.get(indicator)
-											.get(algorithms.get(i))
-											.add(algorithms.get(j));
-									indifferences.get(indicator)
-											.get(algorithms.get(j))
-											.add(algorithms.get(i));
-								}
-							}
-						} else {
-							for (int i=0; i<algorithms.size()-1; i++) {
-								for (int j=i+1; j<algorithms.size(); j++) {
-									MannWhitneyUTest mwTest = 
-											new MannWhitneyUTest();
-									
-									mwTest.addAll(metrics.get(algorithms.get(i))
-											.get(indicator), 0);
-									mwTest.addAll(metrics.get(algorithms.get(j))
-											.get(indicator), 1);
-									
-									if (!mwTest.test(significanceLevel)) {
-										indifferences.get(indicator)
-												.get(algorithms.get(i))
-												.add(algorithms.get(j));
-										indifferences.get(indicator)
-												.get(algorithms.get(j))
-												.add(algorithms.get(i));
-									}
-								}
-							}
-						}
-					} catch (RuntimeException e) {
-						e.printStackTrace();
-					}
+				//insufficient number of samples, skip test
+				if (algorithms.size() >= 2) {
+					computeIndifferences(indicators, algorithms, metrics,
+							indifferences);
 				}
 			}
 			
@@ -834,8 +909,8 @@ public class Analyzer extends ProblemBuilder {
 						
 						if (showAggregate) {
 							ps.print("        Aggregate: ");
-							ps.println(indicator.evaluate(
-									aggregateSets.get(algorithm)));
+							ps.println(aggregateMetrics.get(algorithm)[
+									indicators.indexOf(indicator)]);
 						}
 						
 						if (statistics.isEmpty()) {
@@ -883,6 +958,181 @@ public class Analyzer extends ProblemBuilder {
 		return this;
 	}
 	
+	/**
+	 * Determines, for each indicator, the algorithms whose medians are not
+	 * significantly different.  The Kruskal-Wallis test of each indicator and
+	 * the pairwise Mann-Whitney U tests are computed in parallel, but the
+	 * indifferent algorithms are recorded in the same order as when computed
+	 * sequentially.
+	 * 
+	 * @param indicators the indicators
+	 * @param algorithms the algorithms
+	 * @param metrics the individual seed metrics of each algorithm
+	 * @param indifferences the lists of indifferent algorithms to be filled
+	 */
+	private void computeIndifferences(List<Indicator> indicators,
+			final List<String> algorithms,
+			final Map<String, Map<Indicator, double[]>> metrics,
+			Map<Indicator, Map<String, List<String>>> indifferences) {
+		final int n = algorithms.size();
+		final Boolean[] significant = new Boolean[indicators.size()];
+		final Boolean[][][] indifferent = new Boolean[indicators.size()][n][n];
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		
+		for (int k=0; k<indicators.size(); k++) {
+			final Indicator indicator = indicators.get(k);
+			final int index = k;
+			
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					KruskalWallisTest kwTest = new KruskalWallisTest(n);
+					
+					for (int i=0; i<n; i++) {
+						kwTest.addAll(metrics.get(algorithms.get(i))
+								.get(indicator), i);
+					}
+					
+					try {
+						significant[index] = kwTest.test(significanceLevel);
+					} catch (RuntimeException e) {
+						e.printStackTrace();
+					}
+					
+					return null;
+				}
+				
+			});
+		}
+		
+		invokeAll(tasks);
+		tasks.clear();
+		
+		for (int k=0; k<indicators.size(); k++) {
+			if (!Boolean.TRUE.equals(significant[k])) {
+				continue;
+			}
+			
+			final Indicator indicator = indicators.get(k);
+			final Boolean[][] result = indifferent[k];
+			
+			for (int i=0; i<n-1; i++) {
+				for (int j=i+1; j<n; j++) {
+					final int first = i;
+					final int second = j;
+					
+					tasks.add(new Callable<Void>() {
+
+						@Override
+						public Void call() {
+							MannWhitneyUTest mwTest = new MannWhitneyUTest();
+							
+							mwTest.addAll(metrics.get(algorithms.get(first))
+									.get(indicator), 0);
+							mwTest.addAll(metrics.get(algorithms.get(second))
+									.get(indicator), 1);
+							
+							try {
+								result[first][second] =
+										!mwTest.test(significanceLevel);
+							} catch (RuntimeException e) {
+								e.printStackTrace();
+							}
+							
+							return null;
+						}
+						
+					});
+				}
+			}
+		}
+		
+		invokeAll(tasks);
+		
+		for (int k=0; k<indicators.size(); k++) {
+			Map<String, List<String>> entry =
+					indifferences.get(indicators.get(k));
+			
+			if (significant[k] == null) {
+				continue;
+			}
+			
+			for (int i=0; i<n-1; i++) {
+				for (int j=i+1; j<n; j++) {
+					if (!significant[k] ||
+							Boolean.TRUE.equals(indifferent[k][i][j])) {
+						entry.get(algorithms.get(i)).add(algorithms.get(j));
+						entry.get(algorithms.get(j)).add(algorithms.get(i));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the list of tasks to which the evaluations of the specified
+	 * indicator are added.  Evaluations of the {@link Contribution}
+	 * indicator, which is not thread-safe, are kept apart so they can run in
+	 * sequence.
+	 * 
+	 * @param indicator the indicator
+	 * @param tasks the tasks run concurrently
+	 * @param contributionTasks the tasks run in sequence
+	 * @return the list of tasks to which the evaluations of the specified
+	 *         indicator are added
+	 */
+	private static List<Callable<Void>> tasksFor(Indicator indicator,
+			List<Callable<Void>> tasks,
+			List<Callable<Void>> contributionTasks) {
+		return (indicator instanceof Contribution) ? contributionTasks : tasks;
+	}
+	
+	/**
+	 * Runs the specified tasks, distributing them across the threads
+	 * configured by {@link #distributeOn(int)}, and waits for their
+	 * completion.
+	 * 
+	 * @param tasks the tasks
+	 * @throws FrameworkException if a task threw a checked exception or the
+	 *         thread was interrupted while waiting
+	 */
+	private void invokeAll(List<Callable<Void>> tasks) {
+		if ((numberOfThreads <= 1) || (tasks.size() <= 1)) {
+			for (Callable<Void> task : tasks) {
+				try {
+					task.call();
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new FrameworkException(e);
+				}
+			}
+			
+			return;
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(numberOfThreads, tasks.size()));
+		
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FrameworkException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			} else {
+				throw new FrameworkException(e.getCause());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
 	/**
 	 * Clears all data stored in this analyzer.
 	 * 
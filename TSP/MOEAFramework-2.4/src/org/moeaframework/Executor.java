@@ -22,18 +22,28 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
+import org.moeaframework.algorithm.AbstractAlgorithm;
 import org.moeaframework.algorithm.Checkpoints;
 import org.moeaframework.core.Algorithm;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.PRNG;
 import org.moeaframework.core.Problem;
+import org.moeaframework.core.SplitMix64Random;
 import org.moeaframework.core.spi.AlgorithmFactory;
 import org.moeaframework.core.spi.ProblemFactory;
 import org.moeaframework.util.TypedProperties;
 import org.moeaframework.util.distributed.DistributedProblem;
+import org.moeaframework.util.distributed.ProblemReference;
+import org.moeaframework.util.distributed.ProcessPoolExecutor;
 import org.moeaframework.util.io.FileUtils;
 import org.moeaframework.util.progress.ProgressHelper;
 import org.moeaframework.util.progress.ProgressListener;
@@ -72,12 +82,42 @@ public class Executor extends ProblemBuilder {
 	 */
 	private int numberOfThreads;
 	
+	/**
+	 * The number of worker processes for distributing jobs; or {@code 0} if
+	 * jobs are not distributed to other processes.
+	 */
+	private int numberOfProcesses;
+	
 	/**
 	 * The executor service for distributing jobs; or {@code null} if
 	 * distribution is local.
 	 */
 	private ExecutorService executorService;
 	
+	/**
+	 * {@code true} if distributed evaluations are submitted in batches by the
+	 * algorithm; {@code false} if the problem is wrapped in a
+	 * {@link DistributedProblem}.
+	 */
+	private boolean batchEvaluation;
+	
+	/**
+	 * The number of seeds run concurrently by {@link #runSeeds(int)}.
+	 */
+	private int numberOfSeedThreads;
+	
+	/**
+	 * The current NFE of each seed while seeds run concurrently; or
+	 * {@code null} if seeds run one after another.
+	 */
+	private AtomicIntegerArray seedNFE;
+	
+	/**
+	 * The root seed from which the PRNG stream of each seed is derived; or
+	 * {@code null} if seeds run one after another use the shared PRNG.
+	 */
+	private Long rootSeed;
+	
 	/**
 	 * The checkpoint file for storing the algorithm state; or {@code null} if
 	 * checkpoints are not used.
@@ -90,6 +130,17 @@ public class Executor extends ProblemBuilder {
 	 */
 	private int checkpointFrequency;
 	
+	/**
+	 * The number of older checkpoints retained in addition to the checkpoint
+	 * file.
+	 */
+	private int checkpointHistory;
+	
+	/**
+	 * {@code true} if checkpoints are compressed; {@code false} otherwise.
+	 */
+	private boolean checkpointCompression;
+	
 	/**
 	 * The algorithm provider for creating algorithm instances; or {@code null}
 	 * if the default algorithm factory should be used.
@@ -125,6 +176,7 @@ public class Executor extends ProblemBuilder {
 		progress = new ProgressHelper(this);
 		properties = new TypedProperties();
 		numberOfThreads = 1;
+		numberOfSeedThreads = 1;
 	}
 	
 	/**
@@ -239,7 +291,8 @@ public class Executor extends ProblemBuilder {
 	
 	/**
 	 * Enables this executor to distribute solution evaluations across the
-	 * specified number of threads.
+	 * specified number of threads.  Asynchronous algorithms, such as
+	 * {@code AsyncEMOEA}, keep one evaluation running on each thread.
 	 * 
 	 * @param numberOfThreads the number of threads
 	 * @return a reference to this executor
@@ -265,6 +318,106 @@ public class Executor extends ProblemBuilder {
 		return distributeOn(Runtime.getRuntime().availableProcessors());
 	}
 	
+	/**
+	 * Enables this executor to distribute solution evaluations across the
+	 * specified number of worker processes on the local host, isolating the
+	 * evaluations and their garbage collection from this JVM.  The problem
+	 * itself is not serialized; each worker process creates its own instance
+	 * from the problem name, or from the problem class and its constructor
+	 * arguments, which must then be serializable.  This setting can not be
+	 * combined with {@link #distributeInBatches()}.
+	 * 
+	 * @param numberOfProcesses the number of worker processes
+	 * @return a reference to this executor
+	 * @throws IllegalArgumentException if {@code numberOfProcesses <= 0}
+	 * @see ProcessPoolExecutor
+	 * @see ProblemReference
+	 */
+	public Executor distributeOnProcesses(int numberOfProcesses) {
+		if (numberOfProcesses <= 0) {
+			throw new IllegalArgumentException("invalid number of processes");
+		}
+		
+		this.numberOfProcesses = numberOfProcesses;
+		
+		return this;
+	}
+	
+	/**
+	 * Distributes solution evaluations by letting the algorithm submit each
+	 * batch of solutions, such as the offspring of one generation, and wait
+	 * until the batch is evaluated.  Unlike the default distribution, no
+	 * {@code FutureSolution} proxies are created.  The problem must support
+	 * concurrent evaluations.  This setting has no effect unless evaluations
+	 * are distributed.
+	 * <p>
+	 * The algorithm must extend {@link AbstractAlgorithm}; otherwise, running
+	 * this executor fails with a {@link FrameworkException}.  NSGA-II, GDE3,
+	 * &epsilon;-MOEA and MOEA/D evaluate whole generations as one batch; note
+	 * that &epsilon;-MOEA and MOEA/D then select parents once per generation
+	 * rather than once per offspring, so their results differ from serial
+	 * runs.  Algorithms that evaluate only one solution per step gain nothing
+	 * from batches; use {@code AsyncEMOEA} or the default distribution for
+	 * those.
+	 * 
+	 * @return a reference to this executor
+	 */
+	public Executor distributeInBatches() {
+		batchEvaluation = true;
+		
+		return this;
+	}
+	
+	/**
+	 * Runs every seed in its own PRNG run context, whose stream is derived
+	 * from the specified root seed.  The results then depend only on the root
+	 * seed, and not on the state of the shared PRNG, the order of concurrent
+	 * evaluations or the number of seeds run concurrently.
+	 * 
+	 * @param rootSeed the root seed
+	 * @return a reference to this executor
+	 * @see PRNG#beginRun(long)
+	 */
+	public Executor withRootSeed(long rootSeed) {
+		this.rootSeed = rootSeed;
+		
+		return this;
+	}
+	
+	/**
+	 * Enables {@link #runSeeds(int)} to run the specified number of seeds
+	 * concurrently.  Each seed runs in its own PRNG run context, derived in
+	 * seed order from the root seed or, if none is set, from {@link PRNG}
+	 * before any seed starts, so results are reproducible regardless of
+	 * scheduling.  The problem must support
+	 * concurrent instances.  Seeds still run one after another if an
+	 * instrumenter is used.
+	 * 
+	 * @param numberOfSeedThreads the number of seeds run concurrently
+	 * @return a reference to this executor
+	 * @throws IllegalArgumentException if {@code numberOfSeedThreads <= 0}
+	 */
+	public Executor runSeedsOn(int numberOfSeedThreads) {
+		if (numberOfSeedThreads <= 0) {
+			throw new IllegalArgumentException("invalid number of threads");
+		}
+		
+		this.numberOfSeedThreads = numberOfSeedThreads;
+		
+		return this;
+	}
+	
+	/**
+	 * Enables {@link #runSeeds(int)} to run seeds concurrently on all
+	 * processors on the local host.
+	 * 
+	 * @return a reference to this executor
+	 * @see #runSeedsOn(int)
+	 */
+	public Executor runSeedsOnAllCores() {
+		return runSeedsOn(Runtime.getRuntime().availableProcessors());
+	}
+	
 	/**
 	 * Sets the checkpoint file where the algorithm state is stored.  This
 	 * method must be invoked in order to enable checkpoints.
@@ -301,6 +454,33 @@ public class Executor extends ProblemBuilder {
 		return withCheckpointFrequency(1);
 	}
 	
+	/**
+	 * Sets the number of older checkpoints retained in addition to the
+	 * checkpoint file.  Older checkpoints are used if the checkpoint file is
+	 * missing or corrupt.
+	 * 
+	 * @param checkpointHistory the number of older checkpoints retained
+	 * @return a reference to this executor
+	 */
+	public Executor withCheckpointHistory(int checkpointHistory) {
+		this.checkpointHistory = checkpointHistory;
+		
+		return this;
+	}
+	
+	/**
+	 * Enables or disables compressing the checkpoints.
+	 * 
+	 * @param checkpointCompression {@code true} if checkpoints are
+	 *        compressed; {@code false} otherwise
+	 * @return a reference to this executor
+	 */
+	public Executor withCheckpointCompression(boolean checkpointCompression) {
+		this.checkpointCompression = checkpointCompression;
+		
+		return this;
+	}
+	
 	/**
 	 * Deletes the checkpoint file if it exists.
 	 * 
@@ -310,6 +490,10 @@ public class Executor extends ProblemBuilder {
 	public Executor resetCheckpointFile() throws IOException {
 		if (checkpointFile != null) {
 			FileUtils.delete(checkpointFile);
+			
+			for (int i = 1; i <= checkpointHistory; i++) {
+				FileUtils.delete(new File(checkpointFile.getPath() + "." + i));
+			}
 		}
 		
 		return this;
@@ -581,9 +765,9 @@ public class Executor extends ProblemBuilder {
 	
 	/**
 	 * Runs this executor with its configured settings multiple times,
-	 * returning the individual end-of-run approximation sets.  If the run
-	 * is canceled, the list contains any complete seeds that finished prior
-	 * to cancellation.
+	 * returning the individual end-of-run approximation sets in seed order.
+	 * If the run is canceled, the list contains any complete seeds that
+	 * finished prior to cancellation.
 	 * 
 	 * @param numberOfSeeds the number of seeds to run
 	 * @return the individual end-of-run approximation sets
@@ -599,14 +783,37 @@ public class Executor extends ProblemBuilder {
 		
 		int maxEvaluations = properties.getInt("maxEvaluations", 25000);
 		
+		if ((numberOfSeedThreads > 1) && (numberOfSeeds > 1)) {
+			if (instrumenter == null) {
+				return runSeedsConcurrently(numberOfSeeds, maxEvaluations);
+			} else {
+				System.err.println(
+						"instrumenter not supported when running seeds " +
+						"concurrently");
+			}
+		}
+		
 		List<NondominatedPopulation> results =
 				new ArrayList<NondominatedPopulation>();
+		long[] streamSeeds = rootSeed == null ? null :
+				getStreamSeeds(numberOfSeeds);
 		
 		progress.start(numberOfSeeds, maxEvaluations);
 		
 		for (int i = 0; i < numberOfSeeds && !isCanceled.get(); i++) {
-			NondominatedPopulation result = runSingleSeed(i+1, numberOfSeeds,
-					maxEvaluations);
+			NondominatedPopulation result = null;
+			
+			if (streamSeeds == null) {
+				result = runSingleSeed(i+1, numberOfSeeds, maxEvaluations);
+			} else {
+				PRNG.beginRun(streamSeeds[i]);
+				
+				try {
+					result = runSingleSeed(i+1, numberOfSeeds, maxEvaluations);
+				} finally {
+					PRNG.endRun();
+				}
+			}
 			
 			if (result != null) {
 				results.add(result);
@@ -619,6 +826,148 @@ public class Executor extends ProblemBuilder {
 		return results;
 	}
 	
+	/**
+	 * Runs the seeds of {@link #runSeeds(int)} concurrently.  Progress is
+	 * reported as the number of completed seeds plus the combined NFE of all
+	 * running seeds.
+	 * 
+	 * @param numberOfSeeds the number of seeds to run
+	 * @param maxEvaluations to maximum number of objective function
+	 *        evaluations per seed
+	 * @return the individual end-of-run approximation sets in seed order
+	 */
+	private List<NondominatedPopulation> runSeedsConcurrently(
+			final int numberOfSeeds, final int maxEvaluations) {
+		List<Future<NondominatedPopulation>> futures =
+				new ArrayList<Future<NondominatedPopulation>>();
+		List<NondominatedPopulation> results =
+				new ArrayList<NondominatedPopulation>();
+		ExecutorService seedExecutor = Executors.newFixedThreadPool(
+				Math.min(numberOfSeedThreads, numberOfSeeds));
+		long[] streamSeeds = getStreamSeeds(numberOfSeeds);
+		
+		seedNFE = new AtomicIntegerArray(numberOfSeeds);
+		progress.start(numberOfSeeds, maxEvaluations);
+		
+		try {
+			for (int i = 0; i < numberOfSeeds; i++) {
+				final int seed = i+1;
+				final long streamSeed = streamSeeds[i];
+				final AtomicIntegerArray seedNFE = this.seedNFE;
+				
+				futures.add(seedExecutor.submit(
+						new Callable<NondominatedPopulation>() {
+
+					@Override
+					public NondominatedPopulation call() {
+						PRNG.beginRun(streamSeed);
+						
+						try {
+							if (isCanceled.get()) {
+								return null;
+							}
+							
+							NondominatedPopulation result = runSingleSeed(
+									seed, numberOfSeeds, maxEvaluations);
+							
+							if (result != null) {
+								synchronized (progress) {
+									seedNFE.set(seed-1, 0);
+									progress.nextSeed();
+									progress.setCurrentNFE(sumSeedNFE(seedNFE));
+								}
+							}
+							
+							return result;
+						} finally {
+							PRNG.endRun();
+						}
+					}
+
+				}));
+			}
+			
+			for (Future<NondominatedPopulation> future : futures) {
+				NondominatedPopulation result = future.get();
+				
+				if (result != null) {
+					results.add(result);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			isCanceled.set(true);
+		} catch (ExecutionException e) {
+			isCanceled.set(true);
+			
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			} else {
+				throw new FrameworkException(e.getCause());
+			}
+		} finally {
+			seedExecutor.shutdown();
+			seedNFE = null;
+			progress.stop();
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Returns the seeds of the PRNG streams of the given number of seeds,
+	 * derived from the root seed or, if none is set, from {@link PRNG}.
+	 * 
+	 * @param numberOfSeeds the number of seeds to run
+	 * @return the seeds of the PRNG streams in seed order
+	 */
+	private long[] getStreamSeeds(int numberOfSeeds) {
+		SplitMix64Random root = new SplitMix64Random(
+				rootSeed == null ? PRNG.nextLong() : rootSeed);
+		long[] streamSeeds = new long[numberOfSeeds];
+		
+		for (int i = 0; i < numberOfSeeds; i++) {
+			streamSeeds[i] = root.split().nextLong();
+		}
+		
+		return streamSeeds;
+	}
+	
+	/**
+	 * Returns the combined NFE of all seeds running concurrently.
+	 * 
+	 * @param seedNFE the current NFE of each seed
+	 * @return the combined NFE of all seeds running concurrently
+	 */
+	private static int sumSeedNFE(AtomicIntegerArray seedNFE) {
+		int sum = 0;
+		
+		for (int i = 0; i < seedNFE.length(); i++) {
+			sum += seedNFE.get(i);
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Reports the current NFE of a seed to the progress helper.
+	 * 
+	 * @param seed the seed being run
+	 * @param nfe the current NFE of the seed
+	 */
+	private void reportProgress(int seed, int nfe) {
+		AtomicIntegerArray seedNFE = this.seedNFE;
+		
+		if (seedNFE == null) {
+			progress.setCurrentNFE(nfe);
+		} else {
+			synchronized (progress) {
+				seedNFE.set(seed-1, nfe);
+				progress.setCurrentNFE(sumSeedNFE(seedNFE));
+			}
+		}
+	}
+
 	/**
 	 * Runs this executor with its configured settings.
 	 * 
@@ -626,7 +975,20 @@ public class Executor extends ProblemBuilder {
 	 */
 	public NondominatedPopulation run() {
 		isCanceled.set(false);
-		return runSingleSeed(1, 1, properties.getInt("maxEvaluations", 25000));
+		
+		if (rootSeed == null) {
+			return runSingleSeed(1, 1,
+					properties.getInt("maxEvaluations", 25000));
+		}
+		
+		PRNG.beginRun(getStreamSeeds(1)[0]);
+		
+		try {
+			return runSingleSeed(1, 1,
+					properties.getInt("maxEvaluations", 25000));
+		} finally {
+			PRNG.endRun();
+		}
 	}
 
 	/**
@@ -649,19 +1011,37 @@ public class Executor extends ProblemBuilder {
 			throw new IllegalArgumentException("no problem specified");
 		}
 		
+		if ((numberOfProcesses > 0) && batchEvaluation &&
+				(executorService == null)) {
+			throw new IllegalArgumentException(
+					"batch evaluation not supported with worker processes");
+		}
+		
 		Problem problem = null;
 		Algorithm algorithm = null;
 		ExecutorService executor = null;
+		ExecutorService distributor = null;
 		
 		try {
-			problem = getProblemInstance();
+			if ((numberOfProcesses > 0) && (executorService == null)) {
+				problem = getProblemReference();
+			} else {
+				problem = getProblemInstance();
+			}
 			
 			try {
 				if (executorService != null) {
-					problem = new DistributedProblem(problem, executorService);
+					distributor = executorService;
+				} else if (numberOfProcesses > 0) {
+					executor = new ProcessPoolExecutor(numberOfProcesses);
+					distributor = executor;
 				} else if (numberOfThreads > 1) {
 					executor = Executors.newFixedThreadPool(numberOfThreads);
-					problem = new DistributedProblem(problem, executor);
+					distributor = executor;
+				}
+				
+				if ((distributor != null) && !batchEvaluation) {
+					problem = new DistributedProblem(problem, distributor);
 				}
 				
 				NondominatedPopulation result = newArchive();
@@ -678,12 +1058,25 @@ public class Executor extends ProblemBuilder {
 								properties.getProperties(), 
 								problem);
 					}
+					
+					if ((distributor != null) && batchEvaluation) {
+						if (algorithm instanceof AbstractAlgorithm) {
+							((AbstractAlgorithm)algorithm).setEvaluationExecutor(
+									distributor);
+						} else {
+							throw new FrameworkException(
+									"batch evaluation not supported by " +
+									algorithmName);
+						}
+					}
 
 					if (checkpointFile != null) {
 						algorithm = new Checkpoints(
 								algorithm, 
 								checkpointFile,
-								checkpointFrequency);
+								checkpointFrequency,
+								checkpointHistory,
+								checkpointCompression);
 					}
 					
 					if (instrumenter != null) {
@@ -698,7 +1091,7 @@ public class Executor extends ProblemBuilder {
 						}
 						
 						algorithm.step();
-						progress.setCurrentNFE(algorithm.getNumberOfEvaluations());
+						reportProgress(seed, algorithm.getNumberOfEvaluations());
 					}
 
 					result.addAll(algorithm.getResult());
@@ -18,6 +18,7 @@
 package org.moeaframework;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ import java.util.Set;
 import java.util.Stack;
 
 import org.moeaframework.analysis.collector.Accumulator;
+import org.moeaframework.analysis.collector.AccumulatorWriter;
 import org.moeaframework.analysis.collector.AdaptiveMultimethodVariationCollector;
 import org.moeaframework.analysis.collector.AdaptiveTimeContinuationCollector;
 import org.moeaframework.analysis.collector.ApproximationSetCollector;
@@ -37,8 +39,10 @@ import org.moeaframework.analysis.collector.EpsilonProgressCollector;
 import org.moeaframework.analysis.collector.IndicatorCollector;
 import org.moeaframework.analysis.collector.InstrumentedAlgorithm;
 import org.moeaframework.analysis.collector.PopulationSizeCollector;
+import org.moeaframework.analysis.collector.WorkerUtilizationCollector;
 import org.moeaframework.core.Algorithm;
 import org.moeaframework.core.EpsilonBoxDominanceArchive;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.indicator.AdditiveEpsilonIndicator;
@@ -146,6 +150,12 @@ public class Instrumenter extends ProblemBuilder {
 	 * otherwise.
 	 */
 	private boolean includePopulationSize;
+	
+	/**
+	 * {@code true} if the worker utilization collector is included;
+	 * {@code false} otherwise.
+	 */
+	private boolean includeWorkerUtilization;
 
 	/**
 	 * The frequency, in evaluations, that data is collected.
@@ -159,6 +169,37 @@ public class Instrumenter extends ProblemBuilder {
 	 */
 	private final List<Collector> customCollectors;
 	
+	/**
+	 * The directory where observations other than numbers, such as
+	 * approximation sets, are spilled; or {@code null} if they are kept in
+	 * memory.
+	 */
+	private File spillDirectory;
+	
+	/**
+	 * The file to which the accumulator is streamed as the algorithm runs;
+	 * or {@code null} if the accumulator is not streamed.
+	 */
+	private File outputFile;
+	
+	/**
+	 * The format of the file to which the accumulator is streamed.
+	 */
+	private AccumulatorWriter.Format outputFormat;
+	
+	/**
+	 * The number of background threads computing the measurements of
+	 * deferred collectors; or {@code 0} if all collectors run on the search
+	 * thread.
+	 */
+	private int numberOfBackgroundThreads;
+	
+	/**
+	 * The maximum number of rows waiting for their measurements when
+	 * collecting in the background.
+	 */
+	private int maxPendingRows;
+	
 	/**
 	 * The accumulator from the last instrumented algorithm.
 	 */
@@ -194,6 +235,62 @@ public class Instrumenter extends ProblemBuilder {
 		return this;
 	}
 	
+	/**
+	 * Spills observations other than numbers, such as approximation sets, to
+	 * temporary files in the specified directory rather than keeping them in
+	 * memory.  The files remain readable after the run terminates and are
+	 * deleted by {@link Accumulator#close()}, or when the virtual machine
+	 * exits.
+	 * 
+	 * @param spillDirectory the directory where observations are spilled; or
+	 *        {@code null} to keep them in memory
+	 * @return a reference to this instrumenter
+	 */
+	public Instrumenter withSpillDirectory(File spillDirectory) {
+		this.spillDirectory = spillDirectory;
+		
+		return this;
+	}
+	
+	/**
+	 * Computes expensive measurements, such as performance indicators, on
+	 * background threads so they do not slow down the search.  Only a
+	 * snapshot of the result is taken on the search thread, which blocks when
+	 * the specified number of rows are waiting for their measurements.  The
+	 * rows are stored in the accumulator in NFE order.
+	 * 
+	 * @param numberOfThreads the number of background threads; or {@code 0}
+	 *        to run all collectors on the search thread
+	 * @param maxPendingRows the maximum number of rows waiting for their
+	 *        measurements
+	 * @return a reference to this instrumenter
+	 */
+	public Instrumenter withBackgroundCollection(int numberOfThreads,
+			int maxPendingRows) {
+		this.numberOfBackgroundThreads = numberOfThreads;
+		this.maxPendingRows = maxPendingRows;
+		
+		return this;
+	}
+	
+	/**
+	 * Streams the accumulator to the specified file while the instrumented
+	 * algorithm runs.  The file is replaced each time an algorithm is
+	 * instrumented, and is closed when the algorithm is terminated.
+	 * 
+	 * @param outputFile the file to which the accumulator is streamed; or
+	 *        {@code null} to disable streaming
+	 * @param outputFormat the format of the file
+	 * @return a reference to this instrumenter
+	 */
+	public Instrumenter withOutputFile(File outputFile,
+			AccumulatorWriter.Format outputFormat) {
+		this.outputFile = outputFile;
+		this.outputFormat = outputFormat;
+		
+		return this;
+	}
+	
 	/**
 	 * Includes the specified collector when instrumenting algorithms.
 	 * 
@@ -361,6 +458,18 @@ public class Instrumenter extends ProblemBuilder {
 		return this;
 	}
 	
+	/**
+	 * Includes the worker utilization collector when instrumenting
+	 * algorithms.
+	 * 
+	 * @return a reference to this instrumenter
+	 */
+	public Instrumenter attachWorkerUtilizationCollector() {
+		includeWorkerUtilization = true;
+		
+		return this;
+	}
+	
 	/**
 	 * Includes all collectors when instrumenting algorithms.
 	 * 
@@ -374,6 +483,7 @@ public class Instrumenter extends ProblemBuilder {
 		attachElapsedTimeCollector();
 		attachApproximationSetCollector();
 		attachPopulationSizeCollector();
+		attachWorkerUtilizationCollector();
 		
 		return this;
 	}
@@ -579,10 +689,12 @@ public class Instrumenter extends ProblemBuilder {
 						archive));
 			}
 			
+			//the contribution indicator has its own comparator, since its
+			//comparisons are not synchronized with those of the archive
 			if (includeContribution) {
 				collectors.add(new IndicatorCollector(
 						archive == null ? new Contribution(referenceSet) :
-						new Contribution(referenceSet, archive.getComparator()),
+						new Contribution(referenceSet, epsilon),
 						archive));
 			}
 		}
@@ -615,10 +727,28 @@ public class Instrumenter extends ProblemBuilder {
 			collectors.add(new PopulationSizeCollector());
 		}
 		
+		if (includeWorkerUtilization) {
+			collectors.add(new WorkerUtilizationCollector());
+		}
+		
 		collectors.addAll(customCollectors);
 		
 		InstrumentedAlgorithm instrumentedAlgorithm = new InstrumentedAlgorithm(
-				algorithm, frequency);
+				algorithm, frequency, new Accumulator(spillDirectory));
+		
+		if (numberOfBackgroundThreads > 0) {
+			instrumentedAlgorithm.collectInBackground(
+					numberOfBackgroundThreads, maxPendingRows);
+		}
+		
+		if (outputFile != null) {
+			try {
+				instrumentedAlgorithm.setWriter(new AccumulatorWriter(
+						outputFile, outputFormat));
+			} catch (IOException e) {
+				throw new FrameworkException(e);
+			}
+		}
 		
 		instrument(instrumentedAlgorithm, collectors, new HashSet<Object>(), 
 				new Stack<Object>(), algorithm, null);
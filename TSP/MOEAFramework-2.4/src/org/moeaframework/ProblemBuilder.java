@@ -24,11 +24,12 @@ import java.lang.reflect.InvocationTargetException;
 import org.apache.commons.lang3.reflect.ConstructorUtils;
 import org.moeaframework.core.EpsilonBoxDominanceArchive;
 import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.NDTreeArchive;
 import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.PopulationIO;
 import org.moeaframework.core.Problem;
-import org.moeaframework.core.comparator.ParetoDominanceComparator;
 import org.moeaframework.core.spi.ProblemFactory;
+import org.moeaframework.util.distributed.ProblemReference;
 
 /**
  * Provides builder methods for instantiating problems and their reference sets.
@@ -197,16 +198,16 @@ class ProblemBuilder {
 	}
 	
 	/**
-	 * Returns an empty non-dominated population or &epsilon;-box dominance
-	 * archive, depending on whether the {@code epsilon} field is set.  This is
-	 * the archive used to store the reference set.
+	 * Returns an empty ND-Tree archive or &epsilon;-box dominance archive,
+	 * depending on whether the {@code epsilon} field is set.  This is the
+	 * archive used to store the reference set.
 	 * 
-	 * @return an empty non-dominated population or &epsilon;-box dominance
-	 *         archive, depending on whether the {@code epsilon} field is set.
+	 * @return an empty ND-Tree archive or &epsilon;-box dominance archive,
+	 *         depending on whether the {@code epsilon} field is set.
 	 */
 	NondominatedPopulation newArchive() {
 		if (epsilon == null) {
-			return new NondominatedPopulation(new ParetoDominanceComparator());
+			return new NDTreeArchive();
 		} else {
 			return new EpsilonBoxDominanceArchive(epsilon);
 		}
@@ -302,4 +303,26 @@ class ProblemBuilder {
 		}
 	}
 	
+	/**
+	 * Returns a serializable reference to the problem used by this builder,
+	 * which creates its own instance of the problem in each process it is
+	 * sent to.  The problem arguments and problem factory, if any, must be
+	 * serializable.
+	 * 
+	 * @return a serializable reference to the problem used by this builder
+	 * @throws IllegalArgumentException if no problem has been defined, or if
+	 *         the problem arguments or problem factory are not serializable
+	 */
+	ProblemReference getProblemReference() {
+		if ((problemName == null) && (problemClass == null)) {
+			throw new IllegalArgumentException("no problem specified");
+		}
+		
+		if (problemClass != null) {
+			return new ProblemReference(problemClass, problemArguments);
+		} else {
+			return new ProblemReference(problemName, problemFactory);
+		}
+	}
+	
 }
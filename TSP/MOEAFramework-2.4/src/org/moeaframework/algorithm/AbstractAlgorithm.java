@@ -19,11 +19,20 @@ package org.moeaframework.algorithm;
 
 import java.io.NotSerializableException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.moeaframework.core.Algorithm;
+import org.moeaframework.core.PRNG;
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
+import org.moeaframework.problem.ProblemException;
 
 /**
  * Abstract class providing default implementations for several
@@ -31,6 +40,11 @@ import org.moeaframework.core.Solution;
  * {@link #evaluate} method to evaluate a solution. This is mandatory to ensure
  * the {@link #getNumberOfEvaluations()} method returns the correct result.
  * <p>
+ * If an evaluation executor is set, {@link #evaluateAll(Iterable)} submits
+ * all solutions of a batch to the executor and waits until every one is
+ * evaluated.  The problem must then support concurrent calls to
+ * {@link Problem#evaluate(Solution)}.
+ * <p>
  * Subclasses should avoid overriding the {@link #step()} method and instead
  * override the {@link #initialize()} and {@link #iterate()} methods
  * individually.
@@ -59,6 +73,13 @@ public abstract class AbstractAlgorithm implements Algorithm {
 	 */
 	protected boolean terminated;
 
+	/**
+	 * The executor used by {@link #evaluateAll(Iterable)} to evaluate batches
+	 * of solutions concurrently; or {@code null} if solutions are evaluated
+	 * serially.
+	 */
+	private ExecutorService evaluationExecutor;
+
 	/**
 	 * Constructs an abstract algorithm for solving the specified problem.
 	 * 
@@ -70,17 +91,77 @@ public abstract class AbstractAlgorithm implements Algorithm {
 	}
 
 	/**
-	 * Evaluates the specified solutions. This method calls
-	 * {@link #evaluate(Solution)} on each of the solutions. Subclasses should
-	 * prefer calling this method over {@code evaluate} whenever possible,
-	 * as this ensures the solutions can be evaluated in parallel.
+	 * Sets the executor used to evaluate batches of solutions concurrently.
+	 * The executor is not shut down by this algorithm.
+	 * 
+	 * @param evaluationExecutor the executor; or {@code null} to evaluate
+	 *        solutions serially
+	 */
+	public void setEvaluationExecutor(ExecutorService evaluationExecutor) {
+		this.evaluationExecutor = evaluationExecutor;
+	}
+
+	/**
+	 * Returns the executor used to evaluate batches of solutions
+	 * concurrently; or {@code null} if solutions are evaluated serially.
+	 * 
+	 * @return the executor used to evaluate batches of solutions
+	 *         concurrently; or {@code null} if solutions are evaluated
+	 *         serially
+	 */
+	public ExecutorService getEvaluationExecutor() {
+		return evaluationExecutor;
+	}
+
+	/**
+	 * Evaluates the specified solutions. Without an evaluation executor, this
+	 * method calls {@link #evaluate(Solution)} on each of the solutions.
+	 * Otherwise, all solutions are submitted to the executor and this method
+	 * returns once all are evaluated.  Subclasses should prefer calling this
+	 * method over {@code evaluate} whenever possible, as this ensures the
+	 * solutions can be evaluated in parallel.
 	 * 
 	 * @param solutions the solutions to evaluate
+	 * @throws ProblemException if the evaluation of a solution failed or was
+	 *         interrupted
 	 */
 	public void evaluateAll(Iterable<Solution> solutions) {
-		for (Solution solution : solutions) {
-			evaluate(solution);
+		if (evaluationExecutor == null) {
+			for (Solution solution : solutions) {
+				evaluate(solution);
+			}
+			
+			return;
+		}
+		
+		List<Future<Solution>> futures = new ArrayList<Future<Solution>>();
+		
+		try {
+			for (Solution solution : solutions) {
+				futures.add(evaluationExecutor.submit(
+						newEvaluationTask(solution)));
+			}
+			
+			for (Future<Solution> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProblemException(problem,
+					"interrupted while evaluating solutions", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			} else {
+				throw new ProblemException(problem, e.getCause());
+			}
+		} finally {
+			for (Future<Solution> future : futures) {
+				future.cancel(true);
+			}
 		}
+		
+		numberOfEvaluations += futures.size();
 	}
 	
 	/**
@@ -95,9 +176,55 @@ public abstract class AbstractAlgorithm implements Algorithm {
 
 	@Override
 	public void evaluate(Solution solution) {
-		problem.evaluate(solution);
+		evaluateWith(solution, PRNG.newEvaluationRandom());
 		numberOfEvaluations++;
 	}
+	
+	/**
+	 * Returns a task evaluating the specified solution on the thread calling
+	 * the task.  The source of randomness of the evaluation is drawn when this
+	 * method is invoked, so the results do not depend on which thread runs the
+	 * task.  The task does not update the number of evaluations.
+	 * 
+	 * @param solution the solution to evaluate
+	 * @return a task evaluating the specified solution
+	 */
+	protected Callable<Solution> newEvaluationTask(final Solution solution) {
+		final Random random = PRNG.newEvaluationRandom();
+		
+		return new Callable<Solution>() {
+
+			@Override
+			public Solution call() {
+				evaluateWith(solution, random);
+				return solution;
+			}
+
+		};
+	}
+
+	/**
+	 * Evaluates the specified solution on the current thread, drawing from the
+	 * given source of randomness.
+	 * 
+	 * @param solution the solution to evaluate
+	 * @param random the source of randomness for this evaluation; or
+	 *        {@code null} to use the source of the current thread
+	 */
+	private void evaluateWith(Solution solution, Random random) {
+		if (random == null) {
+			problem.evaluate(solution);
+		} else {
+			Random previous = PRNG.getThreadRandom();
+			PRNG.setThreadRandom(random);
+			
+			try {
+				problem.evaluate(solution);
+			} finally {
+				PRNG.setThreadRandom(previous);
+			}
+		}
+	}
 
 	@Override
 	public int getNumberOfEvaluations() {
@@ -0,0 +1,270 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.moeaframework.core.EpsilonBoxDominanceArchive;
+import org.moeaframework.core.Initialization;
+import org.moeaframework.core.Population;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.Selection;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variation;
+import org.moeaframework.core.comparator.DominanceComparator;
+import org.moeaframework.problem.ProblemException;
+
+/**
+ * Asynchronous master-worker variant of the &epsilon;-MOEA for problems with
+ * expensive evaluations of varying cost.  Instead of waiting for a batch of
+ * evaluations to complete, this algorithm keeps one offspring under
+ * evaluation per worker.  Each invocation of {@link #step()} waits for the
+ * next evaluation to complete, inserts the evaluated offspring into the
+ * population and archive using the replacement strategy of the
+ * &epsilon;-MOEA, and immediately submits new offspring so that no worker
+ * stays idle.
+ * <p>
+ * The workers are the threads of the evaluation executor set by
+ * {@link #setEvaluationExecutor(ExecutorService)}, which is used to evaluate
+ * the initial population as a batch.  Without an evaluation executor, this
+ * algorithm behaves like the &epsilon;-MOEA.  Since offspring are inserted
+ * in the order their evaluations complete, runs are not reproducible when
+ * evaluated by more than one worker.  Offspring still being evaluated when
+ * the algorithm is terminated are discarded and not counted as evaluations.
+ * <p>
+ * References:
+ * <ol>
+ *   <li>Hadka, D. and Reed, P. "Large-scale Parallelization of the Borg
+ *   Multiobjective Evolutionary Algorithm to Enhance the Management of
+ *   Complex Environmental Systems."  Environmental Modelling &amp; Software,
+ *   69:353-369, 2015.
+ * </ol>
+ */
+public class AsynchronousEpsilonMOEA extends EpsilonMOEA {
+	
+	/**
+	 * The number of offspring kept under evaluation; or {@code 0} if derived
+	 * from the evaluation executor.
+	 */
+	private final int numberOfWorkers;
+	
+	/**
+	 * The completion service receiving the evaluated offspring; or
+	 * {@code null} if no offspring were submitted yet.
+	 */
+	private CompletionService<Solution> completionService;
+	
+	/**
+	 * The evaluations that have not been received yet.
+	 */
+	private final Set<Future<Solution>> pending;
+	
+	/**
+	 * The offspring generated by the variation operator that have not been
+	 * submitted yet.
+	 */
+	private final Queue<Solution> offspring;
+	
+	/**
+	 * The total time, in nanoseconds, spent by the workers evaluating
+	 * offspring.
+	 */
+	private final AtomicLong busyTime;
+	
+	/**
+	 * The time, in nanoseconds, the first offspring was submitted.
+	 */
+	private long startTime;
+	
+	/**
+	 * The time, in nanoseconds, this algorithm was terminated; or {@code 0}
+	 * if this algorithm is not terminated.
+	 */
+	private long stopTime;
+
+	/**
+	 * Constructs the asynchronous &epsilon;-MOEA algorithm with the specified
+	 * components.
+	 * 
+	 * @param problem the problem being solved
+	 * @param population the population used to store solutions
+	 * @param archive the archive used to store the result
+	 * @param selection the selection operator
+	 * @param variation the variation operator
+	 * @param initialization the initialization method
+	 * @param dominanceComparator the dominance comparator used by the
+	 *        {@link #addToPopulation} method
+	 * @param numberOfWorkers the number of offspring kept under evaluation;
+	 *        or {@code 0} to use the number of threads of the evaluation
+	 *        executor
+	 */
+	public AsynchronousEpsilonMOEA(Problem problem, Population population,
+			EpsilonBoxDominanceArchive archive, Selection selection,
+			Variation variation, Initialization initialization,
+			DominanceComparator dominanceComparator, int numberOfWorkers) {
+		super(problem, population, archive, selection, variation,
+				initialization, dominanceComparator);
+		this.numberOfWorkers = numberOfWorkers;
+		
+		pending = new HashSet<Future<Solution>>();
+		offspring = new ArrayDeque<Solution>();
+		busyTime = new AtomicLong();
+	}
+	
+	/**
+	 * Returns the number of offspring kept under evaluation.  Unless given
+	 * explicitly, this is the maximum pool size of the evaluation executor if
+	 * it is a {@link ThreadPoolExecutor}, or the number of available
+	 * processors otherwise.
+	 * 
+	 * @return the number of offspring kept under evaluation
+	 */
+	public int getNumberOfWorkers() {
+		if (numberOfWorkers > 0) {
+			return numberOfWorkers;
+		} else if (getEvaluationExecutor() instanceof ThreadPoolExecutor) {
+			return ((ThreadPoolExecutor)getEvaluationExecutor())
+					.getMaximumPoolSize();
+		} else {
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+	
+	/**
+	 * Returns the fraction of time the workers spent evaluating offspring
+	 * since the first offspring was submitted, ranging from {@code 0} to
+	 * {@code 1}.  Evaluations of the initial population are not included.
+	 * 
+	 * @return the fraction of time the workers spent evaluating offspring
+	 */
+	public double getWorkerUtilization() {
+		if (completionService == null) {
+			return 0.0;
+		}
+		
+		long elapsedTime = (stopTime == 0 ? System.nanoTime() : stopTime) -
+				startTime;
+		
+		if (elapsedTime <= 0) {
+			return 0.0;
+		}
+		
+		return Math.min(1.0, busyTime.get() /
+				((double)elapsedTime * getNumberOfWorkers()));
+	}
+
+	@Override
+	public void iterate() {
+		if (getEvaluationExecutor() == null) {
+			super.iterate();
+			return;
+		}
+		
+		if (completionService == null) {
+			completionService = new ExecutorCompletionService<Solution>(
+					getEvaluationExecutor());
+			startTime = System.nanoTime();
+			submitOffspring();
+		}
+		
+		Solution child = null;
+		
+		try {
+			Future<Solution> future = completionService.take();
+			pending.remove(future);
+			child = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProblemException(problem,
+					"interrupted while evaluating solutions", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			} else {
+				throw new ProblemException(problem, e.getCause());
+			}
+		}
+		
+		numberOfEvaluations++;
+		addToPopulation(child);
+		archive.add(child);
+		
+		submitOffspring();
+	}
+	
+	/**
+	 * Submits new offspring until one offspring is under evaluation per
+	 * worker.
+	 */
+	private void submitOffspring() {
+		int workers = getNumberOfWorkers();
+		
+		while (pending.size() < workers) {
+			if (offspring.isEmpty()) {
+				for (Solution child : newOffspring()) {
+					offspring.add(child);
+				}
+			}
+			
+			final Callable<Solution> task = newEvaluationTask(offspring.poll());
+			
+			pending.add(completionService.submit(new Callable<Solution>() {
+
+				@Override
+				public Solution call() throws Exception {
+					long start = System.nanoTime();
+					
+					try {
+						return task.call();
+					} finally {
+						busyTime.addAndGet(System.nanoTime() - start);
+					}
+				}
+				
+			}));
+		}
+	}
+
+	/**
+	 * Cancels the offspring still under evaluation and terminates this
+	 * algorithm.
+	 */
+	@Override
+	public void terminate() {
+		for (Future<Solution> future : pending) {
+			future.cancel(true);
+		}
+		
+		pending.clear();
+		stopTime = System.nanoTime();
+		
+		super.terminate();
+	}
+
+}
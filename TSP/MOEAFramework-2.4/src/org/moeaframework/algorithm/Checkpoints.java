@@ -19,15 +19,30 @@ package org.moeaframework.algorithm;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.moeaframework.core.Algorithm;
+import org.moeaframework.util.io.FileUtils;
 
 /**
  * Decorates an {@link Algorithm} to periodically save checkpoint files from
@@ -42,14 +57,111 @@ import org.moeaframework.core.Algorithm;
  * while (!algorithm.isTerminated()) {
  *   algorithm.step(); //periodically saves state to last.state
  * }
+ * 
+ * algorithm.terminate(); //waits for the last checkpoint to be written
  * </pre>
+ * <p>
+ * The search thread only serializes the algorithm state into memory.  The
+ * resulting snapshot is written by a background thread to a temporary file
+ * in the same directory, which is then renamed to the state file, so a crash
+ * never leaves a partially written state file behind.  If a snapshot is taken
+ * while the previous one is still being written, only the newest snapshot is
+ * kept.  Optionally, older checkpoints are retained as {@code stateFile.1},
+ * {@code stateFile.2}, etc. (most recent first) and are used if the state
+ * file is missing or corrupt.  The state file is copied to
+ * {@code stateFile.1} rather than moved, and is only replaced once the older
+ * checkpoints are rotated, so the state file is never missing while the
+ * checkpoint is written.
+ * <p>
+ * Checkpoints are stored with a short header containing the length of the
+ * serialized state and a CRC-32 checksum of the header and the serialized
+ * state, optionally followed by the compressed state.  State files written by
+ * previous versions, which contain only the serialized state, can still be
+ * read.
  */
 public class Checkpoints extends PeriodicAction {
+	
+	/**
+	 * The magic number identifying the checkpoint format.
+	 */
+	private static final int MAGIC = 0x4D4F4541;
+	
+	/**
+	 * The version of the checkpoint format.
+	 */
+	private static final int VERSION = 2;
+	
+	/**
+	 * Flag indicating the serialized state is compressed.
+	 */
+	private static final int COMPRESSED = 1;
+	
+	/**
+	 * The length, in bytes, of the header preceding the serialized state.
+	 */
+	private static final int HEADER_SIZE = 14;
+	
+	/**
+	 * The maximum ratio between the uncompressed and compressed length of
+	 * data compressed by a {@link Deflater}.
+	 */
+	private static final int MAX_COMPRESSION_RATIO = 1032;
 
 	/**
 	 * The file containing the checkpoint states.
 	 */
 	private final File stateFile;
+	
+	/**
+	 * The number of older checkpoints retained in addition to the state file.
+	 */
+	private final int history;
+	
+	/**
+	 * {@code true} if the serialized state is compressed; {@code false}
+	 * otherwise.
+	 */
+	private final boolean compress;
+	
+	/**
+	 * The snapshot waiting to be written by the background thread; or
+	 * {@code null} if no snapshot is waiting.
+	 */
+	private final AtomicReference<Snapshot> pending;
+	
+	/**
+	 * The background thread writing the snapshots; or {@code null} if no
+	 * snapshot has been taken yet.
+	 */
+	private ExecutorService writer;
+	
+	/**
+	 * The size of the last serialized state, used to size the buffer of the
+	 * next snapshot.
+	 */
+	private int lastStateSize;
+	
+	/**
+	 * The number of checkpoints written.
+	 */
+	private volatile int numberOfCheckpoints;
+	
+	/**
+	 * The time, in nanoseconds, the search thread spent taking the last
+	 * snapshot.
+	 */
+	private volatile long lastSnapshotTime;
+	
+	/**
+	 * The time, in nanoseconds, the background thread spent writing the last
+	 * checkpoint.
+	 */
+	private volatile long lastWriteTime;
+	
+	/**
+	 * The size, in bytes, of the last checkpoint file.
+	 */
+	private volatile long lastCheckpointSize;
 
 	/**
 	 * Decorates an algorithm to periodically save checkpoints from which the
@@ -62,36 +174,248 @@ public class Checkpoints extends PeriodicAction {
 	 */
 	public Checkpoints(Algorithm algorithm, File stateFile,
 			int checkpointFrequency) {
+		this(algorithm, stateFile, checkpointFrequency, 0, false);
+	}
+	
+	/**
+	 * Decorates an algorithm to periodically save checkpoints from which the
+	 * algorithm can resume itself if unexpectedly terminated, retaining the
+	 * given number of older checkpoints.
+	 * 
+	 * @param algorithm the algorithm
+	 * @param stateFile the file containing the checkpoint states
+	 * @param checkpointFrequency the number of objective function evaluations
+	 *        between checkpoints
+	 * @param history the number of older checkpoints retained in addition to
+	 *        the state file
+	 * @param compress {@code true} if the checkpoints are compressed;
+	 *        {@code false} otherwise
+	 */
+	public Checkpoints(Algorithm algorithm, File stateFile,
+			int checkpointFrequency, int history, boolean compress) {
 		super(algorithm, checkpointFrequency, FrequencyType.EVALUATIONS);
 		this.stateFile = stateFile;
+		this.history = history;
+		this.compress = compress;
+		
+		pending = new AtomicReference<Snapshot>();
 
-		if (stateFile.exists() && (stateFile.length() != 0L)) {
-			try {
-				algorithm.setState(loadState());
-			} catch (Exception e) {
-				e.printStackTrace();
-				System.err.println(
-						"an error occurred while reading the state file");
+		for (int i = 0; i <= history; i++) {
+			File file = getCheckpointFile(i);
+			
+			if (file.exists() && (file.length() != 0L)) {
+				try {
+					algorithm.setState(loadState(file));
+					break;
+				} catch (Exception e) {
+					e.printStackTrace();
+					System.err.println(
+							"an error occurred while reading the state file " +
+							file);
+				}
 			}
 		}
 	}
+	
+	/**
+	 * Returns the file storing the i-th most recent checkpoint, where
+	 * {@code 0} is the state file itself.
+	 * 
+	 * @param i the index of the checkpoint
+	 * @return the file storing the i-th most recent checkpoint
+	 */
+	private File getCheckpointFile(int i) {
+		if (i == 0) {
+			return stateFile;
+		} else {
+			return new File(stateFile.getPath() + "." + i);
+		}
+	}
+	
+	/**
+	 * Returns the number of checkpoints written.
+	 * 
+	 * @return the number of checkpoints written
+	 */
+	public int getNumberOfCheckpoints() {
+		return numberOfCheckpoints;
+	}
+
+	/**
+	 * Returns the time, in nanoseconds, the search thread spent taking the
+	 * last snapshot.  This is the time the search is paused by each
+	 * checkpoint.
+	 * 
+	 * @return the time, in nanoseconds, the search thread spent taking the
+	 *         last snapshot
+	 */
+	public long getLastSnapshotTime() {
+		return lastSnapshotTime;
+	}
+
+	/**
+	 * Returns the time, in nanoseconds, the background thread spent writing
+	 * the last checkpoint, including compression.
+	 * 
+	 * @return the time, in nanoseconds, the background thread spent writing
+	 *         the last checkpoint
+	 */
+	public long getLastWriteTime() {
+		return lastWriteTime;
+	}
+
+	/**
+	 * Returns the size, in bytes, of the last checkpoint file.
+	 * 
+	 * @return the size, in bytes, of the last checkpoint file
+	 */
+	public long getLastCheckpointSize() {
+		return lastCheckpointSize;
+	}
 
 	/**
-	 * Saves the state.
+	 * Serializes the state into memory.
 	 * 
 	 * @param state the state
+	 * @return the snapshot of the state
 	 * @throws IOException if an I/O error occurred
 	 */
-	private void saveState(Serializable state) throws IOException {
-		ObjectOutputStream oos = null;
+	private Snapshot takeSnapshot(Serializable state) throws IOException {
+		Snapshot snapshot = new Snapshot(Math.max(lastStateSize, 8192));
+		ObjectOutputStream oos = new ObjectOutputStream(snapshot);
+		
+		oos.writeObject(state);
+		oos.close();
+		
+		lastStateSize = snapshot.size();
+		return snapshot;
+	}
 
+	/**
+	 * Saves the snapshot, replacing the state file and rotating the older
+	 * checkpoints.
+	 * 
+	 * @param snapshot the snapshot of the state
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void saveState(Snapshot snapshot) throws IOException {
+		File directory = stateFile.getAbsoluteFile().getParentFile();
+		File tempFile = File.createTempFile(stateFile.getName(), ".tmp",
+				directory);
+		
 		try {
-			oos = new ObjectOutputStream(new BufferedOutputStream(
-					new FileOutputStream(stateFile)));
-			oos.writeObject(state);
+			FileOutputStream fos = new FileOutputStream(tempFile);
+			
+			try {
+				DataOutputStream dos = new DataOutputStream(
+						new BufferedOutputStream(fos));
+				byte[] header = toHeader(VERSION, compress ? COMPRESSED : 0,
+						snapshot.size());
+				CRC32 crc = new CRC32();
+				
+				crc.update(header);
+				crc.update(snapshot.getBuffer(), 0, snapshot.size());
+				dos.write(header);
+				dos.writeInt((int)crc.getValue());
+				
+				if (compress) {
+					Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+					DeflaterOutputStream out = new DeflaterOutputStream(dos,
+							deflater, 65536);
+					
+					out.write(snapshot.getBuffer(), 0, snapshot.size());
+					out.finish();
+					deflater.end();
+				} else {
+					dos.write(snapshot.getBuffer(), 0, snapshot.size());
+				}
+				
+				dos.flush();
+				fos.getFD().sync();
+			} finally {
+				fos.close();
+			}
+			
+			lastCheckpointSize = tempFile.length();
+			
+			rotate(directory);
+			replace(tempFile, stateFile);
 		} finally {
-			if (oos != null) {
-				oos.close();
+			if (tempFile.exists()) {
+				tempFile.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Shifts the older checkpoints by one and copies the state file to
+	 * {@code stateFile.1}.  The state file is left in place until it is
+	 * replaced by the new checkpoint.
+	 * 
+	 * @param directory the directory containing the state file
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void rotate(File directory) throws IOException {
+		if (history == 0) {
+			return;
+		}
+		
+		for (int i = history; i >= 2; i--) {
+			File file = getCheckpointFile(i - 1);
+			
+			if (file.exists()) {
+				replace(file, getCheckpointFile(i));
+			}
+		}
+		
+		if (stateFile.exists()) {
+			File copyFile = File.createTempFile(stateFile.getName(), ".tmp",
+					directory);
+			
+			try {
+				FileUtils.copy(stateFile, copyFile);
+				replace(copyFile, getCheckpointFile(1));
+			} finally {
+				if (copyFile.exists()) {
+					copyFile.delete();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the header fields covered by the checksum: the magic number,
+	 * the version, the flags and the length of the serialized state.
+	 * 
+	 * @param version the version of the checkpoint format
+	 * @param flags the flags
+	 * @param size the length of the serialized state
+	 * @return the header fields covered by the checksum
+	 */
+	private static byte[] toHeader(int version, int flags, int size) {
+		return new byte[] {
+				(byte)(MAGIC >>> 24), (byte)(MAGIC >>> 16),
+				(byte)(MAGIC >>> 8), (byte)MAGIC,
+				(byte)version, (byte)flags,
+				(byte)(size >>> 24), (byte)(size >>> 16),
+				(byte)(size >>> 8), (byte)size };
+	}
+	
+	/**
+	 * Renames a file, replacing the destination if it exists.  On most
+	 * platforms the rename replaces the destination atomically; otherwise the
+	 * destination is deleted first.
+	 * 
+	 * @param source the file being renamed
+	 * @param destination the new name of the file
+	 * @throws IOException if the file could not be renamed
+	 */
+	private static void replace(File source, File destination)
+			throws IOException {
+		if (!source.renameTo(destination)) {
+			if (!destination.delete() || !source.renameTo(destination)) {
+				throw new IOException("unable to rename " + source + " to " +
+						destination);
 			}
 		}
 	}
@@ -99,33 +423,185 @@ public class Checkpoints extends PeriodicAction {
 	/**
 	 * Loads the state.
 	 * 
+	 * @param file the checkpoint file
 	 * @return the state
 	 * @throws IOException if an I/O error occurred
 	 * @throws ClassNotFoundException if the class of a serialized object could
 	 *         not be found.
 	 */
-	private Object loadState() throws IOException, ClassNotFoundException {
-		ObjectInputStream ois = null;
+	private static Object loadState(File file) throws IOException,
+			ClassNotFoundException {
+		DataInputStream dis = null;
 
 		try {
-			ois = new ObjectInputStream(new BufferedInputStream(
-					new FileInputStream(stateFile)));
-			return ois.readObject();
+			dis = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(file)));
+			dis.mark(4);
+			
+			if (dis.readInt() != MAGIC) {
+				// state files written by previous versions
+				dis.reset();
+				return new ObjectInputStream(dis).readObject();
+			}
+			
+			int version = dis.readUnsignedByte();
+			int flags = dis.readUnsignedByte();
+			int size = dis.readInt();
+			int checksum = dis.readInt();
+			
+			if (version != VERSION) {
+				throw new IOException("unsupported checkpoint version " +
+						version);
+			}
+			
+			// the size is only verified by the checksum after reading the
+			// state, so check it against the file length before allocating
+			long available = file.length() - HEADER_SIZE;
+			
+			if ((size < 0) || (((flags & COMPRESSED) == 0) ?
+					(size != available) :
+					(size > available * MAX_COMPRESSION_RATIO))) {
+				throw new IOException("invalid state length " + size +
+						" in " + file);
+			}
+			
+			InputStream in = dis;
+			
+			if ((flags & COMPRESSED) != 0) {
+				in = new InflaterInputStream(dis);
+			}
+			
+			byte[] buffer = new byte[size];
+			new DataInputStream(in).readFully(buffer);
+			
+			CRC32 crc = new CRC32();
+			crc.update(toHeader(version, flags, size));
+			crc.update(buffer);
+			
+			if ((int)crc.getValue() != checksum) {
+				throw new IOException("checksum mismatch in " + file);
+			}
+			
+			return new ObjectInputStream(new ByteArrayInputStream(buffer))
+					.readObject();
 		} finally {
-			if (ois != null) {
-				ois.close();
+			if (dis != null) {
+				dis.close();
 			}
 		}
 	}
 	
 	@Override
 	public void doAction() {
+		long start = System.nanoTime();
+		Snapshot snapshot = null;
+		
 		try {
-			saveState(algorithm.getState());
+			snapshot = takeSnapshot(algorithm.getState());
 		} catch (IOException e) {
 			System.err.println(
 					"an error occurred while writing the state file");
+			return;
+		}
+		
+		if (writer == null) {
+			writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "checkpoints");
+					thread.setDaemon(true);
+					return thread;
+				}
+				
+			});
+		}
+		
+		// only submit a new task if the previous snapshot was already taken
+		// by the background thread
+		if (pending.getAndSet(snapshot) == null) {
+			writer.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					Snapshot snapshot = pending.getAndSet(null);
+					
+					if (snapshot != null) {
+						long start = System.nanoTime();
+						
+						try {
+							saveState(snapshot);
+							lastWriteTime = System.nanoTime() - start;
+							numberOfCheckpoints++;
+						} catch (IOException e) {
+							System.err.println(
+									"an error occurred while writing the " +
+									"state file");
+						}
+					}
+				}
+				
+			});
+		}
+		
+		lastSnapshotTime = System.nanoTime() - start;
+	}
+	
+	/**
+	 * Waits until all snapshots are written.
+	 */
+	public void flush() {
+		if (writer != null) {
+			writer.shutdown();
+			
+			try {
+				writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			writer = null;
+		}
+	}
+	
+	/**
+	 * Terminates the underlying algorithm and waits until all snapshots are
+	 * written.
+	 */
+	@Override
+	public void terminate() {
+		try {
+			super.terminate();
+		} finally {
+			flush();
+		}
+	}
+	
+	/**
+	 * In-memory buffer holding a serialized state, giving direct access to its
+	 * contents to avoid copying.
+	 */
+	private static class Snapshot extends ByteArrayOutputStream {
+		
+		/**
+		 * Constructs a new, empty snapshot.
+		 * 
+		 * @param size the initial capacity of the snapshot
+		 */
+		public Snapshot(int size) {
+			super(size);
+		}
+		
+		/**
+		 * Returns the buffer storing the serialized state.  Only the first
+		 * {@link #size()} bytes are valid.
+		 * 
+		 * @return the buffer storing the serialized state
+		 */
+		public byte[] getBuffer() {
+			return buf;
 		}
+		
 	}
 
 }
@@ -18,6 +18,7 @@
 package org.moeaframework.algorithm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -39,6 +40,14 @@ import org.moeaframework.core.comparator.ParetoDominanceComparator;
  * evolved per step, and uses an &epsilon;-dominance archive to maintain a
  * well-spread set of Pareto-optimal solutions.
  * <p>
+ * When an evaluation executor is set, each step instead produces as many
+ * offspring as there are solutions in the population, all selected from the
+ * population and archive at the start of the step, evaluates them as one
+ * batch, and then adds them one after another.  This keeps the executor busy
+ * at the cost of selecting from a slightly older population; results
+ * therefore differ from the serial algorithm, but do not depend on the number
+ * of threads.
+ * <p>
  * References:
  * <ol>
  *   <li>Deb et al. "A Fast Multi-Objective Evolutionary Algorithm for Finding
@@ -104,6 +113,36 @@ public class EpsilonMOEA extends AbstractEvolutionaryAlgorithm implements
 
 	@Override
 	public void iterate() {
+		Solution[] children = null;
+		
+		if (getEvaluationExecutor() == null) {
+			children = newOffspring();
+		} else {
+			List<Solution> batch = new ArrayList<Solution>();
+			
+			while (batch.size() < population.size()) {
+				batch.addAll(Arrays.asList(newOffspring()));
+			}
+			
+			children = batch.toArray(new Solution[batch.size()]);
+		}
+
+		evaluateAll(children);
+
+		for (Solution child : children) {
+			addToPopulation(child);
+			archive.add(child);
+		}
+	}
+	
+	/**
+	 * Selects parents from the population and archive and returns the
+	 * offspring produced by the variation operator.  The offspring are not
+	 * evaluated.
+	 * 
+	 * @return the offspring
+	 */
+	protected Solution[] newOffspring() {
 		Solution[] parents = null;
 		
 		if (archive.size() <= 1) {
@@ -116,13 +155,7 @@ public class EpsilonMOEA extends AbstractEvolutionaryAlgorithm implements
 		
 		PRNG.shuffle(parents);
 
-		Solution[] children = variation.evolve(parents);
-
-		for (Solution child : children) {
-			evaluate(child);
-			addToPopulation(child);
-			archive.add(child);
-		}
+		return variation.evolve(parents);
 	}
 
 	/**
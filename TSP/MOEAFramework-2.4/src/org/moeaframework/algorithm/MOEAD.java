@@ -40,6 +40,13 @@ import org.moeaframework.core.Variation;
  * specification from [1] as well as the utility-based search extension from
  * [2].
  * <p>
+ * When an evaluation executor is set, each generation first produces the
+ * offspring of every subproblem searched, with parents drawn from the
+ * population at the start of the generation, evaluates them as one batch,
+ * and then updates the ideal point and neighborhoods in the order of the
+ * subproblems.  Results therefore differ from the serial algorithm, but do
+ * not depend on the number of threads.
+ * <p>
  * References:
  * <ol>
  * <li>Li, H. and Zhang, Q. "Multiobjective Optimization problems with
@@ -627,36 +634,38 @@ public class MOEAD extends AbstractAlgorithm {
 	public void iterate() {
 		List<Integer> indices = getSubproblemsToSearch();
 
-		for (Integer index : indices) {
-			List<Integer> matingIndices = getMatingIndices(index);
-
-			Solution[] parents = new Solution[variation.getArity()];
-			parents[0] = population.get(index).getSolution();
-			
-			if (variation.getArity() > 2) {
-				// mimic MOEA/D parent selection for differential evolution
-				PRNG.shuffle(matingIndices);
+		if (getEvaluationExecutor() == null) {
+			for (Integer index : indices) {
+				List<Integer> matingIndices = getMatingIndices(index);
+				Solution[] offspring = newOffspring(index, matingIndices);
 				
-				for (int i = 1; i < variation.getArity()-1; i++) {
-					parents[i] = population.get(
-							matingIndices.get(i-1)).getSolution();
-				}
+				evaluateAll(offspring);
 				
-				parents[variation.getArity()-1] = 
-						population.get(index).getSolution();
-			} else {
-				for (int i = 1; i < variation.getArity(); i++) {
-					parents[i] = population.get(
-							PRNG.nextItem(matingIndices)).getSolution();
+				for (Solution child : offspring) {
+					updateIdealPoint(child);
+					updateSolution(child, matingIndices);
 				}
 			}
-
-			Solution[] offspring = variation.evolve(parents);
-
-			for (Solution child : offspring) {
-				evaluate(child);
-				updateIdealPoint(child);
-				updateSolution(child, matingIndices);
+		} else {
+			List<List<Integer>> matingIndices = new ArrayList<List<Integer>>();
+			List<Solution[]> offspring = new ArrayList<Solution[]>();
+			List<Solution> batch = new ArrayList<Solution>();
+			
+			for (Integer index : indices) {
+				matingIndices.add(getMatingIndices(index));
+				offspring.add(newOffspring(index,
+						matingIndices.get(matingIndices.size()-1)));
+				batch.addAll(Arrays.asList(
+						offspring.get(offspring.size()-1)));
+			}
+			
+			evaluateAll(batch);
+			
+			for (int i = 0; i < offspring.size(); i++) {
+				for (Solution child : offspring.get(i)) {
+					updateIdealPoint(child);
+					updateSolution(child, matingIndices.get(i));
+				}
 			}
 		}
 
@@ -667,6 +676,41 @@ public class MOEAD extends AbstractAlgorithm {
 		}
 	}
 	
+	/**
+	 * Selects the parents for the specified subproblem and returns the
+	 * offspring produced by the variation operator.  The offspring are not
+	 * evaluated.
+	 * 
+	 * @param index the index of the subproblem
+	 * @param matingIndices the indices of the subproblems from which mates
+	 *        are selected
+	 * @return the offspring
+	 */
+	private Solution[] newOffspring(int index, List<Integer> matingIndices) {
+		Solution[] parents = new Solution[variation.getArity()];
+		parents[0] = population.get(index).getSolution();
+		
+		if (variation.getArity() > 2) {
+			// mimic MOEA/D parent selection for differential evolution
+			PRNG.shuffle(matingIndices);
+			
+			for (int i = 1; i < variation.getArity()-1; i++) {
+				parents[i] = population.get(
+						matingIndices.get(i-1)).getSolution();
+			}
+			
+			parents[variation.getArity()-1] = 
+					population.get(index).getSolution();
+		} else {
+			for (int i = 1; i < variation.getArity(); i++) {
+				parents[i] = population.get(
+						PRNG.nextItem(matingIndices)).getSolution();
+			}
+		}
+
+		return variation.evolve(parents);
+	}
+	
 	/**
 	 * Proxy for serializing and deserializing the state of a
 	 * {@code MOEAD} instance. This proxy supports saving
@@ -17,8 +17,6 @@
  */
 package org.moeaframework.algorithm;
 
-import static org.moeaframework.core.FastNondominatedSorting.RANK_ATTRIBUTE;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -663,11 +661,11 @@ public class ReferencePointNondominatedSortingPopulation extends NondominatedSor
 			// to prevent unnecessary nondominated sorting updates
 			sort(new RankComparator());
 
-			int maxRank = (Integer)super.get(size-1).getAttribute(RANK_ATTRIBUTE);
+			int maxRank = super.get(size-1).getRank();
 			Population front = new Population();
 
 			for (int i = 0; i < size(); i++) {
-				int rank = (Integer)get(i).getAttribute(RANK_ATTRIBUTE);
+				int rank = get(i).getRank();
 
 				if (rank >= maxRank) {
 					front.add(get(i));
@@ -677,7 +675,7 @@ public class ReferencePointNondominatedSortingPopulation extends NondominatedSor
 			removeAll(front);
 
 			for (int i = front.size()-1; i >= 0; i--) {
-				int rank = (Integer)front.get(i).getAttribute(RANK_ATTRIBUTE);
+				int rank = front.get(i).getRank();
 
 				if (rank > maxRank) {
 					front.remove(i);
@@ -18,6 +18,7 @@
 package org.moeaframework.algorithm;
 
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 
 import org.moeaframework.analysis.sensitivity.EpsilonHelper;
 import org.moeaframework.core.Algorithm;
@@ -46,6 +47,7 @@ import org.moeaframework.core.spi.OperatorFactory;
 import org.moeaframework.core.spi.ProviderNotFoundException;
 import org.moeaframework.core.variable.RealVariable;
 import org.moeaframework.util.TypedProperties;
+import org.moeaframework.util.distributed.DistributedProblem;
 
 /**
  * A provider of standard algorithms. The following table contains all
@@ -64,6 +66,12 @@ import org.moeaframework.util.TypedProperties;
  *         sbx.distributionIndex, pm.rate, pm.distributionIndex}</td>
  *   </tr>
  *   <tr>
+ *     <td>AsyncEMOEA</td>
+ *     <td>Any</td>
+ *     <td>{@code populationSize, epsilon, numberOfWorkers, sbx.rate,
+ *         sbx.distributionIndex, pm.rate, pm.distributionIndex}</td>
+ *   </tr>
+ *   <tr>
  *     <td>NSGAII</td>
  *     <td>Any</td>
  *     <td>{@code populationSize, sbx.rate, sbx.distributionIndex,
@@ -137,6 +145,9 @@ public class StandardAlgorithms extends AlgorithmProvider {
 				return neweNSGAII(typedProperties, problem);
 			} else if (name.equalsIgnoreCase("eMOEA")) {
 				return neweMOEA(typedProperties, problem);
+			} else if (name.equalsIgnoreCase("AsyncEMOEA") ||
+					name.equalsIgnoreCase("Async-eMOEA")) {
+				return newAsyncEMOEA(typedProperties, problem);
 			} else if (name.equalsIgnoreCase("Random")) {
 				return newRandomSearch(typedProperties, problem);
 			} else {
@@ -201,6 +212,54 @@ public class StandardAlgorithms extends AlgorithmProvider {
 
 		return emoea;
 	}
+	
+	/**
+	 * Returns a new {@link AsynchronousEpsilonMOEA} instance.  If the problem
+	 * is a {@link DistributedProblem}, as created by
+	 * {@link org.moeaframework.Executor#distributeOn(int)}, the offspring are
+	 * evaluated asynchronously by its executor.
+	 * 
+	 * @param properties the properties for customizing the new
+	 *        {@code AsynchronousEpsilonMOEA} instance
+	 * @param problem the problem
+	 * @return a new {@code AsynchronousEpsilonMOEA} instance
+	 */
+	private Algorithm newAsyncEMOEA(TypedProperties properties,
+			Problem problem) {
+		ExecutorService executor = null;
+		
+		if (problem instanceof DistributedProblem) {
+			executor = ((DistributedProblem)problem).getExecutor();
+			problem = ((DistributedProblem)problem).getInnerProblem();
+		}
+		
+		int populationSize = (int)properties.getDouble("populationSize", 100);
+
+		Initialization initialization = new RandomInitialization(problem,
+				populationSize);
+
+		Population population = new Population();
+
+		DominanceComparator comparator = new ParetoDominanceComparator();
+
+		EpsilonBoxDominanceArchive archive = new EpsilonBoxDominanceArchive(
+				properties.getDoubleArray("epsilon", 
+						new double[] { EpsilonHelper.getEpsilon(problem) }));
+
+		final TournamentSelection selection = new TournamentSelection(
+				2, comparator);
+		
+		Variation variation = OperatorFactory.getInstance().getVariation(null, 
+				properties, problem);
+
+		AsynchronousEpsilonMOEA emoea = new AsynchronousEpsilonMOEA(problem,
+				population, archive, selection, variation, initialization,
+				comparator, properties.getInt("numberOfWorkers", 0));
+		
+		emoea.setEvaluationExecutor(executor);
+
+		return emoea;
+	}
 
 	/**
 	 * Returns a new {@link NSGAII} instance.
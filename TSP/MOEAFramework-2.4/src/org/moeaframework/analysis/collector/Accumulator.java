@@ -17,38 +17,161 @@
  */
 package org.moeaframework.analysis.collector;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.moeaframework.core.FrameworkException;
+
 /**
  * An accumulator stores collected data from a single run of an algorithm.
+ * <p>
+ * The observations of each key are stored in a column.  Integer, long and
+ * double observations are stored unboxed in primitive arrays, which grow in
+ * fixed-size chunks so that adding an observation never copies the previous
+ * ones.  Other observations, such as approximation sets, are stored as
+ * objects or, if a spill directory is given, serialized to a temporary file
+ * in that directory and read back when accessed.  The temporary files are
+ * deleted by {@link #close()}; otherwise, they are deleted when the
+ * accumulator is garbage collected or, at the latest, when the virtual
+ * machine exits.  Observations are returned with the same type they were
+ * added with.
  */
 public class Accumulator implements Serializable {
 
 	private static final long serialVersionUID = -7483439787468468601L;
 	
+	/**
+	 * The serialized fields, which are retained for reading accumulators
+	 * serialized by previous versions.  The {@code data} field is always
+	 * {@code null} when written by this version, and the columns follow the
+	 * fields in the stream.
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("data", Map.class)
+	};
+	
 	/**
 	 * The error message displayed when attempting to access and invalid key
 	 * that does not exist in an accumulator.
 	 */
 	private static final String INVALID_KEY =
 			"key not defined in accumulator: {0}";
+	
+	/**
+	 * The number of observations stored in each chunk of a column.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+	
+	/**
+	 * Column type storing {@code Integer} observations.
+	 */
+	static final int INTEGER = 0;
+	
+	/**
+	 * Column type storing {@code Long} observations.
+	 */
+	static final int LONG = 1;
+	
+	/**
+	 * Column type storing {@code Double} observations.
+	 */
+	static final int DOUBLE = 2;
+	
+	/**
+	 * Column type storing any other observations.
+	 */
+	static final int OBJECT = 3;
 
 	/**
-	 * The internal storage of data.
+	 * The columns storing the observations of each key, in the order the keys
+	 * were first added.
+	 */
+	private transient Map<String, Column> columns;
+	
+	/**
+	 * The directory where columns of objects are spilled; or {@code null} if
+	 * they are kept in memory.
 	 */
-	private final Map<String, List<Serializable>> data;
+	private transient File spillDirectory;
+	
+	/**
+	 * The keys of the buffered observations; or {@code null} if the
+	 * observations are stored in the columns.
+	 */
+	private transient List<String> bufferedKeys;
+	
+	/**
+	 * The values of the buffered observations; or {@code null} if the
+	 * observations are stored in the columns.
+	 */
+	private transient List<Serializable> bufferedValues;
 
 	/**
 	 * Constructs an empty accumulator.
 	 */
 	public Accumulator() {
-		data = new HashMap<String, List<Serializable>>();
+		this(null);
+	}
+	
+	/**
+	 * Constructs an empty accumulator spilling observations other than
+	 * numbers to temporary files in the specified directory.
+	 * 
+	 * @param spillDirectory the directory where observations other than
+	 *        numbers are spilled; or {@code null} if they are kept in memory
+	 */
+	public Accumulator(File spillDirectory) {
+		super();
+		this.spillDirectory = spillDirectory;
+		
+		columns = new LinkedHashMap<String, Column>();
+	}
+	
+	/**
+	 * Returns a new accumulator that only buffers the observations, in the
+	 * order they were added, until they are copied to another accumulator by
+	 * {@link #addTo(Accumulator)}.  The buffered observations are not
+	 * accessible through the other methods of this class.
+	 * 
+	 * @return a new accumulator that only buffers the observations
+	 */
+	static Accumulator newBuffer() {
+		Accumulator buffer = new Accumulator();
+		buffer.bufferedKeys = new ArrayList<String>();
+		buffer.bufferedValues = new ArrayList<Serializable>();
+		return buffer;
+	}
+	
+	/**
+	 * Adds the buffered observations of this accumulator to the specified
+	 * accumulator, in the order they were added.
+	 * 
+	 * @param accumulator the accumulator receiving the observations
+	 * @throws IllegalStateException if this accumulator was not created by
+	 *         {@link #newBuffer()}
+	 */
+	synchronized void addTo(Accumulator accumulator) {
+		if (bufferedKeys == null) {
+			throw new IllegalStateException("not a buffer");
+		}
+		
+		for (int i = 0; i < bufferedKeys.size(); i++) {
+			accumulator.add(bufferedKeys.get(i), bufferedValues.get(i));
+		}
 	}
 
 	/**
@@ -57,24 +180,89 @@ public class Accumulator implements Serializable {
 	 * @param key the key of this observation
 	 * @param value the value of this observation
 	 */
-	public void add(String key, Serializable value) {
-		List<Serializable> entries = data.get(key);
+	public synchronized void add(String key, Serializable value) {
+		if (bufferedKeys != null) {
+			bufferedKeys.add(key);
+			bufferedValues.add(value);
+			return;
+		}
+		
+		Column column = columns.get(key);
 		
-		if (entries == null) {
-			entries = new ArrayList<Serializable>();
-			data.put(key, entries);
+		if (column == null) {
+			column = newColumn(value);
+			columns.put(key, column);
+		} else if (!column.accepts(value)) {
+			// observations of different types are stored as objects
+			Column objectColumn = new ObjectColumn();
+			
+			for (int i = 0; i < column.size; i++) {
+				objectColumn.add(column.get(i));
+			}
+			
+			column.close();
+			column = objectColumn;
+			columns.put(key, column);
 		}
 
-		entries.add(value);
+		column.add(value);
+	}
+	
+	/**
+	 * Returns a new, empty column for storing observations of the same type
+	 * as the specified value.
+	 * 
+	 * @param value the first observation stored in the column
+	 * @return a new, empty column
+	 */
+	private Column newColumn(Serializable value) {
+		if (value instanceof Integer) {
+			return new LongColumn(true);
+		} else if (value instanceof Long) {
+			return new LongColumn(false);
+		} else if (value instanceof Double) {
+			return new DoubleColumn();
+		} else if (spillDirectory != null) {
+			return new SpilledColumn(spillDirectory);
+		} else {
+			return new ObjectColumn();
+		}
 	}
 
 	/**
-	 * Returns the set of keys stored in this accumulator.
+	 * Returns a copy of the set of keys stored in this accumulator, in the
+	 * order the keys were first added.
 	 * 
-	 * @return the set of keys stored in this accumulator
+	 * @return a copy of the set of keys stored in this accumulator
+	 */
+	public synchronized Set<String> keySet() {
+		return new LinkedHashSet<String>(columns.keySet());
+	}
+	
+	/**
+	 * Closes the temporary files of the spilled columns.  The observations
+	 * remain accessible, opening the files only while they are read, and the
+	 * files are reopened if further observations are added.
 	 */
-	public Set<String> keySet() {
-		return data.keySet();
+	synchronized void release() {
+		for (Column column : columns.values()) {
+			column.release();
+		}
+	}
+	
+	/**
+	 * Deletes the temporary files of the spilled columns.  The observations
+	 * of the spilled columns are no longer accessible after this accumulator
+	 * is closed, and observations other than numbers added afterwards are
+	 * kept in memory.  Accumulators without a spill directory hold no
+	 * resources, and closing them has no effect.
+	 */
+	public synchronized void close() {
+		spillDirectory = null;
+		
+		for (Column column : columns.values()) {
+			column.close();
+		}
 	}
 
 	/**
@@ -88,15 +276,39 @@ public class Accumulator implements Serializable {
 	 * @throws IndexOutOfBoundsException if the index is out of range {@code
 	 *         (index < 0 || index >= size(key))}
 	 */
-	public Serializable get(String key, int index) {
-		List<Serializable> entries = data.get(key);
+	public synchronized Serializable get(String key, int index) {
+		Column column = getColumn(key);
 		
-		if (entries == null) {
-			throw new IllegalArgumentException(MessageFormat.format(
-					INVALID_KEY, key));
-		} else {
-			return entries.get(index);
+		if ((index < 0) || (index >= column.size)) {
+			throw new IndexOutOfBoundsException("Index: " + index +
+					", Size: " + column.size);
 		}
+		
+		return column.get(index);
+	}
+	
+	/**
+	 * Returns the value at the specified index for the specified key as a
+	 * {@code double}, without boxing if the key stores numbers.
+	 * 
+	 * @param key the key
+	 * @param index the index
+	 * @return the value at the specified index for the specified key
+	 * @throws IllegalArgumentException if the key was not contained in this
+	 *         accumulator
+	 * @throws IndexOutOfBoundsException if the index is out of range {@code
+	 *         (index < 0 || index >= size(key))}
+	 * @throws ClassCastException if the value is not a number
+	 */
+	public synchronized double getDouble(String key, int index) {
+		Column column = getColumn(key);
+		
+		if ((index < 0) || (index >= column.size)) {
+			throw new IndexOutOfBoundsException("Index: " + index +
+					", Size: " + column.size);
+		}
+		
+		return column.getDouble(index);
 	}
 
 	/**
@@ -107,15 +319,577 @@ public class Accumulator implements Serializable {
 	 * @throws IllegalArgumentException if the key was not contained in this
 	 *         accumulator
 	 */
-	public int size(String key) {
-		List<Serializable> entries = data.get(key);
+	public synchronized int size(String key) {
+		return getColumn(key).size;
+	}
+	
+	/**
+	 * Returns the type of the values stored for the specified key, one of
+	 * {@link #INTEGER}, {@link #LONG}, {@link #DOUBLE} or {@link #OBJECT}.
+	 * 
+	 * @param key the key
+	 * @return the type of the values stored for the specified key
+	 * @throws IllegalArgumentException if the key was not contained in this
+	 *         accumulator
+	 */
+	synchronized int getType(String key) {
+		return getColumn(key).getType();
+	}
+	
+	/**
+	 * Returns the column storing the values of the specified key.
+	 * 
+	 * @param key the key
+	 * @return the column storing the values of the specified key
+	 * @throws IllegalArgumentException if the key was not contained in this
+	 *         accumulator
+	 */
+	private Column getColumn(String key) {
+		Column column = columns.get(key);
 		
-		if (entries == null) {
+		if (column == null) {
 			throw new IllegalArgumentException(MessageFormat.format(
 					INVALID_KEY, key));
-		} else {
-			return entries.size();
 		}
+		
+		return column;
+	}
+	
+	/**
+	 * Writes this accumulator, with the values of each column following the
+	 * serialized fields.
+	 * 
+	 * @param out the stream to which this accumulator is written
+	 * @throws IOException if an I/O error occurred
+	 */
+	private synchronized void writeObject(ObjectOutputStream out)
+			throws IOException {
+		out.putFields().put("data", null);
+		out.writeFields();
+		out.writeInt(columns.size());
+		
+		for (Map.Entry<String, Column> entry : columns.entrySet()) {
+			Column column = entry.getValue();
+			int type = column.getType();
+			
+			out.writeUTF(entry.getKey());
+			out.writeByte(type);
+			out.writeInt(column.size);
+			
+			for (int i = 0; i < column.size; i++) {
+				if (type == DOUBLE) {
+					out.writeDouble(column.getDouble(i));
+				} else if (type == OBJECT) {
+					out.writeObject(column.get(i));
+				} else {
+					out.writeLong(((LongColumn)column).getLong(i));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reads an accumulator written by this or a previous version.
+	 * 
+	 * @param in the stream from which this accumulator is read
+	 * @throws IOException if an I/O error occurred
+	 * @throws ClassNotFoundException if the class of a serialized object could
+	 *         not be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		Map<?, ?> data = (Map<?, ?>)in.readFields().get("data", null);
+		
+		columns = new LinkedHashMap<String, Column>();
+		
+		if (data != null) {
+			for (Map.Entry<?, ?> entry : data.entrySet()) {
+				for (Object value : (List<?>)entry.getValue()) {
+					add((String)entry.getKey(), (Serializable)value);
+				}
+			}
+			
+			return;
+		}
+		
+		int numberOfColumns = in.readInt();
+		
+		for (int i = 0; i < numberOfColumns; i++) {
+			String key = in.readUTF();
+			int type = in.readByte();
+			int size = in.readInt();
+			Column column = null;
+			
+			if (type == INTEGER) {
+				column = new LongColumn(true);
+			} else if (type == LONG) {
+				column = new LongColumn(false);
+			} else if (type == DOUBLE) {
+				column = new DoubleColumn();
+			} else {
+				column = new ObjectColumn();
+			}
+			
+			for (int j = 0; j < size; j++) {
+				if (type == DOUBLE) {
+					((DoubleColumn)column).addDouble(in.readDouble());
+				} else if (type == OBJECT) {
+					column.add((Serializable)in.readObject());
+				} else {
+					((LongColumn)column).addLong(in.readLong());
+				}
+			}
+			
+			columns.put(key, column);
+		}
+	}
+	
+	/**
+	 * The observations of one key.
+	 */
+	private static abstract class Column {
+		
+		/**
+		 * The number of observations in this column.
+		 */
+		protected int size;
+		
+		/**
+		 * Returns the type of the observations stored in this column.
+		 * 
+		 * @return the type of the observations stored in this column
+		 */
+		public abstract int getType();
+		
+		/**
+		 * Returns {@code true} if this column can store the specified value;
+		 * {@code false} otherwise.
+		 * 
+		 * @param value the value
+		 * @return {@code true} if this column can store the specified value;
+		 *         {@code false} otherwise
+		 */
+		public abstract boolean accepts(Serializable value);
+		
+		/**
+		 * Appends the value to this column.
+		 * 
+		 * @param value the value
+		 */
+		public abstract void add(Serializable value);
+		
+		/**
+		 * Returns the value at the specified index.
+		 * 
+		 * @param index the index
+		 * @return the value at the specified index
+		 */
+		public abstract Serializable get(int index);
+		
+		/**
+		 * Returns the value at the specified index as a {@code double}.
+		 * 
+		 * @param index the index
+		 * @return the value at the specified index
+		 */
+		public double getDouble(int index) {
+			return ((Number)get(index)).doubleValue();
+		}
+		
+		/**
+		 * Releases any resources held by this column, which is discarded.
+		 */
+		public void close() {
+			// no resources by default
+		}
+		
+		/**
+		 * Releases any resources held by this column while it is not in use,
+		 * keeping its observations accessible.
+		 */
+		public void release() {
+			// no resources by default
+		}
+		
+	}
+	
+	/**
+	 * Column storing {@code Integer} or {@code Long} observations unboxed.
+	 */
+	private static class LongColumn extends Column {
+		
+		/**
+		 * {@code true} if the observations are {@code Integer}s;
+		 * {@code false} if they are {@code Long}s.
+		 */
+		private final boolean integer;
+		
+		/**
+		 * The chunks storing the observations.
+		 */
+		private final List<long[]> chunks;
+		
+		/**
+		 * Constructs an empty column.
+		 * 
+		 * @param integer {@code true} if the observations are
+		 *        {@code Integer}s; {@code false} if they are {@code Long}s
+		 */
+		public LongColumn(boolean integer) {
+			super();
+			this.integer = integer;
+			
+			chunks = new ArrayList<long[]>();
+		}
+		
+		@Override
+		public int getType() {
+			return integer ? INTEGER : LONG;
+		}
+
+		@Override
+		public boolean accepts(Serializable value) {
+			return integer ? value instanceof Integer : value instanceof Long;
+		}
+
+		@Override
+		public void add(Serializable value) {
+			addLong(((Number)value).longValue());
+		}
+		
+		/**
+		 * Appends the value to this column.
+		 * 
+		 * @param value the value
+		 */
+		public void addLong(long value) {
+			if (size % CHUNK_SIZE == 0) {
+				chunks.add(new long[CHUNK_SIZE]);
+			}
+			
+			chunks.get(size / CHUNK_SIZE)[size % CHUNK_SIZE] = value;
+			size++;
+		}
+		
+		/**
+		 * Returns the value at the specified index.
+		 * 
+		 * @param index the index
+		 * @return the value at the specified index
+		 */
+		public long getLong(int index) {
+			return chunks.get(index / CHUNK_SIZE)[index % CHUNK_SIZE];
+		}
+
+		@Override
+		public Serializable get(int index) {
+			if (integer) {
+				return (int)getLong(index);
+			} else {
+				return getLong(index);
+			}
+		}
+		
+		@Override
+		public double getDouble(int index) {
+			return getLong(index);
+		}
+		
+	}
+	
+	/**
+	 * Column storing {@code Double} observations unboxed.
+	 */
+	private static class DoubleColumn extends Column {
+		
+		/**
+		 * The chunks storing the observations.
+		 */
+		private final List<double[]> chunks;
+		
+		/**
+		 * Constructs an empty column.
+		 */
+		public DoubleColumn() {
+			super();
+			
+			chunks = new ArrayList<double[]>();
+		}
+		
+		@Override
+		public int getType() {
+			return DOUBLE;
+		}
+
+		@Override
+		public boolean accepts(Serializable value) {
+			return value instanceof Double;
+		}
+
+		@Override
+		public void add(Serializable value) {
+			addDouble((Double)value);
+		}
+		
+		/**
+		 * Appends the value to this column.
+		 * 
+		 * @param value the value
+		 */
+		public void addDouble(double value) {
+			if (size % CHUNK_SIZE == 0) {
+				chunks.add(new double[CHUNK_SIZE]);
+			}
+			
+			chunks.get(size / CHUNK_SIZE)[size % CHUNK_SIZE] = value;
+			size++;
+		}
+
+		@Override
+		public Serializable get(int index) {
+			return getDouble(index);
+		}
+		
+		@Override
+		public double getDouble(int index) {
+			return chunks.get(index / CHUNK_SIZE)[index % CHUNK_SIZE];
+		}
+		
+	}
+	
+	/**
+	 * Column storing observations as objects.
+	 */
+	private static class ObjectColumn extends Column {
+		
+		/**
+		 * The chunks storing the observations.
+		 */
+		private final List<Serializable[]> chunks;
+		
+		/**
+		 * Constructs an empty column.
+		 */
+		public ObjectColumn() {
+			super();
+			
+			chunks = new ArrayList<Serializable[]>();
+		}
+		
+		@Override
+		public int getType() {
+			return OBJECT;
+		}
+
+		@Override
+		public boolean accepts(Serializable value) {
+			return true;
+		}
+
+		@Override
+		public void add(Serializable value) {
+			if (size % CHUNK_SIZE == 0) {
+				chunks.add(new Serializable[CHUNK_SIZE]);
+			}
+			
+			chunks.get(size / CHUNK_SIZE)[size % CHUNK_SIZE] = value;
+			size++;
+		}
+
+		@Override
+		public Serializable get(int index) {
+			return chunks.get(index / CHUNK_SIZE)[index % CHUNK_SIZE];
+		}
+		
+	}
+	
+	/**
+	 * Column serializing its observations to a temporary file.  Only the
+	 * offsets of the observations in the file are kept in memory.  The file
+	 * stays open while observations are added, until {@link #release()} is
+	 * called, and is deleted when the column is closed or finalized.
+	 */
+	private static class SpilledColumn extends Column {
+		
+		/**
+		 * The temporary file storing the serialized observations.
+		 */
+		private final File file;
+		
+		/**
+		 * The temporary file opened for reading and writing; or {@code null}
+		 * if the file is not open.
+		 */
+		private RandomAccessFile storage;
+		
+		/**
+		 * {@code true} if the temporary file has been deleted; {@code false}
+		 * otherwise.
+		 */
+		private boolean closed;
+		
+		/**
+		 * The offsets of the observations in the temporary file.
+		 */
+		private final LongColumn offsets;
+		
+		/**
+		 * The buffer used to serialize observations.
+		 */
+		private final ByteArrayOutputStream buffer;
+		
+		/**
+		 * Constructs an empty column stored in a temporary file in the
+		 * specified directory.
+		 * 
+		 * @param directory the directory
+		 */
+		public SpilledColumn(File directory) {
+			super();
+			
+			try {
+				file = File.createTempFile("accumulator", ".tmp", directory);
+				file.deleteOnExit();
+			} catch (IOException e) {
+				throw new FrameworkException(e);
+			}
+			
+			offsets = new LongColumn(false);
+			buffer = new ByteArrayOutputStream();
+		}
+		
+		@Override
+		public int getType() {
+			return OBJECT;
+		}
+
+		@Override
+		public boolean accepts(Serializable value) {
+			return true;
+		}
+
+		@Override
+		public void add(Serializable value) {
+			checkClosed();
+			
+			try {
+				buffer.reset();
+				
+				ObjectOutputStream oos = new ObjectOutputStream(buffer);
+				oos.writeObject(value);
+				oos.close();
+				
+				if (storage == null) {
+					storage = new RandomAccessFile(file, "rw");
+				}
+				
+				long offset = storage.length();
+				storage.seek(offset);
+				storage.writeInt(buffer.size());
+				storage.write(buffer.toByteArray());
+				
+				offsets.addLong(offset);
+				size++;
+			} catch (IOException e) {
+				throw new FrameworkException(e);
+			}
+		}
+
+		@Override
+		public Serializable get(int index) {
+			checkClosed();
+			
+			try {
+				byte[] bytes = null;
+				
+				if (storage == null) {
+					RandomAccessFile reader = new RandomAccessFile(file, "r");
+					
+					try {
+						bytes = read(reader, offsets.getLong(index));
+					} finally {
+						reader.close();
+					}
+				} else {
+					bytes = read(storage, offsets.getLong(index));
+				}
+				
+				ObjectInputStream ois = new ObjectInputStream(
+						new ByteArrayInputStream(bytes));
+				
+				try {
+					return (Serializable)ois.readObject();
+				} finally {
+					ois.close();
+				}
+			} catch (IOException e) {
+				throw new FrameworkException(e);
+			} catch (ClassNotFoundException e) {
+				throw new FrameworkException(e);
+			}
+		}
+		
+		/**
+		 * Throws an exception if the temporary file has been deleted.
+		 * 
+		 * @throws IllegalStateException if the temporary file has been
+		 *         deleted
+		 */
+		private void checkClosed() {
+			if (closed) {
+				throw new IllegalStateException("accumulator closed");
+			}
+		}
+		
+		/**
+		 * Reads the serialized observation at the specified offset.
+		 * 
+		 * @param reader the opened temporary file
+		 * @param offset the offset of the observation
+		 * @return the serialized observation
+		 * @throws IOException if an I/O error occurred
+		 */
+		private byte[] read(RandomAccessFile reader, long offset)
+				throws IOException {
+			reader.seek(offset);
+			
+			byte[] bytes = new byte[reader.readInt()];
+			reader.readFully(bytes);
+			return bytes;
+		}
+		
+		@Override
+		public void release() {
+			if (storage != null) {
+				try {
+					storage.close();
+				} catch (IOException e) {
+					throw new FrameworkException(e);
+				} finally {
+					storage = null;
+				}
+			}
+		}
+		
+		@Override
+		public void close() {
+			try {
+				release();
+			} finally {
+				closed = true;
+				file.delete();
+			}
+		}
+		
+		@Override
+		protected void finalize() throws Throwable {
+			try {
+				close();
+			} finally {
+				super.finalize();
+			}
+		}
+		
 	}
 
 }
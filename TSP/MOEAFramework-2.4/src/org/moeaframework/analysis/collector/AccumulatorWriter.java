@@ -0,0 +1,416 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.analysis.collector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams the rows of an accumulator to a file while the algorithm is
+ * running.  Row {@code i} consists of the {@code i}-th observation of each
+ * key.  Each call to {@link #write(Accumulator)} appends the rows added since
+ * the previous call, so the file always reflects the observations collected
+ * so far.
+ * <p>
+ * Two formats are supported.  {@link Format#CSV} writes one line per row
+ * containing the numeric keys, preceded by a header line naming the keys.
+ * Keys first added after the header was written and keys storing objects,
+ * such as approximation sets, are not included; a warning is printed for each
+ * numeric key left out because it was added too late.  {@link Format#BINARY}
+ * writes all keys, including serialized objects, and can be read back with
+ * {@link #read(File)}.
+ * <p>
+ * In the binary format, the type of each key is fixed when the key is first
+ * written.  If the accumulator later stores the key as objects, because an
+ * observation of a different type was added, the key can no longer be
+ * represented and writing fails with an {@link IOException}.
+ */
+public class AccumulatorWriter implements Closeable {
+	
+	/**
+	 * The supported output formats.
+	 */
+	public static enum Format {
+		
+		/**
+		 * Comma-separated values containing the numeric keys.
+		 */
+		CSV,
+		
+		/**
+		 * Binary format containing all keys.
+		 */
+		BINARY
+		
+	}
+	
+	/**
+	 * The magic number identifying files in the binary format.
+	 */
+	private static final int MAGIC = 0x4D4F4143;
+	
+	/**
+	 * The record defining a key in the binary format.
+	 */
+	private static final int KEY = 'K';
+	
+	/**
+	 * The record storing a row in the binary format.
+	 */
+	private static final int ROW = 'R';
+	
+	/**
+	 * The warning printed when a numeric key is added after the CSV header
+	 * was written.
+	 */
+	private static final String LATE_KEY_WARNING =
+			"key added after the CSV header was written, not included: {0}";
+	
+	/**
+	 * The error message when the type of a key changes after the key was
+	 * written.
+	 */
+	private static final String TYPE_CHANGED =
+			"type of key changed after it was written: {0}";
+	
+	/**
+	 * The output format.
+	 */
+	private final Format format;
+	
+	/**
+	 * The stream to which binary output is written; or {@code null} if the
+	 * format is CSV.
+	 */
+	private final DataOutputStream binary;
+	
+	/**
+	 * The writer to which CSV output is written; or {@code null} if the
+	 * format is binary.
+	 */
+	private final PrintWriter csv;
+	
+	/**
+	 * The keys written to the output, in the order they appear in each row.
+	 */
+	private final List<String> keys;
+	
+	/**
+	 * The types of the keys written to the output.
+	 */
+	private final List<Integer> types;
+	
+	/**
+	 * The keys of the accumulator seen by this writer, including the keys
+	 * not written to the CSV output.
+	 */
+	private final Set<String> seenKeys;
+	
+	/**
+	 * The number of rows written to the output.
+	 */
+	private int numberOfRows;
+	
+	/**
+	 * Constructs a writer streaming rows to the specified file, replacing any
+	 * existing file.
+	 * 
+	 * @param file the file to which rows are written
+	 * @param format the output format
+	 * @throws IOException if an I/O error occurred
+	 */
+	public AccumulatorWriter(File file, Format format) throws IOException {
+		super();
+		this.format = format;
+		
+		keys = new ArrayList<String>();
+		types = new ArrayList<Integer>();
+		seenKeys = new HashSet<String>();
+		
+		if (format.equals(Format.CSV)) {
+			binary = null;
+			csv = new PrintWriter(new OutputStreamWriter(
+					new BufferedOutputStream(new FileOutputStream(file)),
+					"UTF-8"));
+		} else {
+			csv = null;
+			binary = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(file)));
+			binary.writeInt(MAGIC);
+		}
+	}
+	
+	/**
+	 * Returns the number of rows written to the output.
+	 * 
+	 * @return the number of rows written to the output
+	 */
+	public synchronized int getNumberOfRows() {
+		return numberOfRows;
+	}
+	
+	/**
+	 * Appends the rows added to the accumulator since the previous call and
+	 * flushes the output.
+	 * 
+	 * @param accumulator the accumulator
+	 * @throws IOException if an I/O error occurred
+	 */
+	public synchronized void write(Accumulator accumulator)
+			throws IOException {
+		List<String> currentKeys = new ArrayList<String>(
+				accumulator.keySet());
+		int size = 0;
+		
+		for (String key : currentKeys) {
+			size = Math.max(size, accumulator.size(key));
+		}
+		
+		if (size <= numberOfRows) {
+			return;
+		}
+		
+		if (format.equals(Format.CSV)) {
+			writeCSV(accumulator, currentKeys, size);
+		} else {
+			writeBinary(accumulator, currentKeys, size);
+		}
+		
+		numberOfRows = size;
+	}
+	
+	/**
+	 * Appends the rows up to the specified size in the CSV format.
+	 * 
+	 * @param accumulator the accumulator
+	 * @param currentKeys the keys currently defined in the accumulator
+	 * @param size the number of rows in the accumulator
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeCSV(Accumulator accumulator, List<String> currentKeys,
+			int size) throws IOException {
+		if (numberOfRows == 0) {
+			for (String key : currentKeys) {
+				if (accumulator.getType(key) != Accumulator.OBJECT) {
+					if (!keys.isEmpty()) {
+						csv.print(',');
+					}
+					
+					csv.print(key);
+					keys.add(key);
+				}
+			}
+			
+			csv.println();
+		}
+		
+		for (String key : currentKeys) {
+			if (seenKeys.add(key) && (numberOfRows > 0) &&
+					(accumulator.getType(key) != Accumulator.OBJECT)) {
+				System.err.println(MessageFormat.format(LATE_KEY_WARNING,
+						key));
+			}
+		}
+		
+		for (int i = numberOfRows; i < size; i++) {
+			for (int j = 0; j < keys.size(); j++) {
+				String key = keys.get(j);
+				
+				if (j > 0) {
+					csv.print(',');
+				}
+				
+				if (i < accumulator.size(key)) {
+					csv.print(accumulator.get(key, i));
+				}
+			}
+			
+			csv.println();
+		}
+		
+		csv.flush();
+		
+		if (csv.checkError()) {
+			throw new IOException("error writing CSV output");
+		}
+	}
+	
+	/**
+	 * Appends the rows up to the specified size in the binary format.
+	 * 
+	 * @param accumulator the accumulator
+	 * @param currentKeys the keys currently defined in the accumulator
+	 * @param size the number of rows in the accumulator
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeBinary(Accumulator accumulator, List<String> currentKeys,
+			int size) throws IOException {
+		for (String key : currentKeys) {
+			if (!keys.contains(key)) {
+				int type = accumulator.getType(key);
+				
+				binary.writeByte(KEY);
+				binary.writeUTF(key);
+				binary.writeByte(type);
+				keys.add(key);
+				types.add(type);
+			} else if (accumulator.getType(key) !=
+					types.get(keys.indexOf(key))) {
+				throw new IOException(MessageFormat.format(TYPE_CHANGED, key));
+			}
+		}
+		
+		for (int i = numberOfRows; i < size; i++) {
+			binary.writeByte(ROW);
+			
+			for (int j = 0; j < keys.size(); j++) {
+				String key = keys.get(j);
+				int type = types.get(j);
+				
+				if (i >= accumulator.size(key)) {
+					binary.writeBoolean(false);
+					continue;
+				}
+				
+				binary.writeBoolean(true);
+				
+				if (type == Accumulator.OBJECT) {
+					ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+					ObjectOutputStream oos = new ObjectOutputStream(buffer);
+					oos.writeObject(accumulator.get(key, i));
+					oos.close();
+					
+					binary.writeInt(buffer.size());
+					buffer.writeTo(binary);
+				} else if (type == Accumulator.DOUBLE) {
+					binary.writeDouble(accumulator.getDouble(key, i));
+				} else {
+					binary.writeLong(((Number)accumulator.get(key, i))
+							.longValue());
+				}
+			}
+		}
+		
+		binary.flush();
+	}
+	
+	/**
+	 * Reads an accumulator from a file written in the binary format.  A
+	 * truncated final row, such as one left by a run that was interrupted
+	 * while writing, is ignored.
+	 * 
+	 * @param file the file written in the binary format
+	 * @return the accumulator read from the file
+	 * @throws IOException if an I/O error occurred or the file is not in the
+	 *         binary format
+	 */
+	public static Accumulator read(File file) throws IOException {
+		Accumulator accumulator = new Accumulator();
+		List<String> keys = new ArrayList<String>();
+		List<Integer> types = new ArrayList<Integer>();
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("not an accumulator file: " + file);
+			}
+			
+			while (true) {
+				int record = in.read();
+				
+				if (record == -1) {
+					break;
+				} else if (record == KEY) {
+					keys.add(in.readUTF());
+					types.add((int)in.readByte());
+				} else if (record == ROW) {
+					List<Serializable> row = new ArrayList<Serializable>();
+					
+					for (int j = 0; j < keys.size(); j++) {
+						int type = types.get(j);
+						
+						if (!in.readBoolean()) {
+							row.add(null);
+						} else if (type == Accumulator.OBJECT) {
+							byte[] bytes = new byte[in.readInt()];
+							in.readFully(bytes);
+							
+							ObjectInputStream ois = new ObjectInputStream(
+									new ByteArrayInputStream(bytes));
+							row.add((Serializable)ois.readObject());
+							ois.close();
+						} else if (type == Accumulator.DOUBLE) {
+							row.add(in.readDouble());
+						} else if (type == Accumulator.INTEGER) {
+							row.add((int)in.readLong());
+						} else {
+							row.add(in.readLong());
+						}
+					}
+					
+					for (int j = 0; j < keys.size(); j++) {
+						if (row.get(j) != null) {
+							accumulator.add(keys.get(j), row.get(j));
+						}
+					}
+				} else {
+					throw new IOException("invalid record in " + file);
+				}
+			}
+		} catch (EOFException e) {
+			// ignore the truncated final row
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		} finally {
+			in.close();
+		}
+		
+		return accumulator;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (csv != null) {
+			csv.close();
+		} else {
+			binary.close();
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.analysis.collector;
+
+/**
+ * A collector whose collection can be split into a cheap snapshot, taken on
+ * the search thread, and an expensive measurement computed from the snapshot
+ * on another thread.  When an {@link InstrumentedAlgorithm} collects in the
+ * background, it calls {@link #snapshot()} instead of
+ * {@link #collect(Accumulator)}.
+ */
+public interface DeferredCollector extends Collector {
+	
+	/**
+	 * Takes an immutable snapshot of the state needed by this collector.
+	 * This method is invoked on the search thread and should be cheap
+	 * compared to the measurement.  This method must only be invoked after
+	 * this collector has been attached to an appropriate object.
+	 * 
+	 * @return the measurement computed from the snapshot
+	 */
+	public Measurement snapshot();
+	
+	/**
+	 * A measurement computed from a snapshot.  Measurements do not access the
+	 * algorithm, so they can be computed on any thread and concurrently with
+	 * other measurements.
+	 */
+	public static interface Measurement {
+		
+		/**
+		 * Computes this measurement, storing the data to the specified
+		 * accumulator.
+		 * 
+		 * @param accumulator the accumulator to which the collected data is
+		 *        stored
+		 */
+		public void collect(Accumulator accumulator);
+		
+	}
+
+}
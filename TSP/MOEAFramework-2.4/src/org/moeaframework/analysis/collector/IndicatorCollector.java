@@ -17,14 +17,22 @@
  */
 package org.moeaframework.analysis.collector;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.moeaframework.core.Algorithm;
 import org.moeaframework.core.EpsilonBoxDominanceArchive;
 import org.moeaframework.core.Indicator;
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.comparator.DominanceComparator;
+import org.moeaframework.core.comparator.EpsilonBoxDominanceComparator;
+import org.moeaframework.core.indicator.Contribution;
 
 /**
  * Collects performance indicator values from an {@link Algorithm}.
  */
-public class IndicatorCollector implements Collector {
+public class IndicatorCollector implements DeferredCollector {
 
 	/**
 	 * The performance indicator used by this collector.
@@ -100,6 +108,80 @@ public class IndicatorCollector implements Collector {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The snapshot copies the objectives and constraints of the current
+	 * result.  Pruning the snapshot with the &epsilon;-box dominance archive
+	 * and evaluating the indicator are deferred to the measurement, which
+	 * uses its own archive and comparator.  The {@link Contribution}
+	 * indicator records the outcome of each comparison in its comparator, so
+	 * its measurements are computed one at a time.
+	 */
+	@Override
+	public Measurement snapshot() {
+		final List<Solution> snapshot = new ArrayList<Solution>();
+		NondominatedPopulation result = algorithm.getResult();
+		final DominanceComparator comparator = result.getComparator();
+		
+		for (Solution solution : result) {
+			Solution copy = new Solution(0, solution.getNumberOfObjectives(),
+					solution.getNumberOfConstraints());
+			
+			copy.setObjectives(solution.getObjectives());
+			copy.setConstraints(solution.getConstraints());
+			snapshot.add(copy);
+		}
+		
+		return new Measurement() {
+
+			@Override
+			public void collect(Accumulator accumulator) {
+				NondominatedPopulation result = null;
+				
+				if (archive == null) {
+					result = new NondominatedPopulation(comparator, snapshot);
+				} else {
+					result = new EpsilonBoxDominanceArchive(
+							copy(archive.getComparator()), snapshot);
+				}
+				
+				double value = 0.0;
+				
+				if (indicator instanceof Contribution) {
+					synchronized (indicator) {
+						value = indicator.evaluate(result);
+					}
+				} else {
+					value = indicator.evaluate(result);
+				}
+				
+				accumulator.add(indicator.getClass().getSimpleName(), value);
+			}
+			
+		};
+	}
+
+	/**
+	 * Returns a new comparator with the same &epsilon; values as the
+	 * specified comparator.  Comparators record the outcome of the last
+	 * comparison, so each measurement compares with its own comparator.
+	 * 
+	 * @param comparator the comparator
+	 * @return a new comparator with the same &epsilon; values as the
+	 *         specified comparator
+	 */
+	private static EpsilonBoxDominanceComparator copy(
+			EpsilonBoxDominanceComparator comparator) {
+		double[] epsilons = new double[comparator.getNumberOfDefinedEpsilons()];
+		
+		for (int i = 0; i < epsilons.length; i++) {
+			epsilons[i] = comparator.getEpsilon(i);
+		}
+		
+		return new EpsilonBoxDominanceComparator(epsilons);
+	}
+
 	@Override
 	public AttachPoint getAttachPoint() {
 		return AttachPoint.isSubclass(Algorithm.class).and(
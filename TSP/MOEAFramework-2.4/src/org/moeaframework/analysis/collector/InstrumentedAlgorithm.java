@@ -17,17 +17,32 @@
  */
 package org.moeaframework.analysis.collector;
 
+import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 
 import org.moeaframework.algorithm.PeriodicAction;
 import org.moeaframework.core.Algorithm;
+import org.moeaframework.core.FrameworkException;
 
 /**
  * Decorates an algorithm to periodically collect information about its runtime
  * behavior.  The {@code NFE} field is automatically recorded by this class.
+ * <p>
+ * By default, all collectors run on the search thread.  After calling
+ * {@link #collectInBackground(int, int)}, {@link DeferredCollector}s only
+ * take a snapshot on the search thread and compute their measurements on
+ * background threads.  The rows are stored in the accumulator in the order
+ * they were collected, once all of their measurements are computed, so the
+ * accumulator may lag behind the search until {@link #flush()} or
+ * {@link #terminate()} is called.
  */
 public class InstrumentedAlgorithm extends PeriodicAction {
 	
@@ -40,6 +55,36 @@ public class InstrumentedAlgorithm extends PeriodicAction {
 	 * The collectors responsible for recording the necessary information.
 	 */
 	private final List<Collector> collectors;
+	
+	/**
+	 * The writer streaming the accumulator to a file as the algorithm runs;
+	 * or {@code null} if the accumulator is not streamed.
+	 */
+	private AccumulatorWriter writer;
+	
+	/**
+	 * The executor computing measurements in the background; or {@code null}
+	 * if all collectors run on the search thread.
+	 */
+	private ExecutorService executor;
+	
+	/**
+	 * Limits the number of rows waiting to be stored in the accumulator,
+	 * blocking the search thread when too many measurements are pending.
+	 */
+	private Semaphore capacity;
+	
+	/**
+	 * The rows waiting to be stored in the accumulator, in the order they
+	 * were collected.  Also used as the lock guarding the pending rows.
+	 */
+	private final LinkedList<Row> pending;
+	
+	/**
+	 * The first error thrown while computing a measurement in the
+	 * background; or {@code null} if no error occurred.
+	 */
+	private RuntimeException failure;
 
 	/**
 	 * Decorates the specified algorithm to periodically collect information
@@ -49,10 +94,90 @@ public class InstrumentedAlgorithm extends PeriodicAction {
 	 * @param frequency the frequency, in evaluations, that data is collected
 	 */
 	public InstrumentedAlgorithm(Algorithm algorithm, int frequency) {
+		this(algorithm, frequency, new Accumulator());
+	}
+	
+	/**
+	 * Decorates the specified algorithm to periodically collect information
+	 * about its runtime behavior, storing the information in the specified
+	 * accumulator.
+	 * 
+	 * @param algorithm the algorithm to decorate
+	 * @param frequency the frequency, in evaluations, that data is collected
+	 * @param accumulator the accumulator to which all recorded information is
+	 *        stored
+	 */
+	public InstrumentedAlgorithm(Algorithm algorithm, int frequency,
+			Accumulator accumulator) {
 		super(algorithm, frequency, FrequencyType.EVALUATIONS);
+		this.accumulator = accumulator;
 		
-		accumulator = new Accumulator();
 		collectors = new ArrayList<Collector>();
+		pending = new LinkedList<Row>();
+	}
+	
+	/**
+	 * Computes the measurements of {@link DeferredCollector}s on the
+	 * specified number of background threads.  Other collectors continue to
+	 * run on the search thread.  The search thread blocks when the specified
+	 * number of rows are waiting for their measurements.  The threads are
+	 * shut down when this algorithm is terminated.
+	 * 
+	 * @param numberOfThreads the number of background threads
+	 * @param maxPendingRows the maximum number of rows waiting for their
+	 *        measurements
+	 * @throws IllegalStateException if this algorithm already collects in the
+	 *         background
+	 */
+	public void collectInBackground(int numberOfThreads, int maxPendingRows) {
+		if (executor != null) {
+			throw new IllegalStateException("already collecting in background");
+		}
+		
+		capacity = new Semaphore(maxPendingRows);
+		executor = Executors.newFixedThreadPool(numberOfThreads,
+				new ThreadFactory() {
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"InstrumentedAlgorithm collector");
+						thread.setDaemon(true);
+						return thread;
+					}
+					
+				});
+	}
+	
+	/**
+	 * Blocks until all pending rows are stored in the accumulator.
+	 * 
+	 * @throws FrameworkException if computing a measurement failed or the
+	 *         thread was interrupted while waiting
+	 */
+	public void flush() {
+		synchronized (pending) {
+			while (!pending.isEmpty() && (failure == null)) {
+				try {
+					pending.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new FrameworkException(e);
+				}
+			}
+			
+			checkFailure();
+		}
+	}
+	
+	/**
+	 * Rethrows the first error thrown while computing a measurement in the
+	 * background.  Must be called while holding the lock on the pending rows.
+	 */
+	private void checkFailure() {
+		if (failure != null) {
+			throw failure;
+		}
 	}
 	
 	/**
@@ -73,14 +198,153 @@ public class InstrumentedAlgorithm extends PeriodicAction {
 	public Accumulator getAccumulator() {
 		return accumulator;
 	}
+	
+	/**
+	 * Streams the recorded information to the specified writer as the
+	 * algorithm runs.  The rows recorded so far are written immediately, and
+	 * each subsequent row is written as soon as all collectors have recorded
+	 * their information.  The writer is closed when this algorithm is
+	 * terminated.
+	 * 
+	 * @param writer the writer; or {@code null} to stop streaming
+	 */
+	public void setWriter(AccumulatorWriter writer) {
+		this.writer = writer;
+		
+		if (writer != null) {
+			write();
+		}
+	}
+	
+	/**
+	 * Writes the rows recorded since the last write to the writer.
+	 */
+	private void write() {
+		try {
+			writer.write(accumulator);
+		} catch (IOException e) {
+			throw new FrameworkException(e);
+		}
+	}
 
 	@Override
 	public void doAction() {
+		if (executor != null) {
+			doActionInBackground();
+			return;
+		}
+		
 		accumulator.add("NFE", algorithm.getNumberOfEvaluations());
 		
 		for (Collector collector : collectors) {
 			collector.collect(accumulator);
 		}
+		
+		if (writer != null) {
+			write();
+		}
+	}
+	
+	/**
+	 * Collects a row, running the collectors that are not deferred and taking
+	 * the snapshots of the deferred collectors on the search thread, and
+	 * submits the measurements to the background threads.
+	 */
+	private void doActionInBackground() {
+		synchronized (pending) {
+			checkFailure();
+		}
+		
+		try {
+			capacity.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FrameworkException(e);
+		}
+		
+		final Row row = new Row();
+		row.getBuffer().add("NFE", algorithm.getNumberOfEvaluations());
+		
+		for (Collector collector : collectors) {
+			if (collector instanceof DeferredCollector) {
+				row.defer(((DeferredCollector)collector).snapshot());
+			} else {
+				collector.collect(row.getBuffer());
+			}
+		}
+		
+		synchronized (pending) {
+			pending.add(row);
+		}
+		
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					row.measure();
+				} catch (RuntimeException e) {
+					synchronized (pending) {
+						if (failure == null) {
+							failure = e;
+						}
+					}
+				}
+				
+				commit();
+			}
+			
+		});
+	}
+	
+	/**
+	 * Stores the completed rows at the head of the pending rows in the
+	 * accumulator, preserving the order in which they were collected.
+	 */
+	private void commit() {
+		synchronized (pending) {
+			while (!pending.isEmpty() && pending.getFirst().isMeasured()) {
+				pending.removeFirst().store(accumulator);
+				capacity.release();
+			}
+			
+			if ((writer != null) && (failure == null)) {
+				try {
+					write();
+				} catch (RuntimeException e) {
+					failure = e;
+				}
+			}
+			
+			pending.notifyAll();
+		}
+	}
+	
+	@Override
+	public void terminate() {
+		super.terminate();
+		
+		try {
+			if (executor != null) {
+				try {
+					flush();
+				} finally {
+					executor.shutdown();
+				}
+			}
+			
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					throw new FrameworkException(e);
+				} finally {
+					writer = null;
+				}
+			}
+		} finally {
+			accumulator.release();
+		}
 	}
 	
 	/**
@@ -141,8 +405,122 @@ public class InstrumentedAlgorithm extends PeriodicAction {
 		
 	}
 
+	/**
+	 * The observations of one row collected in the background.  The
+	 * observations of each collector are buffered in their own part, so the
+	 * keys are added to the accumulator in the same order as when collecting
+	 * on the search thread.
+	 */
+	private static class Row {
+
+		/**
+		 * The parts of this row, each buffering the observations of one or
+		 * more collectors.
+		 */
+		private final List<Accumulator> parts;
+		
+		/**
+		 * The deferred measurements computing the observations of each part;
+		 * or {@code null} for the parts whose observations were collected
+		 * directly.
+		 */
+		private final List<DeferredCollector.Measurement> measurements;
+		
+		/**
+		 * {@code true} if the measurements of this row have been computed;
+		 * {@code false} otherwise.
+		 */
+		private volatile boolean measured;
+		
+		/**
+		 * Constructs an empty row.
+		 */
+		public Row() {
+			super();
+			
+			parts = new ArrayList<Accumulator>();
+			measurements = new ArrayList<DeferredCollector.Measurement>();
+			
+			append(null);
+		}
+		
+		/**
+		 * Appends a part computed by the specified measurement.
+		 * 
+		 * @param measurement the measurement; or {@code null} if the
+		 *        observations are collected directly
+		 */
+		private void append(DeferredCollector.Measurement measurement) {
+			parts.add(Accumulator.newBuffer());
+			measurements.add(measurement);
+		}
+		
+		/**
+		 * Returns the buffer storing the observations collected directly,
+		 * after any deferred parts.
+		 * 
+		 * @return the buffer storing the observations collected directly
+		 */
+		public Accumulator getBuffer() {
+			return parts.get(parts.size()-1);
+		}
+		
+		/**
+		 * Appends a part computed later by the specified measurement.
+		 * Subsequent observations are stored after this part.
+		 * 
+		 * @param measurement the measurement
+		 */
+		public void defer(DeferredCollector.Measurement measurement) {
+			append(measurement);
+			append(null);
+		}
+		
+		/**
+		 * Computes the deferred measurements of this row.
+		 */
+		public void measure() {
+			try {
+				for (int i = 0; i < parts.size(); i++) {
+					if (measurements.get(i) != null) {
+						measurements.get(i).collect(parts.get(i));
+					}
+				}
+			} finally {
+				measured = true;
+			}
+		}
+		
+		/**
+		 * Returns {@code true} if the measurements of this row have been
+		 * computed; {@code false} otherwise.
+		 * 
+		 * @return {@code true} if the measurements of this row have been
+		 *         computed; {@code false} otherwise
+		 */
+		public boolean isMeasured() {
+			return measured;
+		}
+		
+		/**
+		 * Stores the observations of this row in the specified accumulator.
+		 * 
+		 * @param accumulator the accumulator
+		 */
+		public void store(Accumulator accumulator) {
+			for (Accumulator part : parts) {
+				part.addTo(accumulator);
+			}
+		}
+		
+	}
+
 	@Override
 	public Serializable getState() throws NotSerializableException {
+		if (executor != null) {
+			flush();
+		}
+		
 		return new InstrumentedAlgorithmState(super.getState(),
 				accumulator);
 	}
@@ -0,0 +1,69 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.analysis.collector;
+
+import org.moeaframework.algorithm.AsynchronousEpsilonMOEA;
+
+/**
+ * Collects the worker utilization of an {@link AsynchronousEpsilonMOEA}.
+ */
+public class WorkerUtilizationCollector implements Collector {
+
+	/**
+	 * The algorithm instance used by this collector; or {@code null} if this 
+	 * collector has not yet been attached.
+	 */
+	private final AsynchronousEpsilonMOEA algorithm;
+
+	/**
+	 * Constructs an unattached collector for recording the worker utilization
+	 * of an {@code AsynchronousEpsilonMOEA}.
+	 */
+	public WorkerUtilizationCollector() {
+		this(null);
+	}
+	
+	/**
+	 * Constructs a collector for recording the worker utilization of the
+	 * specified {@code AsynchronousEpsilonMOEA}.
+	 * 
+	 * @param algorithm the algorithm this collector records data from
+	 */
+	public WorkerUtilizationCollector(AsynchronousEpsilonMOEA algorithm) {
+		super();
+		this.algorithm = algorithm;
+	}
+
+	@Override
+	public void collect(Accumulator accumulator) {
+		accumulator.add("Worker Utilization", 
+				algorithm.getWorkerUtilization());
+	}
+
+	@Override
+	public AttachPoint getAttachPoint() {
+		return AttachPoint.isSubclass(AsynchronousEpsilonMOEA.class);
+	}
+
+	@Override
+	public Collector attach(Object object) {
+		return new WorkerUtilizationCollector(
+				(AsynchronousEpsilonMOEA)object);
+	}
+
+}
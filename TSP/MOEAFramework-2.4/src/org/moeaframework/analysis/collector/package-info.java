@@ -106,6 +106,16 @@
  *     </td>
  *   </tr>
  *   <tr>
+ *     <td>{@code Worker Utilization}</td>
+ *     <td>
+ *       The fraction of time the workers of an asynchronous algorithm spent
+ *       evaluating solutions.
+ *     </td>
+ *     <td>
+ *       {@link org.moeaframework.analysis.collector.WorkerUtilizationCollector}
+ *     </td>
+ *   </tr>
+ *   <tr>
  *     <td>{@code AdditiveEpsilonIndicator}</td>
  *     <td>
  *       The value of the additive &epsilon;-indicator performance indicator.
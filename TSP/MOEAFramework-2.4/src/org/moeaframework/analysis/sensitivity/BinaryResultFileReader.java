@@ -0,0 +1,588 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.analysis.sensitivity;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.BinaryVariable;
+import org.moeaframework.core.variable.Permutation;
+import org.moeaframework.core.variable.RealVariable;
+
+/**
+ * Reads binary result files created by {@link BinaryResultFileWriter}.  See
+ * the documentation of {@code BinaryResultFileWriter} for a description of the
+ * file format.  Entries can be read in order, as with
+ * {@link ResultFileReader}, or by index with {@link #get(int)}.
+ * <p>
+ * If the index footer is missing, such as when the writer was interrupted,
+ * this reader recovers all complete chunks preceding the first incomplete or
+ * corrupted chunk.
+ * 
+ * @see BinaryResultFileWriter
+ */
+public class BinaryResultFileReader implements Closeable,
+Iterator<ResultEntry>, Iterable<ResultEntry> {
+	
+	/**
+	 * The file containing the results.
+	 */
+	private final RandomAccessFile file;
+	
+	/**
+	 * The problem.
+	 */
+	private final Problem problem;
+	
+	/**
+	 * {@code true} if the chunks are compressed; {@code false} otherwise.
+	 */
+	private final boolean compressed;
+	
+	/**
+	 * The number of decision variables stored for each solution; or
+	 * {@code -1} if the decision variables are not stored.
+	 */
+	private final int numberOfVariables;
+	
+	/**
+	 * The number of objectives stored for each solution.
+	 */
+	private final int numberOfObjectives;
+	
+	/**
+	 * The file offsets of the chunks.
+	 */
+	private final List<Long> chunkOffsets;
+	
+	/**
+	 * The index of the first entry of each chunk.
+	 */
+	private final List<Integer> chunkEntries;
+	
+	/**
+	 * The number of entries in the file.
+	 */
+	private int numberOfEntries;
+	
+	/**
+	 * The index of the chunk whose entries are cached; or {@code -1} if no
+	 * chunk is cached.
+	 */
+	private int cachedChunk;
+	
+	/**
+	 * The entries of the cached chunk.
+	 */
+	private List<ResultEntry> cachedEntries;
+	
+	/**
+	 * The index of the next entry returned by {@link #next()}.
+	 */
+	private int nextIndex;
+	
+	/**
+	 * {@code true} if the warning for unsupported decision variables was
+	 * displayed; {@code false} otherwise.
+	 */
+	private boolean printedWarning;
+	
+	/**
+	 * Constructs a reader for reading the approximation sets from the
+	 * specified binary result file.
+	 * 
+	 * @param problem the problem
+	 * @param file the binary result file
+	 * @throws IOException if an I/O error occurred or the file is not a binary
+	 *         result file
+	 */
+	public BinaryResultFileReader(Problem problem, File file)
+			throws IOException {
+		super();
+		this.problem = problem;
+		this.file = new RandomAccessFile(file, "r");
+		
+		chunkOffsets = new ArrayList<Long>();
+		chunkEntries = new ArrayList<Integer>();
+		cachedChunk = -1;
+		
+		try {
+			if ((this.file.length() < 4) ||
+					(this.file.readInt() != BinaryResultFileWriter.MAGIC)) {
+				throw new IOException("not a binary result file: " + file);
+			}
+			
+			if (this.file.readByte() != BinaryResultFileWriter.VERSION) {
+				throw new IOException("unsupported binary result file " +
+						"version: " + file);
+			}
+			
+			compressed = (this.file.readByte() &
+					BinaryResultFileWriter.COMPRESSED) != 0;
+			this.file.readUTF();
+			numberOfVariables = this.file.readInt();
+			numberOfObjectives = this.file.readInt();
+			
+			if (numberOfObjectives != problem.getNumberOfObjectives()) {
+				throw new FrameworkException("result file has " +
+						numberOfObjectives + " objectives, problem has " +
+						problem.getNumberOfObjectives());
+			}
+			
+			if (!readIndex()) {
+				recoverIndex();
+			}
+		} catch (IOException e) {
+			this.file.close();
+			throw e;
+		} catch (RuntimeException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if the specified file is a binary result file;
+	 * {@code false} otherwise.
+	 * 
+	 * @param file the file
+	 * @return {@code true} if the specified file is a binary result file;
+	 *         {@code false} otherwise
+	 * @throws IOException if an I/O error occurred
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		DataInputStream input = new DataInputStream(new FileInputStream(file));
+		
+		try {
+			return input.readInt() == BinaryResultFileWriter.MAGIC;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			input.close();
+		}
+	}
+	
+	/**
+	 * Reads the index footer.
+	 * 
+	 * @return {@code true} if the index footer was read; {@code false} if the
+	 *         file has no valid index footer
+	 * @throws IOException if an I/O error occurred
+	 */
+	private boolean readIndex() throws IOException {
+		long headerEnd = file.getFilePointer();
+		long length = file.length();
+		
+		if (length - headerEnd < BinaryResultFileWriter.TRAILER_SIZE + 4) {
+			return false;
+		}
+		
+		file.seek(length - BinaryResultFileWriter.TRAILER_SIZE);
+		
+		long indexOffset = file.readLong();
+		int entries = file.readInt();
+		
+		if ((file.readInt() != BinaryResultFileWriter.FOOTER_MAGIC) ||
+				(indexOffset < headerEnd) || (indexOffset >= length)) {
+			file.seek(headerEnd);
+			return false;
+		}
+		
+		file.seek(indexOffset);
+		
+		int numberOfChunks = file.readInt();
+		
+		if (indexOffset + 4 + 12L * numberOfChunks +
+				BinaryResultFileWriter.TRAILER_SIZE != length) {
+			file.seek(headerEnd);
+			return false;
+		}
+		
+		for (int i = 0; i < numberOfChunks; i++) {
+			chunkOffsets.add(file.readLong());
+			chunkEntries.add(file.readInt());
+		}
+		
+		numberOfEntries = entries;
+		return true;
+	}
+	
+	/**
+	 * Rebuilds the index by scanning the chunks following the header, stopping
+	 * at the first incomplete or corrupted chunk.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void recoverIndex() throws IOException {
+		long offset = file.getFilePointer();
+		long length = file.length();
+		
+		while (offset + 16 <= length) {
+			file.seek(offset);
+			
+			int entries = file.readInt();
+			int storedLength = file.readInt();
+			file.readInt();
+			int checksum = file.readInt();
+			
+			if ((entries <= 0) || (storedLength < 0) ||
+					(offset + 16 + storedLength > length)) {
+				break;
+			}
+			
+			byte[] stored = new byte[storedLength];
+			file.readFully(stored);
+			
+			CRC32 crc = new CRC32();
+			crc.update(stored);
+			
+			if ((int)crc.getValue() != checksum) {
+				break;
+			}
+			
+			chunkOffsets.add(offset);
+			chunkEntries.add(numberOfEntries);
+			numberOfEntries += entries;
+			offset += 16 + storedLength;
+		}
+	}
+	
+	/**
+	 * Returns the number of entries in the file.
+	 * 
+	 * @return the number of entries in the file
+	 */
+	public int getNumberOfEntries() {
+		return numberOfEntries;
+	}
+	
+	/**
+	 * Returns the entry at the specified index, reading only the chunk
+	 * containing the entry.  This does not change the position of the
+	 * iteration.
+	 * 
+	 * @param index the index of the entry
+	 * @return the entry at the specified index
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         {@code (index < 0 || index >= getNumberOfEntries())}
+	 */
+	public ResultEntry get(int index) {
+		if ((index < 0) || (index >= numberOfEntries)) {
+			throw new IndexOutOfBoundsException("Index: " + index +
+					", Size: " + numberOfEntries);
+		}
+		
+		// binary search for the last chunk starting at or before the index
+		int low = 0;
+		int high = chunkEntries.size() - 1;
+		
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			
+			if (chunkEntries.get(mid) <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		
+		try {
+			if (cachedChunk != low) {
+				cachedEntries = readChunk(low);
+				cachedChunk = low;
+			}
+		} catch (IOException e) {
+			throw new FrameworkException(e);
+		}
+		
+		return cachedEntries.get(index - chunkEntries.get(low));
+	}
+	
+	/**
+	 * Positions the iteration so the next call to {@link #next()} returns the
+	 * entry at the specified index.
+	 * 
+	 * @param index the index of the next entry
+	 */
+	public void seek(int index) {
+		nextIndex = index;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return nextIndex < numberOfEntries;
+	}
+
+	@Override
+	public ResultEntry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		
+		return get(nextIndex++);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Iterator<ResultEntry> iterator() {
+		return this;
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+	
+	/**
+	 * Reads and decodes the entries of the specified chunk.
+	 * 
+	 * @param index the index of the chunk
+	 * @return the entries of the chunk
+	 * @throws IOException if an I/O error occurred
+	 */
+	private List<ResultEntry> readChunk(int index) throws IOException {
+		file.seek(chunkOffsets.get(index));
+		
+		int entries = file.readInt();
+		int storedLength = file.readInt();
+		int rawLength = file.readInt();
+		int checksum = file.readInt();
+		byte[] stored = new byte[storedLength];
+		byte[] raw = stored;
+		
+		file.readFully(stored);
+		
+		CRC32 crc = new CRC32();
+		crc.update(stored);
+		
+		if ((int)crc.getValue() != checksum) {
+			throw new IOException("corrupted chunk in binary result file");
+		}
+		
+		if (compressed) {
+			Inflater inflater = new Inflater();
+			raw = new byte[rawLength];
+			
+			try {
+				inflater.setInput(stored);
+				
+				if (inflater.inflate(raw) != rawLength) {
+					throw new IOException(
+							"corrupted chunk in binary result file");
+				}
+			} catch (DataFormatException e) {
+				throw new IOException(e);
+			} finally {
+				inflater.end();
+			}
+		}
+		
+		DataInputStream input = new DataInputStream(
+				new ByteArrayInputStream(raw));
+		List<ResultEntry> result = new ArrayList<ResultEntry>(entries);
+		
+		for (int i = 0; i < entries; i++) {
+			result.add(readEntry(input));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Decodes the next entry from the specified stream.
+	 * 
+	 * @param input the stream containing the decompressed chunk
+	 * @return the entry
+	 * @throws IOException if an I/O error occurred
+	 */
+	private ResultEntry readEntry(DataInputStream input) throws IOException {
+		Properties properties = new Properties();
+		int numberOfProperties = input.readInt();
+		
+		for (int i = 0; i < numberOfProperties; i++) {
+			String key = readString(input);
+			properties.setProperty(key, readString(input));
+		}
+		
+		NondominatedPopulation population = new NondominatedPopulation();
+		int numberOfSolutions = input.readInt();
+		boolean decodeVariables =
+				numberOfVariables == problem.getNumberOfVariables();
+		
+		for (int i = 0; i < numberOfSolutions; i++) {
+			Solution solution = null;
+			
+			if (decodeVariables) {
+				solution = problem.newSolution();
+				
+				for (int j = 0; j < numberOfVariables; j++) {
+					solution.setVariable(j, readVariable(input,
+							solution.getVariable(j)));
+				}
+			} else {
+				solution = new Solution(0, numberOfObjectives);
+				
+				for (int j = 0; j < numberOfVariables; j++) {
+					readVariable(input, null);
+				}
+			}
+			
+			for (int j = 0; j < numberOfObjectives; j++) {
+				solution.setObjective(j, input.readDouble());
+			}
+			
+			population.add(solution);
+		}
+		
+		return new ResultEntry(population, properties);
+	}
+	
+	/**
+	 * Reads a string written by {@code BinaryResultFileWriter}.
+	 * 
+	 * @param input the stream containing the decompressed chunk
+	 * @return the string
+	 * @throws IOException if an I/O error occurred
+	 */
+	private String readString(DataInputStream input) throws IOException {
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+	
+	/**
+	 * Decodes the next decision variable from the specified stream, returning
+	 * the variable with the decoded value.  Depending on the variable type,
+	 * the same variable as provided in the arguments or a new variable will be
+	 * returned.
+	 * 
+	 * @param input the stream containing the decompressed chunk
+	 * @param variable the decision variable; or {@code null} if the value is
+	 *        skipped
+	 * @return the variable with the decoded value
+	 * @throws IOException if an I/O error occurred
+	 */
+	private Variable readVariable(DataInputStream input, Variable variable)
+			throws IOException {
+		int tag = input.readByte();
+		
+		if (tag == BinaryResultFileWriter.REAL) {
+			double value = input.readDouble();
+			
+			if (variable instanceof RealVariable) {
+				((RealVariable)variable).setValue(value);
+			} else if (variable != null) {
+				throw new FrameworkException("invalid real variable");
+			}
+		} else if (tag == BinaryResultFileWriter.BINARY) {
+			int numberOfBits = input.readInt();
+			byte[] bits = new byte[(numberOfBits + 7) / 8];
+			input.readFully(bits);
+			
+			if (variable instanceof BinaryVariable) {
+				BinaryVariable bv = (BinaryVariable)variable;
+				
+				if (bv.getNumberOfBits() != numberOfBits) {
+					throw new FrameworkException("invalid bit string");
+				}
+				
+				for (int i = 0; i < numberOfBits; i++) {
+					bv.set(i, (bits[i / 8] & (1 << (i % 8))) != 0);
+				}
+			} else if (variable != null) {
+				throw new FrameworkException("invalid bit string");
+			}
+		} else if (tag == BinaryResultFileWriter.PERMUTATION) {
+			int size = input.readInt();
+			int width = BinaryResultFileWriter.getPackedWidth(size);
+			byte[] packed = new byte[size * width];
+			int[] array = new int[size];
+			
+			input.readFully(packed);
+			
+			for (int i = 0; i < size; i++) {
+				int value = 0;
+				
+				for (int j = 0; j < width; j++) {
+					value = (value << 8) | (packed[i*width + j] & 0xFF);
+				}
+				
+				array[i] = value;
+			}
+			
+			if (variable instanceof Permutation) {
+				try {
+					((Permutation)variable).fromArray(array);
+				} catch (IllegalArgumentException e) {
+					throw new FrameworkException("invalid permutation", e);
+				}
+			} else if (variable != null) {
+				throw new FrameworkException("invalid permutation");
+			}
+		} else if (tag == BinaryResultFileWriter.SERIALIZED) {
+			byte[] bytes = new byte[input.readInt()];
+			input.readFully(bytes);
+			
+			if (variable != null) {
+				ObjectInputStream ois = new ObjectInputStream(
+						new ByteArrayInputStream(bytes));
+				
+				try {
+					return (Variable)ois.readObject();
+				} catch (ClassNotFoundException e) {
+					throw new FrameworkException("deserialization failed", e);
+				} finally {
+					ois.close();
+				}
+			}
+		} else if (tag == BinaryResultFileWriter.MISSING) {
+			if ((variable != null) && !printedWarning) {
+				System.err.println(ResultFileWriter.ENCODING_WARNING);
+				printedWarning = true;
+			}
+		} else {
+			throw new IOException("invalid variable tag: " + tag);
+		}
+		
+		return variable;
+	}
+
+}
@@ -0,0 +1,541 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.analysis.sensitivity;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.Settings;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.BinaryVariable;
+import org.moeaframework.core.variable.Permutation;
+import org.moeaframework.core.variable.RealVariable;
+import org.moeaframework.util.io.FileUtils;
+
+/**
+ * Writes binary result files.  A binary result file stores the same entries
+ * as a {@link ResultFileWriter text result file}, but is smaller and faster to
+ * read, and supports random access by entry through
+ * {@link BinaryResultFileReader}.
+ * <p>
+ * The file starts with a header identifying the problem, followed by chunks
+ * of consecutive entries and an index footer.  Each chunk is optionally
+ * compressed and protected by a checksum.  Real-valued variables and
+ * objectives are stored as doubles, binary variables as packed bits and
+ * permutations as packed integers using 1, 2 or 4 bytes per element depending
+ * on their size.  Other variables are stored as serialized objects.
+ * <p>
+ * The index footer is written when this writer is closed.  If a run is
+ * interrupted, the reader recovers all complete chunks.  Like
+ * {@code ResultFileWriter}, this writer retains the valid entries of an
+ * existing file, which are counted by {@link #getNumberOfEntries()}.
+ * 
+ * @see BinaryResultFileReader
+ */
+public class BinaryResultFileWriter implements OutputWriter {
+	
+	/**
+	 * The magic number at the start of binary result files.
+	 */
+	static final int MAGIC = 0x4D4F5242;
+	
+	/**
+	 * The magic number at the end of binary result files with an index
+	 * footer.
+	 */
+	static final int FOOTER_MAGIC = 0x4D4F5249;
+	
+	/**
+	 * The version of the binary result file format.
+	 */
+	static final int VERSION = 1;
+	
+	/**
+	 * The header flag indicating the chunks are compressed.
+	 */
+	static final int COMPRESSED = 1;
+	
+	/**
+	 * The size of the trailer at the end of the file, storing the offset of
+	 * the index, the number of entries and the footer magic number.
+	 */
+	static final int TRAILER_SIZE = 16;
+	
+	/**
+	 * The tag of real-valued variables.
+	 */
+	static final int REAL = 0;
+	
+	/**
+	 * The tag of binary variables.
+	 */
+	static final int BINARY = 1;
+	
+	/**
+	 * The tag of permutations.
+	 */
+	static final int PERMUTATION = 2;
+	
+	/**
+	 * The tag of serialized variables.
+	 */
+	static final int SERIALIZED = 3;
+	
+	/**
+	 * The tag of variables that could not be encoded.
+	 */
+	static final int MISSING = 4;
+	
+	/**
+	 * The default number of entries stored in each chunk.
+	 */
+	public static final int DEFAULT_ENTRIES_PER_CHUNK = 16;
+	
+	/**
+	 * The number of bytes after which a chunk is written even if it contains
+	 * fewer entries than requested.
+	 */
+	private static final int MAX_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * The stream for appending data to the file.
+	 */
+	private final DataOutputStream output;
+	
+	/**
+	 * {@code true} if this writer should save the decision variables;
+	 * {@code false} otherwise.
+	 */
+	private final boolean includeVariables;
+	
+	/**
+	 * {@code true} if the chunks are compressed; {@code false} otherwise.
+	 */
+	private final boolean compress;
+	
+	/**
+	 * The number of entries stored in each chunk.
+	 */
+	private final int entriesPerChunk;
+	
+	/**
+	 * The entries of the current chunk, encoded but not yet written.
+	 */
+	private final ByteArrayOutputStream chunk;
+	
+	/**
+	 * The stream for encoding entries into the current chunk.
+	 */
+	private final DataOutputStream chunkOutput;
+	
+	/**
+	 * The number of entries in the current chunk.
+	 */
+	private int entriesInChunk;
+	
+	/**
+	 * The file offsets of the chunks written so far.
+	 */
+	private final List<Long> chunkOffsets;
+	
+	/**
+	 * The index of the first entry of the chunks written so far.
+	 */
+	private final List<Integer> chunkEntries;
+	
+	/**
+	 * The number of bytes written to the file.
+	 */
+	private long offset;
+
+	/**
+	 * The number of entries written to the result file.
+	 */
+	private int numberOfEntries;
+	
+	/**
+	 * {@code true} if the warning for unsupported decision variables was
+	 * displayed; {@code false} otherwise.
+	 */
+	private boolean printedWarning;
+	
+	/**
+	 * Constructs a binary result file writer saving the decision variables
+	 * and compressing the entries.
+	 * 
+	 * @param problem the problem
+	 * @param file the file to which the results are stored
+	 * @throws IOException if an I/O error occurred
+	 */
+	public BinaryResultFileWriter(Problem problem, File file)
+			throws IOException {
+		this(problem, file, true, true, DEFAULT_ENTRIES_PER_CHUNK);
+	}
+
+	/**
+	 * Constructs an output writer for writing the decision variables and
+	 * objectives of a sequence of non-dominated populations to a binary result
+	 * file.  If the file already exists, any valid entries are retained and
+	 * {@code getNumberOfEntries()} returns the number of valid entries.
+	 * <p>
+	 * Entries are written to the file one chunk at a time, so an interrupted
+	 * run loses at most the entries of the last, incomplete chunk.
+	 * 
+	 * @param problem the problem
+	 * @param file the file to which the results are stored
+	 * @param includeVariables {@code true} if this writer should save the 
+	 *        decision variables; {@code false} otherwise.
+	 * @param compress {@code true} if the chunks are compressed;
+	 *        {@code false} otherwise
+	 * @param entriesPerChunk the number of entries stored in each chunk
+	 * @throws IOException if an I/O error occurred
+	 */
+	public BinaryResultFileWriter(Problem problem, File file,
+			boolean includeVariables, boolean compress, int entriesPerChunk)
+			throws IOException {
+		super();
+		this.includeVariables = includeVariables;
+		this.compress = compress;
+		this.entriesPerChunk = entriesPerChunk;
+		
+		if (entriesPerChunk <= 0) {
+			throw new IllegalArgumentException(
+					"entriesPerChunk must be positive");
+		}
+		
+		if (!includeVariables) {
+			System.err.println(ResultFileWriter.NO_VARIABLES_WARNING);
+		}
+		
+		// if the file already exists, move it to a temporary location
+		File existingFile = new File(file.getParent(), "." + file.getName()
+				+ ".unclean");
+		
+		if (existingFile.exists()) {
+			if (Settings.getCleanupStrategy().equalsIgnoreCase("restore")) {
+				if (file.exists()) {
+					FileUtils.delete(existingFile);
+				} else {
+					// do nothing, the unclean file is ready for recovery
+				}
+			} else if (Settings.getCleanupStrategy().equalsIgnoreCase("overwrite")) {
+				FileUtils.delete(existingFile);
+			} else {
+				throw new FrameworkException(ResultFileWriter.EXISTING_FILE);
+			}
+		}
+		
+		if (file.exists()) {
+			FileUtils.move(file, existingFile);
+		}
+		
+		// prepare this class for writing
+		chunk = new ByteArrayOutputStream();
+		chunkOutput = new DataOutputStream(chunk);
+		chunkOffsets = new ArrayList<Long>();
+		chunkEntries = new ArrayList<Integer>();
+		output = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		
+		// write header information
+		output.writeInt(MAGIC);
+		output.writeByte(VERSION);
+		output.writeByte(compress ? COMPRESSED : 0);
+		output.writeUTF(problem.getName());
+		output.writeInt(includeVariables ? problem.getNumberOfVariables() : -1);
+		output.writeInt(problem.getNumberOfObjectives());
+		output.flush();
+		offset = output.size();
+
+		// if the file already existed, copy all complete entries
+		if (existingFile.exists()) {
+			ResultFileReader reader = null;
+
+			try {
+				reader = new ResultFileReader(problem, existingFile);
+
+				while (reader.hasNext()) {
+					append(reader.next());
+				}
+			} finally {
+				if (reader != null) {
+					reader.close();
+				}
+			}
+
+			writeChunk();
+			FileUtils.delete(existingFile);
+		}
+	}
+
+	/**
+	 * Returns the number of entries written to the result file. Querying this
+	 * method immediately after the constructor in which the result file already
+	 * existed returns the number of valid entries contained in the result
+	 * file.
+	 * 
+	 * @return the number of entries written to the result file
+	 */
+	@Override
+	public int getNumberOfEntries() {
+		return numberOfEntries;
+	}
+
+	/**
+	 * Appends the decision variables, objectives and optional properties to
+	 * the output file.  Constraint violating solutions are not recorded.
+	 * 
+	 * @param entry the entry to write
+	 * @throws IOException if an I/O error occurred
+	 */
+	@Override
+	public void append(ResultEntry entry) throws IOException {
+		List<Solution> feasibleSolutions = new ArrayList<Solution>();
+		
+		for (Solution solution : entry.getPopulation()) {
+			if (!solution.violatesConstraints()) {
+				feasibleSolutions.add(solution);
+			}
+		}
+		
+		// write properties
+		Properties properties = entry.getProperties();
+		
+		if (properties == null) {
+			chunkOutput.writeInt(0);
+		} else {
+			chunkOutput.writeInt(properties.size());
+			
+			for (String key : properties.stringPropertyNames()) {
+				writeString(key);
+				writeString(properties.getProperty(key));
+			}
+		}
+		
+		// write solutions
+		chunkOutput.writeInt(feasibleSolutions.size());
+		
+		for (Solution solution : feasibleSolutions) {
+			if (includeVariables) {
+				for (int i = 0; i < solution.getNumberOfVariables(); i++) {
+					writeVariable(solution.getVariable(i));
+				}
+			}
+			
+			for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+				chunkOutput.writeDouble(solution.getObjective(i));
+			}
+		}
+		
+		numberOfEntries++;
+		entriesInChunk++;
+		
+		if ((entriesInChunk >= entriesPerChunk) ||
+				(chunk.size() >= MAX_CHUNK_SIZE)) {
+			writeChunk();
+		}
+	}
+	
+	/**
+	 * Writes a string to the current chunk.  Unlike
+	 * {@link DataOutputStream#writeUTF(String)}, strings longer than 65535
+	 * bytes are supported.
+	 * 
+	 * @param string the string
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeString(String string) throws IOException {
+		byte[] bytes = string.getBytes("UTF-8");
+		
+		chunkOutput.writeInt(bytes.length);
+		chunkOutput.write(bytes);
+	}
+	
+	/**
+	 * Writes a decision variable to the current chunk, preceded by its tag.
+	 * 
+	 * @param variable the decision variable
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeVariable(Variable variable) throws IOException {
+		if (variable instanceof RealVariable) {
+			chunkOutput.writeByte(REAL);
+			chunkOutput.writeDouble(((RealVariable)variable).getValue());
+		} else if (variable instanceof BinaryVariable) {
+			BinaryVariable bv = (BinaryVariable)variable;
+			byte[] bits = new byte[(bv.getNumberOfBits() + 7) / 8];
+			
+			for (int i = 0; i < bv.getNumberOfBits(); i++) {
+				if (bv.get(i)) {
+					bits[i / 8] |= 1 << (i % 8);
+				}
+			}
+			
+			chunkOutput.writeByte(BINARY);
+			chunkOutput.writeInt(bv.getNumberOfBits());
+			chunkOutput.write(bits);
+		} else if (variable instanceof Permutation) {
+			Permutation p = (Permutation)variable;
+			int size = p.size();
+			int width = getPackedWidth(size);
+			byte[] packed = new byte[size * width];
+			
+			// big-endian, like DataOutputStream, but without per-element calls
+			for (int i = 0; i < size; i++) {
+				int value = p.get(i);
+				
+				for (int j = 0; j < width; j++) {
+					packed[i*width + j] = (byte)(value >>> (8 * (width-j-1)));
+				}
+			}
+			
+			chunkOutput.writeByte(PERMUTATION);
+			chunkOutput.writeInt(size);
+			chunkOutput.write(packed);
+		} else {
+			try {
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+				ObjectOutputStream oos = new ObjectOutputStream(buffer);
+				oos.writeObject(variable);
+				oos.close();
+				
+				chunkOutput.writeByte(SERIALIZED);
+				chunkOutput.writeInt(buffer.size());
+				buffer.writeTo(chunkOutput);
+			} catch (IOException e) {
+				chunkOutput.writeByte(MISSING);
+				
+				if (!printedWarning) {
+					System.err.println(ResultFileWriter.ENCODING_WARNING);
+					printedWarning = true;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of bytes used to store each element of a permutation
+	 * of the specified size.
+	 * 
+	 * @param size the size of the permutation
+	 * @return the number of bytes used to store each element
+	 */
+	static int getPackedWidth(int size) {
+		if (size <= 0x100) {
+			return 1;
+		} else if (size <= 0x10000) {
+			return 2;
+		} else {
+			return 4;
+		}
+	}
+	
+	/**
+	 * Writes the current chunk to the file, if it contains any entries.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeChunk() throws IOException {
+		if (entriesInChunk == 0) {
+			return;
+		}
+		
+		byte[] raw = chunk.toByteArray();
+		byte[] stored = raw;
+		int storedLength = raw.length;
+		
+		if (compress) {
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+					raw.length / 2 + 64);
+			byte[] block = new byte[8192];
+			
+			try {
+				deflater.setInput(raw);
+				deflater.finish();
+				
+				while (!deflater.finished()) {
+					buffer.write(block, 0, deflater.deflate(block));
+				}
+			} finally {
+				deflater.end();
+			}
+			
+			stored = buffer.toByteArray();
+			storedLength = stored.length;
+		}
+		
+		CRC32 crc = new CRC32();
+		crc.update(stored, 0, storedLength);
+		
+		chunkOffsets.add(offset);
+		chunkEntries.add(numberOfEntries - entriesInChunk);
+		
+		output.writeInt(entriesInChunk);
+		output.writeInt(storedLength);
+		output.writeInt(raw.length);
+		output.writeInt((int)crc.getValue());
+		output.write(stored, 0, storedLength);
+		output.flush();
+		
+		offset += 16 + storedLength;
+		chunk.reset();
+		entriesInChunk = 0;
+	}
+
+	/**
+	 * Writes the remaining entries and the index footer, and closes the file.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			writeChunk();
+			
+			long indexOffset = offset;
+			
+			output.writeInt(chunkOffsets.size());
+			
+			for (int i = 0; i < chunkOffsets.size(); i++) {
+				output.writeLong(chunkOffsets.get(i));
+				output.writeInt(chunkEntries.get(i));
+			}
+			
+			output.writeLong(indexOffset);
+			output.writeInt(numberOfEntries);
+			output.writeInt(FOOTER_MAGIC);
+		} finally {
+			output.close();
+		}
+	}
+
+}
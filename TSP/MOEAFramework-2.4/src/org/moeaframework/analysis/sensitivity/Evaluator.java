@@ -20,7 +20,16 @@ package org.moeaframework.analysis.sensitivity;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.OptionBuilder;
@@ -31,6 +40,7 @@ import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.PRNG;
 import org.moeaframework.core.PopulationIO;
 import org.moeaframework.core.Problem;
+import org.moeaframework.core.SplitMix64Random;
 import org.moeaframework.core.indicator.QualityIndicator;
 import org.moeaframework.core.spi.AlgorithmFactory;
 import org.moeaframework.core.spi.ProblemFactory;
@@ -40,10 +50,20 @@ import org.moeaframework.util.TypedProperties;
 
 /**
  * Command line utility for evaluating an algorithm using many 
- * parameterizations.
+ * parameterizations.  With the {@code --threads} option, the parameter
+ * samples are run concurrently, each on its own instance of the problem and
+ * with its own stream of random numbers split off the seed, and the results
+ * are written in the order of the samples.  The output is then identical
+ * for any number of threads.
  */
 public class Evaluator extends CommandLineUtility {
 
+	/**
+	 * The number of parameter samples read ahead for each thread when running
+	 * concurrently, bounding the number of results held in memory.
+	 */
+	private static final int SAMPLES_PER_THREAD = 2;
+
 	/**
 	 * The problem being evaluated.
 	 */
@@ -132,6 +152,11 @@ public class Evaluator extends CommandLineUtility {
 		options.addOption(OptionBuilder
 				.withLongOpt("force")
 				.create('f'));
+		options.addOption(OptionBuilder
+				.withLongOpt("threads")
+				.hasArg()
+				.withArgName("value")
+				.create('t'));
 
 		return options;
 	}
@@ -191,10 +216,26 @@ public class Evaluator extends CommandLineUtility {
 								!commandLine.hasOption("novariables"));
 					}
 
+					// the streams of random numbers of the samples, only used
+					// when running concurrently
+					SplitMix64Random streams = null;
+					
+					if (commandLine.hasOption("threads")) {
+						streams = new SplitMix64Random(
+								commandLine.hasOption("seed") ?
+										Long.parseLong(commandLine
+												.getOptionValue("seed")) :
+										PRNG.nextLong());
+					}
+
 					// resume at the last good output
 					for (int i = 0; i < output.getNumberOfEntries(); i++) {
 						if (input.hasNext()) {
 							input.next();
+							
+							if (streams != null) {
+								streams.split();
+							}
 						} else {
 							throw new FrameworkException(
 									"output has more entries than input");
@@ -224,19 +265,28 @@ public class Evaluator extends CommandLineUtility {
 								.getOptionValue("epsilon"));
 					}
 
-					// seed the pseudo-random number generator
-					if (commandLine.hasOption("seed")) {
-						PRNG.setSeed(Long.parseLong(commandLine
-								.getOptionValue("seed")));
-					}
-
-					// process the remaining runs
-					while (input.hasNext()) {
-						Properties properties = input.next();
-						properties.putAll(defaultProperties);
-
-						process(commandLine.getOptionValue("algorithm"),
-								properties);
+					if (streams != null) {
+						// process the remaining runs concurrently
+						process(commandLine.getOptionValue("problem"),
+								commandLine.getOptionValue("algorithm"),
+								defaultProperties, streams,
+								Integer.parseInt(commandLine.getOptionValue(
+										"threads")));
+					} else {
+						// seed the pseudo-random number generator
+						if (commandLine.hasOption("seed")) {
+							PRNG.setSeed(Long.parseLong(commandLine
+									.getOptionValue("seed")));
+						}
+	
+						// process the remaining runs
+						while (input.hasNext()) {
+							Properties properties = input.next();
+							properties.putAll(defaultProperties);
+	
+							process(commandLine.getOptionValue("algorithm"),
+									properties);
+						}
 					}
 				} finally {
 					if (output != null) {
@@ -264,6 +314,115 @@ public class Evaluator extends CommandLineUtility {
 	 */
 	protected void process(String algorithmName, Properties properties)
 			throws IOException {
+		output.append(evaluate(problem, algorithmName, properties));
+	}
+	
+	/**
+	 * Performs the remaining runs of the specified algorithm concurrently.
+	 * Each run draws from its own stream of random numbers split off
+	 * {@code streams} in the order of the samples, and each thread evaluates
+	 * its own instance of the problem.  The results are appended to the output
+	 * in the order of the samples.
+	 * 
+	 * @param problemName the problem name
+	 * @param algorithmName the algorithm name
+	 * @param defaultProperties the parameters shared by all runs
+	 * @param streams the generator from which the stream of each run is split
+	 * @param numberOfThreads the number of threads
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void process(final String problemName,
+			final String algorithmName, Properties defaultProperties,
+			SplitMix64Random streams, int numberOfThreads)
+			throws IOException {
+		final List<Problem> problems = new ArrayList<Problem>();
+		final ThreadLocal<Problem> threadProblem = new ThreadLocal<Problem>() {
+
+			@Override
+			protected Problem initialValue() {
+				Problem result = ProblemFactory.getInstance().getProblem(
+						problemName);
+				
+				synchronized (problems) {
+					problems.add(result);
+				}
+				
+				return result;
+			}
+			
+		};
+		
+		ExecutorService executor = Executors.newFixedThreadPool(
+				numberOfThreads);
+		LinkedList<Future<ResultEntry>> pending =
+				new LinkedList<Future<ResultEntry>>();
+		
+		try {
+			while (input.hasNext() || !pending.isEmpty()) {
+				// read ahead until enough samples are pending
+				while (input.hasNext() && (pending.size() <
+						SAMPLES_PER_THREAD * numberOfThreads)) {
+					final Properties properties = input.next();
+					final long streamSeed = streams.split().nextLong();
+					
+					properties.putAll(defaultProperties);
+					
+					pending.add(executor.submit(new Callable<ResultEntry>() {
+
+						@Override
+						public ResultEntry call() throws IOException {
+							PRNG.beginRun(streamSeed);
+							
+							try {
+								return evaluate(threadProblem.get(),
+										algorithmName, properties);
+							} finally {
+								PRNG.endRun();
+							}
+						}
+						
+					}));
+				}
+				
+				output.append(pending.removeFirst().get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FrameworkException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException)e.getCause();
+			} else {
+				throw new FrameworkException(e.getCause());
+			}
+		} finally {
+			executor.shutdownNow();
+			
+			try {
+				executor.awaitTermination(Long.MAX_VALUE,
+						TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			for (Problem problem : problems) {
+				problem.close();
+			}
+		}
+	}
+	
+	/**
+	 * Runs the specified algorithm on a problem using the parameters and
+	 * returns its end-of-run result.
+	 * 
+	 * @param problem the problem
+	 * @param algorithmName the algorithm name
+	 * @param properties the parameters stored in a properties object
+	 * @return the end-of-run result, including the timing data
+	 * @throws IOException if an I/O error occurred
+	 */
+	protected ResultEntry evaluate(Problem problem, String algorithmName,
+			Properties properties) throws IOException {
 		// instrument the problem to record timing information
 		TimingProblem timingProblem = new TimingProblem(problem);
 
@@ -305,8 +464,7 @@ public class Evaluator extends CommandLineUtility {
 		timingData.setProperty("TotalTime",
 				Double.toString((endTime - startTime) / 1e9));
 
-		// write result to output
-		output.append(new ResultEntry(result, timingData));
+		return new ResultEntry(result, timingData);
 	}
 
 	/**
@@ -150,23 +150,51 @@ public class MetricFileWriter implements OutputWriter {
 	 */
 	@Override
 	public void append(ResultEntry entry) {
-		qualityIndicator.calculate(entry.getPopulation());
-
-		writer.print(qualityIndicator.getHypervolume());
-		writer.print(' ');
-		writer.print(qualityIndicator.getGenerationalDistance());
-		writer.print(' ');
-		writer.print(qualityIndicator.getInvertedGenerationalDistance());
-		writer.print(' ');
-		writer.print(qualityIndicator.getSpacing());
-		writer.print(' ');
-		writer.print(qualityIndicator.getAdditiveEpsilonIndicator());
-		writer.print(' ');
-		writer.print(qualityIndicator.getMaximumParetoFrontError());
+		append(evaluate(qualityIndicator, entry));
+	}
+	
+	/**
+	 * Appends the metrics of an entry, as computed by
+	 * {@link #evaluate(QualityIndicator, ResultEntry)}, to this metric file.
+	 * This allows the metrics to be computed concurrently by separate
+	 * quality indicators and appended in order.
+	 * 
+	 * @param metrics the metrics of the entry
+	 */
+	public void append(double[] metrics) {
+		writer.print(metrics[0]);
+		
+		for (int i = 1; i < metrics.length; i++) {
+			writer.print(' ');
+			writer.print(metrics[i]);
+		}
+		
 		writer.println();
 
 		numberOfEntries++;
 	}
+	
+	/**
+	 * Returns the metrics of the specified entry in the order they are stored
+	 * in metric files.
+	 * 
+	 * @param qualityIndicator the quality indicator used to compute the
+	 *        metrics
+	 * @param entry the entry
+	 * @return the metrics of the specified entry
+	 */
+	public static double[] evaluate(QualityIndicator qualityIndicator,
+			ResultEntry entry) {
+		qualityIndicator.calculate(entry.getPopulation());
+		
+		return new double[] {
+				qualityIndicator.getHypervolume(),
+				qualityIndicator.getGenerationalDistance(),
+				qualityIndicator.getInvertedGenerationalDistance(),
+				qualityIndicator.getSpacing(),
+				qualityIndicator.getAdditiveEpsilonIndicator(),
+				qualityIndicator.getMaximumParetoFrontError() };
+	}
 
 	@Override
 	public void close() {
@@ -0,0 +1,148 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.analysis.sensitivity;
+
+import java.io.File;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.OptionBuilder;
+import org.apache.commons.cli.OptionGroup;
+import org.apache.commons.cli.Options;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.spi.ProblemFactory;
+import org.moeaframework.util.CommandLineUtility;
+import org.moeaframework.util.io.FileUtils;
+
+/**
+ * Command line utility for converting result files between the text format of
+ * {@link ResultFileWriter} and the binary format of
+ * {@link BinaryResultFileWriter}.  Text result files are converted to binary
+ * result files and vice versa.
+ */
+public class ResultFileConverter extends CommandLineUtility {
+	
+	/**
+	 * Constructs the command line utility for converting result files between
+	 * the text and binary formats.
+	 */
+	public ResultFileConverter() {
+		super();
+	}
+	
+	@SuppressWarnings("static-access")
+	@Override
+	public Options getOptions() {
+		Options options = super.getOptions();
+		
+		OptionGroup group = new OptionGroup();
+		group.setRequired(true);
+		group.addOption(OptionBuilder
+				.withLongOpt("problem")
+				.hasArg()
+				.withArgName("name")
+				.create('b'));
+		group.addOption(OptionBuilder
+				.withLongOpt("dimension")
+				.hasArg()
+				.withArgName("number")
+				.create('d'));
+		options.addOptionGroup(group);
+		
+		options.addOption(OptionBuilder
+				.withLongOpt("input")
+				.hasArg()
+				.withArgName("file")
+				.isRequired()
+				.create('i'));
+		options.addOption(OptionBuilder
+				.withLongOpt("output")
+				.hasArg()
+				.withArgName("file")
+				.isRequired()
+				.create('o'));
+		options.addOption(OptionBuilder
+				.withLongOpt("nocompress")
+				.create('n'));
+		
+		return options;
+	}
+
+	@Override
+	public void run(CommandLine commandLine) throws Exception {
+		Problem problem = null;
+		ResultFileReader reader = null;
+		OutputWriter writer = null;
+		
+		File input = new File(commandLine.getOptionValue("input"));
+		File output = new File(commandLine.getOptionValue("output"));
+		
+		try {
+			// setup the problem
+			if (commandLine.hasOption("problem")) {
+				problem = ProblemFactory.getInstance().getProblem(commandLine
+						.getOptionValue("problem"));
+			} else {
+				problem = new ProblemStub(Integer.parseInt(commandLine
+						.getOptionValue("dimension")));
+			}
+			
+			//delete the file to avoid appending
+			FileUtils.delete(output);
+			
+			try {
+				if (BinaryResultFileReader.isBinary(input)) {
+					writer = new ResultFileWriter(problem, output);
+				} else {
+					writer = new BinaryResultFileWriter(problem, output, true,
+							!commandLine.hasOption("nocompress"),
+							BinaryResultFileWriter.DEFAULT_ENTRIES_PER_CHUNK);
+				}
+				
+				reader = new ResultFileReader(problem, input);
+				
+				while (reader.hasNext()) {
+					writer.append(reader.next());
+				}
+			} finally {
+				if (reader != null) {
+					reader.close();
+				}
+				
+				if (writer != null) {
+					writer.close();
+				}
+			}
+		} finally {
+			if (problem != null) {
+				problem.close();
+			}
+		}
+	}
+	
+	/**
+	 * Starts the command line utility for converting result files between the
+	 * text and binary formats.
+	 * 
+	 * @param args the command line arguments
+	 * @throws Exception if an error occurred
+	 */
+	public static void main(String[] args) throws Exception {
+		new ResultFileConverter().start(args);
+	}
+
+}
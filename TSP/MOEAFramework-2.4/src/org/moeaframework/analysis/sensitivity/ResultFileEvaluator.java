@@ -18,6 +18,12 @@
 package org.moeaframework.analysis.sensitivity;
 
 import java.io.File;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.OptionBuilder;
@@ -33,10 +39,19 @@ import org.moeaframework.util.CommandLineUtility;
 
 /**
  * Command line utility for evaluating the approximation sets stored in a
- * result file and computing its metric file.
+ * result file and computing its metric file.  With the {@code --threads}
+ * option, the entries are streamed from the result file to a pool of
+ * threads, each with its own {@link QualityIndicator} sharing the normalized
+ * reference set, and the metrics are written in the order of the entries.
  */
 public class ResultFileEvaluator extends CommandLineUtility {
 	
+	/**
+	 * The number of entries read ahead for each thread when evaluating in
+	 * parallel, bounding the number of approximation sets held in memory.
+	 */
+	private static final int ENTRIES_PER_THREAD = 4;
+	
 	/**
 	 * Constructs the command line utility for evaluating the approximation sets
 	 * stored in a result file and computing its metric file.
@@ -84,6 +99,11 @@ public class ResultFileEvaluator extends CommandLineUtility {
 		options.addOption(OptionBuilder
 				.withLongOpt("force")
 				.create('f'));
+		options.addOption(OptionBuilder
+				.withLongOpt("threads")
+				.hasArg()
+				.withArgName("number")
+				.create('t'));
 		
 		return options;
 	}
@@ -151,8 +171,13 @@ public class ResultFileEvaluator extends CommandLineUtility {
 					}
 
 					// evaluate the remaining entries
-					while (reader.hasNext()) {
-						writer.append(reader.next());
+					if (commandLine.hasOption("threads")) {
+						evaluate(reader, writer, indicator, Integer.parseInt(
+								commandLine.getOptionValue("threads")));
+					} else {
+						while (reader.hasNext()) {
+							writer.append(reader.next());
+						}
 					}
 				} finally {
 					if (writer != null) {
@@ -171,6 +196,63 @@ public class ResultFileEvaluator extends CommandLineUtility {
 		}
 	}
 	
+	/**
+	 * Evaluates the remaining entries of the reader on the specified number of
+	 * threads, appending their metrics to the writer in order.
+	 * 
+	 * @param reader the reader of the result file
+	 * @param writer the writer of the metric file
+	 * @param indicator the quality indicator whose reference set and
+	 *        normalization are shared by all threads
+	 * @param numberOfThreads the number of threads
+	 * @throws InterruptedException if the thread was interrupted while
+	 *         waiting for the metrics
+	 */
+	private void evaluate(ResultFileReader reader, MetricFileWriter writer,
+			final QualityIndicator indicator, int numberOfThreads)
+			throws InterruptedException {
+		final ThreadLocal<QualityIndicator> indicators =
+				new ThreadLocal<QualityIndicator>() {
+
+			@Override
+			protected QualityIndicator initialValue() {
+				return new QualityIndicator(indicator);
+			}
+			
+		};
+		
+		ExecutorService executor = Executors.newFixedThreadPool(
+				numberOfThreads);
+		LinkedList<Future<double[]>> pending =
+				new LinkedList<Future<double[]>>();
+		
+		try {
+			while (reader.hasNext() || !pending.isEmpty()) {
+				// read ahead until enough entries are pending
+				while (reader.hasNext() && (pending.size() <
+						ENTRIES_PER_THREAD * numberOfThreads)) {
+					final ResultEntry entry = reader.next();
+					
+					pending.add(executor.submit(new Callable<double[]>() {
+
+						@Override
+						public double[] call() {
+							return MetricFileWriter.evaluate(indicators.get(),
+									entry);
+						}
+						
+					}));
+				}
+				
+				writer.append(pending.removeFirst().get());
+			}
+		} catch (ExecutionException e) {
+			throw new FrameworkException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
 	/**
 	 * Starts the command line utility for evaluating the approximation sets 
 	 * stored in a result file and computing its metric file.
@@ -79,6 +79,9 @@ public class ResultFileMerger extends CommandLineUtility {
 		options.addOption(OptionBuilder
 				.withLongOpt("resultFile")
 				.create('r'));
+		options.addOption(OptionBuilder
+				.withLongOpt("binary")
+				.create('B'));
 		
 		return options;
 	}
@@ -127,14 +130,19 @@ public class ResultFileMerger extends CommandLineUtility {
 			File output = new File(commandLine.getOptionValue("output"));
 
 			// output merged set
-			if (commandLine.hasOption("resultFile")) {
-				ResultFileWriter writer = null;
+			if (commandLine.hasOption("resultFile") ||
+					commandLine.hasOption("binary")) {
+				OutputWriter writer = null;
 				
 				//delete the file to avoid appending
 				FileUtils.delete(output);
 				
 				try {
-					writer = new ResultFileWriter(problem, output);
+					if (commandLine.hasOption("binary")) {
+						writer = new BinaryResultFileWriter(problem, output);
+					} else {
+						writer = new ResultFileWriter(problem, output);
+					}
 					
 					writer.append(new ResultEntry(mergedSet));
 				} finally {
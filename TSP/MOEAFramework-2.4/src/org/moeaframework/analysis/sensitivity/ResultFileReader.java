@@ -44,7 +44,9 @@ import org.moeaframework.core.variable.RealVariable;
 
 /**
  * Reads result files created by {@link ResultFileWriter}.  See the documentation
- * for {@code ResultWriter} for a description of the file format.
+ * for {@code ResultWriter} for a description of the file format.  Binary result
+ * files created by {@link BinaryResultFileWriter} are detected automatically
+ * and read through a {@link BinaryResultFileReader}.
  * <p>
  * This reader is expected to gracefully recover from incomplete or improperly
  * formatted files. Unless a serious I/O error occurred, this reader will
@@ -60,6 +62,12 @@ Iterable<ResultEntry> {
 	 * The internal stream for reading data from the file.
 	 */
 	private final BufferedReader reader;
+	
+	/**
+	 * The reader to which reading binary result files is delegated; or
+	 * {@code null} if the file is a text result file.
+	 */
+	private final BinaryResultFileReader binaryReader;
 
 	/**
 	 * The last line read from the internal stream.
@@ -101,6 +109,13 @@ Iterable<ResultEntry> {
 		super();
 		this.problem = problem;
 		
+		if (BinaryResultFileReader.isBinary(file)) {
+			binaryReader = new BinaryResultFileReader(problem, file);
+			reader = null;
+			return;
+		}
+		
+		binaryReader = null;
 		reader = new BufferedReader(new FileReader(file));
 
 		// prime the reader by reading the first line
@@ -109,11 +124,19 @@ Iterable<ResultEntry> {
 
 	@Override
 	public void close() throws IOException {
-		reader.close();
+		if (binaryReader != null) {
+			binaryReader.close();
+		} else {
+			reader.close();
+		}
 	}
 
 	@Override
 	public ResultEntry next() {
+		if (binaryReader != null) {
+			return binaryReader.next();
+		}
+		
 		if (!hasNext()) {
 			throw new NoSuchElementException();
 		}
@@ -225,6 +248,10 @@ Iterable<ResultEntry> {
 
 	@Override
 	public boolean hasNext() {
+		if (binaryReader != null) {
+			return binaryReader.hasNext();
+		}
+		
 		try {
 			if (error) {
 				return false;
@@ -77,6 +77,9 @@ public class ResultFileSeedMerger extends CommandLineUtility {
 				.hasArg()
 				.withArgName("e1,e2,...")
 				.create('e'));
+		options.addOption(OptionBuilder
+				.withLongOpt("binary")
+				.create('B'));
 
 		return options;
 	}
@@ -117,7 +120,7 @@ public class ResultFileSeedMerger extends CommandLineUtility {
 		List<List<NondominatedPopulation>> entries = 
 				new ArrayList<List<NondominatedPopulation>>();
 		Problem problem = null;
-		ResultFileWriter writer = null;
+		OutputWriter writer = null;
 
 		try {
 			// setup the problem
@@ -154,8 +157,13 @@ public class ResultFileSeedMerger extends CommandLineUtility {
 
 			// process and output the merged sets
 			try {
-				writer = new ResultFileWriter(problem, new File(
-						commandLine.getOptionValue("output")));
+				File output = new File(commandLine.getOptionValue("output"));
+				
+				if (commandLine.hasOption("binary")) {
+					writer = new BinaryResultFileWriter(problem, output);
+				} else {
+					writer = new ResultFileWriter(problem, output);
+				}
 
 				for (int i = 0; i < numberOfEntries; i++) {
 					NondominatedPopulation mergedSet = null;
@@ -20,12 +20,21 @@ package org.moeaframework.analysis.sensitivity;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.math3.stat.StatUtils;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.PRNG;
+import org.moeaframework.core.SplitMix64Random;
 import org.moeaframework.util.CommandLineUtility;
 
 /**
@@ -44,6 +53,12 @@ import org.moeaframework.util.CommandLineUtility;
  * <li>Saltelli, A., et al. "Global Sensitivity Analysis: The Primer." John
  * Wiley & Sons Ltd, 2008.
  * </ol>
+ * <p>
+ * The bootstrap resamples are computed on a fixed thread pool with the number
+ * of threads given by the {@code --threads} option, or one per processor by
+ * default.  Since each resample draws from its own stream of random numbers,
+ * split in a fixed order off the {@code --seed} value, the output is the same
+ * for any number of threads.
  */
 public class SobolAnalysis extends CommandLineUtility {
 
@@ -93,6 +108,17 @@ public class SobolAnalysis extends CommandLineUtility {
 	 * the corresponding original parameter.
 	 */
 	private double[][] C_B;
+	
+	/**
+	 * The generator from which the stream of random numbers of each
+	 * bootstrap resample is split.
+	 */
+	private SplitMix64Random streams;
+	
+	/**
+	 * The executor on which the bootstrap resamples are computed.
+	 */
+	private ExecutorService executor;
 
 	/**
 	 * Constructs the command line utility for global sensitivity analysis
@@ -288,33 +314,16 @@ public class SobolAnalysis extends CommandLineUtility {
 	 *        confidence interval
 	 * @return the first-order confidence interval of the i-th parameter
 	 */
-	private static double computeFirstOrderConfidence(double[] a0, double[] a1,
+	private double computeFirstOrderConfidence(double[] a0, double[] a1,
 			double[] a2, int nsample, int nresample) {
-		double[] b0 = new double[nsample];
-		double[] b1 = new double[nsample];
-		double[] b2 = new double[nsample];
-		double[] s = new double[nresample];
+		return computeConfidence(new Statistic() {
 
-		for (int i = 0; i < nresample; i++) {
-			for (int j = 0; j < nsample; j++) {
-				int index = PRNG.nextInt(nsample);
-
-				b0[j] = a0[index];
-				b1[j] = a1[index];
-				b2[j] = a2[index];
+			@Override
+			public double compute(double[][] b, int nsample) {
+				return computeFirstOrder(b[0], b[1], b[2], nsample);
 			}
-
-			s[i] = computeFirstOrder(b0, b1, b2, nsample);
-		}
-
-		double ss = StatUtils.sum(s) / nresample;
-		double sss = 0.0;
-		
-		for (int i = 0; i < nresample; i++) {
-			sss += Math.pow(s[i] - ss, 2.0);
-		}
-
-		return 1.96 * Math.sqrt(sss / (nresample - 1));
+			
+		}, new double[][] { a0, a1, a2 }, nsample, nresample);
 	}
 
 	/**
@@ -413,33 +422,16 @@ public class SobolAnalysis extends CommandLineUtility {
 	 *        confidence interval
 	 * @return the total-order confidence interval of the i-th parameter
 	 */
-	private static double computeTotalOrderConfidence(double[] a0, double[] a1,
+	private double computeTotalOrderConfidence(double[] a0, double[] a1,
 			double[] a2, int nsample, int nresample) {
-		double[] b0 = new double[nsample];
-		double[] b1 = new double[nsample];
-		double[] b2 = new double[nsample];
-		double[] s = new double[nresample];
-
-		for (int i = 0; i < nresample; i++) {
-			for (int j = 0; j < nsample; j++) {
-				int index = PRNG.nextInt(nsample);
+		return computeConfidence(new Statistic() {
 
-				b0[j] = a0[index];
-				b1[j] = a1[index];
-				b2[j] = a2[index];
+			@Override
+			public double compute(double[][] b, int nsample) {
+				return computeTotalOrder(b[0], b[1], b[2], nsample);
 			}
-
-			s[i] = computeTotalOrder(b0, b1, b2, nsample);
-		}
-
-		double ss = StatUtils.sum(s) / nresample;
-		double sss = 0.0;
-		
-		for (int i = 0; i < nresample; i++) {
-			sss += Math.pow(s[i] - ss, 2.0);
-		}
-
-		return 1.96 * Math.sqrt(sss / (nresample - 1));
+			
+		}, new double[][] { a0, a1, a2 }, nsample, nresample);
 	}
 
 	/**
@@ -522,28 +514,67 @@ public class SobolAnalysis extends CommandLineUtility {
 	 * @return the second-order confidence interval of the i-th and j-th
 	 *         parameters
 	 */
-	private static double computeSecondOrderConfidence(double[] a0,
+	private double computeSecondOrderConfidence(double[] a0,
 			double[] a1, double[] a2, double[] a3, double[] a4, int nsample,
 			int nresample) {
-		double[] b0 = new double[nsample];
-		double[] b1 = new double[nsample];
-		double[] b2 = new double[nsample];
-		double[] b3 = new double[nsample];
-		double[] b4 = new double[nsample];
-		double[] s = new double[nresample];
+		return computeConfidence(new Statistic() {
 
+			@Override
+			public double compute(double[][] b, int nsample) {
+				return computeSecondOrder(b[0], b[1], b[2], b[3], b[4],
+						nsample);
+			}
+			
+		}, new double[][] { a0, a1, a2, a3, a4 }, nsample, nresample);
+	}
+	
+	/**
+	 * Returns the bootstrap confidence interval of a sensitivity.  The
+	 * resamples are split into ranges of {@value Resample#RANGE_SIZE}, each
+	 * computed by one task on the executor, and each resample draws from its
+	 * own stream of random numbers split off {@link #streams} before any
+	 * resample starts.  The confidence interval therefore does not depend
+	 * on the number of threads or on the order in which the resamples run.
+	 * 
+	 * @param statistic the sensitivity
+	 * @param a the outputs from which the sensitivity is computed
+	 * @param nsample the number of samples
+	 * @param nresample the number of resamples used when calculating the
+	 *        confidence interval
+	 * @return the bootstrap confidence interval of the sensitivity
+	 * @throws FrameworkException if a resample failed or the computation was
+	 *         interrupted
+	 */
+	private double computeConfidence(Statistic statistic, double[][] a,
+			int nsample, int nresample) {
+		Random[] random = new Random[nresample];
+		double[] s = new double[nresample];
+		
 		for (int i = 0; i < nresample; i++) {
-			for (int j = 0; j < nsample; j++) {
-				int index = PRNG.nextInt(nsample);
-
-				b0[j] = a0[index];
-				b1[j] = a1[index];
-				b2[j] = a2[index];
-				b3[j] = a3[index];
-				b4[j] = a4[index];
+			random[i] = streams.split();
+		}
+		
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		
+		try {
+			for (int from = 0; from < nresample; from += Resample.RANGE_SIZE) {
+				futures.add(executor.submit(new Resample(statistic, a, nsample,
+						random, s, from, Math.min(from + Resample.RANGE_SIZE,
+								nresample))));
+			}
+			
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FrameworkException(e);
+		} catch (ExecutionException e) {
+			throw new FrameworkException(e.getCause());
+		} finally {
+			for (Future<?> future : futures) {
+				future.cancel(true);
 			}
-
-			s[i] = computeSecondOrder(b0, b1, b2, b3, b4, nsample);
 		}
 
 		double ss = StatUtils.sum(s) / nresample;
@@ -555,6 +586,112 @@ public class SobolAnalysis extends CommandLineUtility {
 
 		return 1.96 * Math.sqrt(sss / (nresample - 1));
 	}
+	
+	/**
+	 * A sensitivity computed from the outputs of the samples, or from a
+	 * resample thereof.
+	 */
+	private static interface Statistic {
+		
+		/**
+		 * Returns the sensitivity computed from the outputs.
+		 * 
+		 * @param b the outputs, in the order of the arguments of the method
+		 *        computing the sensitivity
+		 * @param nsample the number of samples
+		 * @return the sensitivity computed from the outputs
+		 */
+		public double compute(double[][] b, int nsample);
+		
+	}
+	
+	/**
+	 * Computes a range of bootstrap resamples of a sensitivity.
+	 */
+	private static class Resample implements Runnable {
+
+		/**
+		 * The number of resamples computed by each task.
+		 */
+		private static final int RANGE_SIZE = 16;
+		
+		/**
+		 * The sensitivity.
+		 */
+		private final Statistic statistic;
+		
+		/**
+		 * The outputs from which the sensitivity is computed.
+		 */
+		private final double[][] a;
+		
+		/**
+		 * The number of samples.
+		 */
+		private final int nsample;
+		
+		/**
+		 * The stream of random numbers of each resample.
+		 */
+		private final Random[] random;
+		
+		/**
+		 * The sensitivity of each resample, filled in by this task.
+		 */
+		private final double[] s;
+		
+		/**
+		 * The first resample in the range.
+		 */
+		private final int from;
+		
+		/**
+		 * The resample following the last resample in the range.
+		 */
+		private final int to;
+
+		/**
+		 * Constructs a task computing a range of bootstrap resamples of a
+		 * sensitivity.
+		 * 
+		 * @param statistic the sensitivity
+		 * @param a the outputs from which the sensitivity is computed
+		 * @param nsample the number of samples
+		 * @param random the stream of random numbers of each resample
+		 * @param s the sensitivity of each resample, filled in by this task
+		 * @param from the first resample in the range
+		 * @param to the resample following the last resample in the range
+		 */
+		public Resample(Statistic statistic, double[][] a, int nsample,
+				Random[] random, double[] s, int from, int to) {
+			super();
+			this.statistic = statistic;
+			this.a = a;
+			this.nsample = nsample;
+			this.random = random;
+			this.s = s;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void run() {
+			double[][] b = new double[a.length][nsample];
+			
+			for (int i = from; i < to; i++) {
+				for (int j = 0; j < nsample; j++) {
+					int index = random[i].nextInt(nsample);
+					
+					for (int k = 0; k < a.length; k++) {
+						b[k][j] = a[k][index];
+					}
+				}
+				
+				s[i] = statistic.compute(b, nsample);
+			}
+		}
+		
+	}
 
 	/**
 	 * Ensures the model output file contains N*(2P+2) lines and returns N, the
@@ -627,6 +764,16 @@ public class SobolAnalysis extends CommandLineUtility {
 				.hasArg()
 				.withArgName("number")
 				.create('r'));
+		options.addOption(OptionBuilder
+				.withLongOpt("seed")
+				.hasArg()
+				.withArgName("value")
+				.create('S'));
+		options.addOption(OptionBuilder
+				.withLongOpt("threads")
+				.hasArg()
+				.withArgName("value")
+				.create('t'));
 
 		return options;
 	}
@@ -645,11 +792,23 @@ public class SobolAnalysis extends CommandLineUtility {
 			resamples = Integer.parseInt(commandLine.getOptionValue(
 					"resamples"));
 		}
-
+		
+		streams = new SplitMix64Random(commandLine.hasOption("seed") ?
+				Long.parseLong(commandLine.getOptionValue("seed")) :
+				PRNG.nextLong());
+		
 		//load and validate the model output file
 		File input = new File(commandLine.getOptionValue("input"));
 		N = validate(input);
 		load(input);
+		
+		if (commandLine.hasOption("threads")) {
+			executor = Executors.newFixedThreadPool(Integer.parseInt(
+					commandLine.getOptionValue("threads")));
+		} else {
+			executor = Executors.newFixedThreadPool(
+					Runtime.getRuntime().availableProcessors());
+		}
 
 		try {
 			//setup the output stream
@@ -670,6 +829,8 @@ public class SobolAnalysis extends CommandLineUtility {
 			if ((output != null) && (output != System.out)) {
 				output.close();
 			}
+			
+			executor.shutdown();
 		}
 	}
 
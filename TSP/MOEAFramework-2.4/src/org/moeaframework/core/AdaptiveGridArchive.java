@@ -17,7 +17,15 @@
  */
 package org.moeaframework.core;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Adaptive grid archive. Divides objective space into a number of grid cells,
@@ -25,6 +33,19 @@ import java.util.Arrays;
  * the size of the archive exceeds a specified capacity, a solution from the
  * most crowded grid cell is selected and removed from the archive.
  * <p>
+ * Only occupied grid cells are stored, each with its members, and the cells
+ * are bucketed by density.  Adding or removing a solution therefore updates
+ * a single cell and finding the densest cell does not scan the archive.  The
+ * index of a solution in this archive is counted from the positions of the
+ * solutions, so locating the solution to remove does not scan the archive
+ * either.  The grid bounds are only recomputed when a solution falls outside
+ * of the current grid.
+ * <p>
+ * Previous versions exposed the density of every grid cell in the protected
+ * {@code density} array, which held one entry per cell of the full grid.  The
+ * array was removed; subclasses should call {@link #getDensity(int)}
+ * instead.
+ * <p>
  * References:
  * <ol>
  * <li>Knowles, J.D. and Corne, D.W., "Approximating the Nondominated Front
@@ -63,9 +84,38 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 	protected double[] maximum;
 
 	/**
-	 * The number of solutions in each grid cell.
+	 * The occupied grid cells, keyed by their index.
 	 */
-	protected int[] density;
+	private final Map<Integer, Cell> cells;
+
+	/**
+	 * The position of each solution in the order of this archive, which
+	 * breaks ties between equally dense grid cells.
+	 */
+	private final Map<Solution, Long> positions;
+
+	/**
+	 * The occupied grid cells grouped by their density, with the cell holding
+	 * the earliest solution first.
+	 */
+	private final List<TreeSet<Cell>> buckets;
+
+	/**
+	 * The position assigned to the next solution added to the grid.
+	 */
+	private long nextPosition;
+
+	/**
+	 * Binary indexed tree counting the solutions at each position, from which
+	 * the index of a solution in this archive is computed.  Position
+	 * {@code p} is stored at element {@code p + 1}.
+	 */
+	private int[] counts;
+
+	/**
+	 * The density of the densest grid cell.
+	 */
+	private int maximumDensity;
 
 	/**
 	 * Constructs an adaptive grid archive with the specified capacity with the
@@ -84,8 +134,9 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 
 		minimum = new double[problem.getNumberOfObjectives()];
 		maximum = new double[problem.getNumberOfObjectives()];
-		density = new int[(int)Math.pow(numberOfDivisions, problem
-				.getNumberOfObjectives())];
+		cells = new HashMap<Integer, Cell>();
+		positions = new IdentityHashMap<Solution, Long>();
+		buckets = new ArrayList<TreeSet<Cell>>();
 
 		adaptGrid();
 	}
@@ -118,6 +169,17 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 		return problem;
 	}
 
+	/**
+	 * Returns the number of solutions in the specified grid cell.
+	 * 
+	 * @param index the index of the grid cell
+	 * @return the number of solutions in the specified grid cell
+	 */
+	public int getDensity(int index) {
+		Cell cell = cells.get(index);
+		return cell == null ? 0 : cell.members.size();
+	}
+
 	@Override
 	public boolean add(Solution solution) {
 		boolean added = super.add(solution);
@@ -130,8 +192,11 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 
 		if (index < 0) {
 			adaptGrid();
+		} else if (nextPosition + 1 >= counts.length) {
+			// positions exhausted, reassign them in the current order
+			updateGrid();
 		} else {
-			density[index]++;
+			addToGrid(solution, index);
 		}
 
 		if (size() > capacity) {
@@ -143,11 +208,12 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 
 	@Override
 	public void remove(int index) {
-		int gridIndex = findIndex(get(index));
+		Solution solution = get(index);
+		int gridIndex = findIndex(solution);
 
 		super.remove(index);
 
-		density[gridIndex]--;
+		removeFromGrid(solution, gridIndex);
 	}
 
 	@Override
@@ -155,7 +221,7 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 		boolean removed = super.remove(solution);
 
 		if (removed) {
-			density[findIndex(solution)]--;
+			removeFromGrid(solution, findIndex(solution));
 		}
 
 		return removed;
@@ -167,6 +233,18 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 		adaptGrid();
 	}
 
+	@Override
+	public void sort(Comparator<? super Solution> comparator) {
+		super.sort(comparator);
+		updateGrid();
+	}
+
+	@Override
+	public void truncate(int size, Comparator<? super Solution> comparator) {
+		super.truncate(size, comparator);
+		updateGrid();
+	}
+
 	/**
 	 * Returns the index of the solution residing in the densest grid cell. If
 	 * there are more than one such solutions, the first value is returned.
@@ -174,19 +252,13 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 	 * @return the index of the solution residing in the densest grid cell
 	 */
 	protected int findDensestIndex() {
-		int index = -1;
-		int value = -1;
-
-		for (int i = 0; i < size(); i++) {
-			int tempValue = density[findIndex(get(i))];
-
-			if (tempValue > value) {
-				index = i;
-				value = tempValue;
-			}
+		if (maximumDensity == 0) {
+			return -1;
 		}
 
-		return index;
+		Cell cell = buckets.get(maximumDensity).first();
+
+		return countBefore(cell.members.firstKey());
 	}
 
 	/**
@@ -196,7 +268,6 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 	protected void adaptGrid() {
 		Arrays.fill(minimum, Double.POSITIVE_INFINITY);
 		Arrays.fill(maximum, Double.NEGATIVE_INFINITY);
-		Arrays.fill(density, 0);
 
 		for (Solution solution : this) {
 			for (int i = 0; i < problem.getNumberOfObjectives(); i++) {
@@ -205,11 +276,139 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 			}
 		}
 
+		updateGrid();
+	}
+
+	/**
+	 * Recalculates the densities of each grid cell without changing the lower
+	 * and upper bounds, assigning the solutions their position in the current
+	 * order of this archive.
+	 */
+	private void updateGrid() {
+		cells.clear();
+		positions.clear();
+		buckets.clear();
+		nextPosition = 0;
+		maximumDensity = 0;
+		counts = new int[2 * Math.max(size(), capacity) + 2];
+
 		for (Solution solution : this) {
-			density[findIndex(solution)]++;
+			addToGrid(solution, findIndex(solution));
 		}
 	}
 
+	/**
+	 * Adds a solution to the specified grid cell.  The solution must come
+	 * after all other solutions in the grid in the order of this archive.
+	 * 
+	 * @param solution the solution to add
+	 * @param index the index of the grid cell containing the solution
+	 */
+	private void addToGrid(Solution solution, int index) {
+		Cell cell = cells.get(index);
+
+		if (cell == null) {
+			cell = new Cell();
+			cells.put(index, cell);
+		} else {
+			detach(cell);
+		}
+
+		Long position = nextPosition++;
+		positions.put(solution, position);
+		cell.members.put(position, solution);
+		updateCount(position, 1);
+
+		attach(cell);
+	}
+
+	/**
+	 * Removes a solution from the specified grid cell.
+	 * 
+	 * @param solution the solution to remove
+	 * @param index the index of the grid cell containing the solution
+	 */
+	private void removeFromGrid(Solution solution, int index) {
+		Long position = positions.remove(solution);
+		Cell cell = cells.get(index);
+
+		if ((position == null) || (cell == null)) {
+			return;
+		}
+
+		detach(cell);
+		cell.members.remove(position);
+		updateCount(position, -1);
+
+		if (cell.members.isEmpty()) {
+			cells.remove(index);
+		} else {
+			attach(cell);
+		}
+
+		while ((maximumDensity > 0) && 
+				buckets.get(maximumDensity).isEmpty()) {
+			maximumDensity--;
+		}
+	}
+
+	/**
+	 * Adds the specified amount to the number of solutions at a position.
+	 * 
+	 * @param position the position
+	 * @param amount the amount added
+	 */
+	private void updateCount(long position, int amount) {
+		for (int i = (int)position + 1; i < counts.length; i += i & -i) {
+			counts[i] += amount;
+		}
+	}
+
+	/**
+	 * Returns the number of solutions at positions before the specified
+	 * position, which is the index in this archive of the solution at that
+	 * position.
+	 * 
+	 * @param position the position
+	 * @return the number of solutions at positions before the specified
+	 *         position
+	 */
+	private int countBefore(long position) {
+		int count = 0;
+
+		for (int i = (int)position; i > 0; i -= i & -i) {
+			count += counts[i];
+		}
+
+		return count;
+	}
+
+	/**
+	 * Adds a grid cell to the bucket of its density.
+	 * 
+	 * @param cell the grid cell
+	 */
+	private void attach(Cell cell) {
+		int count = cell.members.size();
+
+		while (buckets.size() <= count) {
+			buckets.add(new TreeSet<Cell>(Cell.BY_FIRST_MEMBER));
+		}
+
+		buckets.get(count).add(cell);
+		maximumDensity = Math.max(maximumDensity, count);
+	}
+
+	/**
+	 * Removes a grid cell from the bucket of its density.  This must precede
+	 * any change to the members of the cell.
+	 * 
+	 * @param cell the grid cell
+	 */
+	private void detach(Cell cell) {
+		buckets.get(cell.members.size()).remove(cell);
+	}
+
 	/**
 	 * Returns the index of the specified solution in this adaptive grid
 	 * archive, or {@code -1} if the solution is not within the current lower
@@ -244,4 +443,39 @@ public class AdaptiveGridArchive extends NondominatedPopulation {
 		return index;
 	}
 
+	/**
+	 * An occupied grid cell.
+	 */
+	private static class Cell {
+
+		/**
+		 * Orders grid cells by the position of their earliest member.
+		 */
+		private static final Comparator<Cell> BY_FIRST_MEMBER = 
+				new Comparator<Cell>() {
+
+			@Override
+			public int compare(Cell cell1, Cell cell2) {
+				return cell1.members.firstKey().compareTo(
+						cell2.members.firstKey());
+			}
+
+		};
+
+		/**
+		 * The solutions in this grid cell, keyed by their position.
+		 */
+		private final TreeMap<Long, Solution> members;
+
+		/**
+		 * Constructs an empty grid cell.
+		 */
+		public Cell() {
+			super();
+
+			members = new TreeMap<Long, Solution>();
+		}
+
+	}
+
 }
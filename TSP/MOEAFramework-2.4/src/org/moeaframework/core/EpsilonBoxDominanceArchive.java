@@ -17,8 +17,17 @@
  */
 package org.moeaframework.core;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.moeaframework.core.comparator.AggregateConstraintComparator;
 import org.moeaframework.core.comparator.EpsilonBoxDominanceComparator;
 
 /**
@@ -28,6 +37,13 @@ import org.moeaframework.core.comparator.EpsilonBoxDominanceComparator;
  * conditions hold [1].  In addition, this archive also tracks 
  * &epsilon;-progress [2] by counting the number of &epsilon;-box improvements.
  * <p>
+ * Since each &epsilon;-box holds at most one solution, solutions are indexed
+ * by their box index vector.  Finding the solution in the same box takes
+ * constant time, and the dominance checks compare the cached index vectors
+ * of the boxes, indexed by the first box index when there are two
+ * objectives.  This index is used with the {@link EpsilonBoxDominanceComparator}
+ * itself; subclasses of the comparator are applied to every solution.
+ * <p>
  * References:
  * <ol>
  *   <li>Laumanns, M. et al.  "Combining Convergence and Diversity in
@@ -51,6 +67,46 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 */
 	private int numberOfDominatingImprovements;
 
+	/**
+	 * The solution in each occupied &epsilon;-box; or {@code null} if the
+	 * comparator is a subclass and no index is used.
+	 */
+	private final Map<Box, Solution> boxes;
+
+	/**
+	 * The box of each solution in this archive.
+	 */
+	private final Map<Solution, Box> boxOf;
+
+	/**
+	 * The occupied boxes ordered by their first index if there are two
+	 * objectives, in which case the second index decreases as the first
+	 * increases; otherwise {@code null}.
+	 */
+	private TreeMap<Double, Box> sortedBoxes;
+
+	/**
+	 * The index vectors of the occupied boxes stored contiguously, the box in
+	 * slot {@code k} occupying {@code indices[k*M]} to
+	 * {@code indices[(k+1)*M - 1]}.
+	 */
+	private double[] indices;
+
+	/**
+	 * The box in each slot of {@code indices}.
+	 */
+	private Box[] slots;
+
+	/**
+	 * The number of occupied slots.
+	 */
+	private int numberOfSlots;
+
+	/**
+	 * Compares the constraint violations of solutions.
+	 */
+	private final AggregateConstraintComparator constraintComparator;
+
 	/**
 	 * Constructs an empty &epsilon;-box dominance archive using an additive
 	 * &epsilon;-box dominance comparator with the specified &epsilon;.
@@ -59,7 +115,7 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 *        dominance comparator
 	 */
 	public EpsilonBoxDominanceArchive(double epsilon) {
-		super(new EpsilonBoxDominanceComparator(epsilon));
+		this(new EpsilonBoxDominanceComparator(epsilon));
 	}
 
 	/**
@@ -73,7 +129,7 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 */
 	public EpsilonBoxDominanceArchive(double epsilon,
 			Iterable<? extends Solution> iterable) {
-		super(new EpsilonBoxDominanceComparator(epsilon), iterable);
+		this(new EpsilonBoxDominanceComparator(epsilon), iterable);
 	}
 	
 	/**
@@ -84,7 +140,7 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 *        dominance comparator
 	 */
 	public EpsilonBoxDominanceArchive(double[] epsilon) {
-		super(new EpsilonBoxDominanceComparator(epsilon));
+		this(new EpsilonBoxDominanceComparator(epsilon));
 	}
 	
 	/**
@@ -98,7 +154,7 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 */
 	public EpsilonBoxDominanceArchive(double[] epsilon,
 			Iterable<? extends Solution> iterable) {
-		super(new EpsilonBoxDominanceComparator(epsilon), iterable);
+		this(new EpsilonBoxDominanceComparator(epsilon), iterable);
 	}
 
 	/**
@@ -110,6 +166,15 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 */
 	public EpsilonBoxDominanceArchive(EpsilonBoxDominanceComparator comparator) {
 		super(comparator);
+		
+		constraintComparator = new AggregateConstraintComparator();
+		boxOf = new IdentityHashMap<Solution, Box>();
+		
+		if (comparator.getClass() == EpsilonBoxDominanceComparator.class) {
+			boxes = new HashMap<Box, Solution>();
+		} else {
+			boxes = null;
+		}
 	}
 
 	/**
@@ -123,11 +188,113 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	 */
 	public EpsilonBoxDominanceArchive(EpsilonBoxDominanceComparator comparator,
 			Iterable<? extends Solution> iterable) {
-		super(comparator, iterable);
+		this(comparator);
+		addAll(iterable);
 	}
 
 	@Override
 	public boolean add(Solution newSolution) {
+		if (boxes == null) {
+			return addWithComparator(newSolution);
+		}
+		
+		if (!isEmpty()) {
+			int flag = constraintComparator.compare(newSolution, get(0));
+			
+			if (flag > 0) {
+				return false;
+			} else if (flag < 0) {
+				super.clear();
+				clearIndex();
+				numberOfImprovements++;
+				numberOfDominatingImprovements++;
+				return forceAddWithoutCheck(newSolution);
+			}
+		}
+		
+		Box box = new Box(newSolution, getComparator());
+		Solution oldSolution = boxes.get(box);
+		
+		if (oldSolution != null) {
+			// the box is occupied, keep the solution closest to its corner
+			if (box.distance(newSolution, getComparator()) < 
+					box.distance(oldSolution, getComparator())) {
+				super.remove(oldSolution);
+				removeFromIndex(oldSolution);
+				return forceAddWithoutCheck(newSolution);
+			} else {
+				return false;
+			}
+		}
+		
+		Set<Solution> dominated = Collections.newSetFromMap(
+				new IdentityHashMap<Solution, Boolean>());
+		
+		if (sortedBoxes != null) {
+			Map.Entry<Double, Box> entry = sortedBoxes.floorEntry(
+					box.index[0]);
+			
+			if ((entry != null) && (entry.getValue().index[1] <= box.index[1])) {
+				return false;
+			}
+			
+			for (Box other : sortedBoxes.tailMap(box.index[0], true).values()) {
+				if (other.index[1] < box.index[1]) {
+					break;
+				}
+				
+				dominated.add(boxes.get(other));
+			}
+		} else {
+			double[] index = box.index;
+			int m = index.length;
+			
+			for (int k = 0; k < numberOfSlots; k++) {
+				boolean dominate1 = false;
+				boolean dominate2 = false;
+				int offset = k * m;
+				
+				for (int i = 0; (i < m) && !(dominate1 && dominate2); i++) {
+					double other = indices[offset + i];
+					
+					if (index[i] < other) {
+						dominate1 = true;
+					} else if (index[i] > other) {
+						dominate2 = true;
+					}
+				}
+				
+				if (dominate2 && !dominate1) {
+					return false;
+				} else if (dominate1 && !dominate2) {
+					dominated.add(boxes.get(slots[k]));
+				}
+			}
+		}
+		
+		numberOfImprovements++;
+		
+		if (!dominated.isEmpty()) {
+			numberOfDominatingImprovements++;
+			removeSolutions(dominated);
+			
+			for (Solution solution : dominated) {
+				removeFromIndex(solution);
+			}
+		}
+		
+		return forceAddWithoutCheck(newSolution);
+	}
+	
+	/**
+	 * Adds the solution by comparing it against every solution in this
+	 * archive using the comparator.  Used if the comparator is a subclass of
+	 * {@link EpsilonBoxDominanceComparator}.
+	 * 
+	 * @param newSolution the solution to be added
+	 * @return {@code true} if the solution was added; {@code false} otherwise
+	 */
+	private boolean addWithComparator(Solution newSolution) {
 		Iterator<Solution> iterator = iterator();
 
 		boolean same = false;
@@ -160,6 +327,127 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 
 		return forceAddWithoutCheck(newSolution);
 	}
+	
+	@Override
+	protected boolean forceAddWithoutCheck(Solution newSolution) {
+		if (boxes != null) {
+			addToIndex(newSolution);
+		}
+		
+		return super.forceAddWithoutCheck(newSolution);
+	}
+	
+	@Override
+	public void remove(int index) {
+		Solution solution = get(index);
+		super.remove(index);
+		removeFromIndex(solution);
+	}
+	
+	@Override
+	public boolean remove(Solution solution) {
+		if (super.remove(solution)) {
+			removeFromIndex(solution);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public void clear() {
+		super.clear();
+		clearIndex();
+	}
+	
+	@Override
+	public void truncate(int size, Comparator<? super Solution> comparator) {
+		super.truncate(size, comparator);
+		clearIndex();
+		
+		if (boxes != null) {
+			for (Solution solution : this) {
+				addToIndex(solution);
+			}
+		}
+	}
+	
+	/**
+	 * Adds a solution to the box index.
+	 * 
+	 * @param solution the solution to add
+	 */
+	private void addToIndex(Solution solution) {
+		Box box = new Box(solution, getComparator());
+		int m = box.index.length;
+		
+		boxes.put(box, solution);
+		boxOf.put(solution, box);
+		
+		if (m == 2) {
+			if (sortedBoxes == null) {
+				sortedBoxes = new TreeMap<Double, Box>();
+			}
+			
+			sortedBoxes.put(box.index[0], box);
+		} else {
+			if (slots == null) {
+				slots = new Box[16];
+				indices = new double[16 * m];
+			} else if (numberOfSlots == slots.length) {
+				slots = Arrays.copyOf(slots, 2 * numberOfSlots);
+				indices = Arrays.copyOf(indices, 2 * numberOfSlots * m);
+			}
+			
+			box.slot = numberOfSlots;
+			slots[numberOfSlots] = box;
+			System.arraycopy(box.index, 0, indices, numberOfSlots * m, m);
+			numberOfSlots++;
+		}
+	}
+
+	/**
+	 * Removes a solution from the box index.
+	 * 
+	 * @param solution the solution to remove
+	 */
+	private void removeFromIndex(Solution solution) {
+		Box box = boxOf.remove(solution);
+		
+		if (box != null) {
+			boxes.remove(box);
+			
+			if (sortedBoxes != null) {
+				sortedBoxes.remove(box.index[0]);
+			} else {
+				// move the box in the last slot into the vacated slot
+				int m = box.index.length;
+				Box last = slots[--numberOfSlots];
+				
+				last.slot = box.slot;
+				slots[box.slot] = last;
+				slots[numberOfSlots] = null;
+				System.arraycopy(indices, numberOfSlots * m, indices, 
+						box.slot * m, m);
+			}
+		}
+	}
+	
+	/**
+	 * Removes all solutions from the box index.
+	 */
+	private void clearIndex() {
+		boxOf.clear();
+		
+		if (boxes != null) {
+			boxes.clear();
+		}
+		
+		sortedBoxes = null;
+		slots = null;
+		indices = null;
+		numberOfSlots = 0;
+	}
 
 	/**
 	 * Returns the &epsilon;-box dominance comparator used by this archive.
@@ -190,5 +478,80 @@ public class EpsilonBoxDominanceArchive extends NondominatedPopulation {
 	public int getNumberOfDominatingImprovements() {
 		return numberOfDominatingImprovements;
 	}
+	
+	/**
+	 * The index vector of an &epsilon;-box, computed as by
+	 * {@link EpsilonBoxDominanceComparator}.
+	 */
+	private static class Box {
+		
+		/**
+		 * The index of the box along each objective.
+		 */
+		private final double[] index;
+		
+		/**
+		 * The cached hash code.
+		 */
+		private final int hashCode;
+		
+		/**
+		 * The slot of this box in the contiguous index vectors if there are
+		 * more than two objectives.
+		 */
+		private int slot;
+		
+		/**
+		 * Constructs the box containing the specified solution.
+		 * 
+		 * @param solution the solution
+		 * @param comparator the comparator defining the &epsilon; values
+		 */
+		public Box(Solution solution, EpsilonBoxDominanceComparator comparator) {
+			super();
+			
+			index = new double[solution.getNumberOfObjectives()];
+			
+			for (int i = 0; i < index.length; i++) {
+				// adding 0.0 turns -0.0 into 0.0, which compare equal
+				index[i] = Math.floor(solution.getObjective(i) / 
+						comparator.getEpsilon(i)) + 0.0;
+			}
+			
+			hashCode = Arrays.hashCode(index);
+		}
+		
+		/**
+		 * Returns the squared distance of the solution to the corner of this
+		 * box, which decides between two solutions in the same box.
+		 * 
+		 * @param solution the solution in this box
+		 * @param comparator the comparator defining the &epsilon; values
+		 * @return the squared distance of the solution to the corner of this
+		 *         box
+		 */
+		public double distance(Solution solution,
+				EpsilonBoxDominanceComparator comparator) {
+			double distance = 0.0;
+			
+			for (int i = 0; i < index.length; i++) {
+				distance += Math.pow(solution.getObjective(i) - 
+						index[i] * comparator.getEpsilon(i), 2.0);
+			}
+			
+			return distance;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof Box) && Arrays.equals(index, ((Box)obj).index);
+		}
+		
+	}
 
 }
@@ -17,22 +17,40 @@
  */
 package org.moeaframework.core;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Comparator;
 
 import org.moeaframework.core.comparator.DominanceComparator;
 import org.moeaframework.core.comparator.ObjectiveComparator;
 import org.moeaframework.core.comparator.ParetoDominanceComparator;
+import org.moeaframework.core.comparator.ParetoObjectiveComparator;
 
 /**
  * Fast non-dominated sorting algorithm for dominance depth ranking. Assigns the
  * {@code rank} and {@code crowdingDistance} attributes to solutions. Solutions
  * of rank 0 belong to the Pareto non-dominated front.
  * <p>
+ * The sorting engine is chosen automatically.  For Pareto dominance, solutions
+ * are sorted lexicographically and assigned to fronts by a sweep with binary
+ * search over the fronts, in {@code O(N log N)} time for two objectives and
+ * by efficient non-dominated sort with binary search (ENS-BS) otherwise.
+ * Infeasible solutions are ranked after all feasible solutions, grouped by
+ * their aggregate constraint violation.  Any other dominance comparator is
+ * handled by Deb's fast non-dominated sort with primitive domination counts.
+ * <p>
+ * Among duplicate solutions, only the first in population order is assigned
+ * to the front; each further duplicate is pushed to the next front.  The
+ * Pareto engines treat solutions with identical objectives as duplicates,
+ * while Deb's fast non-dominated sort treats non-dominated solutions closer
+ * than {@link Settings#EPS} as duplicates.
+ * <p>
  * References:
  * <ol>
  * <li>Deb et al (2002). "A Fast and Elitist Multiobjective Genetic Algorithm:
  * NSGA-II." IEEE Transactions on Evolutionary Computation. 6(2):182-197.
+ * <li>Zhang et al (2015). "An Efficient Approach to Nondominated Sorting for
+ * Evolutionary Multiobjective Optimization."  IEEE Transactions on
+ * Evolutionary Computation. 19(2):201-213.
  * </ol>
  */
 public class FastNondominatedSorting {
@@ -89,31 +107,489 @@ public class FastNondominatedSorting {
 	 * @param population the population whose solutions are to be evaluated
 	 */
 	public void evaluate(Population population) {
-		List<Solution> remaining = new ArrayList<Solution>();
+		Solution[] solutions = new Solution[population.size()];
 
-		for (Solution solution : population) {
-			remaining.add(solution);
+		for (int i = 0; i < solutions.length; i++) {
+			solutions[i] = population.get(i);
 		}
 
-		int rank = 0;
+		int[] ranks = rank(solutions);
+		double[] crowding = crowdingDistance(solutions, ranks);
+
+		for (int i = 0; i < solutions.length; i++) {
+			solutions[i].setRank(ranks[i]);
+			solutions[i].setCrowdingDistance(crowding[i]);
+		}
+	}
+
+	/**
+	 * Returns the rank of each solution, without modifying the solutions.
+	 * 
+	 * @param solutions the solutions to rank
+	 * @return the rank of each solution, where {@code 0} is the
+	 *         non-dominated front
+	 */
+	public int[] rank(Solution[] solutions) {
+		Class<?> type = comparator.getClass();
+
+		if ((type == ParetoDominanceComparator.class) ||
+				(type == ParetoObjectiveComparator.class)) {
+			return rankByObjectives(solutions,
+					type == ParetoDominanceComparator.class);
+		} else {
+			return rankByComparator(solutions);
+		}
+	}
 
-		while (!remaining.isEmpty()) {
-			NondominatedPopulation front = new NondominatedPopulation(
-					comparator);
+	/**
+	 * Deb's fast non-dominated sort using the dominance comparator.  Requires
+	 * {@code O(N^2)} comparisons.
+	 * 
+	 * @param solutions the solutions to rank
+	 * @return the rank of each solution
+	 */
+	private int[] rankByComparator(Solution[] solutions) {
+		int n = solutions.length;
+		int[] ranks = new int[n];
+		int[] dominationCount = new int[n];
+		int[][] dominated = new int[n][];
+		int[] dominatedSize = new int[n];
 
-			for (Solution solution : remaining) {
-				front.add(solution);
+		for (int i = 0; i < n; i++) {
+			dominated[i] = new int[4];
+		}
+
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				int flag = comparator.compare(solutions[i], solutions[j]);
+
+				if ((flag < 0) || ((flag == 0) &&
+						(distance(solutions[i], solutions[j]) < Settings.EPS))) {
+					addDominated(dominated, dominatedSize, i, j);
+					dominationCount[j]++;
+				} else if (flag > 0) {
+					addDominated(dominated, dominatedSize, j, i);
+					dominationCount[i]++;
+				}
 			}
+		}
 
-			for (Solution solution : front) {
-				remaining.remove(solution);
-				solution.setAttribute(RANK_ATTRIBUTE, rank);
+		int[] front = new int[n];
+		int frontSize = 0;
+
+		for (int i = 0; i < n; i++) {
+			if (dominationCount[i] == 0) {
+				front[frontSize++] = i;
 			}
+		}
+
+		int[] next = new int[n];
+		int rank = 0;
+
+		while (frontSize > 0) {
+			int nextSize = 0;
 
-			updateCrowdingDistance(front);
+			for (int k = 0; k < frontSize; k++) {
+				int i = front[k];
+				ranks[i] = rank;
 
+				for (int l = 0; l < dominatedSize[i]; l++) {
+					int j = dominated[i][l];
+
+					if (--dominationCount[j] == 0) {
+						next[nextSize++] = j;
+					}
+				}
+			}
+
+			int[] temp = front;
+			front = next;
+			next = temp;
+			frontSize = nextSize;
 			rank++;
 		}
+
+		return ranks;
+	}
+
+	/**
+	 * Records that solution {@code i} dominates solution {@code j}.
+	 * 
+	 * @param dominated the solutions dominated by each solution
+	 * @param dominatedSize the number of solutions dominated by each solution
+	 * @param i the dominating solution
+	 * @param j the dominated solution
+	 */
+	private static void addDominated(int[][] dominated, int[] dominatedSize,
+			int i, int j) {
+		if (dominatedSize[i] == dominated[i].length) {
+			dominated[i] = Arrays.copyOf(dominated[i], 2 * dominatedSize[i]);
+		}
+
+		dominated[i][dominatedSize[i]++] = j;
+	}
+
+	/**
+	 * Ranks solutions by Pareto dominance on their objectives.  Solutions are
+	 * sorted by aggregate constraint violation, then lexicographically by
+	 * objectives and finally by index, so a solution can only be dominated by
+	 * solutions sorted before it.
+	 * 
+	 * @param solutions the solutions to rank
+	 * @param useConstraints {@code true} if infeasible solutions are ranked
+	 *        after feasible solutions; {@code false} if constraints are
+	 *        ignored
+	 * @return the rank of each solution
+	 */
+	private int[] rankByObjectives(Solution[] solutions,
+			boolean useConstraints) {
+		int n = solutions.length;
+		int[] ranks = new int[n];
+
+		if (n == 0) {
+			return ranks;
+		}
+
+		int numberOfObjectives = solutions[0].getNumberOfObjectives();
+		final double[][] objectives = new double[n][];
+		final double[] violations = new double[n];
+		Integer[] order = new Integer[n];
+
+		for (int i = 0; i < n; i++) {
+			objectives[i] = solutions[i].getObjectives();
+			order[i] = i;
+
+			if (useConstraints) {
+				for (int j = 0; j < solutions[i].getNumberOfConstraints(); j++) {
+					violations[i] += Math.abs(solutions[i].getConstraint(j));
+				}
+			}
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer i, Integer j) {
+				int flag = Double.compare(violations[i], violations[j]);
+
+				for (int k = 0; (flag == 0) && (k < objectives[i].length); k++) {
+					flag = Double.compare(objectives[i][k], objectives[j][k]);
+				}
+
+				return flag == 0 ? i.compareTo(j) : flag;
+			}
+
+		});
+
+		int[] sorted = new int[n];
+
+		for (int i = 0; i < n; i++) {
+			sorted[i] = order[i];
+		}
+
+		// every group of equal violation is ranked after all better groups
+		int offset = 0;
+		int start = 0;
+
+		while (start < n) {
+			int end = start + 1;
+
+			while ((end < n) &&
+					(violations[sorted[end]] == violations[sorted[start]])) {
+				end++;
+			}
+
+			int numberOfFronts;
+
+			if (numberOfObjectives == 2) {
+				numberOfFronts = sweep(objectives, sorted, start, end, ranks,
+						offset);
+			} else {
+				numberOfFronts = efficientNondominatedSort(objectives, sorted,
+						start, end, ranks, offset);
+			}
+
+			offset += numberOfFronts;
+			start = end;
+		}
+
+		return ranks;
+	}
+
+	/**
+	 * Assigns ranks to lexicographically sorted solutions with two objectives.
+	 * Within a front, the second objective decreases as solutions are added,
+	 * so a solution is dominated by a front if and only if the last solution
+	 * added to the front has a smaller or equal second objective.  The front
+	 * of each solution is found by binary search.
+	 * 
+	 * @param objectives the objectives of all solutions
+	 * @param sorted the indices of the solutions in lexicographical order
+	 * @param start the first position in {@code sorted} to rank
+	 * @param end the position after the last position in {@code sorted} to
+	 *        rank
+	 * @param ranks the ranks being assigned
+	 * @param offset the rank of the first front
+	 * @return the number of fronts
+	 */
+	private static int sweep(double[][] objectives, int[] sorted, int start,
+			int end, int[] ranks, int offset) {
+		double[] last = new double[end - start];
+		int numberOfFronts = 0;
+
+		for (int k = start; k < end; k++) {
+			int i = sorted[k];
+			double value = objectives[i][1];
+			int lo = 0;
+			int hi = numberOfFronts;
+
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+
+				if (last[mid] <= value) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+
+			last[lo] = value;
+			ranks[i] = offset + lo;
+
+			if (lo == numberOfFronts) {
+				numberOfFronts++;
+			}
+		}
+
+		return numberOfFronts;
+	}
+
+	/**
+	 * Efficient non-dominated sort with binary search (ENS-BS).  Solutions are
+	 * processed in lexicographical order, and each is assigned to the first
+	 * front not containing a solution that weakly dominates it, which is found
+	 * by binary search over the fronts.
+	 * 
+	 * @param objectives the objectives of all solutions
+	 * @param sorted the indices of the solutions in lexicographical order
+	 * @param start the first position in {@code sorted} to rank
+	 * @param end the position after the last position in {@code sorted} to
+	 *        rank
+	 * @param ranks the ranks being assigned
+	 * @param offset the rank of the first front
+	 * @return the number of fronts
+	 */
+	private static int efficientNondominatedSort(double[][] objectives,
+			int[] sorted, int start, int end, int[] ranks, int offset) {
+		int[][] fronts = new int[end - start][];
+		int[] frontSize = new int[end - start];
+		int numberOfFronts = 0;
+
+		for (int k = start; k < end; k++) {
+			int i = sorted[k];
+			int lo = 0;
+			int hi = numberOfFronts;
+
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+
+				if (isDominatedByFront(objectives, i, fronts[mid],
+						frontSize[mid])) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+
+			if (lo == numberOfFronts) {
+				fronts[lo] = new int[4];
+				numberOfFronts++;
+			} else if (frontSize[lo] == fronts[lo].length) {
+				fronts[lo] = Arrays.copyOf(fronts[lo], 2 * frontSize[lo]);
+			}
+
+			fronts[lo][frontSize[lo]++] = i;
+			ranks[i] = offset + lo;
+		}
+
+		return numberOfFronts;
+	}
+
+	/**
+	 * Returns {@code true} if a member of the front weakly dominates the
+	 * solution.  Members are checked starting with the most recently added,
+	 * which is usually the most similar to the solution.
+	 * 
+	 * @param objectives the objectives of all solutions
+	 * @param i the index of the solution
+	 * @param front the members of the front
+	 * @param size the number of members of the front
+	 * @return {@code true} if a member of the front weakly dominates the
+	 *         solution; {@code false} otherwise
+	 */
+	private static boolean isDominatedByFront(double[][] objectives, int i,
+			int[] front, int size) {
+		double[] solution = objectives[i];
+
+		for (int k = size - 1; k >= 0; k--) {
+			double[] member = objectives[front[k]];
+			boolean dominates = true;
+
+			for (int l = 0; l < solution.length; l++) {
+				if (member[l] > solution[l]) {
+					dominates = false;
+					break;
+				}
+			}
+
+			if (dominates) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the crowding distance of each solution within its front.  The
+	 * result is identical to {@link #updateCrowdingDistance(Population)}
+	 * applied to each front, with the members of each front in population
+	 * order.
+	 * 
+	 * @param solutions the solutions
+	 * @param ranks the rank of each solution
+	 * @return the crowding distance of each solution
+	 */
+	public double[] crowdingDistance(Solution[] solutions, int[] ranks) {
+		int n = solutions.length;
+		double[] crowding = new double[n];
+
+		if (n == 0) {
+			return crowding;
+		}
+
+		int numberOfObjectives = solutions[0].getNumberOfObjectives();
+		double[][] objectives = new double[n][];
+		int numberOfFronts = 0;
+
+		for (int i = 0; i < n; i++) {
+			objectives[i] = solutions[i].getObjectives();
+			numberOfFronts = Math.max(numberOfFronts, ranks[i] + 1);
+		}
+
+		// group the members of each front, preserving population order
+		int[] frontStart = new int[numberOfFronts + 1];
+
+		for (int i = 0; i < n; i++) {
+			frontStart[ranks[i] + 1]++;
+		}
+
+		for (int k = 0; k < numberOfFronts; k++) {
+			frontStart[k + 1] += frontStart[k];
+		}
+
+		int[] members = new int[n];
+		int[] position = Arrays.copyOf(frontStart, numberOfFronts);
+
+		for (int i = 0; i < n; i++) {
+			members[position[ranks[i]]++] = i;
+		}
+
+		int[] buffer = new int[n];
+
+		for (int k = 0; k < numberOfFronts; k++) {
+			int start = frontStart[k];
+			int end = frontStart[k + 1];
+			int size = end - start;
+
+			if (size < 3) {
+				for (int j = start; j < end; j++) {
+					crowding[members[j]] = Double.POSITIVE_INFINITY;
+				}
+
+				continue;
+			}
+
+			for (int i = 0; i < numberOfObjectives; i++) {
+				// stable, like the population sort used previously
+				mergeSort(members, buffer, start, end, objectives, i);
+
+				double minObjective = objectives[members[start]][i];
+				double maxObjective = objectives[members[end - 1]][i];
+
+				crowding[members[start]] = Double.POSITIVE_INFINITY;
+				crowding[members[end - 1]] = Double.POSITIVE_INFINITY;
+
+				for (int j = start + 1; j < end - 1; j++) {
+					crowding[members[j]] += (objectives[members[j + 1]][i] -
+							objectives[members[j - 1]][i]) /
+							(maxObjective - minObjective);
+				}
+			}
+		}
+
+		return crowding;
+	}
+
+	/**
+	 * Stable merge sort of {@code members[start..end-1]} by one objective.
+	 * 
+	 * @param members the solution indices being sorted
+	 * @param buffer temporary storage at least as long as {@code members}
+	 * @param start the first position to sort
+	 * @param end the position after the last position to sort
+	 * @param objectives the objectives of all solutions
+	 * @param objective the objective to sort by
+	 */
+	private static void mergeSort(int[] members, int[] buffer, int start,
+			int end, double[][] objectives, int objective) {
+		if (end - start < 2) {
+			return;
+		}
+
+		int middle = (start + end) >>> 1;
+		mergeSort(members, buffer, start, middle, objectives, objective);
+		mergeSort(members, buffer, middle, end, objectives, objective);
+
+		int i = start;
+		int j = middle;
+		int k = start;
+
+		while ((i < middle) && (j < end)) {
+			if (Double.compare(objectives[members[j]][objective],
+					objectives[members[i]][objective]) < 0) {
+				buffer[k++] = members[j++];
+			} else {
+				buffer[k++] = members[i++];
+			}
+		}
+
+		while (i < middle) {
+			buffer[k++] = members[i++];
+		}
+
+		while (j < end) {
+			buffer[k++] = members[j++];
+		}
+
+		System.arraycopy(buffer, start, members, start, end - start);
+	}
+
+	/**
+	 * Returns the Euclidean distance between two solutions in objective space.
+	 * 
+	 * @param s1 the first solution
+	 * @param s2 the second solution
+	 * @return the distance between the two solutions
+	 */
+	private static double distance(Solution s1, Solution s2) {
+		double distance = 0.0;
+
+		for (int i = 0; i < s1.getNumberOfObjectives(); i++) {
+			distance += Math.pow(s1.getObjective(i) - s2.getObjective(i), 2.0);
+		}
+
+		return Math.sqrt(distance);
 	}
 
 	/**
@@ -128,14 +604,13 @@ public class FastNondominatedSorting {
 
 		if (n < 3) {
 			for (Solution solution : front) {
-				solution.setAttribute(CROWDING_ATTRIBUTE,
-						Double.POSITIVE_INFINITY);
+				solution.setCrowdingDistance(Double.POSITIVE_INFINITY);
 			}
 		} else {
 			int numberOfObjectives = front.get(0).getNumberOfObjectives();
 
 			for (Solution solution : front) {
-				solution.setAttribute(CROWDING_ATTRIBUTE, 0.0);
+				solution.setCrowdingDistance(0.0);
 			}
 
 			for (int i = 0; i < numberOfObjectives; i++) {
@@ -144,18 +619,15 @@ public class FastNondominatedSorting {
 				double minObjective = front.get(0).getObjective(i);
 				double maxObjective = front.get(n - 1).getObjective(i);
 
-				front.get(0).setAttribute(CROWDING_ATTRIBUTE,
-						Double.POSITIVE_INFINITY);
-				front.get(n - 1).setAttribute(CROWDING_ATTRIBUTE,
-						Double.POSITIVE_INFINITY);
+				front.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
+				front.get(n - 1).setCrowdingDistance(Double.POSITIVE_INFINITY);
 
 				for (int j = 1; j < n - 1; j++) {
-					double distance = (Double)front.get(j).getAttribute(
-							CROWDING_ATTRIBUTE);
+					double distance = front.get(j).getCrowdingDistance();
 					distance += (front.get(j + 1).getObjective(i) - 
 							front.get(j - 1).getObjective(i))
 							/ (maxObjective - minObjective);
-					front.get(j).setAttribute(CROWDING_ATTRIBUTE, distance);
+					front.get(j).setCrowdingDistance(distance);
 				}
 			}
 		}
@@ -0,0 +1,777 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.moeaframework.core.comparator.AggregateConstraintComparator;
+import org.moeaframework.core.comparator.ParetoDominanceComparator;
+
+/**
+ * Non-dominated population indexed by an ND-Tree for fast Pareto dominance
+ * checks.  The solutions are stored in the leaves of a tree whose nodes keep
+ * the ideal and nadir points of their subtree.  A new solution only needs to
+ * be compared against the nodes whose bounds overlap it, so rejecting or
+ * inserting a solution takes sub-linear time on average, even for archives
+ * with millions of solutions.
+ * <p>
+ * This population behaves like a {@link NondominatedPopulation} using a
+ * {@link ParetoDominanceComparator}: the population only holds solutions with
+ * the smallest aggregate constraint violation, and a solution within
+ * {@link Settings#EPS} of a non-dominated member is rejected as a duplicate.
+ * Solutions dominated by new solutions are removed from the tree immediately,
+ * but only removed from the population in a single pass the next time the
+ * population is accessed, similar to how {@link NondominatedSortingPopulation}
+ * defers sorting.  The order of the remaining solutions is preserved.
+ * <p>
+ * References:
+ * <ol>
+ * <li>Jaszkiewicz, A. and Lust, T. (2018).  "ND-Tree-based update: a Fast
+ * Algorithm for the Dynamic Non-Dominance Problem."  IEEE Transactions on
+ * Evolutionary Computation, 22(5):778-791.
+ * </ol>
+ */
+public class NDTreeArchive extends NondominatedPopulation {
+
+	/**
+	 * The maximum number of solutions stored in a leaf before it is split.
+	 */
+	private static final int MAX_LEAF_SIZE = 20;
+
+	/**
+	 * Compares the constraint violations of solutions.
+	 */
+	private final AggregateConstraintComparator constraintComparator;
+
+	/**
+	 * The root of the tree; or {@code null} if this population is empty.
+	 */
+	private Node root;
+
+	/**
+	 * The solutions removed from the tree but not yet from the population.
+	 */
+	private final Set<Solution> pendingRemovals;
+
+	/**
+	 * Constructs an empty ND-Tree archive.
+	 */
+	public NDTreeArchive() {
+		super(new ParetoDominanceComparator());
+		constraintComparator = new AggregateConstraintComparator();
+		pendingRemovals = Collections.newSetFromMap(
+				new IdentityHashMap<Solution, Boolean>());
+	}
+
+	/**
+	 * Constructs an ND-Tree archive initialized with the specified solutions.
+	 * 
+	 * @param iterable the solutions used to initialize this archive
+	 */
+	public NDTreeArchive(Iterable<? extends Solution> iterable) {
+		this();
+		addAll(iterable);
+	}
+
+	@Override
+	public boolean add(Solution newSolution) {
+		if (root != null) {
+			int flag = constraintComparator.compare(newSolution,
+					root.any());
+
+			if (flag > 0) {
+				return false;
+			} else if (flag < 0) {
+				clear();
+			}
+		}
+
+		if (root != null) {
+			double[] objectives = newSolution.getObjectives();
+
+			if (isDominatedOrDuplicate(root, objectives)) {
+				return false;
+			}
+
+			if (removeDominated(root, objectives, pendingRemovals)) {
+				root = null;
+			}
+		}
+
+		return forceAddWithoutCheck(newSolution);
+	}
+
+	@Override
+	protected boolean forceAddWithoutCheck(Solution newSolution) {
+		insert(newSolution);
+		return super.forceAddWithoutCheck(newSolution);
+	}
+
+	/**
+	 * Removes the solutions dominated by new solutions from the population.
+	 */
+	private void update() {
+		if (!pendingRemovals.isEmpty()) {
+			removeSolutions(pendingRemovals);
+			pendingRemovals.clear();
+		}
+	}
+
+	@Override
+	public Solution get(int index) {
+		update();
+		return super.get(index);
+	}
+
+	@Override
+	public int size() {
+		update();
+		return super.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		update();
+		return super.isEmpty();
+	}
+
+	@Override
+	public int indexOf(Solution solution) {
+		update();
+		return super.indexOf(solution);
+	}
+
+	@Override
+	public boolean contains(Solution solution) {
+		update();
+		return super.contains(solution);
+	}
+
+	@Override
+	public Iterator<Solution> iterator() {
+		update();
+		return super.iterator();
+	}
+
+	@Override
+	public void remove(int index) {
+		Solution solution = get(index);
+		super.remove(index);
+		removeFromTree(solution);
+	}
+
+	@Override
+	public boolean remove(Solution solution) {
+		update();
+
+		if (super.remove(solution)) {
+			removeFromTree(solution);
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		pendingRemovals.clear();
+		root = null;
+	}
+
+	@Override
+	public void sort(Comparator<? super Solution> comparator) {
+		update();
+		super.sort(comparator);
+	}
+
+	@Override
+	public void truncate(int size, Comparator<? super Solution> comparator) {
+		update();
+		super.truncate(size, comparator);
+
+		// rebuild the tree for the remaining solutions
+		root = null;
+
+		for (Solution solution : this) {
+			insert(solution);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if this archive contains a solution whose
+	 * objectives are within {@link Settings#EPS} of the given solution.  Only
+	 * the nodes whose bounds are within {@link Settings#EPS} of the solution
+	 * are searched.
+	 * 
+	 * @param solution the solution
+	 * @return {@code true} if this archive contains a duplicate of the given
+	 *         solution; {@code false} otherwise
+	 */
+	public boolean containsDuplicate(Solution solution) {
+		return (root != null) &&
+				containsDuplicate(root, solution.getObjectives());
+	}
+
+	/**
+	 * Returns {@code true} if a solution in the subtree is within
+	 * {@link Settings#EPS} of the given objectives.
+	 * 
+	 * @param node the root of the subtree
+	 * @param objectives the objectives of the solution
+	 * @return {@code true} if a solution in the subtree is within
+	 *         {@link Settings#EPS} of the given objectives; {@code false}
+	 *         otherwise
+	 */
+	private boolean containsDuplicate(Node node, double[] objectives) {
+		for (int i = 0; i < objectives.length; i++) {
+			if ((node.ideal[i] >= objectives[i] + Settings.EPS) ||
+					(node.nadir[i] <= objectives[i] - Settings.EPS)) {
+				return false;
+			}
+		}
+
+		if (node.isLeaf()) {
+			for (Solution solution : node.solutions) {
+				if (distance(solution, objectives) < Settings.EPS) {
+					return true;
+				}
+			}
+		} else {
+			for (Node child : node.children) {
+				if (containsDuplicate(child, objectives)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns {@code true} if a solution in the subtree dominates the given
+	 * objectives or is a duplicate of them.  Only subtrees whose ideal point
+	 * is within {@link Settings#EPS} of weakly dominating the objectives can
+	 * contain such a solution.
+	 * 
+	 * @param node the root of the subtree
+	 * @param objectives the objectives of the new solution
+	 * @return {@code true} if a solution in the subtree dominates the given
+	 *         objectives or is a duplicate of them; {@code false} otherwise
+	 */
+	private boolean isDominatedOrDuplicate(Node node, double[] objectives) {
+		for (int i = 0; i < objectives.length; i++) {
+			if (node.ideal[i] >= objectives[i] + Settings.EPS) {
+				return false;
+			}
+		}
+
+		if (node.isLeaf()) {
+			for (Solution solution : node.solutions) {
+				int flag = compare(solution, objectives);
+
+				if (flag < 0) {
+					return true;
+				} else if ((flag == 0) &&
+						(distance(solution, objectives) < Settings.EPS)) {
+					return true;
+				}
+			}
+		} else {
+			for (Node child : node.children) {
+				if (isDominatedOrDuplicate(child, objectives)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Removes all solutions dominated by the given objectives from the
+	 * subtree, which must not contain a solution dominating or duplicating
+	 * them.  Only subtrees whose nadir point is weakly dominated by the
+	 * objectives can contain dominated solutions, and if the ideal point is
+	 * weakly dominated, all solutions in the subtree are dominated.
+	 * 
+	 * @param node the root of the subtree
+	 * @param objectives the objectives of the new solution
+	 * @param dominated collects the removed solutions
+	 * @return {@code true} if the subtree is now empty and must be detached
+	 *         from its parent; {@code false} otherwise
+	 */
+	private boolean removeDominated(Node node, double[] objectives,
+			Set<Solution> dominated) {
+		boolean dominatesIdeal = true;
+
+		for (int i = 0; i < objectives.length; i++) {
+			if (objectives[i] > node.nadir[i]) {
+				return false;
+			} else if (objectives[i] > node.ideal[i]) {
+				dominatesIdeal = false;
+			}
+		}
+
+		if (dominatesIdeal) {
+			node.collect(dominated);
+			return true;
+		}
+
+		if (node.isLeaf()) {
+			for (int i = node.solutions.size() - 1; i >= 0; i--) {
+				Solution solution = node.solutions.get(i);
+
+				if (compare(solution, objectives) > 0) {
+					dominated.add(solution);
+					node.solutions.remove(i);
+				}
+			}
+
+			return node.solutions.isEmpty();
+		} else {
+			for (int i = node.children.size() - 1; i >= 0; i--) {
+				if (removeDominated(node.children.get(i), objectives,
+						dominated)) {
+					node.children.remove(i);
+				}
+			}
+
+			return node.children.isEmpty();
+		}
+	}
+
+	/**
+	 * Inserts a solution into the tree.  The solution descends into the child
+	 * whose bounding box has its center closest to the solution, and a leaf
+	 * that grows too large is split.
+	 * 
+	 * @param solution the solution to insert
+	 */
+	private void insert(Solution solution) {
+		double[] objectives = solution.getObjectives();
+
+		if (root == null) {
+			root = new Node(null, objectives);
+		}
+
+		Node node = root;
+
+		while (true) {
+			node.expand(objectives);
+
+			if (node.isLeaf()) {
+				break;
+			}
+
+			Node closest = null;
+			double minimum = Double.POSITIVE_INFINITY;
+
+			for (Node child : node.children) {
+				double distance = child.distanceToCenter(objectives);
+
+				if (distance < minimum) {
+					minimum = distance;
+					closest = child;
+				}
+			}
+
+			node = closest;
+		}
+
+		node.solutions.add(solution);
+
+		if (node.solutions.size() > MAX_LEAF_SIZE) {
+			node.split();
+		}
+	}
+
+	/**
+	 * Removes a solution from the tree, detaching any nodes left empty.  The
+	 * bounds of the remaining nodes are not tightened; they remain valid,
+	 * though possibly conservative, bounds.
+	 * 
+	 * @param solution the solution to remove
+	 */
+	private void removeFromTree(Solution solution) {
+		if (root == null) {
+			return;
+		}
+
+		Node leaf = root.find(solution, solution.getObjectives());
+
+		if (leaf == null) {
+			return;
+		}
+
+		leaf.solutions.remove(leaf.indexOf(solution));
+
+		Node node = leaf;
+
+		while (node.isEmpty()) {
+			if (node.parent == null) {
+				root = null;
+				break;
+			}
+
+			node.parent.children.remove(node);
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Compares a solution to the objectives of a new solution using Pareto
+	 * dominance.
+	 * 
+	 * @param solution the solution in this archive
+	 * @param objectives the objectives of the new solution
+	 * @return {@code -1} if the solution dominates the objectives, {@code 1}
+	 *         if the objectives dominate the solution, or {@code 0} if they
+	 *         are non-dominated
+	 */
+	private static int compare(Solution solution, double[] objectives) {
+		boolean dominate1 = false;
+		boolean dominate2 = false;
+
+		for (int i = 0; i < objectives.length; i++) {
+			double value = solution.getObjective(i);
+
+			if (value < objectives[i]) {
+				dominate1 = true;
+
+				if (dominate2) {
+					return 0;
+				}
+			} else if (value > objectives[i]) {
+				dominate2 = true;
+
+				if (dominate1) {
+					return 0;
+				}
+			}
+		}
+
+		if (dominate1 == dominate2) {
+			return 0;
+		} else if (dominate1) {
+			return -1;
+		} else {
+			return 1;
+		}
+	}
+
+	/**
+	 * Returns the Euclidean distance between a solution and the objectives of
+	 * a new solution.
+	 * 
+	 * @param solution the solution in this archive
+	 * @param objectives the objectives of the new solution
+	 * @return the Euclidean distance between the solution and the objectives
+	 */
+	private static double distance(Solution solution, double[] objectives) {
+		double distance = 0.0;
+
+		for (int i = 0; i < objectives.length; i++) {
+			distance += Math.pow(solution.getObjective(i) - objectives[i], 2.0);
+		}
+
+		return Math.sqrt(distance);
+	}
+
+	/**
+	 * A node of the ND-Tree.  A leaf stores solutions, an internal node stores
+	 * child nodes.  Both keep the ideal and nadir point of all solutions in
+	 * their subtree.
+	 */
+	private static class Node {
+
+		/**
+		 * The parent of this node; or {@code null} if this node is the root.
+		 */
+		private Node parent;
+
+		/**
+		 * The ideal point, a lower bound of all objectives in this subtree.
+		 */
+		private final double[] ideal;
+
+		/**
+		 * The nadir point, an upper bound of all objectives in this subtree.
+		 */
+		private final double[] nadir;
+
+		/**
+		 * The solutions stored in this leaf; or {@code null} if this node is
+		 * an internal node.
+		 */
+		private List<Solution> solutions;
+
+		/**
+		 * The children of this internal node; or {@code null} if this node is
+		 * a leaf.
+		 */
+		private List<Node> children;
+
+		/**
+		 * Constructs a leaf whose bounds are the specified point.
+		 * 
+		 * @param parent the parent of this node
+		 * @param objectives the initial bounds
+		 */
+		public Node(Node parent, double[] objectives) {
+			super();
+			this.parent = parent;
+
+			ideal = objectives.clone();
+			nadir = objectives.clone();
+			solutions = new ArrayList<Solution>();
+		}
+
+		/**
+		 * Returns {@code true} if this node is a leaf.
+		 * 
+		 * @return {@code true} if this node is a leaf; {@code false} otherwise
+		 */
+		public boolean isLeaf() {
+			return children == null;
+		}
+
+		/**
+		 * Returns {@code true} if this node has no solutions or children.
+		 * 
+		 * @return {@code true} if this node has no solutions or children;
+		 *         {@code false} otherwise
+		 */
+		public boolean isEmpty() {
+			return isLeaf() ? solutions.isEmpty() : children.isEmpty();
+		}
+
+		/**
+		 * Returns any solution stored in this subtree.
+		 * 
+		 * @return any solution stored in this subtree
+		 */
+		public Solution any() {
+			Node node = this;
+
+			while (!node.isLeaf()) {
+				node = node.children.get(0);
+			}
+
+			return node.solutions.get(0);
+		}
+
+		/**
+		 * Expands the bounds of this node to include the specified point.
+		 * 
+		 * @param objectives the point
+		 */
+		public void expand(double[] objectives) {
+			for (int i = 0; i < objectives.length; i++) {
+				ideal[i] = Math.min(ideal[i], objectives[i]);
+				nadir[i] = Math.max(nadir[i], objectives[i]);
+			}
+		}
+
+		/**
+		 * Returns the squared Euclidean distance between the specified point
+		 * and the center of the bounds of this node.
+		 * 
+		 * @param objectives the point
+		 * @return the squared distance to the center of the bounds
+		 */
+		public double distanceToCenter(double[] objectives) {
+			double distance = 0.0;
+
+			for (int i = 0; i < objectives.length; i++) {
+				double difference = objectives[i] -
+						(ideal[i] + nadir[i]) / 2.0;
+				distance += difference * difference;
+			}
+
+			return distance;
+		}
+
+		/**
+		 * Adds all solutions in this subtree to the specified set.
+		 * 
+		 * @param result the set receiving the solutions
+		 */
+		public void collect(Set<Solution> result) {
+			if (isLeaf()) {
+				result.addAll(solutions);
+			} else {
+				for (Node child : children) {
+					child.collect(result);
+				}
+			}
+		}
+
+		/**
+		 * Returns the index of the specified solution in this leaf.
+		 * 
+		 * @param solution the solution
+		 * @return the index of the solution; or {@code -1} if not found
+		 */
+		public int indexOf(Solution solution) {
+			for (int i = 0; i < solutions.size(); i++) {
+				if (solutions.get(i) == solution) {
+					return i;
+				}
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Returns the leaf storing the specified solution, only descending
+		 * into nodes whose bounds contain the solution's objectives.
+		 * 
+		 * @param solution the solution
+		 * @param objectives the objectives of the solution
+		 * @return the leaf storing the solution; or {@code null} if not found
+		 */
+		public Node find(Solution solution, double[] objectives) {
+			for (int i = 0; i < objectives.length; i++) {
+				if ((objectives[i] < ideal[i]) || (objectives[i] > nadir[i])) {
+					return null;
+				}
+			}
+
+			if (isLeaf()) {
+				return indexOf(solution) >= 0 ? this : null;
+			}
+
+			for (Node child : children) {
+				Node leaf = child.find(solution, objectives);
+
+				if (leaf != null) {
+					return leaf;
+				}
+			}
+
+			return null;
+		}
+
+		/**
+		 * Splits this leaf into an internal node with one more child than the
+		 * number of objectives.  The first seed is the solution farthest from
+		 * all others, each further seed the solution farthest from the seeds
+		 * chosen so far, and every other solution joins its closest seed.
+		 */
+		public void split() {
+			int size = solutions.size();
+			int numberOfObjectives = ideal.length;
+			int numberOfChildren = Math.min(numberOfObjectives + 1, size);
+			double[][] points = new double[size][];
+			double[] minDistance = new double[size];
+			int[] assignment = new int[size];
+			int[] seeds = new int[numberOfChildren];
+
+			for (int i = 0; i < size; i++) {
+				points[i] = solutions.get(i).getObjectives();
+			}
+
+			double maximum = -1.0;
+
+			for (int i = 0; i < size; i++) {
+				double sum = 0.0;
+
+				for (int j = 0; j < size; j++) {
+					sum += squaredDistance(points[i], points[j]);
+				}
+
+				if (sum > maximum) {
+					maximum = sum;
+					seeds[0] = i;
+				}
+			}
+
+			for (int i = 0; i < size; i++) {
+				minDistance[i] = squaredDistance(points[i], points[seeds[0]]);
+			}
+
+			for (int k = 1; k < numberOfChildren; k++) {
+				maximum = -1.0;
+
+				for (int i = 0; i < size; i++) {
+					if (minDistance[i] > maximum) {
+						maximum = minDistance[i];
+						seeds[k] = i;
+					}
+				}
+
+				for (int i = 0; i < size; i++) {
+					double distance = squaredDistance(points[i],
+							points[seeds[k]]);
+
+					if (distance < minDistance[i]) {
+						minDistance[i] = distance;
+						assignment[i] = k;
+					}
+				}
+			}
+
+			children = new ArrayList<Node>(numberOfChildren);
+
+			for (int k = 0; k < numberOfChildren; k++) {
+				children.add(new Node(this, points[seeds[k]]));
+			}
+
+			for (int i = 0; i < size; i++) {
+				Node child = children.get(assignment[i]);
+				child.expand(points[i]);
+				child.solutions.add(solutions.get(i));
+			}
+
+			for (int k = numberOfChildren - 1; k >= 0; k--) {
+				if (children.get(k).solutions.isEmpty()) {
+					children.remove(k);
+				}
+			}
+
+			solutions = null;
+		}
+
+		/**
+		 * Returns the squared Euclidean distance between two points.
+		 * 
+		 * @param p1 the first point
+		 * @param p2 the second point
+		 * @return the squared Euclidean distance between the two points
+		 */
+		private static double squaredDistance(double[] p1, double[] p2) {
+			double distance = 0.0;
+
+			for (int i = 0; i < p1.length; i++) {
+				double difference = p1[i] - p2[i];
+				distance += difference * difference;
+			}
+
+			return distance;
+		}
+
+	}
+
+}
@@ -17,8 +17,6 @@
  */
 package org.moeaframework.core;
 
-import static org.moeaframework.core.FastNondominatedSorting.RANK_ATTRIBUTE;
-
 import java.util.Comparator;
 import java.util.Iterator;
 
@@ -186,12 +184,12 @@ public class NondominatedSortingPopulation extends Population {
 
 		//collect all solutions in the front which must be pruned
 		//note the use of super to prevent repeatedly triggering update()
-		int maxRank = (Integer)super.get(size-1).getAttribute(RANK_ATTRIBUTE);
+		int maxRank = super.get(size-1).getRank();
 		Population front = new Population();
 
 		for (int i=size()-1; i>=0; i--) {
 			Solution solution = super.get(i);
-			int rank = (Integer)solution.getAttribute(RANK_ATTRIBUTE);
+			int rank = solution.getRank();
 			
 			if (rank >= maxRank) {
 				super.remove(i);
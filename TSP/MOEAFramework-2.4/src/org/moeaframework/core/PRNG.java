@@ -33,6 +33,18 @@ import org.apache.commons.math3.random.RandomAdaptor;
  * thread safety from the underlying implementation.  Unless the underlying
  * implementation is known to be thread-safe, assume that {@code PRNG} is not
  * thread-safe.
+ * <p>
+ * A thread can install its own source of randomness with
+ * {@link #setThreadRandom(Random)}, which then replaces the shared source for
+ * all calls made by that thread.  This allows concurrent runs to use
+ * independent and reproducible streams.
+ * <p>
+ * {@link #beginRun(long)} scopes a run to the current thread: the run draws
+ * from a {@link SplitMix64Random} stream derived from the given seed, and
+ * each solution evaluation draws from its own stream split off a separate
+ * evaluation stream, in the order the evaluations are submitted.  Results of
+ * a run are thus identical whether solutions are evaluated serially or
+ * concurrently, and whatever other runs execute at the same time.
  */
 public class PRNG {
 
@@ -41,6 +53,21 @@ public class PRNG {
 	 */
 	private static Random random;
 
+	/**
+	 * Source of randomness of the current thread; or {@code null} if the
+	 * thread uses the shared source.
+	 */
+	private static final ThreadLocal<Random> threadRandom =
+			new ThreadLocal<Random>();
+
+	/**
+	 * The stream from which the evaluations of the run scoped to the current
+	 * thread draw their streams; or {@code null} if no run is scoped to the
+	 * thread.
+	 */
+	private static final ThreadLocal<SplitMix64Random> evaluationRandom =
+			new ThreadLocal<SplitMix64Random>();
+
 	/**
 	 * Initialize the static variables.
 	 */
@@ -60,12 +87,13 @@ public class PRNG {
 	 * {@code setRandom} method since methods providing more entropy may be
 	 * available
 	 * to specific implementations, this method is intended to provide a uniform
-	 * interface for setting the seed.
+	 * interface for setting the seed.  The seed is applied to the source of
+	 * randomness used by the calling thread.
 	 * 
 	 * @param seed the new seed
 	 */
 	public static synchronized void setSeed(long seed) {
-		random.setSeed(seed);
+		getRandom().setSeed(seed);
 	}
 
 	/**
@@ -78,12 +106,75 @@ public class PRNG {
 	}
 
 	/**
-	 * Returns the source of randomness currently used.
+	 * Sets the source of randomness used by the current thread, replacing the
+	 * shared source for all calls made by this thread.
+	 * 
+	 * @param random the source of randomness used by the current thread; or
+	 *        {@code null} to use the shared source again
+	 */
+	public static void setThreadRandom(Random random) {
+		if (random == null) {
+			threadRandom.remove();
+		} else {
+			threadRandom.set(random);
+		}
+	}
+
+	/**
+	 * Returns the source of randomness installed for the current thread.
+	 * 
+	 * @return the source of randomness installed for the current thread; or
+	 *         {@code null} if the thread uses the shared source
+	 */
+	public static Random getThreadRandom() {
+		return threadRandom.get();
+	}
+
+	/**
+	 * Scopes a run to the current thread.  Until {@link #endRun()} is called,
+	 * the thread draws from a stream derived from the given seed, and
+	 * {@link #newEvaluationRandom()} returns the streams for the evaluations
+	 * of this run.
 	 * 
-	 * @return the source of randomness currently used
+	 * @param seed the root seed of the run
+	 */
+	public static void beginRun(long seed) {
+		SplitMix64Random root = new SplitMix64Random(seed);
+		
+		evaluationRandom.set(root.split());
+		threadRandom.set(root);
+	}
+
+	/**
+	 * Ends the run scoped to the current thread, which uses the shared source
+	 * of randomness again.
+	 */
+	public static void endRun() {
+		evaluationRandom.remove();
+		threadRandom.remove();
+	}
+
+	/**
+	 * Returns the stream for the next evaluation of the run scoped to the
+	 * current thread.  The evaluation should install the stream with
+	 * {@link #setThreadRandom(Random)} on the thread it runs on.
+	 * 
+	 * @return the stream for the next evaluation; or {@code null} if no run
+	 *         is scoped to the current thread
+	 */
+	public static Random newEvaluationRandom() {
+		SplitMix64Random evaluations = evaluationRandom.get();
+		return evaluations == null ? null : evaluations.split();
+	}
+
+	/**
+	 * Returns the source of randomness currently used by the calling thread.
+	 * 
+	 * @return the source of randomness currently used by the calling thread
 	 */
 	public static Random getRandom() {
-		return random;
+		Random result = threadRandom.get();
+		return result == null ? random : result;
 	}
 
 	/**
@@ -94,7 +185,7 @@ public class PRNG {
 	 *         between 0.0 and 1.0
 	 */
 	public static float nextFloat() {
-		return random.nextFloat();
+		return getRandom().nextFloat();
 	}
 
 	/**
@@ -105,7 +196,7 @@ public class PRNG {
 	 *         between {@code min} and {@code max}
 	 */
 	public static float nextFloat(float min, float max) {
-		return min + random.nextFloat() * (max - min);
+		return min + getRandom().nextFloat() * (max - min);
 	}
 
 	/**
@@ -116,7 +207,7 @@ public class PRNG {
 	 *         between 0.0 and 1.0
 	 */
 	public static double nextDouble() {
-		return random.nextDouble();
+		return getRandom().nextDouble();
 	}
 
 	/**
@@ -127,7 +218,7 @@ public class PRNG {
 	 *         between {@code min} and {@code max}
 	 */
 	public static double nextDouble(double min, double max) {
-		return min + random.nextDouble() * (max - min);
+		return min + getRandom().nextDouble() * (max - min);
 	}
 
 	/**
@@ -138,7 +229,7 @@ public class PRNG {
 	 *         {@code Integer.MIN_VALUE} and {@code Integer.MAX_VALUE}.
 	 */
 	public static int nextInt() {
-		return random.nextInt();
+		return getRandom().nextInt();
 	}
 
 	/**
@@ -149,7 +240,7 @@ public class PRNG {
 	 *         {@code 0} (inclusive) and {@code n} (exclusive).
 	 */
 	public static int nextInt(int n) {
-		return random.nextInt(n);
+		return getRandom().nextInt(n);
 	}
 
 	/**
@@ -160,7 +251,16 @@ public class PRNG {
 	 *         {@code min} and {@code max} (both inclusive).
 	 */
 	public static int nextInt(int min, int max) {
-		return min + random.nextInt(max - min + 1);
+		return min + getRandom().nextInt(max - min + 1);
+	}
+
+	/**
+	 * Returns the next random, uniformly distributed {@code long} value.
+	 * 
+	 * @return the next random, uniformly distributed {@code long} value
+	 */
+	public static long nextLong() {
+		return getRandom().nextLong();
 	}
 
 	/**
@@ -169,7 +269,7 @@ public class PRNG {
 	 * @return the next random, uniformly distributed {@code boolean} value.
 	 */
 	public static boolean nextBoolean() {
-		return random.nextBoolean();
+		return getRandom().nextBoolean();
 	}
 
 	/**
@@ -180,7 +280,7 @@ public class PRNG {
 	 *         mean {@code 0.0} and standard deviation {@code 1.0}.
 	 */
 	public static double nextGaussian() {
-		return random.nextGaussian();
+		return getRandom().nextGaussian();
 	}
 
 	/**
@@ -191,7 +291,7 @@ public class PRNG {
 	 *         mean {@code mean} and standard deviation {@code stdev}.
 	 */
 	public static double nextGaussian(double mean, double stdev) {
-		return stdev * random.nextGaussian() + mean;
+		return stdev * getRandom().nextGaussian() + mean;
 	}
 
 	/**
@@ -348,7 +448,7 @@ public class PRNG {
 	 * @param list the list to be shuffled
 	 */
 	public static <T> void shuffle(List<T> list) {
-		Collections.shuffle(list, random);
+		Collections.shuffle(list, getRandom());
 	}
 
 	/**
@@ -25,6 +25,7 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * A collection of solutions and common methods for manipulating the collection.
@@ -252,6 +253,37 @@ public class Population implements Iterable<Solution> {
 		return removeAll(Arrays.asList(solutions));
 	}
 
+	/**
+	 * Removes every solution contained in the specified set in a single pass
+	 * over this population, preserving the order of the remaining solutions.
+	 * Unlike {@link #removeAll(Iterable)}, this takes linear time regardless
+	 * of the number of solutions removed.
+	 * 
+	 * @param solutions the solutions to be removed
+	 * @return {@code true} if this population was modified as a result of this
+	 *         method; {@code false} otherwise
+	 */
+	protected boolean removeSolutions(Set<Solution> solutions) {
+		int size = data.size();
+		int index = 0;
+
+		for (int i = 0; i < size; i++) {
+			Solution solution = data.get(i);
+
+			if (!solutions.contains(solution)) {
+				data.set(index++, solution);
+			}
+		}
+
+		if (index == size) {
+			return false;
+		}
+
+		modCount++;
+		data.subList(index, size).clear();
+		return true;
+	}
+
 	/**
 	 * Returns the number of solutions in this population.
 	 * 
@@ -102,6 +102,12 @@ public class Settings {
 	public static final String KEY_HYPERVOLUME_ENABLED = KEY_PREFIX +
 			"core.indicator.hypervolume_enabled";
 	
+	/**
+	 * The property key for the number of threads computing the hypervolume.
+	 */
+	public static final String KEY_HYPERVOLUME_THREADS = KEY_PREFIX +
+			"core.indicator.hypervolume_threads";
+	
 	/**
 	 * The prefix for all problem property keys.
 	 */
@@ -296,6 +302,19 @@ public class Settings {
 		return PROPERTIES.getBoolean(KEY_HYPERVOLUME_ENABLED, true);
 	}
 	
+	/**
+	 * Returns the maximum number of threads used when computing the
+	 * hypervolume of large approximation sets with more than three
+	 * objectives.  Defaults to the number of available processors.
+	 * 
+	 * @return the maximum number of threads used when computing the
+	 *         hypervolume
+	 */
+	public static int getHypervolumeThreads() {
+		return PROPERTIES.getInt(KEY_HYPERVOLUME_THREADS, 
+				Runtime.getRuntime().availableProcessors());
+	}
+	
 	/**
 	 * Returns the list of available problems.  This allows enumerating
 	 * additional problems without the need for defining and registering a 
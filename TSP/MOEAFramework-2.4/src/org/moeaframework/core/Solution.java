@@ -18,8 +18,14 @@
 package org.moeaframework.core;
 
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A solution to an optimization problem, storing the decision variables,
@@ -27,6 +33,13 @@ import java.util.Map;
  * (key, value)} pairs; they are instance-specific and are not carried over in
  * the copy constructor.
  * <p>
+ * The rank, crowding distance, fitness and operator attributes read by the
+ * comparators during selection are stored in primitive fields rather than in
+ * the attribute map, and are accessible through typed methods such as
+ * {@link #getRank()}.  The string-keyed attribute methods remain a view over
+ * these fields, so {@code getAttribute(RANK_ATTRIBUTE)} still returns the
+ * rank.
+ * <p>
  * Solutions should only be constructed in {@link Problem#newSolution()} or 
  * cloned from an existing solution with {@link #copy()}.  This ensures the
  * solutions and configured correctly for the given optimization problem.
@@ -51,9 +64,65 @@ public class Solution implements Serializable {
 	private final double[] constraints;
 
 	/**
-	 * The attributes of this solutions.
+	 * The constraints of all solutions without constraints.  An empty array
+	 * can not be modified, so it is shared instead of allocated per solution.
+	 */
+	private static final double[] NO_CONSTRAINTS = new double[0];
+
+	/**
+	 * The attributes of this solutions not stored in a typed field; or
+	 * {@code null} if no such attribute has been set.
+	 */
+	private Map<String, Serializable> attributes;
+
+	/**
+	 * The flag set in {@code fields} if the rank is set.
+	 */
+	private static final int RANK = 1;
+
+	/**
+	 * The flag set in {@code fields} if the crowding distance is set.
+	 */
+	private static final int CROWDING_DISTANCE = 2;
+
+	/**
+	 * The flag set in {@code fields} if the fitness is set.
+	 */
+	private static final int FITNESS = 4;
+
+	/**
+	 * The flag set in {@code fields} if the operator is set.
+	 */
+	private static final int OPERATOR = 8;
+
+	/**
+	 * The flags of the typed fields that are set.
 	 */
-	private final Map<String, Serializable> attributes;
+	private int fields;
+
+	/**
+	 * The rank of this solution, stored for the
+	 * {@link FastNondominatedSorting#RANK_ATTRIBUTE} attribute.
+	 */
+	private int rank;
+
+	/**
+	 * The crowding distance of this solution, stored for the
+	 * {@link FastNondominatedSorting#CROWDING_ATTRIBUTE} attribute.
+	 */
+	private double crowdingDistance;
+
+	/**
+	 * The fitness of this solution, stored for the
+	 * {@link FitnessEvaluator#FITNESS_ATTRIBUTE} attribute.
+	 */
+	private double fitness;
+
+	/**
+	 * The index of the operator that produced this solution, stored for the
+	 * {@link Variation#OPERATOR_ATTRIBUTE} attribute.
+	 */
+	private int operator;
 
 	/**
 	 * Constructs a solution with the specified number of variables and 
@@ -81,8 +150,8 @@ public class Solution implements Serializable {
 			int numberOfConstraints) {
 		variables = new Variable[numberOfVariables];
 		objectives = new double[numberOfObjectives];
-		constraints = new double[numberOfConstraints];
-		attributes = new HashMap<String, Serializable>();
+		constraints = (numberOfConstraints == 0) ? NO_CONSTRAINTS :
+				new double[numberOfConstraints];
 	}
 
 	/**
@@ -308,6 +377,30 @@ public class Solution implements Serializable {
 		constraints[index] = constraint;
 	}
 
+	/**
+	 * Returns the flag of the typed field storing the attribute with the
+	 * specified key; or {@code 0} if the attribute is kept in the attribute
+	 * map.
+	 * 
+	 * @param key the key of the attribute
+	 * @return the flag of the typed field storing the attribute with the
+	 *         specified key; or {@code 0} if the attribute is kept in the
+	 *         attribute map
+	 */
+	private static int getField(Object key) {
+		if (FastNondominatedSorting.RANK_ATTRIBUTE.equals(key)) {
+			return RANK;
+		} else if (FastNondominatedSorting.CROWDING_ATTRIBUTE.equals(key)) {
+			return CROWDING_DISTANCE;
+		} else if (FitnessEvaluator.FITNESS_ATTRIBUTE.equals(key)) {
+			return FITNESS;
+		} else if (Variation.OPERATOR_ATTRIBUTE.equals(key)) {
+			return OPERATOR;
+		} else {
+			return 0;
+		}
+	}
+
 	/**
 	 * Returns the value of the attribute that is associated with the specified
 	 * key, or {@code null} if no value has been associated with the key.
@@ -317,7 +410,24 @@ public class Solution implements Serializable {
 	 *         no value has been associated with the key
 	 */
 	public Object getAttribute(String key) {
-		return attributes.get(key);
+		int field = getField(key);
+
+		if ((fields & field) != 0) {
+			switch (field) {
+			case RANK:
+				return rank;
+			case CROWDING_DISTANCE:
+				return crowdingDistance;
+			case FITNESS:
+				return fitness;
+			default:
+				return operator;
+			}
+		} else if (attributes == null) {
+			return null;
+		} else {
+			return attributes.get(key);
+		}
 	}
 
 	/**
@@ -331,7 +441,39 @@ public class Solution implements Serializable {
 	 *         prior value has been associated with the key
 	 */
 	public Object setAttribute(String key, Serializable value) {
-		return attributes.put(key, value);
+		Object oldValue = getAttribute(key);
+		int field = getField(key);
+
+		if (((field == RANK) || (field == OPERATOR)) && 
+				(value instanceof Integer)) {
+			removeFromMap(key);
+
+			if (field == RANK) {
+				setRank((Integer)value);
+			} else {
+				setOperator((Integer)value);
+			}
+		} else if (((field == CROWDING_DISTANCE) || (field == FITNESS)) && 
+				(value instanceof Double)) {
+			removeFromMap(key);
+
+			if (field == CROWDING_DISTANCE) {
+				setCrowdingDistance((Double)value);
+			} else {
+				setFitness((Double)value);
+			}
+		} else {
+			// values of another type are kept in the map
+			fields &= ~field;
+
+			if (attributes == null) {
+				attributes = new HashMap<String, Serializable>();
+			}
+
+			attributes.put(key, value);
+		}
+
+		return oldValue;
 	}
 
 	/**
@@ -344,7 +486,23 @@ public class Solution implements Serializable {
 	 *         prior value has been associated with the key
 	 */
 	public Object removeAttribute(String key) {
-		return attributes.remove(key);
+		Object oldValue = getAttribute(key);
+
+		fields &= ~getField(key);
+		removeFromMap(key);
+
+		return oldValue;
+	}
+
+	/**
+	 * Removes the specified key from the attribute map, if present.
+	 * 
+	 * @param key the key to be removed
+	 */
+	private void removeFromMap(String key) {
+		if (attributes != null) {
+			attributes.remove(key);
+		}
 	}
 
 	/**
@@ -356,16 +514,19 @@ public class Solution implements Serializable {
 	 *         attributes; {@code false} otherwise
 	 */
 	public boolean hasAttribute(String key) {
-		return attributes.containsKey(key);
+		return ((fields & getField(key)) != 0) || 
+				((attributes != null) && attributes.containsKey(key));
 	}
 
 	/**
-	 * Returns the {@link Map} containing this solution's attributes.
+	 * Returns a {@link Map} view of this solution's attributes, including
+	 * those stored in typed fields.  Changes to the map are reflected in this
+	 * solution and vice versa.
 	 * 
 	 * @return the {@code Map} containing this solution's attributes
 	 */
 	public Map<String, Serializable> getAttributes() {
-		return attributes;
+		return new AttributeMap();
 	}
 
 	/**
@@ -382,7 +543,237 @@ public class Solution implements Serializable {
 	 * Removes all keys and values from this solution's attributes.
 	 */
 	public void clearAttributes() {
-		attributes.clear();
+		fields = 0;
+		attributes = null;
+	}
+
+	/**
+	 * Returns the rank of this solution, the
+	 * {@link FastNondominatedSorting#RANK_ATTRIBUTE} attribute.
+	 * 
+	 * @return the rank of this solution
+	 * @throws NullPointerException if the rank is not set
+	 */
+	public int getRank() {
+		if ((fields & RANK) != 0) {
+			return rank;
+		} else {
+			return (Integer)getAttribute(FastNondominatedSorting.RANK_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Sets the rank of this solution, the
+	 * {@link FastNondominatedSorting#RANK_ATTRIBUTE} attribute.
+	 * 
+	 * @param rank the rank of this solution
+	 */
+	public void setRank(int rank) {
+		this.rank = rank;
+		fields |= RANK;
+	}
+
+	/**
+	 * Returns the crowding distance of this solution, the
+	 * {@link FastNondominatedSorting#CROWDING_ATTRIBUTE} attribute.
+	 * 
+	 * @return the crowding distance of this solution
+	 * @throws NullPointerException if the crowding distance is not set
+	 */
+	public double getCrowdingDistance() {
+		if ((fields & CROWDING_DISTANCE) != 0) {
+			return crowdingDistance;
+		} else {
+			return (Double)getAttribute(
+					FastNondominatedSorting.CROWDING_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Sets the crowding distance of this solution, the
+	 * {@link FastNondominatedSorting#CROWDING_ATTRIBUTE} attribute.
+	 * 
+	 * @param crowdingDistance the crowding distance of this solution
+	 */
+	public void setCrowdingDistance(double crowdingDistance) {
+		this.crowdingDistance = crowdingDistance;
+		fields |= CROWDING_DISTANCE;
+	}
+
+	/**
+	 * Returns the fitness of this solution, the
+	 * {@link FitnessEvaluator#FITNESS_ATTRIBUTE} attribute.
+	 * 
+	 * @return the fitness of this solution
+	 * @throws NullPointerException if the fitness is not set
+	 */
+	public double getFitness() {
+		if ((fields & FITNESS) != 0) {
+			return fitness;
+		} else {
+			return (Double)getAttribute(FitnessEvaluator.FITNESS_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Sets the fitness of this solution, the
+	 * {@link FitnessEvaluator#FITNESS_ATTRIBUTE} attribute.
+	 * 
+	 * @param fitness the fitness of this solution
+	 */
+	public void setFitness(double fitness) {
+		this.fitness = fitness;
+		fields |= FITNESS;
+	}
+
+	/**
+	 * Returns the index of the operator that produced this solution, the
+	 * {@link Variation#OPERATOR_ATTRIBUTE} attribute.
+	 * 
+	 * @return the index of the operator that produced this solution
+	 * @throws NullPointerException if the operator is not set
+	 */
+	public int getOperator() {
+		if ((fields & OPERATOR) != 0) {
+			return operator;
+		} else {
+			return (Integer)getAttribute(Variation.OPERATOR_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Sets the index of the operator that produced this solution, the
+	 * {@link Variation#OPERATOR_ATTRIBUTE} attribute.
+	 * 
+	 * @param operator the index of the operator that produced this solution
+	 */
+	public void setOperator(int operator) {
+		this.operator = operator;
+		fields |= OPERATOR;
+	}
+
+	/**
+	 * The map view of the attributes of this solution returned by
+	 * {@link Solution#getAttributes()}.
+	 */
+	private class AttributeMap extends AbstractMap<String, Serializable> {
+
+		@Override
+		public Serializable get(Object key) {
+			return (key instanceof String) ? 
+					(Serializable)getAttribute((String)key) : null;
+		}
+
+		@Override
+		public Serializable put(String key, Serializable value) {
+			return (Serializable)setAttribute(key, value);
+		}
+
+		@Override
+		public Serializable remove(Object key) {
+			return (key instanceof String) ? 
+					(Serializable)removeAttribute((String)key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (key instanceof String) && hasAttribute((String)key);
+		}
+
+		@Override
+		public void clear() {
+			clearAttributes();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Serializable>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Serializable>>() {
+
+				@Override
+				public Iterator<Map.Entry<String, Serializable>> iterator() {
+					final Iterator<String> keys = keys().iterator();
+
+					return new Iterator<Map.Entry<String, Serializable>>() {
+
+						private String key;
+
+						@Override
+						public boolean hasNext() {
+							return keys.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, Serializable> next() {
+							key = keys.next();
+
+							return new SimpleEntry<String, Serializable>(key,
+									get(key)) {
+
+								private static final long serialVersionUID =
+										-1392960307917346016L;
+
+								@Override
+								public Serializable setValue(
+										Serializable value) {
+									super.setValue(value);
+									return put(getKey(), value);
+								}
+
+							};
+						}
+
+						@Override
+						public void remove() {
+							if (key == null) {
+								throw new IllegalStateException();
+							}
+
+							removeAttribute(key);
+							key = null;
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return keys().size();
+				}
+
+			};
+		}
+
+		/**
+		 * Returns a snapshot of the keys of all attributes.
+		 * 
+		 * @return a snapshot of the keys of all attributes
+		 */
+		private List<String> keys() {
+			List<String> keys = new ArrayList<String>();
+
+			if ((fields & RANK) != 0) {
+				keys.add(FastNondominatedSorting.RANK_ATTRIBUTE);
+			}
+
+			if ((fields & CROWDING_DISTANCE) != 0) {
+				keys.add(FastNondominatedSorting.CROWDING_ATTRIBUTE);
+			}
+
+			if ((fields & FITNESS) != 0) {
+				keys.add(FitnessEvaluator.FITNESS_ATTRIBUTE);
+			}
+
+			if ((fields & OPERATOR) != 0) {
+				keys.add(Variation.OPERATOR_ATTRIBUTE);
+			}
+
+			if (attributes != null) {
+				keys.addAll(attributes.keySet());
+			}
+
+			return keys;
+		}
+
 	}
 
 }
@@ -0,0 +1,167 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.core;
+
+import java.util.Random;
+
+/**
+ * A fast, splittable source of randomness based on the SplitMix64 generator.
+ * Each call to {@link #split()} returns a new generator whose stream is
+ * statistically independent of this generator, and is derived
+ * deterministically from this generator's state.  A tree of streams can
+ * therefore be grown from a single root seed, so that concurrent runs and
+ * concurrent evaluations each draw from their own reproducible stream.
+ * <p>
+ * Instances are not synchronized and must not be shared between threads.
+ * Give each thread its own instance through {@link #split()} instead.
+ */
+public class SplitMix64Random extends Random {
+
+	private static final long serialVersionUID = 3408471063985282913L;
+
+	/**
+	 * The default increment, the odd integer closest to {@code 2^64} divided
+	 * by the golden ratio.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The current state of this generator.
+	 */
+	private long state;
+
+	/**
+	 * The increment added to the state for each value; always odd.
+	 */
+	private long gamma;
+
+	/**
+	 * Constructs a new generator seeded from the current time.
+	 */
+	public SplitMix64Random() {
+		this(mix64(System.nanoTime()) ^ System.currentTimeMillis());
+	}
+
+	/**
+	 * Constructs a new generator with the specified seed.
+	 * 
+	 * @param seed the seed
+	 */
+	public SplitMix64Random(long seed) {
+		super(seed);
+	}
+
+	/**
+	 * Constructs a new generator with the specified state and increment.
+	 * 
+	 * @param state the initial state
+	 * @param gamma the increment, which must be odd
+	 */
+	private SplitMix64Random(long state, long gamma) {
+		super(0);
+		this.state = state;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Returns a new generator whose stream is independent of this generator.
+	 * This generator is advanced, so successive calls return different
+	 * generators.
+	 * 
+	 * @return a new generator whose stream is independent of this generator
+	 */
+	public SplitMix64Random split() {
+		long seed = nextLong();
+		return new SplitMix64Random(seed, mixGamma(nextSeed()));
+	}
+
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		state = seed;
+		gamma = GOLDEN_GAMMA;
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int)(nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+
+	@Override
+	public int nextInt() {
+		return (int)nextLong();
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * Advances the state by one increment.
+	 * 
+	 * @return the new state
+	 */
+	private long nextSeed() {
+		return state += gamma;
+	}
+
+	/**
+	 * The SplitMix64 finalizer, which maps consecutive states to well mixed
+	 * values.
+	 * 
+	 * @param z the value to mix
+	 * @return the mixed value
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Derives the increment of a split generator.  The increment is made odd
+	 * and, if it has too few bit transitions, is replaced by a value with
+	 * more of them.
+	 * 
+	 * @param z the value to derive the increment from
+	 * @return the increment
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		
+		if (Long.bitCount(z ^ (z >>> 1)) < 24) {
+			z ^= 0xaaaaaaaaaaaaaaaaL;
+		}
+		
+		return z;
+	}
+
+}
@@ -34,6 +34,13 @@ package org.moeaframework.core;
  * each operating on only those variables with the correct type.
  */
 public interface Variation {
+	
+	/**
+	 * Attribute key for the index of the operator that produced a solution,
+	 * assigned by multi-method variation operators such as
+	 * {@code AdaptiveMultimethodVariation}.
+	 */
+	public static final String OPERATOR_ATTRIBUTE = "operator";
 
 	/**
 	 * Returns the number of solutions that must be supplied to the
@@ -17,8 +17,6 @@
  */
 package org.moeaframework.core.comparator;
 
-import static org.moeaframework.core.FastNondominatedSorting.CROWDING_ATTRIBUTE;
-
 import java.io.Serializable;
 import java.util.Comparator;
 
@@ -43,8 +41,8 @@ Comparator<Solution>, Serializable {
 
 	@Override
 	public int compare(Solution solution1, Solution solution2) {
-		double crowding1 = (Double)solution1.getAttribute(CROWDING_ATTRIBUTE);
-		double crowding2 = (Double)solution2.getAttribute(CROWDING_ATTRIBUTE);
+		double crowding1 = solution1.getCrowdingDistance();
+		double crowding2 = solution2.getCrowdingDistance();
 
 		if (crowding1 > crowding2) {
 			return -1;
@@ -17,8 +17,6 @@
  */
 package org.moeaframework.core.comparator;
 
-import static org.moeaframework.core.FastNondominatedSorting.RANK_ATTRIBUTE;
-
 import java.io.Serializable;
 import java.util.Comparator;
 
@@ -42,8 +40,8 @@ Comparator<Solution>, Serializable {
 
 	@Override
 	public int compare(Solution solution1, Solution solution2) {
-		int rank1 = (Integer)solution1.getAttribute(RANK_ATTRIBUTE);
-		int rank2 = (Integer)solution2.getAttribute(RANK_ATTRIBUTE);
+		int rank1 = solution1.getRank();
+		int rank2 = solution2.getRank();
 
 		if (rank1 < rank2) {
 			return -1;
@@ -105,33 +105,24 @@ public class HypervolumeFitnessEvaluator extends IndicatorFitnessEvaluator {
 	 */
 	protected double calculateHypervolume(Solution solution1,
 			Solution solution2, int d) {
-		double max = rho;
-		double a = solution1.getObjective(d - 1);
-		double b = max;
+		// the box of solution1 minus its intersection with the box of
+		// solution2, which replaces the recursion over the d objectives
+		double volume = 1.0;
+		double overlap = 1.0;
 
-		if (solution2 != null) {
-			b = solution2.getObjective(d - 1);
-		}
-
-		double volume = 0.0;
+		for (int i = 0; i < d; i++) {
+			double a = solution1.getObjective(i);
+			double b = rho;
 
-		if (d == 1) {
-			if (a < b) {
-				volume = (b - a) / rho;
-			}
-		} else {
-			if (a < b) {
-				volume = calculateHypervolume(solution1, null, d - 1) * 
-						(b - a) / rho
-						+ calculateHypervolume(solution1, solution2, d - 1) * 
-						(max - b) / rho;
-			} else {
-				volume = calculateHypervolume(solution1, solution2, d - 1) *
-						(max - a) / rho;
+			if (solution2 != null) {
+				b = solution2.getObjective(i);
 			}
+
+			volume *= (rho - a) / rho;
+			overlap *= (rho - Math.max(a, b)) / rho;
 		}
 
-		return volume;
+		return volume - overlap;
 	}
 
 }
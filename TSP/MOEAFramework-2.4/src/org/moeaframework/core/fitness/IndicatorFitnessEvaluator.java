@@ -122,8 +122,7 @@ public abstract class IndicatorFitnessEvaluator implements FitnessEvaluator {
 				}
 			}
 			
-			population.get(i).setAttribute(FitnessEvaluator.FITNESS_ATTRIBUTE, 
-					sum);
+			population.get(i).setFitness(sum);
 		}
 	}
 
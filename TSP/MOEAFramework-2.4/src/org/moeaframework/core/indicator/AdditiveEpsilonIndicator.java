@@ -61,23 +61,30 @@ public class AdditiveEpsilonIndicator extends NormalizedIndicator {
 	static double evaluate(Problem problem,
 			NondominatedPopulation approximationSet,
 			NondominatedPopulation referenceSet) {
+		return evaluate(problem, new KDTree(problem, approximationSet),
+				referenceSet);
+	}
+	
+	/**
+	 * Computes the additive &epsilon;-indicator for the specified problem given
+	 * a k-d tree over the approximation set and a reference set.  The search
+	 * for a reference solution stops as soon as the approximation set is found
+	 * to &epsilon;-dominate it for the largest &epsilon; found so far, as it
+	 * can then no longer increase the indicator value.
+	 * 
+	 * @param problem the problem
+	 * @param approximationTree the k-d tree over the approximation set
+	 * @param referenceSet the reference set for the problem
+	 * @return the additive &epsilon;-indicator value for the specified problem
+	 *         given an approximation set and reference set
+	 */
+	static double evaluate(Problem problem, KDTree approximationTree,
+			NondominatedPopulation referenceSet) {
 		double eps_i = 0.0;
 
 		for (int i = 0; i < referenceSet.size(); i++) {
-			Solution solution1 = referenceSet.get(i);
-			double eps_j = Double.POSITIVE_INFINITY;
-
-			for (int j = 0; j < approximationSet.size(); j++) {
-				Solution solution2 = approximationSet.get(j);
-				double eps_k = 0.0;
-
-				for (int k = 0; k < problem.getNumberOfObjectives(); k++) {
-					eps_k = Math.max(eps_k, solution2.getObjective(k)
-							- solution1.getObjective(k));
-				}
-
-				eps_j = Math.min(eps_j, eps_k);
-			}
+			Solution solution = referenceSet.get(i);
+			double eps_j = approximationTree.additiveEpsilon(solution, eps_i);
 
 			eps_i = Math.max(eps_i, eps_j);
 		}
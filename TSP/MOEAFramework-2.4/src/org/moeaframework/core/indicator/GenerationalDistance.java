@@ -41,7 +41,7 @@ public class GenerationalDistance extends NormalizedIndicator {
 	@Override
 	public double evaluate(NondominatedPopulation approximationSet) {
 		return evaluate(problem, normalize(approximationSet), 
-				getNormalizedReferenceSet());
+				getNormalizedReferenceTree());
 	}
 
 	/**
@@ -59,6 +59,22 @@ public class GenerationalDistance extends NormalizedIndicator {
 	static double evaluate(Problem problem,
 			NondominatedPopulation approximationSet,
 			NondominatedPopulation referenceSet) {
+		return evaluate(problem, approximationSet,
+				new KDTree(problem, referenceSet));
+	}
+	
+	/**
+	 * Computes the generational distance for the specified problem given an
+	 * approximation set and a k-d tree over the reference set.
+	 * 
+	 * @param problem the problem
+	 * @param approximationSet an approximation set for the problem
+	 * @param referenceTree the k-d tree over the reference set
+	 * @return the generational distance for the specified problem given an
+	 *         approximation set and reference set
+	 */
+	static double evaluate(Problem problem,
+			NondominatedPopulation approximationSet, KDTree referenceTree) {
 		double sum = 0.0;
 		
 		if (approximationSet.isEmpty()) {
@@ -66,8 +82,8 @@ public class GenerationalDistance extends NormalizedIndicator {
 		}
 
 		for (int i = 0; i < approximationSet.size(); i++) {
-			sum += Math.pow(IndicatorUtils.distanceToNearestSolution(problem,
-					approximationSet.get(i), referenceSet), 2.0);
+			sum += Math.pow(referenceTree.distanceToNearest(
+					approximationSet.get(i)), 2.0);
 		}
 
 		return Math.sqrt(sum) / approximationSet.size();
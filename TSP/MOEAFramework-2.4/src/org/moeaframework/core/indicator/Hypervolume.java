@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.moeaframework.core.FrameworkException;
@@ -34,42 +35,14 @@ import org.moeaframework.core.Settings;
 import org.moeaframework.core.Solution;
 import org.moeaframework.util.io.RedirectStream;
 
-/*
- * Portions of this source code are derived from the PISA library.  The PISA
- * license is provided below.
- * 
- * Copyright (c) 2006-2007 Swiss Federal Institute of Technology, Computer 
- * Engineering and Networks Laboratory. All rights reserved.
- *
- * Permission to use, copy, modify, and distribute this software and its 
- * documentation for any purpose, without fee, and without written agreement is 
- * hereby granted, provided that the above copyright notice and the following 
- * two paragraphs appear in all copies of this software.
- *
- * IN NO EVENT SHALL THE SWISS FEDERAL INSTITUTE OF TECHNOLOGY, COMPUTER 
- * ENGINEERING AND NETWORKS LABORATORY BE LIABLE TO ANY PARTY FOR DIRECT, 
- * INDIRECT, SPECIAL, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING OUT OF THE 
- * USE OF THIS SOFTWARE AND ITS DOCUMENTATION, EVEN IF THE SWISS FEDERAL 
- * INSTITUTE OF TECHNOLOGY, COMPUTER ENGINEERING AND NETWORKS LABORATORY HAS 
- * BEEN ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- *
- * THE SWISS FEDERAL INSTITUTE OF TECHNOLOGY, COMPUTER ENGINEERING AND NETWORKS 
- * LABORATORY, SPECIFICALLY DISCLAIMS ANY WARRANTIES, INCLUDING, BUT NOT LIMITED
- * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
- * PURPOSE. THE SOFTWARE PROVIDED HEREUNDER IS ON AN "AS IS" BASIS, AND THE 
- * SWISS FEDERAL INSTITUTE OF TECHNOLOGY, COMPUTER ENGINEERING AND NETWORKS 
- * LABORATORY HAS NO OBLIGATION TO PROVIDE MAINTENANCE, SUPPORT, UPDATES, 
- * ENHANCEMENTS, OR MODIFICATIONS.
- */
-
 /**
  * Hypervolume indicator. Represents the volume of objective space dominated by
  * solutions in the approximation set.
  * <p>
- * Due to the computational burden of computing the hypervolume indicator and
- * the various estimation algorithms available, the ability to redirect the
- * hypervolume calculation to an external third-party executable is provided.
- * See {@link #invokeNativeHypervolume} for details.
+ * The hypervolume is computed in-process by {@link HypervolumeCalculator}.
+ * Due to the various estimation algorithms available, the ability to redirect
+ * the hypervolume calculation to an external third-party executable is also
+ * provided.  See {@link #invokeNativeHypervolume} for details.
  */
 public class Hypervolume extends NormalizedIndicator {
 
@@ -105,157 +78,6 @@ public class Hypervolume extends NormalizedIndicator {
 		}
 	}
 
-	/**
-	 * Returns {@code true} if {@code solution1} dominates {@code solution2}
-	 * with respect to the first {@code numberOfObjectives} objectives;
-	 * {@code false} otherwise.
-	 * 
-	 * @param solution1 the first solution
-	 * @param solution2 the second solution
-	 * @param numberOfObjectives the number of objectives used when determining
-	 *        domination
-	 * @return {@code true} if {@code solution1} dominates {@code solution2}
-	 *         with
-	 *         respect to the first {@code numberOfObjectives} objectives;
-	 *         {@code false} otherwise
-	 */
-	private static boolean dominates(Solution solution1, Solution solution2,
-			int numberOfObjectives) {
-		boolean betterInAnyObjective = false;
-		boolean worseInAnyObjective = false;
-
-		for (int i = 0; i < numberOfObjectives; i++) {
-			if (worseInAnyObjective) {
-				break;
-			}
-
-			if (solution1.getObjective(i) > solution2.getObjective(i)) {
-				betterInAnyObjective = true;
-			} else if (solution1.getObjective(i) < solution2.getObjective(i)) {
-				worseInAnyObjective = true;
-			}
-		}
-
-		return !worseInAnyObjective && betterInAnyObjective;
-	}
-
-	/**
-	 * Swaps the {@code i}th and {@code j}th indices in the population.
-	 * 
-	 * @param population the population
-	 * @param i the first index to be swapped
-	 * @param j the second index to be swapped
-	 */
-	private static void swap(List<Solution> population, int i, int j) {
-		Solution temp = population.get(i);
-		population.set(i, population.get(j));
-		population.set(j, temp);
-	}
-
-	/*
-	 * all nondominated points regarding the first 'no_objectives' dimensions
-	 * are collected; the points 0..no_points-1 in 'front' are considered; the
-	 * points in 'front' are resorted, such that points [0..n-1] represent the
-	 * nondominated points; n is returned
-	 */
-	private static int filterNondominatedSet(List<Solution> population,
-			int numberOfSolutions, int numberOfObjectives) {
-		int i = 0;
-		int n = numberOfSolutions;
-
-		while (i < n) {
-			int j = i + 1;
-			while (j < n) {
-				if (dominates(population.get(i), population.get(j),
-						numberOfObjectives)) {
-					/* remove point j */
-					n--;
-					swap(population, j, n);
-				} else if (dominates(population.get(j), population.get(i),
-						numberOfObjectives)) {
-					/*
-					 * remove point i; ensure that the point copied to index i
-					 * is considered in the next outer loop (thus, decrement i)
-					 */
-					n--;
-					swap(population, i, n);
-					i--;
-					break;
-				} else {
-					j++;
-				}
-			}
-
-			i++;
-		}
-
-		return n;
-	}
-
-	/*
-	 * calculate next value regarding dimension 'objective'; consider points
-	 * 0..no_points-1 in 'front'
-	 */
-	private static double surfaceUnchangedTo(List<Solution> population,
-			int numberOfSolutions, int objective) {
-		double min = population.get(0).getObjective(objective);
-
-		for (int i = 1; i < numberOfSolutions; i++) {
-			min = Math.min(min, population.get(i).getObjective(objective));
-		}
-
-		return min;
-	}
-
-	/*
-	 * remove all points which have a value <= 'threshold' regarding the
-	 * dimension 'objective'; the points [0..no_points-1] in 'front' are
-	 * considered; 'front' is resorted, such that points [0..n-1] represent the
-	 * remaining points; 'n' is returned
-	 */
-	private static int reduceNondominatedSet(List<Solution> population,
-			int numberOfSolutions, int objective, double threshold) {
-		int n = numberOfSolutions;
-
-		for (int i = 0; i < n; i++) {
-			if (population.get(i).getObjective(objective) <= threshold) {
-				n--;
-				swap(population, i, n);
-			}
-		}
-
-		return n;
-	}
-
-	private static double calculateHypervolume(List<Solution> population,
-			int numberOfSolutions, int numberOfObjectives) {
-		double volume = 0.0;
-		double distance = 0.0;
-		int n = numberOfSolutions;
-
-		while (n > 0) {
-			int numberOfNondominatedPoints = filterNondominatedSet(population,
-					n, numberOfObjectives - 1);
-
-			double tempVolume = 0.0;
-			if (numberOfObjectives < 3) {
-				tempVolume = population.get(0).getObjective(0);
-			} else {
-				tempVolume = calculateHypervolume(population,
-						numberOfNondominatedPoints, numberOfObjectives - 1);
-			}
-
-			double tempDistance = surfaceUnchangedTo(population, n,
-					numberOfObjectives - 1);
-			volume += tempVolume * (tempDistance - distance);
-			distance = tempDistance;
-			n = reduceNondominatedSet(population, n, numberOfObjectives - 1,
-					distance);
-		}
-
-		return volume;
-	}
-
 	@Override
 	public double evaluate(NondominatedPopulation approximationSet) {
 		return evaluate(problem, normalize(approximationSet));
@@ -278,30 +100,39 @@ public class Hypervolume extends NormalizedIndicator {
 			isInverted = Settings.isHypervolumeInverted();
 		}
 
-		List<Solution> solutions = new ArrayList<Solution>();
+		if (isCustomHypervolume) {
+			List<Solution> solutions = new ArrayList<Solution>();
 
-		for (Solution solution : approximationSet) {
-			//prune any solutions which exceed the Nadir point
-			for (int i=0; i<solution.getNumberOfObjectives(); i++) {
-				if (solution.getObjective(i) > 1.0) {
-					continue;
+			for (Solution solution : approximationSet) {
+				Solution clone = solution.copy();
+					
+				if (isInverted) {
+					invert(problem, clone);
 				}
-			}
-			
-			Solution clone = solution.copy();
 					
-			if (isInverted) {
-				invert(problem, clone);
+				solutions.add(clone);
 			}
-					
-			solutions.add(clone);
-		}
 
-		if (isCustomHypervolume) {
 			return invokeNativeHypervolume(problem, solutions, isInverted);
 		} else {
-			return calculateHypervolume(solutions, solutions.size(), 
-					problem.getNumberOfObjectives());
+			double[][] points = new double[approximationSet.size()][];
+			double[] referencePoint = new double[
+					problem.getNumberOfObjectives()];
+			
+			Arrays.fill(referencePoint, 1.0);
+			
+			for (int i = 0; i < points.length; i++) {
+				Solution solution = approximationSet.get(i);
+				points[i] = new double[referencePoint.length];
+				
+				// values are clamped to the unit hypercube, as done by invert
+				for (int j = 0; j < referencePoint.length; j++) {
+					points[i][j] = Math.max(0.0, Math.min(1.0, 
+							solution.getObjective(j)));
+				}
+			}
+			
+			return HypervolumeCalculator.calculate(points, referencePoint);
 		}
 	}
 
@@ -0,0 +1,475 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.core.indicator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.Settings;
+
+/**
+ * Computes the exact hypervolume of a set of points in objective space for
+ * minimization problems.  Two and three objectives are computed by sweeps in
+ * {@code O(n log n)} time.  More objectives use the WFG algorithm [1], which
+ * sums the exclusive hypervolume of each point after removing the points
+ * dominated within the bounds of that point, and reaches the sweeps once the
+ * number of remaining objectives drops to three.  The exclusive hypervolumes
+ * at the top level are independent and are computed concurrently for large
+ * sets.
+ * <p>
+ * References:
+ * <ol>
+ *   <li>While, L., Bradstreet, L., and Barone, L., "A Fast Way of Calculating
+ *       Exact Hypervolumes," IEEE Transactions on Evolutionary Computation,
+ *       vol. 16, no. 1, pp. 86-95, 2012.
+ *   <li>Beume, N., Fonseca, C. M., Lopez-Ibanez, M., Paquete, L., and
+ *       Vahrenhold, J., "On the Complexity of Computing the Hypervolume
+ *       Indicator," IEEE Transactions on Evolutionary Computation, vol. 13,
+ *       no. 5, pp. 1075-1082, 2009.
+ * </ol>
+ */
+public class HypervolumeCalculator {
+	
+	/**
+	 * The minimum number of points for computing the exclusive hypervolumes
+	 * concurrently.
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
+	
+	/**
+	 * The executor computing the exclusive hypervolumes concurrently, shared
+	 * by all calls; or {@code null} if not yet created.  Its daemon threads
+	 * are created as needed and reused until idle for a minute.
+	 */
+	private static ExecutorService executor;
+	
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private HypervolumeCalculator() {
+		super();
+	}
+	
+	/**
+	 * Returns the hypervolume of the region dominated by the points and
+	 * bounded by the reference point, using the number of threads given by
+	 * {@link Settings#getHypervolumeThreads()}.  Points not strictly better
+	 * than the reference point in every objective do not contribute.
+	 * 
+	 * @param points the points, each with one value per objective
+	 * @param referencePoint the reference point
+	 * @return the hypervolume of the region dominated by the points and
+	 *         bounded by the reference point
+	 */
+	public static double calculate(double[][] points, double[] referencePoint) {
+		return calculate(points, referencePoint,
+				Settings.getHypervolumeThreads());
+	}
+	
+	/**
+	 * Returns the hypervolume of the region dominated by the points and
+	 * bounded by the reference point.  Points not strictly better than the
+	 * reference point in every objective do not contribute.
+	 * 
+	 * @param points the points, each with one value per objective
+	 * @param referencePoint the reference point
+	 * @param numberOfThreads the maximum number of threads used
+	 * @return the hypervolume of the region dominated by the points and
+	 *         bounded by the reference point
+	 */
+	public static double calculate(double[][] points, double[] referencePoint,
+			int numberOfThreads) {
+		int d = referencePoint.length;
+		List<double[]> inside = new ArrayList<double[]>();
+		
+		for (double[] point : points) {
+			boolean isInside = true;
+			
+			for (int i = 0; i < d; i++) {
+				if (!(point[i] < referencePoint[i])) {
+					isInside = false;
+					break;
+				}
+			}
+			
+			if (isInside) {
+				inside.add(point);
+			}
+		}
+		
+		if (inside.isEmpty()) {
+			return 0.0;
+		} else if (d == 1) {
+			double minimum = referencePoint[0];
+			
+			for (double[] point : inside) {
+				minimum = Math.min(minimum, point[0]);
+			}
+			
+			return referencePoint[0] - minimum;
+		}
+		
+		return calculate(filter(inside.toArray(new double[inside.size()][]), 
+				d), d, referencePoint, numberOfThreads);
+	}
+	
+	/**
+	 * Returns the hypervolume of the points with respect to the first
+	 * {@code d} objectives.  The points must be mutually non-dominated if
+	 * {@code d > 3}.  The array is reordered.
+	 * 
+	 * @param points the points
+	 * @param d the number of objectives considered
+	 * @param referencePoint the reference point
+	 * @param numberOfThreads the maximum number of threads used
+	 * @return the hypervolume of the points
+	 */
+	private static double calculate(final double[][] points, final int d,
+			final double[] referencePoint, int numberOfThreads) {
+		if (points.length == 0) {
+			return 0.0;
+		} else if (points.length == 1) {
+			return box(points[0], d, referencePoint);
+		} else if (d == 2) {
+			return sweep2(points, referencePoint);
+		} else if (d == 3) {
+			return sweep3(points, referencePoint);
+		}
+		
+		// sort by the last objective from worst to best, so every limit set
+		// shares the last objective value of its point
+		Arrays.sort(points, new Comparator<double[]>() {
+
+			@Override
+			public int compare(double[] point1, double[] point2) {
+				return Double.compare(point2[d-1], point1[d-1]);
+			}
+			
+		});
+		
+		final double[] terms = new double[points.length];
+		
+		if ((numberOfThreads > 1) && (points.length >= PARALLEL_THRESHOLD)) {
+			final AtomicInteger next = new AtomicInteger();
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			Runnable worker = new Runnable() {
+
+				@Override
+				public void run() {
+					int k;
+					
+					while ((k = next.getAndIncrement()) < points.length) {
+						terms[k] = exclusive(points, k, d, referencePoint);
+					}
+				}
+				
+			};
+			
+			try {
+				// the calling thread is one of the workers
+				for (int i = 1; i < numberOfThreads; i++) {
+					futures.add(getExecutor().submit(worker));
+				}
+				
+				worker.run();
+				
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new FrameworkException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				} else {
+					throw new FrameworkException(e.getCause());
+				}
+			} finally {
+				for (Future<?> future : futures) {
+					future.cancel(true);
+				}
+			}
+		} else {
+			for (int k = 0; k < points.length; k++) {
+				terms[k] = exclusive(points, k, d, referencePoint);
+			}
+		}
+		
+		// sum in a fixed order so the result does not depend on the threads
+		double volume = 0.0;
+		
+		for (int k = 0; k < points.length; k++) {
+			volume += terms[k];
+		}
+		
+		return volume;
+	}
+	
+	/**
+	 * Returns the executor computing the exclusive hypervolumes concurrently,
+	 * creating it when first used.
+	 * 
+	 * @return the executor computing the exclusive hypervolumes concurrently
+	 */
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable,
+							"HypervolumeCalculator");
+					thread.setDaemon(true);
+					return thread;
+				}
+				
+			});
+		}
+		
+		return executor;
+	}
+	
+	/**
+	 * Returns the hypervolume dominated by the point at index {@code k} but
+	 * not by any later point, which must not be worse in the last objective.
+	 * 
+	 * @param points the points sorted from worst to best in the last
+	 *        objective
+	 * @param k the index of the point
+	 * @param d the number of objectives considered
+	 * @param referencePoint the reference point
+	 * @return the exclusive hypervolume of the point
+	 */
+	private static double exclusive(double[][] points, int k, int d,
+			double[] referencePoint) {
+		double[] point = points[k];
+		double[][] limitSet = new double[points.length - k - 1][d - 1];
+		
+		for (int j = k + 1; j < points.length; j++) {
+			double[] bounded = limitSet[j - k - 1];
+			
+			for (int i = 0; i < d - 1; i++) {
+				bounded[i] = Math.max(point[i], points[j][i]);
+			}
+		}
+		
+		double slice = box(point, d - 1, referencePoint) - calculate(
+				filter(limitSet, d - 1), d - 1, referencePoint, 1);
+		
+		return slice * (referencePoint[d-1] - point[d-1]);
+	}
+	
+	/**
+	 * Returns the volume of the box between the point and the reference point
+	 * in the first {@code d} objectives.
+	 * 
+	 * @param point the point
+	 * @param d the number of objectives considered
+	 * @param referencePoint the reference point
+	 * @return the volume of the box between the point and the reference point
+	 */
+	private static double box(double[] point, int d, double[] referencePoint) {
+		double volume = 1.0;
+		
+		for (int i = 0; i < d; i++) {
+			volume *= referencePoint[i] - point[i];
+		}
+		
+		return volume;
+	}
+	
+	/**
+	 * Returns the points passed to {@link #calculate(double[][], int, 
+	 * double[], int)}.  The sweeps used for two and three objectives skip
+	 * dominated points themselves, so the points are only filtered for more
+	 * objectives.
+	 * 
+	 * @param points the points
+	 * @param d the number of objectives considered
+	 * @return the points, without dominated points if {@code d > 3}
+	 */
+	private static double[][] filter(double[][] points, int d) {
+		if (d <= 3) {
+			return points;
+		} else {
+			return nondominated(points, d);
+		}
+	}
+	
+	/**
+	 * Returns the points not weakly dominated by another point with respect to
+	 * the first {@code d} objectives, keeping one of each set of duplicates.
+	 * The array is reordered.
+	 * 
+	 * @param points the points
+	 * @param d the number of objectives considered
+	 * @return the non-dominated points
+	 */
+	private static double[][] nondominated(double[][] points, final int d) {
+		// after a lexicographic sort, no point dominates an earlier point
+		Arrays.sort(points, new Comparator<double[]>() {
+
+			@Override
+			public int compare(double[] point1, double[] point2) {
+				for (int i = 0; i < d; i++) {
+					int flag = Double.compare(point1[i], point2[i]);
+					
+					if (flag != 0) {
+						return flag;
+					}
+				}
+				
+				return 0;
+			}
+			
+		});
+		
+		int size = 0;
+		
+		for (int j = 0; j < points.length; j++) {
+			double[] point = points[j];
+			boolean isDominated = false;
+			
+			for (int k = 0; (k < size) && !isDominated; k++) {
+				double[] other = points[k];
+				isDominated = true;
+				
+				for (int i = 0; i < d; i++) {
+					if (other[i] > point[i]) {
+						isDominated = false;
+						break;
+					}
+				}
+			}
+			
+			if (!isDominated) {
+				points[size++] = point;
+			}
+		}
+		
+		return Arrays.copyOf(points, size);
+	}
+	
+	/**
+	 * Returns the hypervolume of points in two objectives.
+	 * 
+	 * @param points the points
+	 * @param referencePoint the reference point
+	 * @return the hypervolume of the points
+	 */
+	private static double sweep2(double[][] points, double[] referencePoint) {
+		Arrays.sort(points, new Comparator<double[]>() {
+
+			@Override
+			public int compare(double[] point1, double[] point2) {
+				return Double.compare(point1[0], point2[0]);
+			}
+			
+		});
+		
+		double volume = 0.0;
+		double bound = referencePoint[1];
+		
+		for (double[] point : points) {
+			if (point[1] < bound) {
+				volume += (referencePoint[0] - point[0]) * (bound - point[1]);
+				bound = point[1];
+			}
+		}
+		
+		return volume;
+	}
+	
+	/**
+	 * Returns the hypervolume of points in three objectives by sweeping along
+	 * the third objective while maintaining the area dominated in the first
+	 * two objectives [2].
+	 * 
+	 * @param points the points
+	 * @param referencePoint the reference point
+	 * @return the hypervolume of the points
+	 */
+	private static double sweep3(double[][] points, double[] referencePoint) {
+		Arrays.sort(points, new Comparator<double[]>() {
+
+			@Override
+			public int compare(double[] point1, double[] point2) {
+				return Double.compare(point1[2], point2[2]);
+			}
+			
+		});
+		
+		// the staircase of non-dominated points in the first two objectives,
+		// the second objective decreases as the first increases
+		TreeMap<Double, Double> front = new TreeMap<Double, Double>();
+		double volume = 0.0;
+		double area = 0.0;
+		double previous = points[0][2];
+		
+		for (double[] point : points) {
+			volume += area * (point[2] - previous);
+			previous = point[2];
+			
+			double x = point[0];
+			double y = point[1];
+			Map.Entry<Double, Double> entry = front.floorEntry(x);
+			
+			if ((entry != null) && (entry.getValue() <= y)) {
+				continue;
+			}
+			
+			Map.Entry<Double, Double> left = front.lowerEntry(x);
+			double bound = (left == null) ? referencePoint[1] : 
+				left.getValue();
+			double start = x;
+			
+			// add the strips above the point not yet covered, removing the
+			// points it dominates
+			entry = front.ceilingEntry(x);
+			
+			while ((entry != null) && (entry.getValue() >= y)) {
+				area += (entry.getKey() - start) * (bound - y);
+				start = entry.getKey();
+				bound = entry.getValue();
+				front.remove(entry.getKey());
+				entry = front.higherEntry(start);
+			}
+			
+			double end = (entry == null) ? referencePoint[0] : entry.getKey();
+			area += (end - start) * (bound - y);
+			front.put(x, y);
+		}
+		
+		volume += area * (referencePoint[2] - previous);
+		
+		return volume;
+	}
+
+}
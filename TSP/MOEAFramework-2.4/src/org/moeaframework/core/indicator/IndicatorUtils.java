@@ -17,7 +17,6 @@
  */
 package org.moeaframework.core.indicator;
 
-import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
 
@@ -85,26 +84,4 @@ public class IndicatorUtils {
 		return Math.pow(distance, 1.0 / power);
 	}
 
-	/**
-	 * Returns the Euclidean distance in objective space between the specified
-	 * solution and the nearest solution in the population.
-	 * 
-	 * @param problem the problem
-	 * @param solution the solution
-	 * @param population the population
-	 * @return the Euclidean distance in objective space between the specified
-	 *         solution and the nearest solution in the population
-	 */
-	public static double distanceToNearestSolution(Problem problem,
-			Solution solution, NondominatedPopulation population) {
-		double minimum = Double.POSITIVE_INFINITY;
-
-		for (int i = 0; i < population.size(); i++) {
-			minimum = Math.min(minimum, euclideanDistance(problem, solution,
-					population.get(i)));
-		}
-
-		return minimum;
-	}
-
 }
@@ -60,11 +60,30 @@ public class InvertedGenerationalDistance extends NormalizedIndicator {
 	static double evaluate(Problem problem,
 			NondominatedPopulation approximationSet,
 			NondominatedPopulation referenceSet) {
+		return evaluate(problem, new KDTree(problem, approximationSet),
+				referenceSet);
+	}
+	
+	/**
+	 * Computes the inverted generational distance for the specified problem
+	 * given a k-d tree over the approximation set and a reference set.  Since
+	 * the nearest solution in the approximation set is searched for every
+	 * solution in the reference set, the tree is built over the approximation
+	 * set.
+	 * 
+	 * @param problem the problem
+	 * @param approximationTree the k-d tree over the approximation set
+	 * @param referenceSet the reference set for the problem
+	 * @return the inverted generational distance for the specified problem 
+	 *         given an approximation set and reference set
+	 */
+	static double evaluate(Problem problem, KDTree approximationTree,
+			NondominatedPopulation referenceSet) {
 		double sum = 0.0;
 
 		for (int i = 0; i < referenceSet.size(); i++) {
-			sum += Math.pow(IndicatorUtils.distanceToNearestSolution(problem,
-					referenceSet.get(i), approximationSet), 2.0);
+			sum += Math.pow(approximationTree.distanceToNearest(
+					referenceSet.get(i)), 2.0);
 		}
 
 		return Math.sqrt(sum) / referenceSet.size();
@@ -0,0 +1,384 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.core.indicator;
+
+import java.util.Arrays;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.Solution;
+
+/**
+ * A k-d tree over the objective vectors of a population, answering the
+ * distance-to-set queries of the indicators without comparing against every
+ * solution in the population.  The tree is balanced and stored implicitly:
+ * the objective vectors are reordered so that the median of every range is
+ * its splitting point, and ranges of at most {@value #LEAF_SIZE} points are
+ * searched directly.
+ * <p>
+ * The queries are exact: subtrees are only skipped when none of their points
+ * can improve the current answer, so every query finds the same minimum as a
+ * brute-force search over the population.  Distances are computed with
+ * multiplications and {@link Math#sqrt(double)} rather than the
+ * {@link Math#pow(double, double)} of
+ * {@link IndicatorUtils#euclideanDistance}, so they may differ from it in the
+ * last bits.
+ * <p>
+ * The tree is not modified by queries and may be shared between threads.
+ */
+class KDTree {
+	
+	/**
+	 * The maximum number of points in a range searched directly.
+	 */
+	private static final int LEAF_SIZE = 8;
+	
+	/**
+	 * The number of objectives.
+	 */
+	private final int numberOfObjectives;
+	
+	/**
+	 * The number of points.
+	 */
+	private final int size;
+	
+	/**
+	 * The objective vectors, stored row by row in the order of the tree.
+	 */
+	private final double[] points;
+	
+	/**
+	 * The splitting objective of each range, stored at the index of its
+	 * median.
+	 */
+	private final int[] split;
+	
+	/**
+	 * Constructs a k-d tree over the objective vectors of the specified
+	 * population.
+	 * 
+	 * @param problem the problem
+	 * @param population the population
+	 */
+	public KDTree(Problem problem, NondominatedPopulation population) {
+		super();
+		numberOfObjectives = problem.getNumberOfObjectives();
+		size = population.size();
+		points = new double[size * numberOfObjectives];
+		split = new int[size];
+		
+		for (int i = 0; i < size; i++) {
+			Solution solution = population.get(i);
+			
+			for (int k = 0; k < numberOfObjectives; k++) {
+				points[i * numberOfObjectives + k] = solution.getObjective(k);
+			}
+		}
+		
+		build(0, size);
+	}
+	
+	/**
+	 * Returns the number of points in this tree.
+	 * 
+	 * @return the number of points in this tree
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the Euclidean distance in objective space between the specified
+	 * solution and the nearest point in this tree.
+	 * 
+	 * @param solution the solution
+	 * @return the Euclidean distance in objective space between the specified
+	 *         solution and the nearest point in this tree; or
+	 *         {@code Double.POSITIVE_INFINITY} if this tree is empty
+	 */
+	public double distanceToNearest(Solution solution) {
+		return Math.sqrt(nearest(solution.getObjectives(), 0, size,
+				Double.POSITIVE_INFINITY));
+	}
+	
+	/**
+	 * Returns the smallest additive &epsilon; by which a point in this tree
+	 * must be translated to weakly dominate the specified solution, that is
+	 * the minimum over all points {@code p} of the maximum of {@code 0} and
+	 * {@code p[k] - solution[k]} over all objectives {@code k}.  The search
+	 * stops as soon as a value less than or equal to {@code bound} is found,
+	 * in which case that value is returned instead.
+	 * 
+	 * @param solution the solution
+	 * @param bound the value at or below which the search stops
+	 * @return the smallest additive &epsilon; of the points in this tree; or
+	 *         a value less than or equal to {@code bound} if there is one; or
+	 *         {@code Double.POSITIVE_INFINITY} if this tree is empty
+	 */
+	public double additiveEpsilon(Solution solution, double bound) {
+		double[] lower = new double[numberOfObjectives];
+		
+		Arrays.fill(lower, Double.NEGATIVE_INFINITY);
+		
+		return epsilon(solution.getObjectives(), lower, 0, size,
+				Double.POSITIVE_INFINITY, bound);
+	}
+	
+	/**
+	 * Arranges the points in the specified range so that the median along the
+	 * objective with the widest spread splits the range, and recursively
+	 * arranges both halves.
+	 * 
+	 * @param from the first point in the range
+	 * @param to the point following the last point in the range
+	 */
+	private void build(int from, int to) {
+		if (to - from <= LEAF_SIZE) {
+			return;
+		}
+		
+		int objective = 0;
+		double widest = Double.NEGATIVE_INFINITY;
+		
+		for (int k = 0; k < numberOfObjectives; k++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			
+			for (int i = from; i < to; i++) {
+				double value = points[i * numberOfObjectives + k];
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+			
+			if (max - min > widest) {
+				objective = k;
+				widest = max - min;
+			}
+		}
+		
+		int middle = (from + to) >>> 1;
+		
+		select(from, to, middle, objective);
+		split[middle] = objective;
+		
+		build(from, middle);
+		build(middle + 1, to);
+	}
+	
+	/**
+	 * Partially sorts the points in the specified range along an objective, so
+	 * that the {@code n}-th point is preceded by no greater and followed by no
+	 * smaller values.
+	 * 
+	 * @param from the first point in the range
+	 * @param to the point following the last point in the range
+	 * @param n the index of the point to select
+	 * @param objective the objective
+	 */
+	private void select(int from, int to, int n, int objective) {
+		int left = from;
+		int right = to - 1;
+		
+		while (left < right) {
+			double pivot = points[((left + right) >>> 1) * numberOfObjectives +
+					objective];
+			int i = left;
+			int j = right;
+			
+			while (i <= j) {
+				while (points[i * numberOfObjectives + objective] < pivot) {
+					i++;
+				}
+				
+				while (points[j * numberOfObjectives + objective] > pivot) {
+					j--;
+				}
+				
+				if (i <= j) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+			
+			if (n <= j) {
+				right = j;
+			} else if (n >= i) {
+				left = i;
+			} else {
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Swaps two points.
+	 * 
+	 * @param i the first point
+	 * @param j the second point
+	 */
+	private void swap(int i, int j) {
+		int a = i * numberOfObjectives;
+		int b = j * numberOfObjectives;
+		
+		for (int k = 0; k < numberOfObjectives; k++) {
+			double temp = points[a + k];
+			points[a + k] = points[b + k];
+			points[b + k] = temp;
+		}
+	}
+	
+	/**
+	 * Returns the squared Euclidean distance between the query and the
+	 * nearest point in the specified range, if smaller than {@code best}.
+	 * 
+	 * @param query the objectives of the query
+	 * @param from the first point in the range
+	 * @param to the point following the last point in the range
+	 * @param best the smallest squared distance found so far
+	 * @return the smaller of {@code best} and the squared distance between
+	 *         the query and the nearest point in the range
+	 */
+	private double nearest(double[] query, int from, int to, double best) {
+		if (to - from <= LEAF_SIZE) {
+			for (int i = from; i < to; i++) {
+				best = Math.min(best, squaredDistance(query, i));
+			}
+			
+			return best;
+		}
+		
+		int middle = (from + to) >>> 1;
+		int objective = split[middle];
+		double difference = query[objective] -
+				points[middle * numberOfObjectives + objective];
+		
+		best = Math.min(best, squaredDistance(query, middle));
+		
+		// points beyond the splitting plane are at least as far as the plane
+		if (difference < 0.0) {
+			best = nearest(query, from, middle, best);
+			
+			if (difference * difference < best) {
+				best = nearest(query, middle + 1, to, best);
+			}
+		} else {
+			best = nearest(query, middle + 1, to, best);
+			
+			if (difference * difference < best) {
+				best = nearest(query, from, middle, best);
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Returns the squared Euclidean distance between the query and a point.
+	 * 
+	 * @param query the objectives of the query
+	 * @param i the point
+	 * @return the squared Euclidean distance between the query and the point
+	 */
+	private double squaredDistance(double[] query, int i) {
+		int offset = i * numberOfObjectives;
+		double distance = 0.0;
+		
+		for (int k = 0; k < numberOfObjectives; k++) {
+			double difference = Math.abs(points[offset + k] - query[k]);
+			distance += difference * difference;
+		}
+		
+		return distance;
+	}
+	
+	/**
+	 * Returns the smallest additive &epsilon; of the points in the specified
+	 * range, if smaller than {@code best}.  The range is skipped if the
+	 * lower corner of its bounding box cannot improve {@code best}.
+	 * 
+	 * @param query the objectives of the query
+	 * @param lower the lower corner of the bounding box of the range
+	 * @param from the first point in the range
+	 * @param to the point following the last point in the range
+	 * @param best the smallest additive &epsilon; found so far
+	 * @param bound the value at or below which the search stops
+	 * @return the smaller of {@code best} and the smallest additive &epsilon;
+	 *         of the points in the range
+	 */
+	private double epsilon(double[] query, double[] lower, int from, int to,
+			double best, double bound) {
+		if (epsilon(query, lower, 0) >= best) {
+			return best;
+		}
+		
+		if (to - from <= LEAF_SIZE) {
+			for (int i = from; (i < to) && (best > bound); i++) {
+				best = Math.min(best, epsilon(query, points,
+						i * numberOfObjectives));
+			}
+			
+			return best;
+		}
+		
+		int middle = (from + to) >>> 1;
+		int objective = split[middle];
+		double value = points[middle * numberOfObjectives + objective];
+		
+		best = Math.min(best, epsilon(query, points,
+				middle * numberOfObjectives));
+		
+		// smaller objective values yield smaller epsilons, so search the
+		// lower half first
+		if (best > bound) {
+			best = epsilon(query, lower, from, middle, best, bound);
+		}
+		
+		if (best > bound) {
+			double previous = lower[objective];
+			
+			lower[objective] = Math.max(previous, value);
+			best = epsilon(query, lower, middle + 1, to, best, bound);
+			lower[objective] = previous;
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Returns the additive &epsilon; by which the specified objective vector
+	 * must be translated to weakly dominate the query, computed as in
+	 * {@link AdditiveEpsilonIndicator}.
+	 * 
+	 * @param query the objectives of the query
+	 * @param values the array storing the objective vector
+	 * @param offset the index of the objective vector in the array
+	 * @return the additive &epsilon; of the objective vector
+	 */
+	private double epsilon(double[] query, double[] values, int offset) {
+		double epsilon = 0.0;
+		
+		for (int k = 0; k < numberOfObjectives; k++) {
+			epsilon = Math.max(epsilon, values[offset + k] - query[k]);
+		}
+		
+		return epsilon;
+	}
+
+}
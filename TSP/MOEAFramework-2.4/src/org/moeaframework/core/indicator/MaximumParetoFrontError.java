@@ -42,7 +42,7 @@ public class MaximumParetoFrontError extends NormalizedIndicator {
 	@Override
 	public double evaluate(NondominatedPopulation approximationSet) {
 		return evaluate(problem, normalize(approximationSet), 
-				getNormalizedReferenceSet());
+				getNormalizedReferenceTree());
 	}
 
 	/**
@@ -60,6 +60,22 @@ public class MaximumParetoFrontError extends NormalizedIndicator {
 	static double evaluate(Problem problem,
 			NondominatedPopulation approximationSet,
 			NondominatedPopulation referenceSet) {
+		return evaluate(problem, approximationSet,
+				new KDTree(problem, referenceSet));
+	}
+	
+	/**
+	 * Computes the maximum Pareto front error for the specified problem given
+	 * an approximation set and a k-d tree over the reference set.
+	 * 
+	 * @param problem the problem
+	 * @param approximationSet an approximation set for the problem
+	 * @param referenceTree the k-d tree over the reference set
+	 * @return the maximum Pareto front error for the specified problem given
+	 *         an approximation set and reference set
+	 */
+	static double evaluate(Problem problem,
+			NondominatedPopulation approximationSet, KDTree referenceTree) {
 		if (approximationSet.isEmpty()) {
 			return Double.POSITIVE_INFINITY;
 		}
@@ -67,8 +83,8 @@ public class MaximumParetoFrontError extends NormalizedIndicator {
 		double max = 0.0;
 
 		for (int i = 0; i < approximationSet.size(); i++) {
-			max = Math.max(max, IndicatorUtils.distanceToNearestSolution(
-					problem, approximationSet.get(i), referenceSet));
+			max = Math.max(max, referenceTree.distanceToNearest(
+					approximationSet.get(i)));
 		}
 
 		return max;
@@ -42,6 +42,11 @@ public abstract class NormalizedIndicator implements Indicator {
 	 * The normalized reference set.
 	 */
 	private final NondominatedPopulation normalizedReferenceSet;
+	
+	/**
+	 * The k-d tree over the normalized reference set, built on first use.
+	 */
+	private KDTree normalizedReferenceTree;
 
 	/**
 	 * Constructs a normalized indicator for the specified problem and 
@@ -80,5 +85,20 @@ public abstract class NormalizedIndicator implements Indicator {
 	protected NondominatedPopulation getNormalizedReferenceSet() {
 		return normalizedReferenceSet;
 	}
+	
+	/**
+	 * Returns the k-d tree over the normalized reference set, building it on
+	 * the first invocation.
+	 * 
+	 * @return the k-d tree over the normalized reference set
+	 */
+	synchronized KDTree getNormalizedReferenceTree() {
+		if (normalizedReferenceTree == null) {
+			normalizedReferenceTree = new KDTree(problem,
+					normalizedReferenceSet);
+		}
+		
+		return normalizedReferenceTree;
+	}
 
 }
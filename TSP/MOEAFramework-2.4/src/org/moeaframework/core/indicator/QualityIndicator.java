@@ -47,6 +47,11 @@ public class QualityIndicator {
 	 */
 	private final Normalizer normalizer;
 	
+	/**
+	 * The k-d tree over the normalized reference set.
+	 */
+	private final KDTree normalizedReferenceTree;
+	
 	/**
 	 * The approximation set used during the last invocation of
 	 * {@code calculate}.
@@ -103,6 +108,26 @@ public class QualityIndicator {
 		
 		normalizer = new Normalizer(problem, referenceSet);
 		normalizedReferenceSet = normalizer.normalize(referenceSet);
+		normalizedReferenceTree = new KDTree(problem, normalizedReferenceSet);
+	}
+	
+	/**
+	 * Constructs a quality indicator evaluator sharing the problem, reference
+	 * set and normalization of the specified evaluator.  Since an evaluator
+	 * stores the metrics of its last invocation of {@code calculate}, threads
+	 * evaluating approximation sets concurrently must use their own
+	 * evaluators.  This constructor lets them share the normalized reference
+	 * set, which is only read, instead of normalizing it again.
+	 * 
+	 * @param qualityIndicator the evaluator whose reference set and
+	 *        normalization are shared
+	 */
+	public QualityIndicator(QualityIndicator qualityIndicator) {
+		problem = qualityIndicator.problem;
+		referenceSet = qualityIndicator.referenceSet;
+		normalizer = qualityIndicator.normalizer;
+		normalizedReferenceSet = qualityIndicator.normalizedReferenceSet;
+		normalizedReferenceTree = qualityIndicator.normalizedReferenceTree;
 	}
 
 	/**
@@ -246,14 +271,17 @@ public class QualityIndicator {
 			hypervolume = Double.NaN;
 		}
 		
+		KDTree normalizedApproximationTree = new KDTree(problem,
+				normalizedApproximationSet);
+		
 		generationalDistance = GenerationalDistance.evaluate(problem,
-				normalizedApproximationSet, normalizedReferenceSet);
+				normalizedApproximationSet, normalizedReferenceTree);
 		invertedGenerationalDistance = InvertedGenerationalDistance.evaluate(
-				problem, normalizedApproximationSet, normalizedReferenceSet);
+				problem, normalizedApproximationTree, normalizedReferenceSet);
 		additiveEpsilonIndicator = AdditiveEpsilonIndicator.evaluate(problem,
-				normalizedApproximationSet, normalizedReferenceSet);
+				normalizedApproximationTree, normalizedReferenceSet);
 		maximumParetoFrontError = MaximumParetoFrontError.evaluate(problem,
-				normalizedApproximationSet, normalizedReferenceSet);
+				normalizedApproximationSet, normalizedReferenceTree);
 		spacing = Spacing.evaluate(problem, approximationSet);
 	}
 
@@ -30,14 +30,10 @@ import org.moeaframework.core.Variation;
 /**
  * Auto-adaptive multi-method recombination operator. Applies operators with
  * probabilities proportional to the number of offspring produced by each
- * operator in the archive.
+ * operator in the archive.  The index of the operator producing each offspring
+ * is stored in the {@link Variation#OPERATOR_ATTRIBUTE} attribute.
  */
 public class AdaptiveMultimethodVariation implements Variation {
-	
-	/**
-	 * The attribute for the operator index.
-	 */
-	public static final String OPERATOR_ATTRIBUTE = "operator";
 
 	/**
 	 * The available operators.
@@ -146,7 +142,7 @@ public class AdaptiveMultimethodVariation implements Variation {
 
 		for (Solution solution : archive) {
 			if (solution.hasAttribute(OPERATOR_ATTRIBUTE)) {
-				count[(Integer)solution.getAttribute(OPERATOR_ATTRIBUTE)]++;
+				count[solution.getOperator()]++;
 			}
 		}
 
@@ -204,7 +200,7 @@ public class AdaptiveMultimethodVariation implements Variation {
 				operator.getArity()));
 
 		for (int i = 0; i < result.length; i++) {
-			result[i].setAttribute(OPERATOR_ATTRIBUTE, index);
+			result[i].setOperator(index);
 		}
 
 		return result;
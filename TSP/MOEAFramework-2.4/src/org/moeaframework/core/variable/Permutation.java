@@ -23,6 +23,10 @@ import org.moeaframework.core.Variable;
 
 /**
  * Decision variable for permutations.
+ * <p>
+ * Copies share the permutation array until either side modifies it, so
+ * copying a solution, such as when selecting parents or normalizing a
+ * population, does not duplicate the array.
  */
 public class Permutation implements Variable {
 
@@ -33,6 +37,12 @@ public class Permutation implements Variable {
 	 */
 	private int[] permutation;
 
+	/**
+	 * {@code true} if the permutation array may be shared with a copy and
+	 * must be duplicated before being modified.
+	 */
+	private transient boolean shared;
+
 	/**
 	 * Constructs a permutation variable with the specified number of
 	 * elements.
@@ -65,9 +75,33 @@ public class Permutation implements Variable {
 		fromArray(permutation);
 	}
 
+	/**
+	 * Constructs a permutation variable sharing the permutation array of the
+	 * specified permutation, which is known to be valid.
+	 * 
+	 * @param original the permutation whose array is shared
+	 */
+	private Permutation(Permutation original) {
+		super();
+
+		permutation = original.permutation;
+		original.shared = true;
+		shared = true;
+	}
+
 	@Override
 	public Permutation copy() {
-		return new Permutation(permutation);
+		return new Permutation(this);
+	}
+
+	/**
+	 * Duplicates the permutation array if it is shared, so it can be modified.
+	 */
+	private void ensureNotShared() {
+		if (shared) {
+			permutation = permutation.clone();
+			shared = false;
+		}
 	}
 
 	/**
@@ -100,6 +134,8 @@ public class Permutation implements Variable {
 	 *         or range @{code [0, size()-1]}
 	 */
 	public void swap(int i, int j) {
+		ensureNotShared();
+
 		int temp = permutation[i];
 		permutation[i] = permutation[j];
 		permutation[j] = temp;
@@ -115,6 +151,8 @@ public class Permutation implements Variable {
 	 *         or range @{code [0, size()-1]}
 	 */
 	public void insert(int i, int j) {
+		ensureNotShared();
+
 		int temp = permutation[i];
 
 		// shifts entries in the permutation
@@ -157,6 +195,7 @@ public class Permutation implements Variable {
 		}
 
 		this.permutation = permutation.clone();
+		shared = false;
 	}
 
 	/**
@@ -168,18 +207,18 @@ public class Permutation implements Variable {
 	 *         otherwise
 	 */
 	public static boolean isPermutation(int[] permutation) {
+		boolean[] contains = new boolean[permutation.length];
+
+		// every element must be in range and appear once
 		for (int i = 0; i < permutation.length; i++) {
-			boolean contains = false;
-			for (int j = 0; j < permutation.length; j++) {
-				if (permutation[j] == i) {
-					contains = true;
-					break;
-				}
-			}
+			int value = permutation[i];
 
-			if (!contains) {
+			if ((value < 0) || (value >= permutation.length) || 
+					contains[value]) {
 				return false;
 			}
+
+			contains[value] = true;
 		}
 
 		return true;
@@ -17,16 +17,30 @@
  */
 package org.moeaframework.problem;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
@@ -83,6 +97,30 @@ import org.moeaframework.util.io.RedirectStream;
  * Whitespace is one or more spaces, tabs or any combination thereof. The
  * newline is either the line feed ('\n'), carriage return ('\r') or a carriage
  * return followed immediately by a line feed ("\r\n"). 
+ * 
+ * <h4>Pipelined Mode</h4>
+ * By default, {@link #evaluate(Solution)} is synchronized and waits for the
+ * response to each solution before the next solution is sent.  The
+ * constructors taking a {@link Protocol} instead open one or more
+ * connections, to several processes or sockets, on which solutions are
+ * streamed without waiting for the responses.  Up to {@link #MAX_PENDING}
+ * solutions are in flight per connection, and each solution is sent to the
+ * connection with the fewest solutions in flight.  In this mode,
+ * {@code evaluate} is thread-safe and blocks only the calling thread, so
+ * several solutions are in flight when evaluating batches of solutions
+ * concurrently, such as with {@code Executor#distributeInBatches()}.  The
+ * external process must respond to the solutions in the order they are
+ * received.
+ * <p>
+ * With {@link Protocol#TEXT}, the messages are the lines described above.
+ * With {@link Protocol#BINARY}, each message starts with its length in bytes,
+ * excluding the length itself, as a 4-byte integer.  A request contains each
+ * decision variable in order: a real variable as an 8-byte double; a binary
+ * variable as the 4-byte number of bits followed by the bits packed into
+ * bytes, starting with the least significant bit of the first byte; and a
+ * permutation as the 4-byte number of elements followed by each element as a
+ * 4-byte integer.  A response contains the objectives followed by the
+ * constraints as 8-byte doubles.  All values are big-endian.
  * <p>
  * <b>It is critical that the {@link #close()} method be invoked to ensure the
  * external process is shutdown cleanly.</b>
@@ -94,6 +132,30 @@ public abstract class ExternalProblem implements Problem {
 	 * evaluation processes via sockets.
 	 */
 	public static final int DEFAULT_PORT = 16801;
+	
+	/**
+	 * The maximum number of solutions in flight per connection in pipelined
+	 * mode.
+	 */
+	public static final int MAX_PENDING = 32;
+	
+	/**
+	 * The encoding of messages exchanged with the external process in
+	 * pipelined mode.
+	 */
+	public enum Protocol {
+		
+		/**
+		 * Messages are lines of whitespace-separated values.
+		 */
+		TEXT,
+		
+		/**
+		 * Messages are length-prefixed binary values.
+		 */
+		BINARY
+		
+	}
 
 	/**
 	 * Reader connected to the process' standard output.
@@ -104,6 +166,12 @@ public abstract class ExternalProblem implements Problem {
 	 * Writer connected to the process' standard input.
 	 */
 	private final BufferedWriter writer;
+	
+	/**
+	 * The connections to the external processes in pipelined mode; or
+	 * {@code null} if solutions are sent one at a time.
+	 */
+	private final Connection[] connections;
 
 	/**
 	 * Constructs an external problem using {@code new
@@ -152,6 +220,86 @@ public abstract class ExternalProblem implements Problem {
 		this(new Socket(address, port));
 	}
 	
+	/**
+	 * Constructs an external problem in pipelined mode that starts the
+	 * specified number of processes using {@code new
+	 * ProcessBuilder(command).start()}.
+	 * 
+	 * @param protocol the encoding of messages exchanged with the processes
+	 * @param numberOfProcesses the number of processes
+	 * @param command a specified system command
+	 * @throws IOException if an I/O error occurred
+	 * @throws IllegalArgumentException if {@code numberOfProcesses <= 0}
+	 */
+	public ExternalProblem(Protocol protocol, int numberOfProcesses,
+			String... command) throws IOException {
+		super();
+		
+		if (numberOfProcesses <= 0) {
+			throw new IllegalArgumentException("invalid number of processes");
+		}
+		
+		reader = null;
+		writer = null;
+		connections = new Connection[numberOfProcesses];
+		
+		try {
+			for (int i = 0; i < numberOfProcesses; i++) {
+				Process process = new ProcessBuilder(command).start();
+				
+				RedirectStream.redirect(process.getErrorStream(), System.err);
+				connections[i] = new Connection(protocol,
+						process.getInputStream(), process.getOutputStream());
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Constructs an external problem in pipelined mode that connects to one or
+	 * more remote processes via sockets.  The remote processes should be
+	 * instantiated and already listening to the designated addresses prior to
+	 * invoking this constructor.
+	 * 
+	 * @param protocol the encoding of messages exchanged with the processes
+	 * @param addresses the addresses of the remote processes
+	 * @throws IOException if an I/O error occurred
+	 * @throws IllegalArgumentException if no addresses are given
+	 */
+	public ExternalProblem(Protocol protocol, InetSocketAddress... addresses)
+			throws IOException {
+		super();
+		
+		if (addresses.length == 0) {
+			throw new IllegalArgumentException("no addresses given");
+		}
+		
+		reader = null;
+		writer = null;
+		connections = new Connection[addresses.length];
+		
+		try {
+			for (int i = 0; i < addresses.length; i++) {
+				Socket socket = new Socket();
+				
+				try {
+					socket.connect(addresses[i]);
+					socket.setTcpNoDelay(true);
+					connections[i] = new Connection(protocol,
+							socket.getInputStream(), socket.getOutputStream());
+				} catch (IOException e) {
+					socket.close();
+					throw e;
+				}
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+	
 	/**
 	 * Constructs an external problem using the specified socket.
 	 * 
@@ -183,6 +331,7 @@ public abstract class ExternalProblem implements Problem {
 		super();
 		reader = new BufferedReader(new InputStreamReader(input));
 		writer = new BufferedWriter(new OutputStreamWriter(output));
+		connections = null;
 	}
 
 	/**
@@ -191,6 +340,16 @@ public abstract class ExternalProblem implements Problem {
 	 */
 	@Override
 	public synchronized void close() {
+		if (connections != null) {
+			for (Connection connection : connections) {
+				if (connection != null) {
+					connection.close();
+				}
+			}
+			
+			return;
+		}
+		
 		try {
 			writer.close();
 		} catch (IOException e) {
@@ -211,7 +370,39 @@ public abstract class ExternalProblem implements Problem {
 	 * @param solution the solution to evaluate
 	 */
 	@Override
-	public synchronized void evaluate(Solution solution) 
+	public void evaluate(Solution solution) throws ProblemException {
+		if (connections == null) {
+			evaluateSynchronously(solution);
+			return;
+		}
+		
+		Connection connection = null;
+		
+		for (Connection candidate : connections) {
+			if ((candidate.failure == null) && ((connection == null) ||
+					(candidate.load.get() < connection.load.get()))) {
+				connection = candidate;
+			}
+		}
+		
+		if (connection == null) {
+			throw new ProblemException(this, 
+					"connections to all external processes failed");
+		}
+		
+		Request request = new Request(solution);
+		
+		connection.submit(request);
+		request.await();
+	}
+	
+	/**
+	 * Sends the specified solution to the external process and waits for the
+	 * response.
+	 * 
+	 * @param solution the solution to evaluate
+	 */
+	private synchronized void evaluateSynchronously(Solution solution) 
 	throws ProblemException {
 		// send variables to external process
 		try {
@@ -294,5 +485,450 @@ public abstract class ExternalProblem implements Problem {
 		
 		return sb.toString();
 	}
+	
+	/**
+	 * Writes a variable in binary form.
+	 * 
+	 * @param variable the variable whose value is written
+	 * @param out the stream to which the variable is written
+	 * @throws IOException if an error occurs during serialization
+	 */
+	private void encode(Variable variable, DataOutputStream out)
+			throws IOException {
+		if (variable instanceof RealVariable) {
+			out.writeDouble(((RealVariable)variable).getValue());
+		} else if (variable instanceof BinaryVariable) {
+			BinaryVariable bv = (BinaryVariable)variable;
+			int bits = 0;
+			
+			out.writeInt(bv.getNumberOfBits());
+			
+			for (int i = 0; i < bv.getNumberOfBits(); i++) {
+				if (bv.get(i)) {
+					bits |= 1 << (i % 8);
+				}
+				
+				if ((i % 8 == 7) || (i == bv.getNumberOfBits() - 1)) {
+					out.writeByte(bits);
+					bits = 0;
+				}
+			}
+		} else if (variable instanceof Permutation) {
+			Permutation p = (Permutation)variable;
+			
+			out.writeInt(p.size());
+			
+			for (int i = 0; i < p.size(); i++) {
+				out.writeInt(p.get(i));
+			}
+		} else {
+			throw new IOException("unable to serialize variable");
+		}
+	}
+	
+	/**
+	 * A solution sent to an external process in pipelined mode.
+	 */
+	private class Request {
+		
+		/**
+		 * The solution being evaluated; or {@code null} if this request
+		 * closes the connection.
+		 */
+		private final Solution solution;
+		
+		/**
+		 * Signals the response was received or the request failed.
+		 */
+		private final CountDownLatch done;
+		
+		/**
+		 * The exception if the request failed; or {@code null} otherwise.
+		 */
+		private volatile ProblemException error;
+
+		/**
+		 * Constructs a request for evaluating the specified solution.
+		 * 
+		 * @param solution the solution being evaluated
+		 */
+		public Request(Solution solution) {
+			super();
+			this.solution = solution;
+			
+			done = new CountDownLatch(1);
+		}
+		
+		/**
+		 * Waits until the response is received.
+		 * 
+		 * @throws ProblemException if the request failed or the calling thread
+		 *         was interrupted
+		 */
+		public void await() {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ProblemException(ExternalProblem.this, 
+						"interrupted while waiting for external process", e);
+			}
+			
+			if (error != null) {
+				throw error;
+			}
+		}
+		
+	}
+	
+	/**
+	 * A connection to an external process in pipelined mode.  A writer thread
+	 * sends the requests, flushing the stream only when no further requests
+	 * are queued, and a reader thread receives the responses.
+	 */
+	private class Connection {
+		
+		/**
+		 * The request closing this connection.
+		 */
+		private final Request closeRequest = new Request(null);
+		
+		/**
+		 * The encoding of the messages.
+		 */
+		private final Protocol protocol;
+		
+		/**
+		 * The stream receiving the responses.
+		 */
+		private final DataInputStream input;
+		
+		/**
+		 * The stream sending the requests.
+		 */
+		private final DataOutputStream output;
+		
+		/**
+		 * The requests waiting to be sent.
+		 */
+		private final BlockingQueue<Request> outgoing;
+		
+		/**
+		 * The requests sent and waiting for their responses, in the order
+		 * they were sent.
+		 */
+		private final Queue<Request> sent;
+		
+		/**
+		 * Limits the number of requests in flight.
+		 */
+		private final Semaphore window;
+		
+		/**
+		 * The number of requests in flight.
+		 */
+		private final AtomicInteger load;
+		
+		/**
+		 * The error that broke this connection; or {@code null} if this
+		 * connection is working.
+		 */
+		private volatile IOException failure;
+		
+		/**
+		 * {@code true} if this connection is being closed; {@code false}
+		 * otherwise.
+		 */
+		private volatile boolean closing;
+
+		/**
+		 * Opens a connection using the specified streams.
+		 * 
+		 * @param protocol the encoding of the messages
+		 * @param input the stream receiving the responses
+		 * @param output the stream sending the requests
+		 */
+		public Connection(Protocol protocol, InputStream input,
+				OutputStream output) {
+			super();
+			this.protocol = protocol;
+			this.input = new DataInputStream(new BufferedInputStream(input));
+			this.output = new DataOutputStream(new BufferedOutputStream(
+					output));
+			
+			outgoing = new LinkedBlockingQueue<Request>();
+			sent = new ConcurrentLinkedQueue<Request>();
+			window = new Semaphore(MAX_PENDING);
+			load = new AtomicInteger();
+			
+			Thread writerThread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					write();
+				}
+				
+			}, "ExternalProblem-writer");
+			
+			Thread readerThread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					read();
+				}
+				
+			}, "ExternalProblem-reader");
+			
+			writerThread.setDaemon(true);
+			readerThread.setDaemon(true);
+			writerThread.start();
+			readerThread.start();
+		}
+		
+		/**
+		 * Queues the request to be sent, waiting while too many requests are
+		 * in flight.
+		 * 
+		 * @param request the request
+		 */
+		public void submit(Request request) {
+			load.incrementAndGet();
+			
+			try {
+				window.acquire();
+			} catch (InterruptedException e) {
+				load.decrementAndGet();
+				Thread.currentThread().interrupt();
+				throw new ProblemException(ExternalProblem.this, 
+						"interrupted while sending variables", e);
+			}
+			
+			outgoing.add(request);
+			
+			// the connection may have failed before the request was queued
+			if ((failure != null) && outgoing.remove(request)) {
+				complete(request, new ProblemException(ExternalProblem.this,
+						"error sending variables to external process",
+						failure));
+			}
+		}
+		
+		/**
+		 * Completes the request, allowing another request to be sent.
+		 * 
+		 * @param request the request
+		 * @param error the exception if the request failed; or {@code null}
+		 *        otherwise
+		 */
+		private void complete(Request request, ProblemException error) {
+			request.error = error;
+			request.done.countDown();
+			load.decrementAndGet();
+			window.release();
+		}
+		
+		/**
+		 * Fails all requests in flight after an error broke this connection.
+		 * 
+		 * @param e the error
+		 */
+		private void fail(IOException e) {
+			failure = e;
+			
+			Request request = null;
+			
+			while ((request = sent.poll()) != null) {
+				complete(request, new ProblemException(ExternalProblem.this,
+						"error receiving objectives from external process",
+						e));
+			}
+			
+			while ((request = outgoing.poll()) != null) {
+				if (request != closeRequest) {
+					complete(request, new ProblemException(
+							ExternalProblem.this,
+							"error sending variables to external process", e));
+				}
+			}
+		}
+		
+		/**
+		 * Closes this connection once all queued requests are sent.
+		 */
+		public void close() {
+			closing = true;
+			outgoing.add(closeRequest);
+		}
+		
+		/**
+		 * Sends the queued requests until this connection is closed.
+		 */
+		private void write() {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			DataOutputStream message = new DataOutputStream(buffer);
+			
+			try {
+				Request request = outgoing.take();
+				
+				while (request != closeRequest) {
+					Solution solution = request.solution;
+					boolean encoded = true;
+					
+					buffer.reset();
+					
+					try {
+						if (protocol == Protocol.BINARY) {
+							for (int i = 0; i < solution.getNumberOfVariables();
+									i++) {
+								encode(solution.getVariable(i), message);
+							}
+						} else {
+							for (int i = 0; i < solution.getNumberOfVariables();
+									i++) {
+								if (i > 0) {
+									message.writeBytes(" ");
+								}
+								
+								message.write(encode(solution.getVariable(i))
+										.getBytes());
+							}
+							
+							message.writeBytes("\n");
+						}
+					} catch (IOException e) {
+						encoded = false;
+						complete(request, new ProblemException(
+								ExternalProblem.this,
+								"error sending variables to external process",
+								e));
+					}
+					
+					if (encoded) {
+						sent.add(request);
+						
+						if (protocol == Protocol.BINARY) {
+							output.writeInt(buffer.size());
+						}
+						
+						buffer.writeTo(output);
+					}
+					
+					request = outgoing.poll();
+					
+					if (request == null) {
+						output.flush();
+						request = outgoing.take();
+					}
+				}
+				
+				output.close();
+			} catch (InterruptedException e) {
+				fail(new IOException("interrupted while sending variables"));
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+		
+		/**
+		 * Receives the responses until the external process closes the
+		 * connection.
+		 */
+		private void read() {
+			BufferedReader lineReader = null;
+			
+			if (protocol == Protocol.TEXT) {
+				lineReader = new BufferedReader(new InputStreamReader(input));
+			}
+			
+			try {
+				while (true) {
+					int length = 0;
+					String line = null;
+					
+					try {
+						if (protocol == Protocol.BINARY) {
+							length = input.readInt();
+						} else {
+							line = lineReader.readLine();
+							
+							if (line == null) {
+								throw new EOFException();
+							}
+						}
+					} catch (EOFException e) {
+						if (closing && sent.isEmpty() && outgoing.isEmpty()) {
+							break;
+						} else {
+							throw new IOException(
+									"end of stream reached when response " +
+									"expected");
+						}
+					}
+					
+					Request request = sent.poll();
+					
+					if (request == null) {
+						throw new IOException("unexpected response");
+					}
+					
+					Solution solution = request.solution;
+					int count = solution.getNumberOfObjectives() +
+							solution.getNumberOfConstraints();
+					double[] values = new double[count];
+					
+					if (protocol == Protocol.BINARY) {
+						if (length != 8 * count) {
+							throw new IOException("response length " + length +
+									" differs from expected length " + 
+									8 * count);
+						}
+						
+						for (int i = 0; i < count; i++) {
+							values[i] = input.readDouble();
+						}
+					} else {
+						String[] tokens = line.trim().split("\\s+");
+						
+						if (tokens.length != count) {
+							complete(request, new ProblemException(
+									ExternalProblem.this, 
+									"response contained fewer tokens than " +
+									"expected"));
+							continue;
+						}
+						
+						try {
+							for (int i = 0; i < count; i++) {
+								values[i] = Double.parseDouble(tokens[i]);
+							}
+						} catch (NumberFormatException e) {
+							complete(request, new ProblemException(
+									ExternalProblem.this, 
+									"error receiving objectives from " +
+									"external process", e));
+							continue;
+						}
+					}
+					
+					for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+						solution.setObjective(i, values[i]);
+					}
+					
+					for (int i = 0; i < solution.getNumberOfConstraints();
+							i++) {
+						solution.setConstraint(i, 
+								values[solution.getNumberOfObjectives() + i]);
+					}
+					
+					complete(request, null);
+				}
+				
+				input.close();
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+		
+	}
 
 }
@@ -27,6 +27,7 @@ import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.math3.util.MathArrays;
 import org.moeaframework.core.EpsilonBoxDominanceArchive;
+import org.moeaframework.core.NDTreeArchive;
 import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.Population;
 import org.moeaframework.core.PopulationIO;
@@ -61,7 +62,7 @@ public class ReferenceSetMerger extends CommandLineUtility {
 	 * contributed to the resulting non-dominated population.
 	 */
 	public ReferenceSetMerger() {
-		this(new NondominatedPopulation());
+		this(new NDTreeArchive());
 	}
 
 	/**
@@ -96,15 +97,24 @@ public class ReferenceSetMerger extends CommandLineUtility {
 		for (Solution solution : population) {
 			solution.setAttribute(SOURCE_ATTRIBUTE, source);
 			
-			//print warning if duplicate solutions found
-			for (Solution s : combinedPopulation) {
-				if (MathArrays.distance(s.getObjectives(), 
-						solution.getObjectives()) < Settings.EPS) {
+			if (combinedPopulation instanceof NDTreeArchive) {
+				//the archive rejects duplicates, so only rejected solutions
+				//need to be checked, using the tree instead of a linear scan
+				if (!combinedPopulation.add(solution) && ((NDTreeArchive)
+						combinedPopulation).containsDuplicate(solution)) {
 					System.err.println("duplicate solution found");
 				}
+			} else {
+				//print warning if duplicate solutions found
+				for (Solution s : combinedPopulation) {
+					if (MathArrays.distance(s.getObjectives(), 
+							solution.getObjectives()) < Settings.EPS) {
+						System.err.println("duplicate solution found");
+					}
+				}
+				
+				combinedPopulation.add(solution);
 			}
-			
-			combinedPopulation.add(solution);
 		}
 	}
 
@@ -148,7 +158,7 @@ public class ReferenceSetMerger extends CommandLineUtility {
 	 *         originating from the specified source
 	 */
 	public NondominatedPopulation getContributionFrom(String source) {
-		NondominatedPopulation result = new NondominatedPopulation();
+		NondominatedPopulation result = new NDTreeArchive();
 
 		for (Solution solution : combinedPopulation) {
 			if (solution.getAttribute(SOURCE_ATTRIBUTE).equals(source)) {
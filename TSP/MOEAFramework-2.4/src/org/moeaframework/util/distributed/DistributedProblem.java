@@ -102,6 +102,26 @@ public class DistributedProblem implements Problem {
 
 	}
 
+	/**
+	 * Returns the problem being distributed.
+	 * 
+	 * @return the problem being distributed
+	 */
+	public Problem getInnerProblem() {
+		return innerProblem;
+	}
+	
+	/**
+	 * Returns the {@code ExecutorService} for distributing jobs across
+	 * multiple threads, cores or compute nodes.
+	 * 
+	 * @return the {@code ExecutorService} for distributing jobs across
+	 *         multiple threads, cores or compute nodes
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
 	@Override
 	public void evaluate(Solution solution) {
 		if (solution instanceof FutureSolution) {
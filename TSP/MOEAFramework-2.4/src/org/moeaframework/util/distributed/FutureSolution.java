@@ -71,8 +71,10 @@ public class FutureSolution extends Solution {
 
 	/**
 	 * Updates this solution with the result of the {@code Future}, or blocks
-	 * until the result is available. Since the result is a serialized copy of
-	 * this solution, the objectives and constraints must be copied.
+	 * until the result is available. Since the result may be a serialized copy
+	 * of this solution, the objectives and constraints must be copied, and so
+	 * must the variables, which problems such as those applying a local
+	 * search heuristic may modify during evaluation.
 	 */
 	private synchronized void update() {
 		if (future != null) {
@@ -81,6 +83,12 @@ public class FutureSolution extends Solution {
 				future = null;
 				setObjectives(solution.getObjectives());
 				setConstraints(solution.getConstraints());
+				
+				if (solution != this) {
+					for (int i = 0; i < getNumberOfVariables(); i++) {
+						setVariable(i, solution.getVariable(i));
+					}
+				}
 			} catch (Exception e) {
 				throw new FrameworkException(e);
 			}
@@ -0,0 +1,269 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.util.distributed;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.spi.ProblemFactory;
+
+/**
+ * Serializable reference to a problem, allowing problems that are not
+ * {@link Serializable} themselves to be evaluated by other processes, such as
+ * the workers of a {@link ProcessPoolExecutor}.  Only the description of the
+ * problem, its name or its class and constructor arguments, is serialized.
+ * Each process creates its own instance of the problem when first used, for
+ * example reading the problem instance from a file named by a constructor
+ * argument:
+ * <pre>
+ *   ExecutorService executor = new ProcessPoolExecutor(4);
+ *   Problem problem = new DistributedProblem(new ProblemReference(
+ *       TSPProblem.class, new File("pr76.tsp")), executor);
+ * </pre>
+ * <p>
+ * All copies of a reference deserialized in the same process share one
+ * instance of the problem, so the problem is created once per process rather
+ * than once per task.  The instances created in other processes are never
+ * closed.
+ */
+public class ProblemReference implements Problem, Serializable {
+
+	private static final long serialVersionUID = 6138457612934405317L;
+
+	/**
+	 * The references deserialized in this process, indexed by their
+	 * identifier.
+	 */
+	private static final Map<String, ProblemReference> REFERENCES =
+			new HashMap<String, ProblemReference>();
+
+	/**
+	 * The identifier of this reference, shared by all of its copies.
+	 */
+	private final String id;
+
+	/**
+	 * The problem name; or {@code null} if the problem is specified by
+	 * {@code problemClass}.
+	 */
+	private final String problemName;
+
+	/**
+	 * The problem factory, which must be a {@link ProblemFactory}; or
+	 * {@code null} if the default problem factory is used.
+	 */
+	private final Serializable problemFactory;
+
+	/**
+	 * The problem class; or {@code null} if the problem is specified by
+	 * {@code problemName}.
+	 */
+	private final Class<?> problemClass;
+
+	/**
+	 * The arguments passed to the constructor of the problem class.
+	 */
+	private final Serializable[] problemArguments;
+
+	/**
+	 * The problem instance in this process; or {@code null} if the problem
+	 * has not yet been created.
+	 */
+	private transient Problem problem;
+
+	/**
+	 * Constructs a reference to the problem with the specified name, created
+	 * by the default problem factory.
+	 * 
+	 * @param problemName the problem name
+	 */
+	public ProblemReference(String problemName) {
+		this(problemName, null);
+	}
+
+	/**
+	 * Constructs a reference to the problem with the specified name, created
+	 * by the given problem factory.
+	 * 
+	 * @param problemName the problem name
+	 * @param problemFactory the problem factory, which must be
+	 *        {@link Serializable}; or {@code null} to use the default problem
+	 *        factory
+	 * @throws IllegalArgumentException if the problem factory is not
+	 *         serializable
+	 */
+	public ProblemReference(String problemName,
+			ProblemFactory problemFactory) {
+		super();
+
+		if ((problemFactory != null) &&
+				!(problemFactory instanceof Serializable)) {
+			throw new IllegalArgumentException(
+					"problem factory is not serializable");
+		}
+
+		this.id = UUID.randomUUID().toString();
+		this.problemName = problemName;
+		this.problemFactory = (Serializable)problemFactory;
+		this.problemClass = null;
+		this.problemArguments = null;
+	}
+
+	/**
+	 * Constructs a reference to the problem created by invoking the
+	 * constructor of the specified class matching the given arguments.
+	 * 
+	 * @param problemClass the problem class
+	 * @param problemArguments the arguments passed to the problem
+	 *        constructor, which must be {@link Serializable}
+	 * @throws IllegalArgumentException if an argument is not serializable
+	 */
+	public ProblemReference(Class<?> problemClass,
+			Object... problemArguments) {
+		super();
+
+		this.id = UUID.randomUUID().toString();
+		this.problemName = null;
+		this.problemFactory = null;
+		this.problemClass = problemClass;
+		this.problemArguments = new Serializable[problemArguments == null ?
+				0 : problemArguments.length];
+
+		for (int i = 0; i < this.problemArguments.length; i++) {
+			if ((problemArguments[i] != null) &&
+					!(problemArguments[i] instanceof Serializable)) {
+				throw new IllegalArgumentException(
+						"problem argument " + i + " is not serializable");
+			}
+
+			this.problemArguments[i] = (Serializable)problemArguments[i];
+		}
+	}
+
+	/**
+	 * Returns the problem instance in this process, creating it if
+	 * necessary.
+	 * 
+	 * @return the problem instance in this process
+	 * @throws FrameworkException if an error occurred invoking the
+	 *         constructor of the problem class
+	 */
+	public synchronized Problem getProblem() {
+		if (problem == null) {
+			problem = newProblem();
+		}
+
+		return problem;
+	}
+
+	/**
+	 * Creates a new instance of the referenced problem.
+	 * 
+	 * @return a new instance of the referenced problem
+	 * @throws FrameworkException if an error occurred invoking the
+	 *         constructor of the problem class
+	 */
+	private Problem newProblem() {
+		if (problemClass != null) {
+			try {
+				return (Problem)ConstructorUtils.invokeConstructor(problemClass,
+						(Object[])problemArguments);
+			} catch (InstantiationException e) {
+				throw new FrameworkException(e);
+			} catch (IllegalAccessException e) {
+				throw new FrameworkException(e);
+			} catch (InvocationTargetException e) {
+				throw new FrameworkException(e);
+			} catch (NoSuchMethodException e) {
+				throw new FrameworkException(e);
+			}
+		} else if (problemFactory == null) {
+			return ProblemFactory.getInstance().getProblem(problemName);
+		} else {
+			return ((ProblemFactory)problemFactory).getProblem(problemName);
+		}
+	}
+
+	/**
+	 * Replaces a deserialized reference with the first copy of the same
+	 * reference deserialized in this process, so the copies share one
+	 * problem instance.
+	 * 
+	 * @return the first copy of this reference deserialized in this process
+	 * @throws ObjectStreamException never thrown
+	 */
+	private Object readResolve() throws ObjectStreamException {
+		synchronized (REFERENCES) {
+			ProblemReference reference = REFERENCES.get(id);
+
+			if (reference == null) {
+				REFERENCES.put(id, this);
+				reference = this;
+			}
+
+			return reference;
+		}
+	}
+
+	@Override
+	public String getName() {
+		return getProblem().getName();
+	}
+
+	@Override
+	public int getNumberOfVariables() {
+		return getProblem().getNumberOfVariables();
+	}
+
+	@Override
+	public int getNumberOfObjectives() {
+		return getProblem().getNumberOfObjectives();
+	}
+
+	@Override
+	public int getNumberOfConstraints() {
+		return getProblem().getNumberOfConstraints();
+	}
+
+	@Override
+	public void evaluate(Solution solution) {
+		getProblem().evaluate(solution);
+	}
+
+	@Override
+	public Solution newSolution() {
+		return getProblem().newSolution();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (problem != null) {
+			problem.close();
+			problem = null;
+		}
+	}
+
+}
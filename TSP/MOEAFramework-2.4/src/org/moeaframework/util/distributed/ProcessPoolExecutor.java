@@ -0,0 +1,660 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.util.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.moeaframework.util.io.RedirectStream;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} running tasks in separate
+ * Java processes on the local host, providing process and garbage collection
+ * isolation for expensive evaluations.  Combined with a
+ * {@link DistributedProblem}, the problem must be {@link Serializable}, or be
+ * wrapped in a {@link ProblemReference} so each worker process creates its own
+ * instance:
+ * <pre>
+ *   ExecutorService executor = new ProcessPoolExecutor(4);
+ *   Problem problem = new DistributedProblem(
+ *       new ProblemReference("DTLZ2_2"), executor);
+ * </pre>
+ * <p>
+ * Each worker process runs {@link ProcessPoolWorker} with the class path of
+ * this JVM and is started when its first task is dispatched.  Queued tasks
+ * are sent to the workers over their standard input in batches, each worker
+ * taking an even share of the queued tasks up to the maximum batch size, and
+ * the results are received over their standard output.  Tasks must be
+ * {@link Serializable}; their results are serialized copies, so tasks
+ * modifying their arguments in place must return the modified arguments.
+ * <p>
+ * If a worker process dies, the tasks it had not completed are returned to the
+ * front of the queue for the other workers and the process is restarted.  A
+ * task whose workers died {@value #MAX_ATTEMPTS} times fails with an
+ * {@link IOException}.
+ */
+public class ProcessPoolExecutor extends AbstractExecutorService {
+	
+	/**
+	 * The default maximum number of tasks sent to a worker at once.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	
+	/**
+	 * The number of times a task is dispatched before failing when its worker
+	 * processes die.
+	 */
+	public static final int MAX_ATTEMPTS = 3;
+	
+	/**
+	 * The tasks waiting to be dispatched.
+	 */
+	private final LinkedBlockingDeque<RemoteTask<?>> queue;
+	
+	/**
+	 * The workers.
+	 */
+	private final Worker[] workers;
+	
+	/**
+	 * The maximum number of tasks sent to a worker at once.
+	 */
+	private final int maxBatchSize;
+	
+	/**
+	 * The command starting a worker process.
+	 */
+	private final List<String> command;
+	
+	/**
+	 * The identifier assigned to the next task.
+	 */
+	private final AtomicLong nextId;
+	
+	/**
+	 * The time, in nanoseconds, this executor was created.
+	 */
+	private final long startTime;
+	
+	/**
+	 * {@code true} if this executor no longer accepts tasks; {@code false}
+	 * otherwise.
+	 */
+	private volatile boolean shutdown;
+	
+	/**
+	 * {@code true} if tasks are no longer dispatched; {@code false}
+	 * otherwise.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * Constructs an executor running tasks in the specified number of worker
+	 * processes.
+	 * 
+	 * @param numberOfWorkers the number of worker processes
+	 */
+	public ProcessPoolExecutor(int numberOfWorkers) {
+		this(numberOfWorkers, DEFAULT_BATCH_SIZE, new String[0]);
+	}
+	
+	/**
+	 * Constructs an executor running tasks in the specified number of worker
+	 * processes.
+	 * 
+	 * @param numberOfWorkers the number of worker processes
+	 * @param maxBatchSize the maximum number of tasks sent to a worker at once
+	 * @param jvmArguments the arguments passed to the JVM of each worker
+	 *        process, such as {@code -Xmx1g}
+	 * @throws IllegalArgumentException if {@code numberOfWorkers <= 0} or
+	 *         {@code maxBatchSize <= 0}
+	 */
+	public ProcessPoolExecutor(int numberOfWorkers, int maxBatchSize,
+			String[] jvmArguments) {
+		super();
+		
+		if (numberOfWorkers <= 0) {
+			throw new IllegalArgumentException("invalid number of workers");
+		}
+		
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("invalid batch size");
+		}
+		
+		this.maxBatchSize = maxBatchSize;
+		
+		command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" +
+				File.separator + "java");
+		command.addAll(Arrays.asList(jvmArguments));
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(ProcessPoolWorker.class.getName());
+		
+		queue = new LinkedBlockingDeque<RemoteTask<?>>();
+		nextId = new AtomicLong();
+		startTime = System.nanoTime();
+		workers = new Worker[numberOfWorkers];
+		
+		for (int i = 0; i < numberOfWorkers; i++) {
+			workers[i] = new Worker(i);
+			workers[i].start();
+		}
+	}
+	
+	/**
+	 * Returns the number of worker processes.
+	 * 
+	 * @return the number of worker processes
+	 */
+	public int getNumberOfWorkers() {
+		return workers.length;
+	}
+	
+	/**
+	 * Returns the number of tasks completed by the specified worker.
+	 * 
+	 * @param index the index of the worker
+	 * @return the number of tasks completed by the specified worker
+	 */
+	public long getNumberOfCompletedTasks(int index) {
+		return workers[index].completedTasks;
+	}
+	
+	/**
+	 * Returns the number of tasks completed by the specified worker per
+	 * second since this executor was created.
+	 * 
+	 * @param index the index of the worker
+	 * @return the number of tasks completed by the specified worker per second
+	 */
+	public double getThroughput(int index) {
+		return workers[index].completedTasks /
+				((System.nanoTime() - startTime) * 1e-9);
+	}
+	
+	/**
+	 * Returns the number of times the process of the specified worker died
+	 * and was restarted.
+	 * 
+	 * @param index the index of the worker
+	 * @return the number of times the process of the specified worker died
+	 */
+	public int getNumberOfRestarts(int index) {
+		return workers[index].restarts;
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+		return new RemoteTask<T>(callable);
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+		return new RemoteTask<T>(new RunnableAdapter<T>(runnable, value));
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		if (shutdown) {
+			throw new RejectedExecutionException("executor is shut down");
+		}
+		
+		if (command instanceof RemoteTask) {
+			queue.add((RemoteTask<?>)command);
+		} else {
+			queue.add(new RemoteTask<Object>(new RunnableAdapter<Object>(
+					command, null)));
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		shutdown = true;
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		
+		shutdown = true;
+		stopped = true;
+		queue.drainTo(tasks);
+		
+		for (Worker worker : workers) {
+			worker.interrupt();
+			worker.kill();
+		}
+		
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		for (Worker worker : workers) {
+			if (worker.isAlive()) {
+				return false;
+			}
+		}
+		
+		return shutdown;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		
+		for (Worker worker : workers) {
+			long remaining = deadline - System.nanoTime();
+			
+			if (remaining > 0) {
+				TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+			}
+		}
+		
+		return isTerminated();
+	}
+	
+	/**
+	 * Task dispatched to a worker process, which completes when the worker
+	 * returns the result.
+	 * 
+	 * @param <T> the type of the result
+	 */
+	private class RemoteTask<T> extends FutureTask<T> {
+		
+		/**
+		 * The identifier of this task.
+		 */
+		private final long id;
+		
+		/**
+		 * The computation performed by the worker process.
+		 */
+		private final Callable<T> callable;
+		
+		/**
+		 * The number of times this task was dispatched.
+		 */
+		private int attempts;
+
+		/**
+		 * Constructs a task for the specified computation.
+		 * 
+		 * @param callable the computation performed by the worker process
+		 */
+		public RemoteTask(Callable<T> callable) {
+			super(callable);
+			this.callable = callable;
+			
+			id = nextId.getAndIncrement();
+		}
+		
+		/**
+		 * Completes this task with the result received from the worker
+		 * process.
+		 * 
+		 * @param success {@code true} if the result is the value returned by
+		 *        the computation; {@code false} if the result is the
+		 *        exception thrown by the computation
+		 * @param result the result
+		 */
+		@SuppressWarnings("unchecked")
+		public void complete(boolean success, Object result) {
+			if (success) {
+				set((T)result);
+			} else {
+				setException((Throwable)result);
+			}
+		}
+		
+		/**
+		 * Fails this task with the specified exception.
+		 * 
+		 * @param e the exception
+		 */
+		public void fail(Throwable e) {
+			setException(e);
+		}
+		
+		@Override
+		public void run() {
+			throw new UnsupportedOperationException(
+					"task is run by a worker process");
+		}
+		
+	}
+	
+	/**
+	 * Serializable adapter for running a {@link Runnable} in a worker process.
+	 * 
+	 * @param <T> the type of the result
+	 */
+	private static class RunnableAdapter<T> implements Callable<T>,
+			Serializable {
+		
+		private static final long serialVersionUID = 3716452946516263734L;
+
+		/**
+		 * The runnable.
+		 */
+		private final Runnable runnable;
+		
+		/**
+		 * The result returned once the runnable completes.
+		 */
+		private final T result;
+		
+		/**
+		 * Constructs a serializable adapter for running the specified
+		 * runnable.
+		 * 
+		 * @param runnable the runnable
+		 * @param result the result returned once the runnable completes
+		 */
+		public RunnableAdapter(Runnable runnable, T result) {
+			super();
+			this.runnable = runnable;
+			this.result = result;
+		}
+
+		@Override
+		public T call() {
+			runnable.run();
+			return result;
+		}
+		
+	}
+	
+	/**
+	 * Thread dispatching batches of tasks to one worker process and receiving
+	 * their results.
+	 */
+	private class Worker extends Thread {
+		
+		/**
+		 * The worker process; or {@code null} if not running.
+		 */
+		private volatile Process process;
+		
+		/**
+		 * The stream sending tasks to the worker process.
+		 */
+		private DataOutputStream out;
+		
+		/**
+		 * The stream receiving results from the worker process.
+		 */
+		private DataInputStream in;
+		
+		/**
+		 * The number of tasks completed by this worker.
+		 */
+		private volatile long completedTasks;
+		
+		/**
+		 * The number of times the worker process died.
+		 */
+		private volatile int restarts;
+
+		/**
+		 * Constructs the thread dispatching tasks to a worker process.
+		 * 
+		 * @param index the index of the worker
+		 */
+		public Worker(int index) {
+			super("ProcessPoolExecutor-worker-" + index);
+			setDaemon(true);
+		}
+		
+		/**
+		 * Returns the next batch of tasks; or {@code null} if this executor
+		 * is shut down and no tasks remain.
+		 * 
+		 * @return the next batch of tasks; or {@code null} if this executor
+		 *         is shut down and no tasks remain
+		 * @throws InterruptedException if interrupted while waiting for tasks
+		 */
+		private List<RemoteTask<?>> nextBatch() throws InterruptedException {
+			List<RemoteTask<?>> batch = new ArrayList<RemoteTask<?>>();
+			
+			while (batch.isEmpty()) {
+				if (stopped || (shutdown && queue.isEmpty())) {
+					return null;
+				}
+				
+				RemoteTask<?> task = queue.poll(100, TimeUnit.MILLISECONDS);
+				
+				if (task == null) {
+					continue;
+				}
+				
+				batch.add(task);
+				queue.drainTo(batch, Math.min(maxBatchSize - 1,
+						queue.size() / workers.length));
+				
+				// skip tasks canceled while queued
+				for (int i = batch.size() - 1; i >= 0; i--) {
+					if (batch.get(i).isDone()) {
+						batch.remove(i);
+					}
+				}
+			}
+			
+			return batch;
+		}
+		
+		/**
+		 * Starts the worker process if not running.
+		 * 
+		 * @throws IOException if the worker process could not be started
+		 */
+		private void ensureStarted() throws IOException {
+			if (process == null) {
+				Process process = new ProcessBuilder(command).start();
+				
+				RedirectStream.redirect(process.getErrorStream(), System.err);
+				out = new DataOutputStream(new BufferedOutputStream(
+						process.getOutputStream()));
+				in = new DataInputStream(new BufferedInputStream(
+						process.getInputStream()));
+				this.process = process;
+			}
+		}
+		
+		/**
+		 * Kills the worker process if running.
+		 */
+		public void kill() {
+			Process process = this.process;
+			
+			if (process != null) {
+				process.destroy();
+			}
+		}
+		
+		/**
+		 * Sends the tasks of a batch that can be serialized to the worker
+		 * process, failing the other tasks.
+		 * 
+		 * @param batch the batch of tasks
+		 * @throws IOException if an I/O error occurred
+		 */
+		private void send(List<RemoteTask<?>> batch) throws IOException {
+			Object[] callables = new Object[batch.size()];
+			byte[] payload = null;
+			
+			for (int i = 0; i < batch.size(); i++) {
+				callables[i] = batch.get(i).callable;
+			}
+			
+			try {
+				payload = ProcessPoolWorker.serialize(callables);
+			} catch (ObjectStreamException e) {
+				// find and fail the tasks that can not be serialized
+				for (int i = batch.size() - 1; i >= 0; i--) {
+					try {
+						ProcessPoolWorker.serialize(callables[i]);
+					} catch (ObjectStreamException ex) {
+						batch.remove(i).fail(ex);
+					}
+				}
+				
+				if (!batch.isEmpty()) {
+					send(batch);
+				}
+				
+				return;
+			}
+			
+			out.writeInt(batch.size());
+			
+			for (RemoteTask<?> task : batch) {
+				task.attempts++;
+				out.writeLong(task.id);
+			}
+			
+			out.writeInt(payload.length);
+			out.write(payload);
+			out.flush();
+		}
+		
+		/**
+		 * Receives the result of the next task of a batch from the worker
+		 * process.
+		 * 
+		 * @param task the next task of the batch
+		 * @throws IOException if an I/O error occurred
+		 */
+		private void receive(RemoteTask<?> task) throws IOException {
+			long id = in.readLong();
+			boolean success = in.readBoolean();
+			byte[] bytes = new byte[in.readInt()];
+			
+			in.readFully(bytes);
+			
+			if (id != task.id) {
+				throw new IOException("unexpected task " + id);
+			}
+			
+			try {
+				task.complete(success, ProcessPoolWorker.deserialize(bytes));
+			} catch (ClassNotFoundException e) {
+				task.fail(e);
+			}
+			
+			completedTasks++;
+		}
+		
+		/**
+		 * Handles the death of the worker process, returning the uncompleted
+		 * tasks to the queue.
+		 * 
+		 * @param batch the uncompleted tasks
+		 * @param e the exception caused by the death of the worker process
+		 */
+		private void died(List<RemoteTask<?>> batch, IOException e) {
+			kill();
+			process = null;
+			restarts++;
+			
+			for (int i = batch.size() - 1; i >= 0; i--) {
+				RemoteTask<?> task = batch.get(i);
+				
+				if (stopped) {
+					task.fail(new CancellationException(
+							"executor is shut down"));
+				} else if (task.attempts >= MAX_ATTEMPTS) {
+					task.fail(new IOException("worker process died while " +
+							"running task", e));
+				} else {
+					queue.addFirst(task);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				List<RemoteTask<?>> batch = null;
+				
+				while ((batch = nextBatch()) != null) {
+					try {
+						ensureStarted();
+					} catch (IOException e) {
+						for (RemoteTask<?> task : batch) {
+							task.fail(e);
+						}
+						
+						continue;
+					}
+					
+					try {
+						send(batch);
+						
+						while (!batch.isEmpty()) {
+							receive(batch.get(0));
+							batch.remove(0);
+						}
+					} catch (IOException e) {
+						died(batch, e);
+					}
+				}
+			} catch (InterruptedException e) {
+				// shutdownNow was invoked
+			} finally {
+				if (process != null) {
+					try {
+						out.close();
+						process.waitFor();
+					} catch (IOException e) {
+						kill();
+					} catch (InterruptedException e) {
+						kill();
+					}
+				}
+			}
+		}
+		
+	}
+
+}
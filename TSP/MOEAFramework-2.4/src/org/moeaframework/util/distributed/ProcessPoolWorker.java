@@ -0,0 +1,182 @@
+/* Copyright 2009-2015 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.util.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+
+/**
+ * The main class of the worker processes started by a
+ * {@link ProcessPoolExecutor}.  A worker reads batches of serialized tasks
+ * from its standard input, runs them one after another and writes the
+ * serialized result of each task to its standard output as soon as the task
+ * completes.  Anything the tasks print to standard output is redirected to
+ * standard error.  The worker exits when its standard input is closed.
+ * <p>
+ * Each batch consists of the number of tasks, the identifier of each task and
+ * the length and content of the serialized array of tasks.  Each result
+ * consists of the identifier of the task, a flag indicating if the task
+ * completed normally and the length and content of the serialized result or
+ * exception.
+ */
+public class ProcessPoolWorker {
+	
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ProcessPoolWorker() {
+		super();
+	}
+	
+	/**
+	 * Serializes the specified object.
+	 * 
+	 * @param object the object
+	 * @return the serialized object
+	 * @throws IOException if an I/O error occurred
+	 */
+	static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(buffer);
+		
+		oos.writeObject(object);
+		oos.close();
+		
+		return buffer.toByteArray();
+	}
+	
+	/**
+	 * Deserializes an object.
+	 * 
+	 * @param bytes the serialized object
+	 * @return the object
+	 * @throws IOException if an I/O error occurred
+	 * @throws ClassNotFoundException if the class of a serialized object could
+	 *         not be found
+	 */
+	static Object deserialize(byte[] bytes) throws IOException,
+			ClassNotFoundException {
+		ObjectInputStream ois = new ObjectInputStream(
+				new ByteArrayInputStream(bytes));
+		
+		try {
+			return ois.readObject();
+		} finally {
+			ois.close();
+		}
+	}
+	
+	/**
+	 * Writes the result of a task.
+	 * 
+	 * @param out the stream to which the result is written
+	 * @param id the identifier of the task
+	 * @param success {@code true} if the task completed normally;
+	 *        {@code false} if the result is the exception thrown by the task
+	 * @param result the result of the task
+	 * @throws IOException if an I/O error occurred
+	 */
+	private static void writeResult(DataOutputStream out, long id,
+			boolean success, Object result) throws IOException {
+		byte[] bytes = null;
+		
+		try {
+			bytes = serialize(result);
+		} catch (IOException e) {
+			success = false;
+			bytes = serialize(e);
+		}
+		
+		out.writeLong(id);
+		out.writeBoolean(success);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+		out.flush();
+	}
+	
+	/**
+	 * Starts the worker process.
+	 * 
+	 * @param args the command line arguments, which are ignored
+	 * @throws IOException if an I/O error occurred
+	 */
+	public static void main(String[] args) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(FileDescriptor.out)));
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				System.in));
+		
+		// keep standard output for the results
+		System.setOut(new PrintStream(System.err, true));
+		
+		while (true) {
+			int size = 0;
+			
+			try {
+				size = in.readInt();
+			} catch (EOFException e) {
+				break;
+			}
+			
+			long[] ids = new long[size];
+			
+			for (int i = 0; i < size; i++) {
+				ids[i] = in.readLong();
+			}
+			
+			byte[] payload = new byte[in.readInt()];
+			in.readFully(payload);
+			
+			Object[] tasks = null;
+			
+			try {
+				tasks = (Object[])deserialize(payload);
+			} catch (Exception e) {
+				for (int i = 0; i < size; i++) {
+					writeResult(out, ids[i], false, e);
+				}
+				
+				continue;
+			}
+			
+			for (int i = 0; i < size; i++) {
+				try {
+					writeResult(out, ids[i], true,
+							((Callable<?>)tasks[i]).call());
+				} catch (Exception e) {
+					writeResult(out, ids[i], false, e);
+				}
+				
+				tasks[i] = null;
+			}
+		}
+	}
+
+}
@@ -29,8 +29,9 @@
  * jobs to asynchronous threads, cores or compute nodes.  Java frameworks such
  * as <a href="http://www.jppf.org">JPPF</a> and 
  * <a href="http://www.gridgain.com">GridGain</a> provide 
- * {@code ExecutorService} interfaces out-of-the-box.  Then, the desired
- * {@code Problem} is decorated with the {@code DistributedProblem} to enable
- * parallel execution.
+ * {@code ExecutorService} interfaces out-of-the-box.  To run the jobs in
+ * separate JVMs on the local host, use the {@code ProcessPoolExecutor}.  Then,
+ * the desired {@code Problem} is decorated with the
+ * {@code DistributedProblem} to enable parallel execution.
  */
 package org.moeaframework.util.distributed;
\ No newline at end of file